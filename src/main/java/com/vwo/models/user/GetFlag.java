@@ -39,6 +39,6 @@ public class GetFlag extends com.wingify.models.user.GetFlag {
      * Creates a {@code GetFlag} instance from a Wingify feature flag result.
      */
     public GetFlag(com.wingify.models.user.GetFlag getFlag) {
-        super(getFlag.isEnabled(), getFlag.getVariablesValue(), getFlag.getSessionId(), getFlag.getUuid());
+        super(getFlag.isEnabled(), getFlag.getVariablesValue(), getFlag.getVariablesByKey(), getFlag.getSessionId(), getFlag.getUuid());
     }
 }
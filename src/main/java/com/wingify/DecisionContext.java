@@ -0,0 +1,312 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify;
+
+import com.wingify.models.FlagDecision;
+import com.wingify.models.Storage;
+import com.wingify.models.request.EventArchPayload;
+import com.wingify.models.user.GatewayService;
+import com.wingify.packages.decision_maker.DecisionMaker;
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+import com.wingify.services.DebuggerService;
+import com.wingify.utils.FunctionUtil;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Holds the state that belongs to a single API call: the user UUID, the session ID,
+ * the debug props collected while deciding, the segment evaluator bound to the user and
+ * the stored records read from the storage connector, the hash values of the bucketing keys
+ * and the events dispatched for the decision.
+ * It is confined to the calling thread and never shared between requests.
+ */
+public class DecisionContext {
+    // DecisionMaker holds no state, so every call shares one instance
+    private static final DecisionMaker DECISION_MAKER = new DecisionMaker();
+
+    private String uuid;
+    private final Long sessionId;
+    private final DebuggerService debuggerService;
+    private SegmentEvaluator segmentEvaluator;
+    // gateway data fetched for the user during this call, kept off the caller's context
+    private GatewayService gatewayData;
+    // records read from the connector during this call, keyed by feature key; null values are cached too
+    private final Map<String, Map<String, Object>> storedRecords = new HashMap<>();
+    private final Map<String, Storage> storedData = new HashMap<>();
+    // hash values of the bucketing keys, a user is bucketed with the same key by several rules, holdouts and groups
+    private final Map<BucketingKey, Long> hashValues = new HashMap<>();
+    // side effects of the decision, kept so that a memoized decision can replay them
+    private final List<EventArchPayload> impressions = new ArrayList<>();
+    private boolean usageTracked;
+    private FlagDecision hookDecision;
+
+    /**
+     * Initializes the DecisionContext
+     * @param uuid UUID of the user, already derived by the caller
+     */
+    public DecisionContext(String uuid) {
+        this.uuid = uuid;
+        this.sessionId = FunctionUtil.generateSessionId();
+        this.debuggerService = new DebuggerService(uuid, sessionId);
+    }
+
+    /**
+     * Returns the UUID of the user
+     * @return UUID of the user
+     */
+    public String getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Sets the UUID of the user and refreshes it in the standard debug props
+     * @param uuid UUID of the user
+     */
+    public void setUuid(String uuid) {
+        this.uuid = uuid;
+        this.debuggerService.addStandardDebugProp("uuid", uuid);
+    }
+
+    /**
+     * Returns the session ID of the request
+     * @return Session ID of the request
+     */
+    public Long getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Returns the DebuggerService instance of the request
+     * @return DebuggerService instance
+     */
+    public DebuggerService getDebuggerService() {
+        return debuggerService;
+    }
+
+    /**
+     * Returns the segment evaluator bound to the user of the request
+     * @return SegmentEvaluator instance, or null if the contextual data is not set yet
+     */
+    public SegmentEvaluator getSegmentEvaluator() {
+        return segmentEvaluator;
+    }
+
+    /**
+     * Sets the segment evaluator bound to the user of the request
+     * @param segmentEvaluator SegmentEvaluator instance
+     */
+    public void setSegmentEvaluator(SegmentEvaluator segmentEvaluator) {
+        this.segmentEvaluator = segmentEvaluator;
+    }
+
+    /**
+     * Returns the gateway data fetched for the user during the request
+     * @return GatewayService instance, or null if it was not fetched
+     */
+    public GatewayService getGatewayData() {
+        return gatewayData;
+    }
+
+    /**
+     * Sets the gateway data fetched for the user during the request
+     * @param gatewayData GatewayService instance
+     */
+    public void setGatewayData(GatewayService gatewayData) {
+        this.gatewayData = gatewayData;
+    }
+
+    /**
+     * Returns the DecisionMaker used to bucket users
+     * @return DecisionMaker instance
+     */
+    public DecisionMaker getDecisionMaker() {
+        return DECISION_MAKER;
+    }
+
+    /**
+     * Returns the hash value of the bucketing key prefix + "_" + bucketingId, hashed once per call
+     * @param prefix Prefix of the key, e.g. the salt, the campaign ID or the group ID
+     * @param bucketingId Bucketing ID of the user
+     * @return Hash value of the key
+     */
+    public long getHashValue(Object prefix, Object bucketingId) {
+        BucketingKey key = new BucketingKey(prefix, bucketingId, BucketingKey.NO_PART);
+        Long hashValue = hashValues.get(key);
+        if (hashValue == null) {
+            hashValue = DECISION_MAKER.generateHashValue(prefix, bucketingId);
+            hashValues.put(key, hashValue);
+        }
+        return hashValue;
+    }
+
+    /**
+     * Returns the hash value of the bucketing key prefix + "_" + scope + "_" + bucketingId, hashed once per call
+     * @param prefix Prefix of the key, e.g. the salt or the campaign ID
+     * @param scope Scope of the key, e.g. the account ID
+     * @param bucketingId Bucketing ID of the user
+     * @return Hash value of the key
+     */
+    public long getHashValue(Object prefix, Object scope, Object bucketingId) {
+        BucketingKey key = new BucketingKey(prefix, scope, bucketingId);
+        Long hashValue = hashValues.get(key);
+        if (hashValue == null) {
+            hashValue = DECISION_MAKER.generateHashValue(prefix, scope, bucketingId);
+            hashValues.put(key, hashValue);
+        }
+        return hashValue;
+    }
+
+    /**
+     * Checks if the stored record of a feature was already read during this call
+     * @param featureKey Feature key of the record
+     * @return Boolean value indicating if the record is cached
+     */
+    public boolean hasStoredRecord(String featureKey) {
+        return storedRecords.containsKey(featureKey);
+    }
+
+    /**
+     * Returns the cached stored record of a feature
+     * @param featureKey Feature key of the record
+     * @return Stored record, or null if none was found
+     */
+    public Map<String, Object> getStoredRecord(String featureKey) {
+        return storedRecords.get(featureKey);
+    }
+
+    /**
+     * Caches the stored record of a feature for the rest of this call
+     * @param featureKey Feature key of the record
+     * @param record Stored record, may be null
+     */
+    public void setStoredRecord(String featureKey, Map<String, Object> record) {
+        storedRecords.put(featureKey, record);
+        storedData.remove(featureKey);
+    }
+
+    /**
+     * Returns the parsed stored record of a feature
+     * @param featureKey Feature key of the record
+     * @return Parsed Storage model, or null if it was not parsed yet
+     */
+    public Storage getStoredData(String featureKey) {
+        return storedData.get(featureKey);
+    }
+
+    /**
+     * Caches the parsed stored record of a feature for the rest of this call
+     * @param featureKey Feature key of the record
+     * @param storage Parsed Storage model
+     */
+    public void setStoredData(String featureKey, Storage storage) {
+        storedData.put(featureKey, storage);
+    }
+
+    /**
+     * Drops the cached record of a feature, used after the record is written
+     * @param featureKey Feature key of the record
+     */
+    public void invalidateStoredRecord(String featureKey) {
+        storedRecords.remove(featureKey);
+        storedData.remove(featureKey);
+    }
+
+    /**
+     * Records an impression dispatched during this call
+     * @param payload Payload of the variation shown event
+     */
+    public void recordImpression(EventArchPayload payload) {
+        impressions.add(payload);
+    }
+
+    /**
+     * Returns the impressions dispatched during this call
+     * @return List of variation shown payloads, in dispatch order
+     */
+    public List<EventArchPayload> getImpressions() {
+        return impressions;
+    }
+
+    /**
+     * Records that a usage tracking event was dispatched during this call
+     */
+    public void markUsageTracked() {
+        this.usageTracked = true;
+    }
+
+    /**
+     * Returns if a usage tracking event was dispatched during this call
+     * @return Boolean value indicating if usage was tracked
+     */
+    public boolean isUsageTracked() {
+        return usageTracked;
+    }
+
+    /**
+     * Records the decision passed to the integrations callback during this call
+     * @param hookDecision Decision passed to the callback
+     */
+    public void setHookDecision(FlagDecision hookDecision) {
+        this.hookDecision = hookDecision;
+    }
+
+    /**
+     * Returns the decision passed to the integrations callback during this call
+     * @return Decision, or null if the callback was not executed
+     */
+    public FlagDecision getHookDecision() {
+        return hookDecision;
+    }
+
+    /**
+     * The parts of a bucketing key, compared without joining them
+     */
+    private static final class BucketingKey {
+        // marks the missing third part of a two part key
+        private static final Object NO_PART = new Object();
+
+        private final Object first;
+        private final Object second;
+        private final Object third;
+
+        private BucketingKey(Object first, Object second, Object third) {
+            this.first = first;
+            this.second = second;
+            this.third = third;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BucketingKey)) {
+                return false;
+            }
+            BucketingKey that = (BucketingKey) o;
+            return Objects.equals(first, that.first) && Objects.equals(second, that.second) && Objects.equals(third, that.third);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(first, second, third);
+        }
+    }
+}
@@ -22,10 +22,13 @@ import com.wingify.services.SettingsManager;
 import com.wingify.models.Settings;
 import com.wingify.models.user.WingifyInitOptions;
 import com.wingify.services.BatchEventQueue;
+import com.wingify.services.AttributeListCache;
+import com.wingify.services.ImpressionDeduplicator;
+import com.wingify.services.UserDataCache;
 import com.wingify.packages.segmentation_evaluator.core.SegmentationManager;
 import com.wingify.services.DebuggerService;
-import com.wingify.utils.UUIDUtils;
-import com.wingify.utils.FunctionUtil;
+import com.wingify.utils.UserUuidGenerator;
+
 
 public class ServiceContainer {
     private LoggerService loggerService;
@@ -33,11 +36,13 @@ public class ServiceContainer {
     private HooksManager hooksManager;
     private WingifyInitOptions options;
     private BatchEventQueue batchEventQueue;
+    private ImpressionDeduplicator impressionDeduplicator;
+    private AttributeListCache attributeListCache;
+    private UserDataCache userDataCache;
+    private UserUuidGenerator userUuidGenerator;
     private SegmentationManager segmentationManager;
     private Settings settings;
-    private DebuggerService debuggerService;
-    private String uuid;
-    private Long sessionId;
+    private DecisionContext decisionContext;
 
     /**
      * Initializes the ServiceContainer
@@ -48,16 +53,60 @@ public class ServiceContainer {
      * @param settings Settings instance
      */
     public ServiceContainer(String userId, LoggerService loggerService, SettingsManager settingsManager, WingifyInitOptions options, BatchEventQueue batchEventQueue, Settings settings) {
+        this(loggerService, settingsManager, options, batchEventQueue);
+        this.settings = settings;
+        this.decisionContext = new DecisionContext(userUuidGenerator.getUUID(userId));
+    }
+
+    /**
+     * Initializes a ServiceContainer holding only the long-lived services of a client.
+     * It is shared between API calls and bound to a request with forRequest.
+     * @param loggerService LoggerService instance
+     * @param settingsManager SettingsManager instance
+     * @param options WingifyInitOptions instance
+     * @param batchEventQueue BatchEventQueue instance
+     */
+    public ServiceContainer(LoggerService loggerService, SettingsManager settingsManager, WingifyInitOptions options, BatchEventQueue batchEventQueue) {
         this.loggerService = loggerService;
         this.settingsManager = settingsManager;
         this.hooksManager = new HooksManager(options.getIntegrations());
         this.options = options;
         this.batchEventQueue = batchEventQueue;
+        this.impressionDeduplicator = options.getImpressionDedupConfig() != null ? new ImpressionDeduplicator(options.getImpressionDedupConfig()) : null;
+        this.attributeListCache = options.getAttributeListCacheConfig() != null ? new AttributeListCache(options.getAttributeListCacheConfig()) : null;
+        this.userDataCache = options.getUserDataCacheConfig() != null ? new UserDataCache(options.getUserDataCacheConfig()) : null;
+        this.userUuidGenerator = new UserUuidGenerator(options.getAccountId() != null ? options.getAccountId().toString() : null, options.getUserUuidCacheMaxSize());
         this.segmentationManager = new SegmentationManager(loggerService);
-        this.settings = settings;
-        this.uuid = UUIDUtils.getUUID(userId, options.getAccountId().toString());
-        this.sessionId = FunctionUtil.generateSessionId();
-        this.debuggerService = new DebuggerService(uuid, sessionId);
+    }
+
+    /**
+     * Returns a ServiceContainer for a single API call that reuses the services of this container
+     * @param settings Settings instance used for the call
+     * @param decisionContext DecisionContext instance of the call
+     * @return ServiceContainer bound to the given settings and decision context
+     */
+    public ServiceContainer forRequest(Settings settings, DecisionContext decisionContext) {
+        ServiceContainer serviceContainer = new ServiceContainer(this);
+        serviceContainer.settings = settings;
+        serviceContainer.decisionContext = decisionContext;
+        return serviceContainer;
+    }
+
+    /**
+     * Copies the shared services of another container
+     * @param sharedServiceContainer ServiceContainer to copy the services from
+     */
+    private ServiceContainer(ServiceContainer sharedServiceContainer) {
+        this.loggerService = sharedServiceContainer.loggerService;
+        this.settingsManager = sharedServiceContainer.settingsManager;
+        this.hooksManager = sharedServiceContainer.hooksManager;
+        this.options = sharedServiceContainer.options;
+        this.batchEventQueue = sharedServiceContainer.batchEventQueue;
+        this.impressionDeduplicator = sharedServiceContainer.impressionDeduplicator;
+        this.attributeListCache = sharedServiceContainer.attributeListCache;
+        this.userDataCache = sharedServiceContainer.userDataCache;
+        this.userUuidGenerator = sharedServiceContainer.userUuidGenerator;
+        this.segmentationManager = sharedServiceContainer.segmentationManager;
     }
 
     /**
@@ -100,6 +149,38 @@ public class ServiceContainer {
         return batchEventQueue;
     }
 
+    /**
+     * Returns the ImpressionDeduplicator instance
+     * @return ImpressionDeduplicator instance, or null if impression deduplication is disabled
+     */
+    public ImpressionDeduplicator getImpressionDeduplicator() {
+        return impressionDeduplicator;
+    }
+
+    /**
+     * Returns the AttributeListCache instance
+     * @return AttributeListCache instance, or null if attribute list caching is disabled
+     */
+    public AttributeListCache getAttributeListCache() {
+        return attributeListCache;
+    }
+
+    /**
+     * Returns the UserDataCache instance
+     * @return UserDataCache instance, or null if gateway user data caching is disabled
+     */
+    public UserDataCache getUserDataCache() {
+        return userDataCache;
+    }
+
+    /**
+     * Returns the UserUuidGenerator instance
+     * @return UserUuidGenerator instance generating the UUIDs of the users of the account
+     */
+    public UserUuidGenerator getUserUuidGenerator() {
+        return userUuidGenerator;
+    }
+
     /**
      * Returns the SegmentationManager instance
      * @return SegmentationManager instance
@@ -129,12 +210,20 @@ public class ServiceContainer {
         return endpoint;
     }
 
+    /**
+     * Returns the DecisionContext instance
+     * @return DecisionContext instance
+     */
+    public DecisionContext getDecisionContext() {
+        return decisionContext;
+    }
+
     /**
      * Returns the DebuggerService instance
      * @return DebuggerService instance
      */
     public DebuggerService getDebuggerService() {
-        return debuggerService;
+        return decisionContext.getDebuggerService();
     }
 
     /**
@@ -142,7 +231,7 @@ public class ServiceContainer {
      * @return UUID instance
      */
     public String getUuid() {
-        return uuid;
+        return decisionContext.getUuid();
     }
 
     /**
@@ -150,7 +239,7 @@ public class ServiceContainer {
      * @return SessionId instance
      */
     public Long getSessionId() {
-        return sessionId;
+        return decisionContext.getSessionId();
     }
 
     /**
@@ -160,10 +249,9 @@ public class ServiceContainer {
      */
     public void setUuid(String userId, Boolean shouldGenerateUUID) {
         if (shouldGenerateUUID) {
-            this.uuid = UUIDUtils.getUUID(userId, this.options.getAccountId().toString());
+            decisionContext.setUuid(userUuidGenerator.getUUID(userId));
         } else {
-            this.uuid = userId;
+            decisionContext.setUuid(userId);
         }
-        this.debuggerService = new DebuggerService(uuid, sessionId);
     }
 }
@@ -20,10 +20,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wingify.api.GetFlagAPI;
 import com.wingify.api.SetAttributeAPI;
 import com.wingify.api.TrackEventAPI;
-import com.wingify.models.schemas.SettingsSchema;
 import com.wingify.models.user.WingifyUserContext;
 import com.wingify.models.user.GetFlag;
+import com.wingify.models.Feature;
 import com.wingify.models.Settings;
+import com.wingify.models.SettingsVersion;
 import com.wingify.models.user.WingifyInitOptions;
 import com.wingify.packages.logger.enums.LogLevelEnum;
 import com.wingify.utils.AliasingUtil;
@@ -31,6 +32,8 @@ import com.wingify.utils.DataTypeUtil;
 import com.wingify.utils.LogMessageUtil;
 import com.wingify.utils.SettingsUtil;
 import com.wingify.services.BatchEventQueue;
+import com.wingify.services.BucketingService;
+import com.wingify.services.DecisionCache;
 import com.wingify.utils.EventUtil;
 import com.wingify.enums.EventEnum;
 import com.wingify.enums.ApiEnum;
@@ -39,14 +42,24 @@ import com.wingify.utils.FunctionUtil;
 import com.wingify.utils.UUIDUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class WingifyClient {
-    private Settings processedSettings;
+    // processed settings along with their validation result, swapped as a whole on updateSettings
+    private volatile SettingsVersion settingsVersion;
     public String settings;
     private WingifyInitOptions options;
-    private Boolean isSettingsValid = false;
     public static ObjectMapper objectMapper = new ObjectMapper(){
         {
             configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
@@ -54,8 +67,15 @@ public class WingifyClient {
     };
     private BatchEventQueue batchEventQueue;
     private WingifyBuilder wingifyBuilder;
+    // long-lived services shared by all API calls, bound to a request with ServiceContainer.forRequest
+    private volatile ServiceContainer sharedServiceContainer;
+    // opt-in memo of getFlag decisions, null when disabled
+    private final DecisionCache decisionCache;
 
     public WingifyClient(String settings, WingifyBuilder wingifyBuilder) {
+        this.decisionCache = wingifyBuilder.options != null && wingifyBuilder.options.getDecisionCacheConfig() != null
+                ? new DecisionCache(wingifyBuilder.options.getDecisionCacheConfig())
+                : null;
         try {
             this.options = wingifyBuilder.options;
             this.wingifyBuilder = wingifyBuilder;
@@ -63,11 +83,13 @@ public class WingifyClient {
                 return;
             }
             this.settings = settings;
-            this.processedSettings = objectMapper.readValue(settings, Settings.class);
-            if (!DataTypeUtil.isNull(this.processedSettings.getCollectionPrefix()) && !this.processedSettings.getCollectionPrefix().isEmpty()) {
-                this.wingifyBuilder.getSettingsManager().collectionPrefix = this.processedSettings.getCollectionPrefix();
+            Settings processedSettings = objectMapper.readValue(settings, Settings.class);
+            if (!DataTypeUtil.isNull(processedSettings.getCollectionPrefix()) && !processedSettings.getCollectionPrefix().isEmpty()) {
+                this.wingifyBuilder.getSettingsManager().collectionPrefix = processedSettings.getCollectionPrefix();
             }
-            SettingsUtil.processSettings(this.processedSettings, this.wingifyBuilder.getLoggerService());
+            // validate once for this settings payload, API calls only check the stored result
+            this.settingsVersion = new SettingsVersion(settings, processedSettings);
+            SettingsUtil.processSettings(processedSettings, this.wingifyBuilder.getLoggerService());
         } catch (Exception exception) {
            System.err.println("exception occurred while parsing settings " + exception.getMessage());
         }
@@ -79,11 +101,12 @@ public class WingifyClient {
      */
     protected void sendSdkInitAndUsageStatsEvent(long settingsInitTime) {
         try {
-            if ( this.processedSettings == null ) {
+            Settings processedSettings = this.getProcessedSettings();
+            if ( processedSettings == null ) {
                 throw new IllegalStateException("processedSettings is null");
             }
             // get sdk meta info from settings
-            Map<String, Object> sdkMetaInfo = this.processedSettings.getSdkMetaInfo();
+            Map<String, Object> sdkMetaInfo = processedSettings.getSdkMetaInfo();
             // if sdk meta info is not present, then return
             // if wasInitializedEarlier in sdk meta info is false or is absent, then send the sdk init event
             if (sdkMetaInfo == null || (sdkMetaInfo.get("wasInitializedEarlier") == null || !sdkMetaInfo.get("wasInitializedEarlier").equals(true))) {
@@ -95,7 +118,7 @@ public class WingifyClient {
             }
 
             // get usage stats account id from settings
-            Integer usageStatsAccountId = this.processedSettings.getUsageStatsAccountId();
+            Integer usageStatsAccountId = processedSettings.getUsageStatsAccountId();
             if (!DataTypeUtil.isNull(usageStatsAccountId) && usageStatsAccountId != 0) {
                 EventUtil.sendUsageStatsEvent(this.wingifyBuilder.getSettingsManager(), usageStatsAccountId);
             }
@@ -115,48 +138,36 @@ public class WingifyClient {
      */
     public GetFlag getFlag(String featureKey, WingifyUserContext context) {
         String apiName = "getFlag";
-        String uuid = null;
+        SettingsVersion settingsVersion = this.settingsVersion;
+        DecisionContext decisionContext = new DecisionContext(null);
         try {
             wingifyBuilder.getLoggerService().log(LogLevelEnum.DEBUG, "API_CALLED", new HashMap<String, Object>() {{
                 put("apiName", apiName);
             }});
 
-            if (context == null || context.getId() == null || context.getId().isEmpty()) {
-                throw new IllegalArgumentException("User ID is required");
-            }
-
-            if (!DataTypeUtil.isNull(context.getBucketingSeed())) {
-                if (!DataTypeUtil.isString(context.getBucketingSeed())
-                        || context.getBucketingSeed().trim().isEmpty()) {
-                    wingifyBuilder.getLoggerService().log(LogLevelEnum.ERROR, "INVALID_BUCKETING_SEED", new HashMap<String, Object>() {{
-                    }});
-                    context.setBucketingSeed(null);
-                }
-            }
-            // get UUID from context
-            uuid = this.getUUIDFromContext(context, apiName);
+            ServiceContainer serviceContainer = this.prepareFlagRequest(apiName, context, settingsVersion, decisionContext);
 
             if (featureKey == null || featureKey.isEmpty()) {
                 throw new IllegalArgumentException("Feature Key is required");
             }
 
-            if (!this.validateSettings(this.processedSettings, ApiEnum.GET_FLAG)) {
-                return new GetFlag(false, new ArrayList<>(), context.getSessionId(), uuid);
+            if (serviceContainer == null) {
+                return new GetFlag(false, new ArrayList<>(), context.getSessionId(), decisionContext.getUuid());
             }
 
-            // create Service Container instance
-            ServiceContainer serviceContainer = new ServiceContainer(context.getId(), this.wingifyBuilder.getLoggerService(), this.wingifyBuilder.getSettingsManager(), this.options, wingifyBuilder.getBatchEventQueue(), this.processedSettings);
-
-            // get userId from gateway service
-            if (this.options.getIsAliasingEnabled()) {
-                context.setId(UserIdUtil.getUserId(context.getId(), serviceContainer));
-                serviceContainer.setUuid(context.getId(), true);
-                // regenerate uuid with the resolved userId (handles case where aliasing changed the userId)
-                uuid = this.getUUIDFromContext(context, apiName);
+            DecisionCache decisionCache = this.decisionCache;
+            if (decisionCache == null) {
+                return GetFlagAPI.getFlag(featureKey, context, serviceContainer);
             }
-            serviceContainer.setUuid(uuid, false);
-
-            return GetFlagAPI.getFlag(featureKey, context, serviceContainer);
+            // the key is captured before evaluating, as the evaluation may enrich the context
+            DecisionCache.Key cacheKey = DecisionCache.createKey(settingsVersion.getId(), featureKey, context);
+            DecisionCache.Entry cachedDecision = decisionCache.get(cacheKey);
+            if (cachedDecision != null) {
+                return GetFlagAPI.getCachedFlag(cachedDecision, featureKey, context, serviceContainer);
+            }
+            GetFlag flag = GetFlagAPI.getFlag(featureKey, context, serviceContainer);
+            decisionCache.put(cacheKey, flag, serviceContainer.getDecisionContext());
+            return flag;
         } catch (Exception exception) {
             wingifyBuilder.getLoggerService().log(LogLevelEnum.ERROR, "EXECUTION_FAILED", new HashMap<String, Object>() {{
                 put("apiName", "getFlag");
@@ -164,12 +175,93 @@ public class WingifyClient {
                 put("an", ApiEnum.GET_FLAG.getValue());
             }});
             if (context != null) {
-                return new GetFlag(false, new ArrayList<>(), context.getSessionId(), uuid);
+                return new GetFlag(false, new ArrayList<>(), context.getSessionId(), decisionContext.getUuid());
             }
             return new GetFlag(false, new ArrayList<>(), FunctionUtil.generateSessionId(), null);
         }
     }
 
+    /**
+     * This method is used to get the flag values for several feature keys of the same user.
+     * The user is validated and hashed once, the stored records are prefetched together and the
+     * impressions of all the flags are sent as one batch.
+     * @param featureKeys Feature keys for which the flag values are to be fetched
+     * @param context User context
+     * @return Map of feature key to GetFlag object, in the order of the given keys
+     */
+    public Map<String, GetFlag> getFlags(Collection<String> featureKeys, WingifyUserContext context) {
+        String apiName = "getFlags";
+        Map<String, GetFlag> flags = new LinkedHashMap<>();
+        SettingsVersion settingsVersion = this.settingsVersion;
+        DecisionContext decisionContext = new DecisionContext(null);
+        // evaluate each distinct key once, keeping the caller's order
+        Set<String> distinctFeatureKeys = new LinkedHashSet<>();
+        if (featureKeys != null) {
+            for (String featureKey : featureKeys) {
+                if (featureKey != null && !featureKey.isEmpty()) {
+                    distinctFeatureKeys.add(featureKey);
+                }
+            }
+        }
+        try {
+            wingifyBuilder.getLoggerService().log(LogLevelEnum.DEBUG, "API_CALLED", new HashMap<String, Object>() {{
+                put("apiName", apiName);
+            }});
+
+            // all the flags reuse the same request state
+            ServiceContainer serviceContainer = this.prepareFlagRequest(apiName, context, settingsVersion, decisionContext);
+
+            if (featureKeys == null) {
+                throw new IllegalArgumentException("Feature Keys are required");
+            }
+
+            if (serviceContainer == null) {
+                for (String featureKey : distinctFeatureKeys) {
+                    flags.put(featureKey, new GetFlag(false, new ArrayList<>(), context.getSessionId(), decisionContext.getUuid()));
+                }
+                return flags;
+            }
+
+            return GetFlagAPI.getFlags(distinctFeatureKeys, context, serviceContainer);
+        } catch (Exception exception) {
+            wingifyBuilder.getLoggerService().log(LogLevelEnum.ERROR, "EXECUTION_FAILED", new HashMap<String, Object>() {{
+                put("apiName", apiName);
+                put("err", exception.getMessage());
+                put("an", ApiEnum.GET_FLAG.getValue());
+            }});
+            Long sessionId = context != null ? context.getSessionId() : FunctionUtil.generateSessionId();
+            for (String featureKey : distinctFeatureKeys) {
+                flags.putIfAbsent(featureKey, new GetFlag(false, new ArrayList<>(), sessionId, decisionContext.getUuid()));
+            }
+            return flags;
+        }
+    }
+
+    /**
+     * This method is used to get the flag values of all the features in the settings for the given user
+     * @param context User context
+     * @return Map of feature key to GetFlag object, in the order of the features in the settings
+     */
+    public Map<String, GetFlag> getAllFlags(WingifyUserContext context) {
+        List<String> featureKeys = new ArrayList<>();
+        Settings processedSettings = this.getProcessedSettings();
+        if (processedSettings != null && processedSettings.getFeatures() != null) {
+            for (Feature feature : processedSettings.getFeatures()) {
+                featureKeys.add(feature.getKey());
+            }
+        }
+        return this.getFlags(featureKeys, context);
+    }
+
+    /**
+     * This method is used to get a service that buckets users in bulk into the rules of a feature, without
+     * reading or writing the storage and without sending impressions
+     * @return BucketingService bound to the settings currently used by the client
+     */
+    public BucketingService getBucketingService() {
+        return new BucketingService(this.getProcessedSettings(), this.options.getAccountId().toString(), wingifyBuilder.getLoggerService());
+    }
+
     /**
      * This method is used to track the event
      * @param eventName Event name to be tracked
@@ -181,6 +273,7 @@ public class WingifyClient {
         String apiName = "trackEvent";
         Map<String, Boolean> resultMap = new HashMap<>();
         String uuid = null;
+        SettingsVersion settingsVersion = this.settingsVersion;
         try {
             wingifyBuilder.getLoggerService().log(LogLevelEnum.DEBUG, "API_CALLED", new HashMap<String, Object>() {{
                 put("apiName", apiName);
@@ -200,22 +293,20 @@ public class WingifyClient {
                 throw new IllegalArgumentException("User ID is required");
             }
             // get UUID from context
-            uuid = this.getUUIDFromContext(context, apiName);
+            uuid = this.getUUIDFromContext(context, apiName, settingsVersion.getSettings());
 
-            if (!this.validateSettings(this.processedSettings, ApiEnum.TRACK_EVENT)) {
+            if (!this.validateSettings(settingsVersion, ApiEnum.TRACK_EVENT)) {
                 resultMap.put(eventName, false);
                 return resultMap;
             }
 
-            // create Service Container instance
-            ServiceContainer serviceContainer = new ServiceContainer(context.getId(), this.wingifyBuilder.getLoggerService(), this.wingifyBuilder.getSettingsManager(), this.options, wingifyBuilder.getBatchEventQueue(), this.processedSettings);
+            // bind the shared services to this call, reusing the UUID derived above
+            ServiceContainer serviceContainer = this.getSharedServiceContainer().forRequest(settingsVersion.getSettings(), new DecisionContext(uuid));
 
             // get userId from gateway service
             if (this.options.getIsAliasingEnabled()) {
                 context.setId(UserIdUtil.getUserId(context.getId(), serviceContainer));
-                serviceContainer.setUuid(context.getId(), true);
             }
-            serviceContainer.setUuid(uuid, false);
 
             Boolean result = TrackEventAPI.track(eventName, context, eventProperties, serviceContainer);
             if (result) {
@@ -258,6 +349,65 @@ public class WingifyClient {
         return track(eventName, context, new HashMap<>());
     }
 
+    /**
+     * Asynchronous variant of getFlag, evaluated on the executor set in the init options,
+     * or on the SDK's default executor if none was set.
+     * The context must not be modified by the caller until the returned future completes.
+     * @param featureKey Feature key for which the flag value is to be fetched
+     * @param context User context
+     * @return CompletableFuture completing with the GetFlag object, never exceptionally
+     */
+    public CompletableFuture<GetFlag> getFlagAsync(String featureKey, WingifyUserContext context) {
+        return getFlagAsync(featureKey, context, this.getAsyncExecutor());
+    }
+
+    /**
+     * Asynchronous variant of getFlag, evaluated on the given executor
+     * @param featureKey Feature key for which the flag value is to be fetched
+     * @param context User context
+     * @param executor Executor running the evaluation, including its gateway, inlist and alias calls.
+     *                 Prefetched inlist checks run on the pool of the attribute list cache instead.
+     * @return CompletableFuture completing with the GetFlag object, never exceptionally
+     */
+    public CompletableFuture<GetFlag> getFlagAsync(String featureKey, WingifyUserContext context, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> this.getFlag(featureKey, context), executor);
+    }
+
+    /**
+     * Asynchronous variant of trackEvent, run on the executor set in the init options,
+     * or on the SDK's default executor if none was set.
+     * @param eventName Event name to be tracked
+     * @param context User context
+     * @return CompletableFuture completing with the map of event name to its status
+     */
+    public CompletableFuture<Map<String, Boolean>> trackEventAsync(String eventName, WingifyUserContext context) {
+        return trackEventAsync(eventName, context, new HashMap<>(), this.getAsyncExecutor());
+    }
+
+    /**
+     * Asynchronous variant of trackEvent with event properties, run on the executor set in the init options,
+     * or on the SDK's default executor if none was set.
+     * @param eventName Event name to be tracked
+     * @param context User context
+     * @param eventProperties event properties to be sent for the event
+     * @return CompletableFuture completing with the map of event name to its status
+     */
+    public CompletableFuture<Map<String, Boolean>> trackEventAsync(String eventName, WingifyUserContext context, Map<String, ?> eventProperties) {
+        return trackEventAsync(eventName, context, eventProperties, this.getAsyncExecutor());
+    }
+
+    /**
+     * Asynchronous variant of trackEvent, run on the given executor
+     * @param eventName Event name to be tracked
+     * @param context User context
+     * @param eventProperties event properties to be sent for the event
+     * @param executor Executor running the call
+     * @return CompletableFuture completing with the map of event name to its status
+     */
+    public CompletableFuture<Map<String, Boolean>> trackEventAsync(String eventName, WingifyUserContext context, Map<String, ?> eventProperties, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> this.track(eventName, context, eventProperties), executor);
+    }
+
 
     /**
      * Sets an attribute for a user in the context provided.
@@ -268,12 +418,13 @@ public class WingifyClient {
     public void setAttribute(Map<String, Object> attributeMap, WingifyUserContext context) {
         String apiName = "setAttribute";
         String uuid = null;
+        SettingsVersion settingsVersion = this.settingsVersion;
         try {
             wingifyBuilder.getLoggerService().log(LogLevelEnum.DEBUG, "API_CALLED", new HashMap<String, Object>() {{
                 put("apiName", apiName);
             }});
             // get UUID from context
-            uuid = this.getUUIDFromContext(context, apiName);
+            uuid = this.getUUIDFromContext(context, apiName, settingsVersion.getSettings());
             if (attributeMap == null || attributeMap.isEmpty()) {
                 throw new IllegalArgumentException("TypeError: attributeMap should be a non-empty map of type Map<String, Object>");
             }
@@ -296,19 +447,17 @@ public class WingifyClient {
                 throw new IllegalArgumentException("User ID is required");
             }
 
-            if (!this.validateSettings(this.processedSettings, ApiEnum.SET_ATTRIBUTE)) {
+            if (!this.validateSettings(settingsVersion, ApiEnum.SET_ATTRIBUTE)) {
                 return;
             }
 
-            // create Service Container instance
-            ServiceContainer serviceContainer = new ServiceContainer(context.getId(), this.wingifyBuilder.getLoggerService(), this.wingifyBuilder.getSettingsManager(), this.options, wingifyBuilder.getBatchEventQueue(), this.processedSettings);
+            // bind the shared services to this call, reusing the UUID derived above
+            ServiceContainer serviceContainer = this.getSharedServiceContainer().forRequest(settingsVersion.getSettings(), new DecisionContext(uuid));
 
             // get userId from gateway service
             if (this.options.getIsAliasingEnabled()) {
                 context.setId(UserIdUtil.getUserId(context.getId(), serviceContainer));
-                serviceContainer.setUuid(context.getId(), true);
             }
-            serviceContainer.setUuid(uuid, false);
             SetAttributeAPI.setAttribute(attributeMap, context, serviceContainer);
         } catch (Exception exception) {
             wingifyBuilder.getLoggerService().log(LogLevelEnum.ERROR, "EXECUTION_FAILED", new HashMap<String, Object>() {{
@@ -333,7 +482,7 @@ public class WingifyClient {
     }
 
     public boolean flushEvents() {
-        int accountId = this.processedSettings.getAccountId(); // Fetch account ID from settings
+        int accountId = this.getProcessedSettings().getAccountId(); // Fetch account ID from settings
         if (this.batchEventQueue != null) {
             // Access the size of the batchQueue directly
             wingifyBuilder.getLoggerService().log(LogLevelEnum.DEBUG, String.format(
@@ -363,13 +512,17 @@ public class WingifyClient {
             if (newSettings == null || newSettings.isEmpty()) {
                 throw new IllegalArgumentException("Settings cannot be empty");
             }
-            // Read the new settings and update the processedSettings
-            this.processedSettings = objectMapper.readValue(newSettings, Settings.class);
-            // Check if the new settings are valid
+            // Read the new settings and validate them once for this version
+            SettingsVersion newSettingsVersion = new SettingsVersion(newSettings, objectMapper.readValue(newSettings, Settings.class));
             this.settings = newSettings;
-            if (this.validateSettings(this.processedSettings, ApiEnum.UPDATE_SETTINGS)) {
-                // Process the new settings and update the client instance
-                SettingsUtil.processSettings(this.processedSettings, this.wingifyBuilder.getLoggerService());
+            if (this.validateSettings(newSettingsVersion, ApiEnum.UPDATE_SETTINGS)) {
+                // Process the new settings before they become visible to API calls
+                SettingsUtil.processSettings(newSettingsVersion.getSettings(), this.wingifyBuilder.getLoggerService());
+            }
+            this.settingsVersion = newSettingsVersion;
+            if (this.decisionCache != null) {
+                // entries are keyed by version, dropping them just frees the memory early
+                this.decisionCache.invalidateAll();
             }
         } catch (Exception exception) {
             throw new IllegalStateException(exception.getMessage());
@@ -460,44 +613,85 @@ public class WingifyClient {
 
 
     /**
-     * This method is used to validate the settings
-     * @param settings Settings to be validated
+     * This method is used to check the validation result of the settings
+     * @param settingsVersion Settings version holding the settings and their validation result
+     * @param apiEnum API for which the settings are checked
      * @return Boolean value indicating if the settings are valid
      */
-    private Boolean validateSettings(Settings processedSettings, ApiEnum apiEnum) {
-        try {
-            if (processedSettings == null) {
-                wingifyBuilder.getLoggerService().log(LogLevelEnum.ERROR, "INVALID_SETTINGS_SCHEMA", new HashMap<String, Object>() {{
-                    put("errors", "Settings object is null");
-                    put("accountId", options.getAccountId().toString());
-                    put("sdkKey", options.getSdkKey());
-                    put("settings", "null");
-                    put("an", apiEnum.getValue());
-                }});
-                return false;
-            }
-            SettingsSchema validationResult = new SettingsSchema().validateSettings(processedSettings);
-            if (!validationResult.isValid()) {
-                wingifyBuilder.getLoggerService().log(LogLevelEnum.ERROR, "INVALID_SETTINGS_SCHEMA", new HashMap<String, Object>() {{
-                    put("errors", validationResult.getErrorsAsString());
-                    put("accountId", options.getAccountId().toString());
-                    put("sdkKey", options.getSdkKey());
-                    put("settings", settings);
-                    put("an", apiEnum.getValue());
-                }});
-                return false;
-            }
-            return true;
-        } catch (Exception exception) {
+    private Boolean validateSettings(SettingsVersion settingsVersion, ApiEnum apiEnum) {
+        if (settingsVersion == null || settingsVersion.getSettings() == null) {
             wingifyBuilder.getLoggerService().log(LogLevelEnum.ERROR, "INVALID_SETTINGS_SCHEMA", new HashMap<String, Object>() {{
-                put("errors", exception.getMessage());
+                put("errors", "Settings object is null");
                 put("accountId", options.getAccountId().toString());
                 put("sdkKey", options.getSdkKey());
-                put("settings", settings);
+                put("settings", "null");
                 put("an", apiEnum.getValue());
             }});
             return false;
         }
+        if (!settingsVersion.isValid()) {
+            wingifyBuilder.getLoggerService().log(LogLevelEnum.ERROR, "INVALID_SETTINGS_SCHEMA", new HashMap<String, Object>() {{
+                put("errors", settingsVersion.getValidationErrors());
+                put("accountId", options.getAccountId().toString());
+                put("sdkKey", options.getSdkKey());
+                put("settings", settingsVersion.getRawSettings());
+                put("an", apiEnum.getValue());
+            }});
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * This method is used to get the services shared by all API calls, creating them on first use
+     * @return ServiceContainer holding the long-lived services of the client
+     */
+    private ServiceContainer getSharedServiceContainer() {
+        ServiceContainer serviceContainer = this.sharedServiceContainer;
+        if (serviceContainer == null) {
+            synchronized (this) {
+                serviceContainer = this.sharedServiceContainer;
+                if (serviceContainer == null) {
+                    serviceContainer = new ServiceContainer(this.wingifyBuilder.getLoggerService(), this.wingifyBuilder.getSettingsManager(), this.options, this.wingifyBuilder.getBatchEventQueue());
+                    this.sharedServiceContainer = serviceContainer;
+                }
+            }
+        }
+        return serviceContainer;
+    }
+
+    /**
+     * This method is used to get the executor of the asynchronous APIs
+     * @return Executor set in the init options, or the SDK's default executor
+     */
+    private Executor getAsyncExecutor() {
+        if (this.options != null && this.options.getAsyncExecutor() != null) {
+            return this.options.getAsyncExecutor();
+        }
+        return DefaultAsyncExecutorHolder.INSTANCE;
+    }
+
+    /**
+     * Lazily created default executor of the asynchronous APIs.
+     * The calls may block on network retries, so they get their own daemon threads
+     * instead of the common fork-join pool.
+     */
+    private static final class DefaultAsyncExecutorHolder {
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+        private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "wingify-async-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * This method is used to get the settings currently used by the client
+     * @return Processed settings of the current settings version, or null if none were parsed
+     */
+    private Settings getProcessedSettings() {
+        SettingsVersion settingsVersion = this.settingsVersion;
+        return settingsVersion != null ? settingsVersion.getSettings() : null;
     }
 
     /**
@@ -544,8 +738,9 @@ public class WingifyClient {
                 throw new IllegalArgumentException("User ID and Alias ID cannot be the same");
             }
 
-            // create Service Container instance
-            ServiceContainer serviceContainer = new ServiceContainer(userId, this.wingifyBuilder.getLoggerService(), this.wingifyBuilder.getSettingsManager(), this.options, wingifyBuilder.getBatchEventQueue(), this.processedSettings);
+            // bind the shared services to this call
+            ServiceContainer sharedServiceContainer = this.getSharedServiceContainer();
+            ServiceContainer serviceContainer = sharedServiceContainer.forRequest(this.getProcessedSettings(), new DecisionContext(sharedServiceContainer.getUserUuidGenerator().getUUID(userId)));
 
             // set alias on gateway service
             return AliasingUtil.setAlias(userId, aliasId, serviceContainer);
@@ -569,14 +764,57 @@ public class WingifyClient {
         return setAlias(context.getId(), aliasId);
     }
 
+    /**
+     * Validates the user of a flag call and binds the shared services to it: the user ID and bucketing seed
+     * are checked, the UUID is derived, and the user ID is resolved through the gateway if aliasing is enabled
+     * @param apiName Name of the calling API
+     * @param context User context
+     * @param settingsVersion Settings used by the call
+     * @param decisionContext DecisionContext of the call, its UUID is set as soon as it is derived
+     * @return ServiceContainer bound to the call, or null if the settings are not valid
+     * @throws Exception If the user is not valid or its user ID cannot be resolved
+     */
+    private ServiceContainer prepareFlagRequest(String apiName, WingifyUserContext context, SettingsVersion settingsVersion, DecisionContext decisionContext) throws Exception {
+        if (context == null || context.getId() == null || context.getId().isEmpty()) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+
+        if (!DataTypeUtil.isNull(context.getBucketingSeed())) {
+            if (!DataTypeUtil.isString(context.getBucketingSeed())
+                    || context.getBucketingSeed().trim().isEmpty()) {
+                wingifyBuilder.getLoggerService().log(LogLevelEnum.ERROR, "INVALID_BUCKETING_SEED", new HashMap<String, Object>() {{
+                }});
+                context.setBucketingSeed(null);
+            }
+        }
+        // get UUID from context
+        decisionContext.setUuid(this.getUUIDFromContext(context, apiName, settingsVersion.getSettings()));
+
+        if (!this.validateSettings(settingsVersion, ApiEnum.GET_FLAG)) {
+            return null;
+        }
+
+        // bind the shared services to this call, reusing the UUID derived above
+        ServiceContainer serviceContainer = this.getSharedServiceContainer().forRequest(settingsVersion.getSettings(), decisionContext);
+
+        // get userId from gateway service
+        if (this.options.getIsAliasingEnabled()) {
+            context.setId(UserIdUtil.getUserId(context.getId(), serviceContainer));
+            // regenerate uuid with the resolved userId (handles case where aliasing changed the userId)
+            serviceContainer.setUuid(this.getUUIDFromContext(context, apiName, settingsVersion.getSettings()), false);
+        }
+        return serviceContainer;
+    }
+
     /**
      * This method is used to get the UUID from the context
      * @param context User context
      * @param apiName API name
+     * @param processedSettings Settings used for the current API call
      * @return String value containing the UUID
      */
-    private String getUUIDFromContext(WingifyUserContext context, String apiName) {
-        if (this.processedSettings.isWebConnectivityEnabled()) {
+    private String getUUIDFromContext(WingifyUserContext context, String apiName, Settings processedSettings) {
+        if (processedSettings.isWebConnectivityEnabled()) {
             // if web connectivity is enabled, check if context.id is a valid web UUID
             if (UUIDUtils.isWebUuid(context.getId())) {
                 // if context.id is a valid web UUID, set it as uuid
@@ -591,10 +829,10 @@ public class WingifyClient {
                     throw new IllegalArgumentException("UUID passed in context.id is not a valid UUID");
                 }
                 // if context?.useIdForWeb is false, fallback to server‑side UUID derivation
-                return UUIDUtils.getUUID(context.getId(), this.processedSettings.getAccountId().toString());
+                return this.getSharedServiceContainer().getUserUuidGenerator().getUUID(context.getId(), processedSettings.getAccountId().toString());
             }
         }
         // if web connectivity is disabled, fallback to server‑side UUID derivation
-        return UUIDUtils.getUUID(context.getId(), this.processedSettings.getAccountId().toString());
+        return this.getSharedServiceContainer().getUserUuidGenerator().getUUID(context.getId(), processedSettings.getAccountId().toString());
     }
 }
\ No newline at end of file
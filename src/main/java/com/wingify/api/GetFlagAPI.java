@@ -15,7 +15,6 @@
  */
 package com.wingify.api;
 
-import com.wingify.WingifyClient;
 import com.wingify.ServiceContainer;
 import com.wingify.decorators.StorageDecorator;
 import com.wingify.enums.ApiEnum;
@@ -28,6 +27,7 @@ import com.wingify.models.request.EventArchPayload;
 import com.wingify.models.user.GetFlag;
 import com.wingify.models.user.WingifyUserContext;
 import com.wingify.packages.logger.enums.LogLevelEnum;
+import com.wingify.services.DecisionCache;
 import com.wingify.services.StorageService;
 import com.wingify.utils.DebuggerServiceUtil;
 import com.wingify.utils.NetworkUtil;
@@ -54,12 +54,109 @@ public class GetFlagAPI {
      * @return GetFlag object containing the flag value.
      */
     public static GetFlag getFlag(String featureKey, WingifyUserContext context, ServiceContainer serviceContainer) {
+        return getFlag(featureKey, context, serviceContainer, null);
+    }
+
+    /**
+     * This method is used to get the flag values for several feature keys of the same user.
+     * The stored records of all the features are prefetched in one connector call, the user's
+     * gateway data is fetched once and the impressions of all the features are sent as one batch.
+     * @param featureKeys Feature keys for which flag values are to be fetched.
+     * @param context  WingifyUserContext object containing the user context.
+     * @param serviceContainer  ServiceContainer object bound to the user, shared by all the features.
+     * @return Map of feature key to GetFlag object, in the order of the given keys.
+     */
+    public static Map<String, GetFlag> getFlags(Collection<String> featureKeys, WingifyUserContext context, ServiceContainer serviceContainer) {
+        Map<String, GetFlag> flags = new LinkedHashMap<>();
+        List<EventArchPayload> batchPayloads = new ArrayList<>();
+
+        new StorageDecorator().prefetchFeaturesFromStorage(featureKeys, context, new StorageService(), serviceContainer);
+
+        for (String featureKey : featureKeys) {
+            try {
+                flags.put(featureKey, getFlag(featureKey, context, serviceContainer, batchPayloads));
+            } catch (Exception exception) {
+                serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "EXECUTION_FAILED", new HashMap<String, Object>() {{
+                    put("apiName", "getFlags");
+                    put("err", exception.getMessage());
+                    put("an", ApiEnum.GET_FLAG.getValue());
+                }});
+                flags.put(featureKey, new GetFlag(false, new ArrayList<>(), context.getSessionId(), serviceContainer.getUuid()));
+            }
+        }
+
+        // Send the impressions of all the features in a single batch request
+        if (!batchPayloads.isEmpty()) {
+            sendImpressionForVariationShownInBatch(batchPayloads, serviceContainer);
+        }
+        return flags;
+    }
+
+    /**
+     * This method returns a memoized flag decision and replays its side effects: the integrations
+     * callback, the impressions and the usage tracking event, exactly as the evaluation dispatched them.
+     * @param cachedDecision Memoized decision for the feature and user.
+     * @param featureKey Feature key of the flag.
+     * @param context  WingifyUserContext object containing the user context.
+     * @param serviceContainer  ServiceContainer object bound to the current call.
+     * @return GetFlag object containing the flag value.
+     */
+    public static GetFlag getCachedFlag(DecisionCache.Entry cachedDecision, String featureKey, WingifyUserContext context, ServiceContainer serviceContainer) {
+        Map<String, Object> standardDebugProps = new HashMap<>();
+        standardDebugProps.put("an", ApiEnum.GET_FLAG.getValue());
+        standardDebugProps.put("fk", featureKey);
+        serviceContainer.getDebuggerService().addStandardDebugProps(standardDebugProps);
+
+        serviceContainer.getLoggerService().log(LogLevelEnum.DEBUG, "CACHED_DECISION_FOUND", new HashMap<String, Object>() {{
+            put("featureKey", featureKey);
+            put("userId", context.getId());
+        }});
+
+        if (cachedDecision.getHookDecision() != null && serviceContainer.getHooksManager().hasCallback()) {
+            serviceContainer.getHooksManager().execute(cachedDecision.getHookDecision().toMap());
+        }
+
+        List<EventArchPayload> batchPayloads = new ArrayList<>();
+        for (DecisionCache.Impression impression : cachedDecision.getImpressions()) {
+            EventArchPayload payload = impression.getFeatureId() != null
+                    ? NetworkUtil.createHoldoutPayload(serviceContainer, impression.getCampaignId(), impression.getVariationId(), context, impression.getFeatureId())
+                    : NetworkUtil.getTrackUserPayloadData(serviceContainer, EventEnum.WINGIFY_VARIATION_SHOWN.getValue(), impression.getCampaignId(), impression.getVariationId(), context);
+            if (serviceContainer.getSettingsManager().isGatewayServiceProvided) {
+                sendImpressionForVariationShown(serviceContainer, impression.getCampaignId(), impression.getVariationId(), context, payload);
+            } else {
+                batchPayloads.add(payload);
+            }
+        }
+        sendBatchPayloads(batchPayloads, null, serviceContainer);
+
+        if (cachedDecision.isUsageTracked()) {
+            EventArchPayload usagePayload = NetworkUtil.getUsageTrackingPayloadData(
+                    serviceContainer,
+                    EventEnum.WINGIFY_FE_TRACK_USAGE.getValue(),
+                    context
+            );
+            sendUsageTrackingEvent(serviceContainer, context, usagePayload, featureKey);
+        }
+
+        return new GetFlag(cachedDecision.isEnabled(), cachedDecision.getVariables(), cachedDecision.getVariablesByKey(), context.getSessionId(), serviceContainer.getUuid());
+    }
+
+    /**
+     * This method evaluates the flag for the given feature key.
+     * @param featureKey Feature key for which flag value is to be fetched.
+     * @param context  WingifyUserContext object containing the user context.
+     * @param serviceContainer  ServiceContainer object containing the integrations.
+     * @param sharedBatchPayloads  List collecting the impressions of several flags, or null to send them right away.
+     * @return GetFlag object containing the flag value.
+     */
+    private static GetFlag getFlag(String featureKey, WingifyUserContext context, ServiceContainer serviceContainer, List<EventArchPayload> sharedBatchPayloads) {
         boolean shouldCheckForExperimentsRules = false;
         boolean isFlagEnabled = false;
         boolean isVariationShownFired = false;
         List<Variable> variablesToReturn = new ArrayList<Variable>();
+        Map<String, Variable> variablesByKey = null;
 
-        Map<String, Object> passedRulesInformation = new HashMap<>();
+        FlagDecision.RuleInformation passedRulesInformation = new FlagDecision.RuleInformation();
         Map<String, Object> evaluatedFeatureMap = new HashMap<>();
         List<EventArchPayload> batchPayloads = new ArrayList<>();
         List<Integer> notInHoldoutIds = new ArrayList<>();
@@ -71,12 +168,7 @@ public class GetFlagAPI {
         /**
          * Decision object to be sent for the integrations
          */
-        Map<String, Object> decision = new HashMap<>();
-        decision.put("featureName", feature != null ? feature.getName() : null);
-        decision.put("featureId", feature != null ? feature.getId() : null);
-        decision.put("featureKey", feature != null ? feature.getKey() : null);
-        decision.put("userId", context != null ? context.getId() : null);
-        decision.put("api", ApiEnum.GET_FLAG);
+        FlagDecision decision = new FlagDecision(feature, context != null ? context.getId() : null, ApiEnum.GET_FLAG);
 
         // create debug event props
         Map<String, Object> standardDebugProps = new HashMap<>();
@@ -87,12 +179,22 @@ public class GetFlagAPI {
         serviceContainer.getDebuggerService().addStandardDebugProps(standardDebugProps);
 
         StorageService storageService = new StorageService();
-        Map<String, Object> storedDataMap = new StorageDecorator().getFeatureFromStorage(featureKey, context, storageService, serviceContainer);
+        // Read and parse the stored record once, it is shared by all the checks below
+        Storage parsedStoredData = null;
+        try {
+            parsedStoredData = new StorageDecorator().getStoredData(featureKey, context, storageService, serviceContainer);
+        } catch (Exception e) {
+            serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "ERROR_PARSING_STORED_DATA", new HashMap<String, Object>() {
+                {
+                    put("err", e.getMessage());
+                    putAll(serviceContainer.getDebuggerService().getStandardDebugProps());
+                }
+            });
+        }
+        Storage storedData = parsedStoredData;
 
         // Check for stored holdout decision - validate against current settings
         try {
-            String storageMapAsString = WingifyClient.objectMapper.writeValueAsString(storedDataMap);
-            Storage storedData = WingifyClient.objectMapper.readValue(storageMapAsString, Storage.class);
             List<Integer> storedIsInHoldoutId = storedData != null ? storedData.getIsInHoldoutId() : null;
             if (storedIsInHoldoutId != null && !storedIsInHoldoutId.isEmpty() && feature != null) {
                 List<Holdout> applicableHoldouts = HoldoutUtil.getApplicableHoldouts(serviceContainer.getSettings(), feature.getId());
@@ -106,10 +208,10 @@ public class GetFlagAPI {
                             }});
 
                             // evaluate new holdouts
-                            Map<String, Object> holdoutResult = HoldoutUtil.getMatchedHoldouts(serviceContainer, feature, context, storedData);
-                            List<Holdout> matchedHoldouts = (List<Holdout>) holdoutResult.get("matchedHoldouts");
-                            List<Holdout> notMatchedHoldouts = (List<Holdout>) holdoutResult.get("notMatchedHoldouts");
-                            List<EventArchPayload> holdoutPayloads = (List<EventArchPayload>) holdoutResult.get("holdoutPayloads");
+                            HoldoutEvaluationResult holdoutResult = HoldoutUtil.getMatchedHoldouts(serviceContainer, feature, context, storedData);
+                            List<Holdout> matchedHoldouts = holdoutResult.getMatchedHoldouts();
+                            List<Holdout> notMatchedHoldouts = holdoutResult.getNotMatchedHoldouts();
+                            List<EventArchPayload> holdoutPayloads = holdoutResult.getHoldoutPayloads();
 
                             List<Integer> updatedHoldoutIds = new ArrayList<>(storedIsInHoldoutId);
                             if (matchedHoldouts != null) {
@@ -153,9 +255,7 @@ public class GetFlagAPI {
                             }
 
                             // If we have batchPayloads, send them now before returning
-                            if (!batchPayloads.isEmpty() && !serviceContainer.getSettingsManager().isGatewayServiceProvided) {
-                                sendImpressionForVariationShownInBatch(batchPayloads, serviceContainer);
-                            }
+                            sendBatchPayloads(batchPayloads, sharedBatchPayloads, serviceContainer);
                             // case when flag is not enabled: send usage tracking - No newly added holdout impression set
                             if (!isVariationShownFired) {
                                 if (serviceContainer.getSettings().getIsTrackingUsageEnabled()) {
@@ -185,8 +285,6 @@ public class GetFlagAPI {
          * If feature is found in the storage, return the stored variation
          */
         try {
-            String storageMapAsString = WingifyClient.objectMapper.writeValueAsString(storedDataMap);
-            Storage storedData = WingifyClient.objectMapper.readValue(storageMapAsString, Storage.class);
             if (storedData != null && storedData.getExperimentVariationId() != null && !storedData.getExperimentVariationId().toString().isEmpty()) {
                 if (storedData.getExperimentKey() != null && !storedData.getExperimentKey().isEmpty()) {
                     Variation variation = getVariationFromCampaignKey(serviceContainer.getSettings(), storedData.getExperimentKey(), storedData.getExperimentVariationId());
@@ -222,7 +320,7 @@ public class GetFlagAPI {
                             }
                         }
 
-                        return new GetFlag(true, variation.getVariables(), context.getSessionId(), serviceContainer.getUuid()); 
+                        return new GetFlag(true, variation.getVariables(), variation.getVariablesByKey(), context.getSessionId(), serviceContainer.getUuid());
                     }
                 }
             } else if (storedData != null && storedData.getRolloutKey() != null && !storedData.getRolloutKey().isEmpty() && storedData.getRolloutId() != null && !storedData.getRolloutId().toString().isEmpty()) {
@@ -261,7 +359,7 @@ public class GetFlagAPI {
                     featureInfo.put("rolloutKey", storedData.getRolloutKey());
                     featureInfo.put("rolloutVariationId", storedData.getRolloutVariationId());
                     evaluatedFeatureMap.put(featureKey, featureInfo);
-                    passedRulesInformation.putAll(featureInfo);
+                    passedRulesInformation.setRollout(storedData.getRolloutId(), storedData.getRolloutKey(), storedData.getRolloutVariationId());
                     isStoredDecision = true;
                 }
             }
@@ -298,41 +396,27 @@ public class GetFlagAPI {
             return new GetFlag(false, new ArrayList<>(), context.getSessionId(), serviceContainer.getUuid());
         }
 
-        serviceContainer.getSegmentationManager().setContextualData(serviceContainer, feature, context);
-
-
-        // Parse storedData for holdout evaluation
-        Storage storedData = null;
-        try {
-            String storageMapAsString = WingifyClient.objectMapper.writeValueAsString(storedDataMap);
-            storedData = WingifyClient.objectMapper.readValue(storageMapAsString, Storage.class);
-        } catch (Exception e) {
-            // already logged above
-        }
+        serviceContainer.getDecisionContext().setSegmentEvaluator(serviceContainer.getSegmentationManager().createEvaluator(serviceContainer, feature, context));
 
-        decision.put("isUserPartOfCampaign", false);
-        decision.put("isPartOfHoldout", false);
-        decision.put("isHoldoutPresent", false);
-        decision.put("holdoutIDs", new ArrayList<>());
 
         // Check for Holdouts
         List<Holdout> notMatchedHoldouts = new ArrayList<>();
         if (feature != null && !isFlagEnabled) {
-            Map<String, Object> holdoutResult = HoldoutUtil.getMatchedHoldouts(serviceContainer, feature, context, storedData);
-            List<Holdout> matchedHoldouts = (List<Holdout>) holdoutResult.get("matchedHoldouts");
-            notMatchedHoldouts = (List<Holdout>) holdoutResult.get("notMatchedHoldouts");
-            List<EventArchPayload> holdoutPayloads = (List<EventArchPayload>) holdoutResult.get("holdoutPayloads");
+            HoldoutEvaluationResult holdoutResult = HoldoutUtil.getMatchedHoldouts(serviceContainer, feature, context, storedData);
+            List<Holdout> matchedHoldouts = holdoutResult.getMatchedHoldouts();
+            notMatchedHoldouts = holdoutResult.getNotMatchedHoldouts();
+            List<EventArchPayload> holdoutPayloads = holdoutResult.getHoldoutPayloads();
 
-            decision.put("isPartOfHoldout", matchedHoldouts != null && !matchedHoldouts.isEmpty());
+            decision.setIsPartOfHoldout(matchedHoldouts != null && !matchedHoldouts.isEmpty());
             if ((matchedHoldouts != null && !matchedHoldouts.isEmpty()) || (notMatchedHoldouts != null && !notMatchedHoldouts.isEmpty())) {
-                decision.put("isHoldoutPresent", true);
+                decision.setIsHoldoutPresent(true);
             }
 
             if (matchedHoldouts != null && !matchedHoldouts.isEmpty()) {
                 String qualifiedHoldoutNames = matchedHoldouts.stream().map(Holdout::getName).collect(Collectors.joining(","));
                 List<Integer> holdoutIdList = matchedHoldouts.stream().map(Holdout::getId).collect(Collectors.toList());
-                decision.put("holdoutIDs", holdoutIdList);
-                decision.put("isEnabled", false);
+                decision.setHoldoutIDs(holdoutIdList);
+                decision.setIsEnabled(false);
 
                 serviceContainer.getLoggerService().log(LogLevelEnum.INFO, "USER_IN_HOLDOUT_GROUP", new HashMap<String, Object>() {{
                     put("userId", context.getId());
@@ -347,8 +431,7 @@ public class GetFlagAPI {
                 holdoutStorageData.put("notInHoldoutId", notMatchedHoldouts.stream().map(Holdout::getId).collect(Collectors.toList()));
                 new StorageDecorator().setDataInStorage(holdoutStorageData, storageService, serviceContainer);
 
-                serviceContainer.getHooksManager().set(decision);
-                serviceContainer.getHooksManager().execute(serviceContainer.getHooksManager().get());
+                executeIntegrations(decision, serviceContainer);
 
                 if (holdoutPayloads != null && !holdoutPayloads.isEmpty()) {
                     // set isVariationShownFired to true as we are sending impression for holdout - user in holdout
@@ -366,9 +449,7 @@ public class GetFlagAPI {
                 }
 
                 // Send all collected payloads (including holdouts)
-                if (!batchPayloads.isEmpty() && !serviceContainer.getSettingsManager().isGatewayServiceProvided) {
-                    sendImpressionForVariationShownInBatch(batchPayloads, serviceContainer);
-                }
+                sendBatchPayloads(batchPayloads, sharedBatchPayloads, serviceContainer);
 
                 return new GetFlag(false, new ArrayList<>(), context.getSessionId(), serviceContainer.getUuid());
             } else {
@@ -404,14 +485,13 @@ public class GetFlagAPI {
          * get all the rollout rules for the feature and evaluate them
          * if any of the rollout rule passes, break the loop and evaluate the traffic
          */
-        List<Campaign> rollOutRules = getSpecificRulesBasedOnType(feature, CampaignTypeEnum.ROLLOUT);
+        List<Campaign> rollOutRules = getSpecificRulesBasedOnType(serviceContainer.getSettings(), feature, CampaignTypeEnum.ROLLOUT);
         if (!rollOutRules.isEmpty() && !isFlagEnabled){
             List<Campaign> rolloutRulesToEvaluate = new ArrayList<>();
             for (Campaign rule : rollOutRules) {
-                Map<String, Object> evaluateRuleResult = RuleEvaluationUtil.evaluateRule(serviceContainer, feature, rule, context, evaluatedFeatureMap, new HashMap<>(), storageService, decision);
-                boolean preSegmentationResult = (Boolean) evaluateRuleResult.get("preSegmentationResult");
+                RuleEvaluationResult evaluateRuleResult = RuleEvaluationUtil.evaluateRule(serviceContainer, feature, rule, context, evaluatedFeatureMap, new HashMap<>(), storageService, decision);
                 // If pre-segmentation passes, add the rule to the list of rules to evaluate
-                if (preSegmentationResult) {
+                if (evaluateRuleResult.getPreSegmentationResult()) {
                     rolloutRulesToEvaluate.add(rule);
                     Map<String, Object> featureMap = new HashMap<>();
                     featureMap.put("rolloutId", rule.getId());
@@ -429,6 +509,7 @@ public class GetFlagAPI {
                 if (variation != null) {
                     isFlagEnabled = true;
                     variablesToReturn = variation.getVariables() != null ? variation.getVariables() : new ArrayList<>();
+                    variablesByKey = variation.getVariablesByKey();
                     shouldCheckForExperimentsRules = true;
                     updateIntegrationsDecisionObject(passedRolloutCampaign, variation, passedRulesInformation, decision);
 
@@ -463,16 +544,15 @@ public class GetFlagAPI {
          */
         if (shouldCheckForExperimentsRules) {
             List<Campaign> experimentRulesToEvaluate = new ArrayList<>();
-            List<Campaign> experimentRules = getAllExperimentRules(feature);
+            List<Campaign> experimentRules = getAllExperimentRules(serviceContainer.getSettings(), feature);
             Map<Integer, String> megGroupWinnerCampaigns = new HashMap<>();
 
             for (Campaign rule : experimentRules) {
                 // Evaluate the rule here
-                Map<String, Object> evaluateRuleResult = RuleEvaluationUtil.evaluateRule(serviceContainer, feature, rule, context, evaluatedFeatureMap, megGroupWinnerCampaigns, storageService, decision);
-                boolean preSegmentationResult = (Boolean) evaluateRuleResult.get("preSegmentationResult");
+                RuleEvaluationResult evaluateRuleResult = RuleEvaluationUtil.evaluateRule(serviceContainer, feature, rule, context, evaluatedFeatureMap, megGroupWinnerCampaigns, storageService, decision);
                 // If pre-segmentation passes, check if the rule has whitelisted variation or not
-                if (preSegmentationResult) {
-                    Variation whitelistedObject = (Variation) evaluateRuleResult.get("whitelistedObject");
+                if (evaluateRuleResult.getPreSegmentationResult()) {
+                    Variation whitelistedObject = evaluateRuleResult.getWhitelistedObject();
                     // If whitelisted object is null, add the rule to the list of rules to evaluate
                     if (whitelistedObject == null) {
                         experimentRulesToEvaluate.add(rule);
@@ -480,13 +560,12 @@ public class GetFlagAPI {
                         // If whitelisted object is not null, update the decision object and handle payload
                         isFlagEnabled = true;
                         variablesToReturn = whitelistedObject.getVariables() != null ? whitelistedObject.getVariables() : new ArrayList<>();
-                        passedRulesInformation.put("experimentId", rule.getId());
-                        passedRulesInformation.put("experimentKey", rule.getKey());
-                        passedRulesInformation.put("experimentVariationId", whitelistedObject.getId());
+                        variablesByKey = whitelistedObject.getVariablesByKey();
+                        passedRulesInformation.setExperiment(rule.getId(), rule.getKey(), whitelistedObject.getId());
                         isStoredDecision = false;
   
                         // Handle whitelisting payload
-                        EventArchPayload whitelistPayload = (EventArchPayload) evaluateRuleResult.get("payload");
+                        EventArchPayload whitelistPayload = evaluateRuleResult.getPayload();
                         if (whitelistPayload != null) {
                             // set isVariationShownFired to true as we are sending impression for whitelist
                             isVariationShownFired = true;
@@ -510,6 +589,7 @@ public class GetFlagAPI {
                 if (variation != null) {
                     isFlagEnabled = true;
                     variablesToReturn = variation.getVariables() != null ? variation.getVariables() : new ArrayList<>();
+                    variablesByKey = variation.getVariablesByKey();
                     updateIntegrationsDecisionObject(campaign, variation, passedRulesInformation, decision);
                     isStoredDecision = false;
 
@@ -540,12 +620,12 @@ public class GetFlagAPI {
             Map<String, Object> storageMap = new HashMap<>();
             storageMap.put("featureKey", feature.getKey());
             storageMap.put("userId", context.getId());
-            storageMap.putAll(passedRulesInformation);
+            passedRulesInformation.putInto(storageMap);
             storageMap.put("notInHoldoutId", notInHoldoutIds);
             new StorageDecorator().setDataInStorage(storageMap, storageService, serviceContainer);
             
             // Set isUserPartOfCampaign to true as a rule evaluated successfully
-            decision.put("isUserPartOfCampaign", true);
+            decision.setIsUserPartOfCampaign(true);
         } else {
             // Write notInHoldoutIds even if flag is not enabled (Holdout Tracking Catch-up Bug)
             Map<String, Object> storageMap = new HashMap<>();
@@ -557,8 +637,7 @@ public class GetFlagAPI {
 
         // Execute the integrations
         if (!isStoredDecision) {
-            serviceContainer.getHooksManager().set(decision);
-            serviceContainer.getHooksManager().execute(serviceContainer.getHooksManager().get());
+            executeIntegrations(decision, serviceContainer);
         }
 
         // if debugger is enabled, update the debug event props
@@ -609,9 +688,7 @@ public class GetFlagAPI {
         }
 
         // Send all collected payloads in a single batch request
-        if (!batchPayloads.isEmpty() && !serviceContainer.getSettingsManager().isGatewayServiceProvided) {
-            sendImpressionForVariationShownInBatch(batchPayloads, serviceContainer);
-        }
+        sendBatchPayloads(batchPayloads, sharedBatchPayloads, serviceContainer);
 
         // case: final fallback - send usage tracking if no primary variationShown event was dispatched during the evaluation
         if (!isVariationShownFired) {
@@ -625,53 +702,82 @@ public class GetFlagAPI {
             }
         }
 
-        return new GetFlag(isFlagEnabled, variablesToReturn, context.getSessionId(), serviceContainer.getUuid());
+        return new GetFlag(isFlagEnabled, variablesToReturn, variablesByKey, context.getSessionId(), serviceContainer.getUuid());
+    }
+
+    /**
+     * This method sends the impressions collected for a flag in a single batch request, or hands them
+     * over to the caller when several flags are evaluated together.
+     * Nothing is batched when the gateway service is used, as the impressions are already sent one by one.
+     * @param batchPayloads  List of payloads collected for the flag.
+     * @param sharedBatchPayloads  List collecting the payloads of several flags, or null.
+     * @param serviceContainer  ServiceContainer object containing the settings manager.
+     */
+    private static void sendBatchPayloads(List<EventArchPayload> batchPayloads, List<EventArchPayload> sharedBatchPayloads, ServiceContainer serviceContainer) {
+        if (batchPayloads.isEmpty() || serviceContainer.getSettingsManager().isGatewayServiceProvided) {
+            return;
+        }
+        if (sharedBatchPayloads != null) {
+            sharedBatchPayloads.addAll(batchPayloads);
+        } else {
+            sendImpressionForVariationShownInBatch(batchPayloads, serviceContainer);
+        }
+    }
+
+    /**
+     * This method records the decision for the integrations and executes the callback.
+     * The decision map is only built when a callback is configured.
+     * @param decision  FlagDecision object to be sent for the integrations.
+     * @param serviceContainer  ServiceContainer object containing the hooks manager.
+     */
+    private static void executeIntegrations(FlagDecision decision, ServiceContainer serviceContainer) {
+        serviceContainer.getDecisionContext().setHookDecision(decision);
+        if (serviceContainer.getHooksManager().hasCallback()) {
+            serviceContainer.getHooksManager().execute(decision.toMap());
+        }
     }
 
     /**
      * This method is used to update the integrations decision object with the campaign and variation details.
      * @param campaign  CampaignModel object containing the campaign details.
      * @param variation  VariationModel object containing the variation details.
-     * @param passedRulesInformation  Map containing the information of the passed rules.
-     * @param decision  Map containing the decision object.
+     * @param passedRulesInformation  RuleInformation object containing the information of the passed rules.
+     * @param decision  FlagDecision object to be sent for the integrations.
      */
-    private static void updateIntegrationsDecisionObject(Campaign campaign, Variation variation, Map<String, Object> passedRulesInformation, Map<String, Object> decision) {
+    private static void updateIntegrationsDecisionObject(Campaign campaign, Variation variation, FlagDecision.RuleInformation passedRulesInformation, FlagDecision decision) {
         if (Objects.equals(campaign.getType(), CampaignTypeEnum.ROLLOUT.getValue())) {
-            passedRulesInformation.put("rolloutId", campaign.getId());
-            passedRulesInformation.put("rolloutKey", campaign.getKey());
-            passedRulesInformation.put("rolloutVariationId", variation.getId());
+            passedRulesInformation.setRollout(campaign.getId(), campaign.getKey(), variation.getId());
         } else {
-            passedRulesInformation.put("experimentId", campaign.getId());
-            passedRulesInformation.put("experimentKey", campaign.getKey());
-            passedRulesInformation.put("experimentVariationId", variation.getId());
+            passedRulesInformation.setExperiment(campaign.getId(), campaign.getKey(), variation.getId());
         }
-        decision.putAll(passedRulesInformation);
+        decision.getRuleInformation().copyFrom(passedRulesInformation);
     }
 
     /**
      * This method is used to update the debug event props with the decision keys.
      * @param serviceContainer  ServiceContainer object containing the debugger service.
-     * @param decision  Map containing the decision object.
+     * @param decision  FlagDecision object containing the decision.
      */
-    private static void _updateDebugEventProps(ServiceContainer serviceContainer, Map<String,Object> decision) {
-        Map<String, Object> decisionKeys = DebuggerServiceUtil.extractDecisionKeys(decision);
-        String featureKey = decision.get("featureKey").toString();
-        String message = "Flag decision given for feature:" + decision.get("featureKey") + ".";
-        if (decision.get("rolloutKey") != null && !decision.get("rolloutKey").toString().isEmpty() && decision.get("rolloutVariationId") != null && !decision.get("rolloutVariationId").toString().isEmpty()) {
-            String rolloutKey = decision.get("rolloutKey").toString();
+    private static void _updateDebugEventProps(ServiceContainer serviceContainer, FlagDecision decision) {
+        FlagDecision.RuleInformation rules = decision.getRuleInformation();
+        Map<String, Object> decisionKeys = DebuggerServiceUtil.extractDecisionKeys(decision.toMap());
+        String featureKey = decision.getFeatureKey();
+        String message = "Flag decision given for feature:" + featureKey + ".";
+        if (rules.getRolloutKey() != null && !rules.getRolloutKey().isEmpty() && rules.getRolloutVariationId() != null) {
+            String rolloutKey = rules.getRolloutKey();
             // Split rollout key to extract just the rollout part (remove featureKey_ prefix)
             if (rolloutKey.startsWith(featureKey + "_")) {
                 rolloutKey = rolloutKey.substring(featureKey.length() + 1);
             }
-            message += " Got Rollout:" + rolloutKey + "." + " Rollout variation id:" + decision.get("rolloutVariationId") + ".";
+            message += " Got Rollout:" + rolloutKey + "." + " Rollout variation id:" + rules.getRolloutVariationId() + ".";
         }
-        if (decision.get("experimentKey") != null && !decision.get("experimentKey").toString().isEmpty() && decision.get("experimentVariationId") != null && !decision.get("experimentVariationId").toString().isEmpty()) {
-            String experimentKey = decision.get("experimentKey").toString();
+        if (rules.getExperimentKey() != null && !rules.getExperimentKey().isEmpty() && rules.getExperimentVariationId() != null) {
+            String experimentKey = rules.getExperimentKey();
             // Split experiment key to extract just the experiment part (remove featureKey_ prefix)
             if (experimentKey.startsWith(featureKey + "_")) {
                 experimentKey = experimentKey.substring(featureKey.length() + 1);
             }
-            message += " Got Experiment:" + experimentKey + "." + " Experiment variation id:" + decision.get("experimentVariationId") + ".";
+            message += " Got Experiment:" + experimentKey + "." + " Experiment variation id:" + rules.getExperimentVariationId() + ".";
         }
         decisionKeys.put("msg", message);
         decisionKeys.put("msg_t", Constants.FLAG_DECISION);
@@ -43,11 +43,12 @@ public class TrackEventAPI {
         try {
             if (FunctionUtil.doesEventBelongToAnyFeature(eventName, serviceContainer.getSettings()) || FunctionUtil.doesEventBelongToAnyHoldout(eventName, serviceContainer.getSettings())) {
                 createAndSendImpressionForTrack(eventName, context, eventProperties, serviceContainer);
-                Map<String, Object> objectToReturn = new HashMap<>();
-                objectToReturn.put("eventName", eventName);
-                objectToReturn.put("api", ApiEnum.TRACK_EVENT.getValue());
-                serviceContainer.getHooksManager().set(objectToReturn);
-                serviceContainer.getHooksManager().execute(serviceContainer.getHooksManager().get());
+                if (serviceContainer.getHooksManager().hasCallback()) {
+                    Map<String, Object> objectToReturn = new HashMap<>();
+                    objectToReturn.put("eventName", eventName);
+                    objectToReturn.put("api", ApiEnum.TRACK_EVENT.getValue());
+                    serviceContainer.getHooksManager().execute(objectToReturn);
+                }
                 return true;
             } else {
                 serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "EVENT_NOT_FOUND", new HashMap<String, Object>() {
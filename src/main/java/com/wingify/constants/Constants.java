@@ -75,6 +75,36 @@ public class Constants {
   public static final int THREAD_POOL_QUEUE_SIZE = 10000;         // Tasks waiting in queue (configurable)
   public static final long THREAD_POOL_KEEP_ALIVE_SECONDS = 60L;  // Idle thread timeout
 
+  // Decision cache defaults
+  public static final int DEFAULT_DECISION_CACHE_MAX_SIZE = 10000;
+  public static final int DEFAULT_DECISION_CACHE_TTL_SECONDS = 300;  // 5 minutes
+
+  // Impression deduplication defaults
+  public static final int DEFAULT_IMPRESSION_DEDUP_MAX_SIZE = 100000;
+  public static final int DEFAULT_IMPRESSION_DEDUP_WINDOW_SECONDS = 60;  // 1 minute
+
+  // Attribute list (inlist) membership cache defaults
+  public static final int DEFAULT_ATTRIBUTE_LIST_CACHE_MAX_SIZE = 10000;
+  public static final int DEFAULT_ATTRIBUTE_LIST_CACHE_TTL_SECONDS = 300;  // 5 minutes
+  public static final int DEFAULT_ATTRIBUTE_LIST_PREFETCH_THREADS = 4;
+
+  // Gateway user data cache defaults
+  public static final int DEFAULT_USER_DATA_CACHE_MAX_SIZE = 10000;
+  public static final int DEFAULT_USER_AGENT_DATA_TTL_SECONDS = 86400;  // 1 day
+  public static final int DEFAULT_LOCATION_DATA_TTL_SECONDS = 3600;  // 1 hour
+
+  // Longest wait for an identical gateway request in flight before retrying it
+  public static final long GATEWAY_COALESCED_REQUEST_WAIT_MS = 30000;
+
+  // Compiled regex cache bound for segmentation patterns
+  public static final int MAX_SEGMENT_PATTERN_CACHE_SIZE = 1000;
+
+  // Bound of the cached UUID namespaces of accounts and SDK keys
+  public static final int MAX_UUID_NAMESPACE_CACHE_SIZE = 100;
+
+  // Number of user IDs bucketed together by one task of the batch bucketing service
+  public static final int DEFAULT_BUCKETING_CHUNK_SIZE = 4096;
+
   // Holdout variation IDs
   public static final int HOLDOUT_VARIATION_IN = 1;      // User is IN holdout
   public static final int HOLDOUT_VARIATION_NOT_IN = 2;  // User is NOT IN holdout
@@ -15,13 +15,18 @@
  */
 package com.wingify.decorators;
 
+import com.wingify.DecisionContext;
+import com.wingify.models.Storage;
 import com.wingify.models.Variation;
 import com.wingify.models.user.WingifyUserContext;
 import com.wingify.packages.logger.enums.LogLevelEnum;
 import com.wingify.services.StorageService;
 import com.wingify.ServiceContainer;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class StorageDecorator {
@@ -35,8 +40,16 @@ public class StorageDecorator {
      * @return The feature
      */
     public Map<String, Object> getFeatureFromStorage(String featureKey, WingifyUserContext context, StorageService storageService, ServiceContainer serviceContainer) {
+        DecisionContext decisionContext = serviceContainer.getDecisionContext();
+        if (decisionContext != null && decisionContext.hasStoredRecord(featureKey)) {
+            return decisionContext.getStoredRecord(featureKey);
+        }
         try {
-            return storageService.getDataInStorage(featureKey, context);
+            Map<String, Object> storedRecord = storageService.getDataInStorage(featureKey, context);
+            if (decisionContext != null) {
+                decisionContext.setStoredRecord(featureKey, storedRecord);
+            }
+            return storedRecord;
         } catch (Exception e) {
             serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "ERROR_READING_DATA_FROM_STORAGE", new HashMap<String, Object>() {{
                 put("err", e.toString());
@@ -46,6 +59,70 @@ public class StorageDecorator {
         }
     }
 
+    /**
+     * Reads the stored records of several features in one connector call and caches them
+     * for the rest of the API call, so later getFeatureFromStorage calls do not hit the connector.
+     * Records that fail to load are left uncached and read again lazily.
+     * @param featureKeys The feature keys
+     * @param context The context
+     * @param storageService The storage service
+     * @param serviceContainer The service container
+     */
+    @SuppressWarnings("unchecked")
+    public void prefetchFeaturesFromStorage(Collection<String> featureKeys, WingifyUserContext context, StorageService storageService, ServiceContainer serviceContainer) {
+        DecisionContext decisionContext = serviceContainer.getDecisionContext();
+        if (decisionContext == null) {
+            return;
+        }
+        List<String> keysToRead = new ArrayList<>();
+        for (String featureKey : featureKeys) {
+            if (!decisionContext.hasStoredRecord(featureKey)) {
+                keysToRead.add(featureKey);
+            }
+        }
+        if (keysToRead.isEmpty()) {
+            return;
+        }
+        try {
+            Map<String, Object> storedRecords = storageService.getAllDataInStorage(keysToRead, context);
+            if (storedRecords == null) {
+                // no connector configured, nothing is stored for any feature
+                storedRecords = new HashMap<>();
+            }
+            for (String featureKey : keysToRead) {
+                decisionContext.setStoredRecord(featureKey, (Map<String, Object>) storedRecords.get(featureKey));
+            }
+        } catch (Exception e) {
+            serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "ERROR_READING_DATA_FROM_STORAGE", new HashMap<String, Object>() {{
+                put("err", e.toString());
+                putAll(serviceContainer.getDebuggerService().getStandardDebugProps());
+            }});
+        }
+    }
+
+    /**
+     * Gets the feature from storage as a Storage model.
+     * The record is read and parsed at most once per API call and shared by all callers.
+     * @param featureKey The feature key
+     * @param context The context
+     * @param storageService The storage service
+     * @param serviceContainer The service container
+     * @return The stored data, or null if nothing is stored
+     * @throws IllegalArgumentException if the stored record holds values of the wrong type
+     */
+    public Storage getStoredData(String featureKey, WingifyUserContext context, StorageService storageService, ServiceContainer serviceContainer) {
+        DecisionContext decisionContext = serviceContainer.getDecisionContext();
+        Storage storedData = decisionContext != null ? decisionContext.getStoredData(featureKey) : null;
+        if (storedData != null) {
+            return storedData;
+        }
+        storedData = Storage.fromMap(getFeatureFromStorage(featureKey, context, storageService, serviceContainer));
+        if (decisionContext != null && storedData != null) {
+            decisionContext.setStoredData(featureKey, storedData);
+        }
+        return storedData;
+    }
+
     /**
      * Sets the data in storage
      * @param data The data to be stored
@@ -103,6 +180,10 @@ public class StorageDecorator {
         }
 
         storageService.setDataInStorage(data);
+        if (serviceContainer.getDecisionContext() != null) {
+            // later reads in this call must see the record just written
+            serviceContainer.getDecisionContext().invalidateStoredRecord(featureKey);
+        }
 
         return new Variation(); // Assuming you need to return a new VariationModel instance.
     }
@@ -0,0 +1,117 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.models;
+
+/**
+ * Variations assigned to a chunk of users by the batch bucketing service. The variation IDs are kept
+ * in one primitive array per rule of the feature, indexed like the user IDs of the chunk.
+ */
+public final class BucketingResult {
+    // variation ID of a user that is not bucketed into the rule
+    public static final int NOT_BUCKETED = 0;
+
+    private final long offset;
+    private final String[] userIds;
+    private final int[] campaignIds;
+    private final String[] ruleKeys;
+    private final int[][] variationIds;
+
+    /**
+     * Creates the result of a chunk of users.
+     * @param offset Position of the first user of the chunk in the input.
+     * @param userIds User IDs of the chunk.
+     * @param campaignIds Campaign IDs of the rules of the feature, in rule order.
+     * @param ruleKeys Rule keys of the rules of the feature, in rule order.
+     * @param variationIds Variation IDs per rule and user.
+     */
+    public BucketingResult(long offset, String[] userIds, int[] campaignIds, String[] ruleKeys, int[][] variationIds) {
+        this.offset = offset;
+        this.userIds = userIds;
+        this.campaignIds = campaignIds;
+        this.ruleKeys = ruleKeys;
+        this.variationIds = variationIds;
+    }
+
+    /**
+     * Returns the position of the first user of the chunk in the input.
+     * @return Offset of the chunk.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the number of users in the chunk.
+     * @return Size of the chunk.
+     */
+    public int size() {
+        return userIds.length;
+    }
+
+    /**
+     * Returns the user ID at the given index of the chunk.
+     * @param userIndex Index of the user in the chunk.
+     * @return User ID.
+     */
+    public String getUserId(int userIndex) {
+        return userIds[userIndex];
+    }
+
+    /**
+     * Returns the number of rules of the feature.
+     * @return Number of rules.
+     */
+    public int getRuleCount() {
+        return campaignIds.length;
+    }
+
+    /**
+     * Returns the campaign ID of the rule at the given index.
+     * @param ruleIndex Index of the rule in the feature.
+     * @return Campaign ID.
+     */
+    public int getCampaignId(int ruleIndex) {
+        return campaignIds[ruleIndex];
+    }
+
+    /**
+     * Returns the key of the rule at the given index.
+     * @param ruleIndex Index of the rule in the feature.
+     * @return Rule key.
+     */
+    public String getRuleKey(int ruleIndex) {
+        return ruleKeys[ruleIndex];
+    }
+
+    /**
+     * Returns the variation ID assigned to a user by a rule.
+     * @param ruleIndex Index of the rule in the feature.
+     * @param userIndex Index of the user in the chunk.
+     * @return Variation ID, or NOT_BUCKETED if the user is not part of the rule.
+     */
+    public int getVariationId(int ruleIndex, int userIndex) {
+        return variationIds[ruleIndex][userIndex];
+    }
+
+    /**
+     * Returns the variation IDs assigned by a rule to the users of the chunk. The array is not copied.
+     * @param ruleIndex Index of the rule in the feature.
+     * @return Variation IDs indexed like the users of the chunk, NOT_BUCKETED for the users not part of the rule.
+     */
+    public int[] getVariationIds(int ruleIndex) {
+        return variationIds[ruleIndex];
+    }
+}
@@ -15,8 +15,11 @@
  */
 package com.wingify.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.wingify.packages.segmentation_evaluator.core.CompiledSegment;
+import com.wingify.packages.segmentation_evaluator.core.SegmentCompiler;
 
 import java.util.List;
 import java.util.Map;
@@ -34,6 +37,14 @@ public class Campaign {
     @JsonProperty("segments")
     private Map<String, Object> segments;
 
+    // Compiled segments of the campaign
+    @JsonIgnore
+    private transient CompiledSegment compiledSegments;
+
+    // Bucket ranges of the variations
+    @JsonIgnore
+    private transient VariationRangeTable variationRangeTable;
+
     @JsonProperty("ruleKey")
     private String ruleKey;
 
@@ -89,6 +100,27 @@ public class Campaign {
     @JsonProperty("segments")
     public void setSegments(Map<String, Object> segments) {
         this.segments = segments;
+        this.compiledSegments = null;
+    }
+
+    /**
+     * @return The compiled segments of the campaign
+     */
+    @JsonIgnore
+    public CompiledSegment getCompiledSegments() {
+        CompiledSegment compiled = this.compiledSegments;
+        if (compiled == null) {
+            compiled = SegmentCompiler.compile(this.segments);
+            this.compiledSegments = compiled;
+        }
+        return compiled;
+    }
+
+    /**
+     * Compiles the segments of this campaign.
+     */
+    public void compileSegments() {
+        this.compiledSegments = SegmentCompiler.compile(this.segments);
     }
 
     @JsonProperty("status")
@@ -160,6 +192,27 @@ public class Campaign {
     @JsonProperty("variations")
     public void setVariations(List<Variation> variations) {
         this.variations = variations;
+        this.variationRangeTable = null;
+    }
+
+    /**
+     * @return The bucket ranges of the variations
+     */
+    @JsonIgnore
+    public VariationRangeTable getVariationRangeTable() {
+        VariationRangeTable table = this.variationRangeTable;
+        if (table == null) {
+            table = VariationRangeTable.of(this.variations);
+            this.variationRangeTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * Builds the bucket ranges of the variations, after their ranges are allocated.
+     */
+    public void buildVariationRangeTable() {
+        this.variationRangeTable = VariationRangeTable.of(this.variations);
     }
 
     @JsonProperty("variables")
@@ -234,6 +287,7 @@ public class Campaign {
         }
         if (model.getSegments() != null) {
             this.segments = model.getSegments();
+            this.compiledSegments = model.compiledSegments;
         }
         if (model.getStatus() != null) {
             this.status = model.getStatus();
@@ -0,0 +1,229 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.models;
+
+import com.wingify.enums.CampaignTypeEnum;
+
+import java.util.*;
+
+/**
+ * Read-only lookup indexes compiled from a processed settings file.
+ * Built once per settings version by SettingsUtil.processSettings so that the decision
+ * hot path can resolve features, campaigns, variations and groups without scanning lists.
+ */
+public final class DecisionSnapshot {
+
+    private final Map<String, Feature> featuresByKey = new HashMap<>();
+    private final Map<Integer, Feature> featuresById = new HashMap<>();
+    private final Map<String, Campaign> campaignsByKey = new HashMap<>();
+    private final Map<Integer, Campaign> campaignsById = new HashMap<>();
+    private final Map<Integer, Map<Integer, Variation>> variationsByCampaignId = new HashMap<>();
+    private final Map<String, List<Campaign>> rolloutRulesByFeatureKey = new HashMap<>();
+    private final Map<String, List<Campaign>> experimentRulesByFeatureKey = new HashMap<>();
+    private final Map<String, List<Integer>> campaignIdsByFeatureKey = new HashMap<>();
+    private final Map<Integer, List<String>> featureKeysByGroupId = new HashMap<>();
+
+    /**
+     * Compiles the indexes for the given processed settings.
+     * Linked campaigns must already be attached to each feature.
+     * @param settings The processed settings model.
+     */
+    public DecisionSnapshot(Settings settings) {
+        if (settings.getCampaigns() != null) {
+            for (Campaign campaign : settings.getCampaigns()) {
+                // keep the first match, mirroring the findFirst semantics of the list scans
+                if (campaign.getKey() != null) {
+                    campaignsByKey.putIfAbsent(campaign.getKey(), campaign);
+                }
+                if (campaign.getId() == null || campaignsById.containsKey(campaign.getId())) {
+                    continue;
+                }
+                campaignsById.put(campaign.getId(), campaign);
+                Map<Integer, Variation> variations = new HashMap<>();
+                if (campaign.getVariations() != null) {
+                    for (Variation variation : campaign.getVariations()) {
+                        if (variation.getId() != null) {
+                            variations.putIfAbsent(variation.getId(), variation);
+                        }
+                    }
+                }
+                variationsByCampaignId.put(campaign.getId(), Collections.unmodifiableMap(variations));
+            }
+        }
+
+        if (settings.getFeatures() != null) {
+            for (Feature feature : settings.getFeatures()) {
+                if (feature.getId() != null) {
+                    featuresById.putIfAbsent(feature.getId(), feature);
+                }
+                if (feature.getKey() == null || featuresByKey.containsKey(feature.getKey())) {
+                    continue;
+                }
+                featuresByKey.put(feature.getKey(), feature);
+
+                List<Campaign> rolloutRules = new ArrayList<>();
+                List<Campaign> experimentRules = new ArrayList<>();
+                if (feature.getRulesLinkedCampaign() != null) {
+                    for (Campaign rule : feature.getRulesLinkedCampaign()) {
+                        if (Objects.equals(rule.getType(), CampaignTypeEnum.ROLLOUT.getValue())) {
+                            rolloutRules.add(rule);
+                        } else if (Objects.equals(rule.getType(), CampaignTypeEnum.AB.getValue())
+                                || Objects.equals(rule.getType(), CampaignTypeEnum.PERSONALIZE.getValue())) {
+                            experimentRules.add(rule);
+                        }
+                    }
+                }
+                rolloutRulesByFeatureKey.put(feature.getKey(), Collections.unmodifiableList(rolloutRules));
+                experimentRulesByFeatureKey.put(feature.getKey(), Collections.unmodifiableList(experimentRules));
+
+                List<Integer> campaignIds = new ArrayList<>();
+                if (feature.getRules() != null) {
+                    for (Rule rule : feature.getRules()) {
+                        campaignIds.add(rule.getCampaignId());
+                    }
+                }
+                campaignIdsByFeatureKey.put(feature.getKey(), Collections.unmodifiableList(campaignIds));
+            }
+        }
+
+        if (settings.getGroups() != null) {
+            for (Map.Entry<String, Groups> entry : settings.getGroups().entrySet()) {
+                Groups group = entry.getValue();
+                if (group == null || group.getCampaigns() == null) {
+                    continue;
+                }
+                try {
+                    featureKeysByGroupId.put(Integer.parseInt(entry.getKey()), Collections.unmodifiableList(resolveGroupFeatureKeys(settings, group.getCampaigns())));
+                } catch (NumberFormatException e) {
+                    // group ids are numeric in settings, anything else is looked up on the fly
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves the feature keys linked to the campaigns of a group, in the same order as
+     * CampaignUtil.getFeatureKeysFromCampaignIds.
+     * @param settings The settings model.
+     * @param campaignIdWithVariation The group campaigns, as campaignId or campaignId_variationId.
+     * @return The feature keys associated with the group campaigns.
+     */
+    private static List<String> resolveGroupFeatureKeys(Settings settings, List<String> campaignIdWithVariation) {
+        List<String> featureKeys = new ArrayList<>();
+        if (settings.getFeatures() == null) {
+            return featureKeys;
+        }
+        for (String campaign : campaignIdWithVariation) {
+            String[] campaignIdVariationId = campaign.split("_");
+            int campaignId = Integer.parseInt(campaignIdVariationId[0]);
+            Integer variationId = (campaignIdVariationId.length > 1) ? Integer.parseInt(campaignIdVariationId[1]) : null;
+            for (Feature feature : settings.getFeatures()) {
+                if (featureKeys.contains(feature.getKey()) || feature.getRules() == null) {
+                    continue;
+                }
+                for (Rule rule : feature.getRules()) {
+                    if (Objects.equals(rule.getCampaignId(), campaignId) && (variationId == null || Objects.equals(rule.getVariationId(), variationId))) {
+                        featureKeys.add(feature.getKey());
+                    }
+                }
+            }
+        }
+        return featureKeys;
+    }
+
+    /**
+     * Retrieves a feature by its key.
+     * @param featureKey The key of the feature.
+     * @return The feature if present, otherwise null.
+     */
+    public Feature getFeatureByKey(String featureKey) {
+        return featuresByKey.get(featureKey);
+    }
+
+    /**
+     * Retrieves a feature by its ID.
+     * @param featureId The ID of the feature.
+     * @return The feature if present, otherwise null.
+     */
+    public Feature getFeatureById(Integer featureId) {
+        return featuresById.get(featureId);
+    }
+
+    /**
+     * Retrieves a campaign by its key.
+     * @param campaignKey The key of the campaign.
+     * @return The campaign if present, otherwise null.
+     */
+    public Campaign getCampaignByKey(String campaignKey) {
+        return campaignsByKey.get(campaignKey);
+    }
+
+    /**
+     * Retrieves a campaign by its ID.
+     * @param campaignId The ID of the campaign.
+     * @return The campaign if present, otherwise null.
+     */
+    public Campaign getCampaignById(Integer campaignId) {
+        return campaignsById.get(campaignId);
+    }
+
+    /**
+     * Retrieves a variation of a campaign by their IDs.
+     * @param campaignId The ID of the campaign.
+     * @param variationId The ID of the variation.
+     * @return The variation if present, otherwise null.
+     */
+    public Variation getVariation(Integer campaignId, Integer variationId) {
+        Map<Integer, Variation> variations = variationsByCampaignId.get(campaignId);
+        return variations == null ? null : variations.get(variationId);
+    }
+
+    /**
+     * Retrieves the rollout rules linked to a feature.
+     * @param featureKey The key of the feature.
+     * @return The rollout rules, or null if the feature is not indexed.
+     */
+    public List<Campaign> getRolloutRules(String featureKey) {
+        return rolloutRulesByFeatureKey.get(featureKey);
+    }
+
+    /**
+     * Retrieves the AB and Personalize rules linked to a feature.
+     * @param featureKey The key of the feature.
+     * @return The experiment rules, or null if the feature is not indexed.
+     */
+    public List<Campaign> getExperimentRules(String featureKey) {
+        return experimentRulesByFeatureKey.get(featureKey);
+    }
+
+    /**
+     * Retrieves the campaign IDs of all rules of a feature.
+     * @param featureKey The key of the feature.
+     * @return The campaign IDs, or null if the feature is not indexed.
+     */
+    public List<Integer> getCampaignIds(String featureKey) {
+        return campaignIdsByFeatureKey.get(featureKey);
+    }
+
+    /**
+     * Retrieves the keys of the features that have a rule in a group.
+     * @param groupId The ID of the group.
+     * @return The feature keys, or null if the group is not indexed.
+     */
+    public List<String> getFeatureKeysForGroup(int groupId) {
+        return featureKeysByGroupId.get(groupId);
+    }
+}
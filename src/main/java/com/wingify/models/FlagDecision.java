@@ -0,0 +1,213 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.models;
+
+import com.wingify.enums.ApiEnum;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decision of a getFlag call, as passed to the integrations callback.
+ * The fields are filled while the flag is evaluated and converted to the callback map
+ * only when a callback is configured.
+ */
+public class FlagDecision {
+    private final String featureName;
+    private final Integer featureId;
+    private final String featureKey;
+    private final String userId;
+    private final ApiEnum api;
+    private boolean isUserPartOfCampaign;
+    private boolean isPartOfHoldout;
+    private boolean isHoldoutPresent;
+    private List<Integer> holdoutIDs = new ArrayList<>();
+    private Boolean isEnabled;
+    private final RuleInformation ruleInformation = new RuleInformation();
+    private Map<String, ?> customVariables;
+    private Map<String, ?> variationTargetingVariables;
+
+    /**
+     * Creates the decision of a feature for a user.
+     * @param feature The feature being evaluated, may be null.
+     * @param userId The ID of the user, may be null.
+     * @param api The API giving the decision.
+     */
+    public FlagDecision(Feature feature, String userId, ApiEnum api) {
+        this.featureName = feature != null ? feature.getName() : null;
+        this.featureId = feature != null ? feature.getId() : null;
+        this.featureKey = feature != null ? feature.getKey() : null;
+        this.userId = userId;
+        this.api = api;
+    }
+
+    public String getFeatureKey() {
+        return featureKey;
+    }
+
+    public void setIsUserPartOfCampaign(boolean isUserPartOfCampaign) {
+        this.isUserPartOfCampaign = isUserPartOfCampaign;
+    }
+
+    public void setIsPartOfHoldout(boolean isPartOfHoldout) {
+        this.isPartOfHoldout = isPartOfHoldout;
+    }
+
+    public void setIsHoldoutPresent(boolean isHoldoutPresent) {
+        this.isHoldoutPresent = isHoldoutPresent;
+    }
+
+    public void setHoldoutIDs(List<Integer> holdoutIDs) {
+        this.holdoutIDs = holdoutIDs;
+    }
+
+    public void setIsEnabled(Boolean isEnabled) {
+        this.isEnabled = isEnabled;
+    }
+
+    public RuleInformation getRuleInformation() {
+        return ruleInformation;
+    }
+
+    public void setCustomVariables(Map<String, ?> customVariables) {
+        this.customVariables = customVariables;
+    }
+
+    public void setVariationTargetingVariables(Map<String, ?> variationTargetingVariables) {
+        this.variationTargetingVariables = variationTargetingVariables;
+    }
+
+    /**
+     * Converts the decision to the map passed to the integrations callback.
+     * Optional keys are only present once they were set during the evaluation.
+     * @return A new map holding the decision.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> decision = new HashMap<>();
+        decision.put("featureName", featureName);
+        decision.put("featureId", featureId);
+        decision.put("featureKey", featureKey);
+        decision.put("userId", userId);
+        decision.put("api", api);
+        decision.put("isUserPartOfCampaign", isUserPartOfCampaign);
+        decision.put("isPartOfHoldout", isPartOfHoldout);
+        decision.put("isHoldoutPresent", isHoldoutPresent);
+        decision.put("holdoutIDs", holdoutIDs);
+        if (isEnabled != null) {
+            decision.put("isEnabled", isEnabled);
+        }
+        ruleInformation.putInto(decision);
+        if (customVariables != null) {
+            decision.put("customVariables", customVariables);
+        }
+        if (variationTargetingVariables != null) {
+            decision.put("variationTargetingVariables", variationTargetingVariables);
+        }
+        return decision;
+    }
+
+    /**
+     * Rollout and experiment rules a user passed for a feature.
+     */
+    public static class RuleInformation {
+        private Integer rolloutId;
+        private String rolloutKey;
+        private Integer rolloutVariationId;
+        private Integer experimentId;
+        private String experimentKey;
+        private Integer experimentVariationId;
+
+        public Integer getRolloutId() {
+            return rolloutId;
+        }
+
+        public String getRolloutKey() {
+            return rolloutKey;
+        }
+
+        public Integer getRolloutVariationId() {
+            return rolloutVariationId;
+        }
+
+        public Integer getExperimentId() {
+            return experimentId;
+        }
+
+        public String getExperimentKey() {
+            return experimentKey;
+        }
+
+        public Integer getExperimentVariationId() {
+            return experimentVariationId;
+        }
+
+        /**
+         * Sets the rollout rule the user passed.
+         * @param rolloutId The ID of the rollout campaign.
+         * @param rolloutKey The key of the rollout campaign.
+         * @param rolloutVariationId The ID of the rollout variation.
+         */
+        public void setRollout(Integer rolloutId, String rolloutKey, Integer rolloutVariationId) {
+            this.rolloutId = rolloutId;
+            this.rolloutKey = rolloutKey;
+            this.rolloutVariationId = rolloutVariationId;
+        }
+
+        /**
+         * Sets the experiment rule the user passed.
+         * @param experimentId The ID of the experiment campaign.
+         * @param experimentKey The key of the experiment campaign.
+         * @param experimentVariationId The ID of the experiment variation.
+         */
+        public void setExperiment(Integer experimentId, String experimentKey, Integer experimentVariationId) {
+            this.experimentId = experimentId;
+            this.experimentKey = experimentKey;
+            this.experimentVariationId = experimentVariationId;
+        }
+
+        /**
+         * Copies the rules set on another instance, leaving the rules it does not have untouched.
+         * @param other The rule information to copy from.
+         */
+        public void copyFrom(RuleInformation other) {
+            if (other.rolloutKey != null) {
+                setRollout(other.rolloutId, other.rolloutKey, other.rolloutVariationId);
+            }
+            if (other.experimentKey != null) {
+                setExperiment(other.experimentId, other.experimentKey, other.experimentVariationId);
+            }
+        }
+
+        /**
+         * Puts the rules that are set into a map, using the storage and decision key names.
+         * @param target The map to fill.
+         */
+        public void putInto(Map<String, Object> target) {
+            if (rolloutKey != null) {
+                target.put("rolloutId", rolloutId);
+                target.put("rolloutKey", rolloutKey);
+                target.put("rolloutVariationId", rolloutVariationId);
+            }
+            if (experimentKey != null) {
+                target.put("experimentId", experimentId);
+                target.put("experimentKey", experimentKey);
+                target.put("experimentVariationId", experimentVariationId);
+            }
+        }
+    }
+}
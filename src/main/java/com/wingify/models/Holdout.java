@@ -16,8 +16,11 @@
 package com.wingify.models;
 
 import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.wingify.packages.segmentation_evaluator.core.CompiledSegment;
+import com.wingify.packages.segmentation_evaluator.core.SegmentCompiler;
 
 import java.util.List;
 import java.util.Map;
@@ -30,6 +33,10 @@ public class Holdout {
     @JsonProperty("segments")
     private Map<String, Object> segments;
 
+    // Compiled segments of the holdout
+    @JsonIgnore
+    private transient CompiledSegment compiledSegments;
+
     @JsonProperty("percentTraffic")
     private Integer percentTraffic;
 
@@ -63,6 +70,27 @@ public class Holdout {
 
     public void setSegments(Map<String, Object> segments) {
         this.segments = segments;
+        this.compiledSegments = null;
+    }
+
+    /**
+     * @return The compiled segments of the holdout
+     */
+    @JsonIgnore
+    public CompiledSegment getCompiledSegments() {
+        CompiledSegment compiled = this.compiledSegments;
+        if (compiled == null) {
+            compiled = SegmentCompiler.compile(this.segments);
+            this.compiledSegments = compiled;
+        }
+        return compiled;
+    }
+
+    /**
+     * Compiles the segments of this holdout.
+     */
+    public void compileSegments() {
+        this.compiledSegments = SegmentCompiler.compile(this.segments);
     }
 
     public Integer getPercentTraffic() {
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.models;
+
+import com.wingify.models.request.EventArchPayload;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of evaluating the holdouts applicable to a feature for a user.
+ */
+public final class HoldoutEvaluationResult {
+    private final List<Holdout> matchedHoldouts;
+    private final List<Holdout> notMatchedHoldouts;
+    private final List<EventArchPayload> holdoutPayloads;
+
+    /**
+     * Creates an empty result, used when no holdout applies.
+     */
+    public HoldoutEvaluationResult() {
+        this(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+    }
+
+    /**
+     * Creates the result of a holdout evaluation.
+     * @param matchedHoldouts Holdouts the user is part of.
+     * @param notMatchedHoldouts Holdouts the user is not part of.
+     * @param holdoutPayloads Impression payloads of all the evaluated holdouts.
+     */
+    public HoldoutEvaluationResult(List<Holdout> matchedHoldouts, List<Holdout> notMatchedHoldouts, List<EventArchPayload> holdoutPayloads) {
+        this.matchedHoldouts = matchedHoldouts;
+        this.notMatchedHoldouts = notMatchedHoldouts;
+        this.holdoutPayloads = holdoutPayloads;
+    }
+
+    public List<Holdout> getMatchedHoldouts() {
+        return matchedHoldouts;
+    }
+
+    public List<Holdout> getNotMatchedHoldouts() {
+        return notMatchedHoldouts;
+    }
+
+    public List<EventArchPayload> getHoldoutPayloads() {
+        return holdoutPayloads;
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.models;
+
+import com.wingify.models.request.EventArchPayload;
+
+/**
+ * Result of the whitelisting and pre-segmentation checks of a rule.
+ */
+public final class RuleEvaluationResult {
+    // shared results for the common outcomes that carry no whitelisted variation
+    public static final RuleEvaluationResult PASSED = new RuleEvaluationResult(true, null, null);
+    public static final RuleEvaluationResult FAILED = new RuleEvaluationResult(false, null, null);
+
+    private final boolean preSegmentationResult;
+    private final Variation whitelistedObject;
+    private final EventArchPayload payload;
+
+    /**
+     * Creates the result of a rule evaluation.
+     * @param preSegmentationResult Whether the rule passed whitelisting or pre-segmentation.
+     * @param whitelistedObject The whitelisted variation, or null.
+     * @param payload The impression payload of the whitelisted variation, or null.
+     */
+    public RuleEvaluationResult(boolean preSegmentationResult, Variation whitelistedObject, EventArchPayload payload) {
+        this.preSegmentationResult = preSegmentationResult;
+        this.whitelistedObject = whitelistedObject;
+        this.payload = payload;
+    }
+
+    /**
+     * Returns the shared result for the given pre-segmentation outcome without a whitelisted variation.
+     * @param preSegmentationResult Whether the rule passed pre-segmentation.
+     * @return The shared result.
+     */
+    public static RuleEvaluationResult of(boolean preSegmentationResult) {
+        return preSegmentationResult ? PASSED : FAILED;
+    }
+
+    public boolean getPreSegmentationResult() {
+        return preSegmentationResult;
+    }
+
+    public Variation getWhitelistedObject() {
+        return whitelistedObject;
+    }
+
+    public EventArchPayload getPayload() {
+        return payload;
+    }
+}
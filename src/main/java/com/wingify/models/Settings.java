@@ -15,6 +15,7 @@
  */
 package com.wingify.models;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.wingify.constants.Constants;
@@ -59,6 +60,10 @@ public class Settings {
     @JsonProperty("isMAU")
     private Boolean isTrackingUsageEnabled = false;
 
+    // Lookup indexes of the decision hot path
+    @JsonIgnore
+    private transient DecisionSnapshot decisionSnapshot;
+
     public void setIsTrackingUsageEnabled(Boolean isTrackingUsageEnabled) {
         this.isTrackingUsageEnabled = isTrackingUsageEnabled;
     }
@@ -190,4 +195,12 @@ public class Settings {
     public void setWebConnectivityEnabled(Boolean isWebConnectivityEnabled) {
         this.isWebConnectivityEnabled = isWebConnectivityEnabled;
     }
+
+    public DecisionSnapshot getDecisionSnapshot() {
+        return decisionSnapshot;
+    }
+
+    public void setDecisionSnapshot(DecisionSnapshot decisionSnapshot) {
+        this.decisionSnapshot = decisionSnapshot;
+    }
 }
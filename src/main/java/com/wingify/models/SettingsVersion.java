@@ -0,0 +1,95 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.models;
+
+import com.wingify.models.schemas.SettingsSchema;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable pairing of a parsed settings file with its schema validation result.
+ * A new version is created every time the client parses settings, so the validation
+ * runs once per settings payload instead of once per API call.
+ */
+public final class SettingsVersion {
+
+    private static final AtomicLong VERSION_SEQUENCE = new AtomicLong();
+
+    private final long id;
+    private final String rawSettings;
+    private final Settings settings;
+    private final boolean valid;
+    private final String validationErrors;
+
+    /**
+     * Validates the parsed settings and captures the result.
+     * @param rawSettings The settings payload as received.
+     * @param settings The parsed settings model, may be null.
+     */
+    public SettingsVersion(String rawSettings, Settings settings) {
+        this.id = VERSION_SEQUENCE.incrementAndGet();
+        this.rawSettings = rawSettings;
+        this.settings = settings;
+        if (settings == null) {
+            this.valid = false;
+            this.validationErrors = "Settings object is null";
+        } else {
+            SettingsSchema validationResult = new SettingsSchema().validateSettings(settings);
+            this.valid = validationResult.isValid();
+            this.validationErrors = validationResult.getErrorsAsString();
+        }
+    }
+
+    /**
+     * Returns the process-wide unique, increasing identifier of this version.
+     * @return The version identifier.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the settings payload this version was parsed from.
+     * @return The raw settings string.
+     */
+    public String getRawSettings() {
+        return rawSettings;
+    }
+
+    /**
+     * Returns the parsed settings model.
+     * @return The settings model, or null if the settings could not be parsed.
+     */
+    public Settings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Returns if the settings passed schema validation.
+     * @return boolean value indicating if the settings are valid
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Returns the schema validation errors.
+     * @return The errors joined as a string, empty when the settings are valid.
+     */
+    public String getValidationErrors() {
+        return validationErrors;
+    }
+}
@@ -15,7 +15,9 @@
  */
 package com.wingify.models;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class Storage {
     private String featureKey;
@@ -110,4 +112,99 @@ public class Storage {
     }
 
 
+
+    /**
+     * Creates a Storage model from the record returned by a storage connector.
+     * Values are coerced the same way the JSON mapper would, without serializing the record.
+     * @param data The stored record, keys not part of the model are ignored.
+     * @return The Storage model, or null if the record is null.
+     * @throws IllegalArgumentException if a value cannot be converted to the type of its field.
+     */
+    public static Storage fromMap(Map<String, Object> data) {
+        if (data == null) {
+            return null;
+        }
+        Storage storage = new Storage();
+        storage.featureKey = toStringValue(data.get("featureKey"), "featureKey");
+        storage.user = toStringValue(data.get("user"), "user");
+        storage.rolloutId = toInteger(data.get("rolloutId"), "rolloutId");
+        storage.rolloutKey = toStringValue(data.get("rolloutKey"), "rolloutKey");
+        storage.rolloutVariationId = toInteger(data.get("rolloutVariationId"), "rolloutVariationId");
+        storage.experimentId = toInteger(data.get("experimentId"), "experimentId");
+        storage.experimentKey = toStringValue(data.get("experimentKey"), "experimentKey");
+        storage.experimentVariationId = toInteger(data.get("experimentVariationId"), "experimentVariationId");
+        storage.isInHoldoutId = toIntegerList(data.get("isInHoldoutId"), "isInHoldoutId");
+        storage.notInHoldoutId = toIntegerList(data.get("notInHoldoutId"), "notInHoldoutId");
+        return storage;
+    }
+
+    /**
+     * Returns a copy of this model whose holdout lists can be modified without affecting this instance.
+     * @return The copied Storage model.
+     */
+    public Storage copy() {
+        Storage storage = new Storage();
+        storage.featureKey = featureKey;
+        storage.user = user;
+        storage.rolloutId = rolloutId;
+        storage.rolloutKey = rolloutKey;
+        storage.rolloutVariationId = rolloutVariationId;
+        storage.experimentId = experimentId;
+        storage.experimentKey = experimentKey;
+        storage.experimentVariationId = experimentVariationId;
+        storage.isInHoldoutId = isInHoldoutId != null ? new ArrayList<>(isInHoldoutId) : null;
+        storage.notInHoldoutId = notInHoldoutId != null ? new ArrayList<>(notInHoldoutId) : null;
+        return storage;
+    }
+
+    private static String toStringValue(Object value, String field) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        throw new IllegalArgumentException("Invalid value for " + field + " in stored data");
+    }
+
+    private static Integer toInteger(Object value, String field) {
+        if (value == null || value instanceof Integer) {
+            return (Integer) value;
+        }
+        if (value instanceof Number) {
+            // like the JSON mapper, numbers outside the int range are rejected instead of overflowing
+            double number = ((Number) value).doubleValue();
+            if (Double.isNaN(number) || number < Integer.MIN_VALUE || number > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid value for " + field + " in stored data");
+            }
+            return ((Number) value).intValue();
+        }
+        if (value instanceof String) {
+            String text = ((String) value).trim();
+            if (text.isEmpty()) {
+                return null;
+            }
+            try {
+                return Integer.parseInt(text);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for " + field + " in stored data");
+            }
+        }
+        throw new IllegalArgumentException("Invalid value for " + field + " in stored data");
+    }
+
+    private static List<Integer> toIntegerList(Object value, String field) {
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("Invalid value for " + field + " in stored data");
+        }
+        List<?> values = (List<?>) value;
+        List<Integer> result = new ArrayList<>(values.size());
+        for (Object item : values) {
+            result.add(toInteger(item, field));
+        }
+        return result;
+    }
 }
@@ -18,6 +18,11 @@ package com.wingify.models;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class Variable {
     @JsonProperty("value")
@@ -60,4 +65,23 @@ public class Variable {
     public void setId(Integer id) {
         this.id = id;
     }
+
+    /**
+     * Builds an immutable key to variable index, keeping the first variable of each key
+     * like a linear scan of the list would.
+     * @param variables The variables to index, may be null.
+     * @return The index of the variables by key.
+     */
+    public static Map<String, Variable> indexByKey(List<Variable> variables) {
+        if (variables == null || variables.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Variable> variablesByKey = new HashMap<>();
+        for (Variable variable : variables) {
+            if (variable != null && variable.getKey() != null) {
+                variablesByKey.putIfAbsent(variable.getKey(), variable);
+            }
+        }
+        return Collections.unmodifiableMap(variablesByKey);
+    }
 }
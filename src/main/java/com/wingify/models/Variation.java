@@ -15,8 +15,11 @@
  */
 package com.wingify.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.wingify.packages.segmentation_evaluator.core.CompiledSegment;
+import com.wingify.packages.segmentation_evaluator.core.SegmentCompiler;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -51,12 +54,20 @@ public class Variation {
     @JsonProperty("variables")
     private List<Variable> variables = new ArrayList<>();
 
+    // Variables of the variation by key
+    @JsonIgnore
+    private transient Map<String, Variable> variablesByKey;
+
     @JsonProperty("variations")
     private List<Variation> variations = new ArrayList<>();
 
     @JsonProperty("segments")
     private Map<String, Object> segments = new HashMap<>();
 
+    // Compiled segments of the variation
+    @JsonIgnore
+    private transient CompiledSegment compiledSegments;
+
     @JsonProperty("salt")
     private String salt;
 
@@ -122,6 +133,32 @@ public class Variation {
 
     public void setVariables(List<Variable> variables) {
         this.variables = variables;
+        this.variablesByKey = null;
+    }
+
+    /**
+     * @return Immutable map of variable key to variable
+     */
+    @JsonIgnore
+    public Map<String, Variable> getVariablesByKey() {
+        Map<String, Variable> index = this.variablesByKey;
+        if (index == null) {
+            index = Variable.indexByKey(this.variables);
+            this.variablesByKey = index;
+        }
+        return index;
+    }
+
+    /**
+     * Builds the key to variable index of this variation and of its nested variations.
+     */
+    public void indexVariables() {
+        this.variablesByKey = Variable.indexByKey(this.variables);
+        if (this.variations != null) {
+            for (Variation variation : this.variations) {
+                variation.indexVariables();
+            }
+        }
     }
 
     public List<Variation> getVariations() {
@@ -138,6 +175,32 @@ public class Variation {
 
     public void setSegments(Map<String, Object> segments) {
         this.segments = segments;
+        this.compiledSegments = null;
+    }
+
+    /**
+     * @return The compiled segments of the variation
+     */
+    @JsonIgnore
+    public CompiledSegment getCompiledSegments() {
+        CompiledSegment compiled = this.compiledSegments;
+        if (compiled == null) {
+            compiled = SegmentCompiler.compile(this.segments);
+            this.compiledSegments = compiled;
+        }
+        return compiled;
+    }
+
+    /**
+     * Compiles the segments of this variation and of its nested variations.
+     */
+    public void compileSegments() {
+        this.compiledSegments = SegmentCompiler.compile(this.segments);
+        if (this.variations != null) {
+            for (Variation variation : this.variations) {
+                variation.compileSegments();
+            }
+        }
     }
 
     public String getType() {return type;}
@@ -0,0 +1,119 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.models;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The bucket ranges of a list of variations, read once into primitive arrays. A bucket value is looked up
+ * with a binary search when the ranges are ascending and disjoint, as allocated for A/B campaigns,
+ * otherwise by a scan in list order, e.g. for the overlapping ranges of rollout variations.
+ */
+public final class VariationRangeTable {
+    private final Variation[] variations;
+    private final int[] startRanges;
+    private final int[] endRanges;
+    private final boolean sorted;
+
+    private VariationRangeTable(Variation[] variations, int[] startRanges, int[] endRanges) {
+        boolean ascending = true;
+        for (int i = 1; i < variations.length && ascending; i++) {
+            ascending = startRanges[i] > endRanges[i - 1];
+        }
+        this.variations = variations;
+        this.startRanges = startRanges;
+        this.endRanges = endRanges;
+        this.sorted = ascending;
+    }
+
+    /**
+     * Builds the range table of variations from their assigned start and end ranges.
+     * @param variations The variations, may be null.
+     * @return The range table of the variations.
+     */
+    public static VariationRangeTable of(List<Variation> variations) {
+        int count = variations == null ? 0 : variations.size();
+        int[] startRanges = new int[count];
+        int[] endRanges = new int[count];
+        for (int i = 0; i < count; i++) {
+            Integer startRange = variations.get(i).getStartRangeVariation();
+            Integer endRange = variations.get(i).getEndRangeVariation();
+            // a variation without a range never matches
+            startRanges[i] = startRange != null && endRange != null ? startRange : 1;
+            endRanges[i] = startRange != null && endRange != null ? endRange : 0;
+        }
+        return of(count == 0 ? new Variation[0] : variations.toArray(new Variation[count]), startRanges, endRanges);
+    }
+
+    /**
+     * Builds the range table of variations from the given ranges, the variations are not modified.
+     * @param variations The variations.
+     * @param startRanges The start range of each variation.
+     * @param endRanges The end range of each variation.
+     * @return The range table of the variations.
+     */
+    public static VariationRangeTable of(Variation[] variations, int[] startRanges, int[] endRanges) {
+        // ranges that cannot hold any bucket value are left out, they never match
+        Variation[] keptVariations = new Variation[variations.length];
+        int[] keptStartRanges = new int[variations.length];
+        int[] keptEndRanges = new int[variations.length];
+        int size = 0;
+        for (int i = 0; i < variations.length; i++) {
+            if (startRanges[i] <= endRanges[i]) {
+                keptVariations[size] = variations[i];
+                keptStartRanges[size] = startRanges[i];
+                keptEndRanges[size] = endRanges[i];
+                size++;
+            }
+        }
+        if (size < variations.length) {
+            keptVariations = Arrays.copyOf(keptVariations, size);
+            keptStartRanges = Arrays.copyOf(keptStartRanges, size);
+            keptEndRanges = Arrays.copyOf(keptEndRanges, size);
+        }
+        return new VariationRangeTable(keptVariations, keptStartRanges, keptEndRanges);
+    }
+
+    /**
+     * Returns the first variation whose range contains the bucket value.
+     * @param bucketValue Bucket value assigned to the user.
+     * @return The variation, or null if no range contains the bucket value.
+     */
+    public Variation find(int bucketValue) {
+        if (!sorted) {
+            for (int i = 0; i < variations.length; i++) {
+                if (bucketValue >= startRanges[i] && bucketValue <= endRanges[i]) {
+                    return variations[i];
+                }
+            }
+            return null;
+        }
+        int low = 0;
+        int high = variations.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (bucketValue < startRanges[mid]) {
+                high = mid - 1;
+            } else if (bucketValue > endRanges[mid]) {
+                low = mid + 1;
+            } else {
+                return variations[mid];
+            }
+        }
+        return null;
+    }
+}
@@ -114,6 +114,11 @@ public class Props {
     this.product = product;
   }
 
+  @JsonProperty("fId")
+  public Integer getfId() {
+    return fId;
+  }
+
   public void setfId(Integer fId) {
     this.fId = fId;
   }
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.models.user;
+
+import com.wingify.constants.Constants;
+
+/**
+ * Attribute list cache configuration class.
+ * Setting it on the init options caches the gateway answers of inlist operands, members and
+ * non members alike, for the given time. When prefetch is enabled, the sibling inlist operands
+ * of an and/or operator are checked concurrently once the evaluation reaches the first of them,
+ * on at most prefetchThreads threads of the cache's own pool.
+ */
+public class AttributeListCacheConfig {
+    private Integer maxSize;
+    private Integer ttlSeconds;
+    private Boolean prefetch;
+    private Integer prefetchThreads;
+
+    public AttributeListCacheConfig() {
+        this.maxSize = Constants.DEFAULT_ATTRIBUTE_LIST_CACHE_MAX_SIZE;
+        this.ttlSeconds = Constants.DEFAULT_ATTRIBUTE_LIST_CACHE_TTL_SECONDS;
+        this.prefetch = true;
+        this.prefetchThreads = Constants.DEFAULT_ATTRIBUTE_LIST_PREFETCH_THREADS;
+    }
+
+    public AttributeListCacheConfig(Integer maxSize, Integer ttlSeconds, Boolean prefetch) {
+        this(maxSize, ttlSeconds, prefetch, Constants.DEFAULT_ATTRIBUTE_LIST_PREFETCH_THREADS);
+    }
+
+    public AttributeListCacheConfig(Integer maxSize, Integer ttlSeconds, Boolean prefetch, Integer prefetchThreads) {
+        this.maxSize = maxSize;
+        this.ttlSeconds = ttlSeconds;
+        this.prefetch = prefetch;
+        this.prefetchThreads = prefetchThreads;
+    }
+
+    public Integer getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(Integer maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Integer getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Integer ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public Boolean getPrefetch() {
+        return prefetch;
+    }
+
+    public void setPrefetch(Boolean prefetch) {
+        this.prefetch = prefetch;
+    }
+
+    public Integer getPrefetchThreads() {
+        return prefetchThreads;
+    }
+
+    public void setPrefetchThreads(Integer prefetchThreads) {
+        this.prefetchThreads = prefetchThreads;
+    }
+
+    @Override
+    public String toString() {
+        return "AttributeListCacheConfig{" +
+                "maxSize=" + maxSize +
+                ", ttlSeconds=" + ttlSeconds +
+                ", prefetch=" + prefetch +
+                ", prefetchThreads=" + prefetchThreads +
+                '}';
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.models.user;
+
+import com.wingify.constants.Constants;
+
+/**
+ * Decision cache configuration class.
+ * Setting it on the init options enables memoization of getFlag decisions per user.
+ */
+public class DecisionCacheConfig {
+    private Integer maxSize;
+    private Integer ttlSeconds;
+
+    public DecisionCacheConfig() {
+        this.maxSize = Constants.DEFAULT_DECISION_CACHE_MAX_SIZE;
+        this.ttlSeconds = Constants.DEFAULT_DECISION_CACHE_TTL_SECONDS;
+    }
+
+    public DecisionCacheConfig(Integer maxSize, Integer ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public Integer getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(Integer maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Integer getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Integer ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "DecisionCacheConfig{" +
+                "maxSize=" + maxSize +
+                ", ttlSeconds=" + ttlSeconds +
+                '}';
+    }
+}
@@ -28,6 +28,8 @@ public class GetFlag {
     private List<Variable> variables = new ArrayList<>();
     private long sessionId;
     private String uuid;
+    // lookup index of the variables, built on first use unless handed over by the SDK
+    private Map<String, Variable> variablesByKey;
 
     public GetFlag() {
         this.isEnabled = false;
@@ -43,6 +45,19 @@ public class GetFlag {
         this.uuid = uuid;
     }
 
+    /**
+     * Creates the flag with a prebuilt variable index, such as the one of a processed variation.
+     * @param isEnabled Whether the flag is enabled.
+     * @param variables Variables of the flag.
+     * @param variablesByKey Immutable key to variable index of the variables, may be null.
+     * @param sessionId Session ID of the call.
+     * @param uuid UUID of the user.
+     */
+    public GetFlag(Boolean isEnabled, List<Variable> variables, Map<String, Variable> variablesByKey, long sessionId, String uuid) {
+        this(isEnabled, variables, sessionId, uuid);
+        this.variablesByKey = variablesByKey;
+    }
+
     public long getSessionId() {
         return sessionId;
     }
@@ -56,20 +71,83 @@ public class GetFlag {
 
     public void setVariables(List<Variable> variables) {
         this.variables = variables;
+        this.variablesByKey = null;
     }
 
     public List<Variable> getVariablesValue() {
         return variables;
     }
 
+    /**
+     * Returns the variables indexed by key.
+     * @return Immutable map of variable key to variable.
+     */
+    public Map<String, Variable> getVariablesByKey() {
+        if (variablesByKey == null) {
+            variablesByKey = Variable.indexByKey(variables);
+        }
+        return variablesByKey;
+    }
+
     // get specific value from variables given key
     public Object getVariable(String key, Object defaultValue) {
-        for (Variable variable : getVariablesValue()) {
-            if (variable.getKey().equals(key)) {
-                return variable.getValue();
-            }
-        }
-        return defaultValue;
+        Variable variable = getVariablesByKey().get(key);
+        return variable != null ? variable.getValue() : defaultValue;
+    }
+
+    /**
+     * Returns the value of an integer variable.
+     * @param key Key of the variable.
+     * @param defaultValue Value returned if the variable is missing or not a number.
+     * @return The integer value of the variable.
+     */
+    public int getInt(String key, int defaultValue) {
+        Object value = getVariable(key, null);
+        return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+    }
+
+    /**
+     * Returns the value of a number variable.
+     * @param key Key of the variable.
+     * @param defaultValue Value returned if the variable is missing or not a number.
+     * @return The double value of the variable.
+     */
+    public double getDouble(String key, double defaultValue) {
+        Object value = getVariable(key, null);
+        return value instanceof Number ? ((Number) value).doubleValue() : defaultValue;
+    }
+
+    /**
+     * Returns the value of a string variable.
+     * @param key Key of the variable.
+     * @param defaultValue Value returned if the variable is missing or not a string.
+     * @return The string value of the variable.
+     */
+    public String getString(String key, String defaultValue) {
+        Object value = getVariable(key, null);
+        return value instanceof String ? (String) value : defaultValue;
+    }
+
+    /**
+     * Returns the value of a boolean variable.
+     * @param key Key of the variable.
+     * @param defaultValue Value returned if the variable is missing or not a boolean.
+     * @return The boolean value of the variable.
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = getVariable(key, null);
+        return value instanceof Boolean ? (Boolean) value : defaultValue;
+    }
+
+    /**
+     * Returns the value of a JSON variable, as parsed from the settings: a Map for objects, a List for arrays.
+     * @param key Key of the variable.
+     * @param defaultValue Value returned if the variable is missing or not a JSON object or array.
+     * @return The JSON value of the variable.
+     */
+    public Object getJson(String key, Object defaultValue) {
+        Object value = getVariable(key, null);
+        return value instanceof Map || value instanceof List ? value : defaultValue;
     }
 
     public List<Map<String, Object>> getVariables() {
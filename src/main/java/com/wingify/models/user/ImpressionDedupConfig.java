@@ -0,0 +1,62 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.models.user;
+
+import com.wingify.constants.Constants;
+
+/**
+ * Impression deduplication configuration class.
+ * Setting it on the init options suppresses variation shown events that were already sent
+ * for the same user, campaign and variation within the window.
+ */
+public class ImpressionDedupConfig {
+    private Integer maxSize;
+    private Integer windowSeconds;
+
+    public ImpressionDedupConfig() {
+        this.maxSize = Constants.DEFAULT_IMPRESSION_DEDUP_MAX_SIZE;
+        this.windowSeconds = Constants.DEFAULT_IMPRESSION_DEDUP_WINDOW_SECONDS;
+    }
+
+    public ImpressionDedupConfig(Integer maxSize, Integer windowSeconds) {
+        this.maxSize = maxSize;
+        this.windowSeconds = windowSeconds;
+    }
+
+    public Integer getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(Integer maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Integer getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public void setWindowSeconds(Integer windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "ImpressionDedupConfig{" +
+                "maxSize=" + maxSize +
+                ", windowSeconds=" + windowSeconds +
+                '}';
+    }
+}
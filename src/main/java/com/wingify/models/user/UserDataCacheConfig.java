@@ -0,0 +1,74 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.models.user;
+
+import com.wingify.constants.Constants;
+
+/**
+ * Gateway user data cache configuration class.
+ * Setting it on the init options caches the device data the gateway service returns for a user agent
+ * and the location it returns for an IP address, each with its own time to live.
+ */
+public class UserDataCacheConfig {
+    private Integer maxSize;
+    private Integer userAgentTtlSeconds;
+    private Integer locationTtlSeconds;
+
+    public UserDataCacheConfig() {
+        this.maxSize = Constants.DEFAULT_USER_DATA_CACHE_MAX_SIZE;
+        this.userAgentTtlSeconds = Constants.DEFAULT_USER_AGENT_DATA_TTL_SECONDS;
+        this.locationTtlSeconds = Constants.DEFAULT_LOCATION_DATA_TTL_SECONDS;
+    }
+
+    public UserDataCacheConfig(Integer maxSize, Integer userAgentTtlSeconds, Integer locationTtlSeconds) {
+        this.maxSize = maxSize;
+        this.userAgentTtlSeconds = userAgentTtlSeconds;
+        this.locationTtlSeconds = locationTtlSeconds;
+    }
+
+    public Integer getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(Integer maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Integer getUserAgentTtlSeconds() {
+        return userAgentTtlSeconds;
+    }
+
+    public void setUserAgentTtlSeconds(Integer userAgentTtlSeconds) {
+        this.userAgentTtlSeconds = userAgentTtlSeconds;
+    }
+
+    public Integer getLocationTtlSeconds() {
+        return locationTtlSeconds;
+    }
+
+    public void setLocationTtlSeconds(Integer locationTtlSeconds) {
+        this.locationTtlSeconds = locationTtlSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "UserDataCacheConfig{" +
+                "maxSize=" + maxSize +
+                ", userAgentTtlSeconds=" + userAgentTtlSeconds +
+                ", locationTtlSeconds=" + locationTtlSeconds +
+                '}';
+    }
+}
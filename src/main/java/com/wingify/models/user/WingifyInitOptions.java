@@ -24,6 +24,7 @@ import com.wingify.interfaces.integration.IntegrationCallback;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 
 public class WingifyInitOptions {
@@ -47,6 +48,12 @@ public class WingifyInitOptions {
     private RetryConfig retryConfig;
     private Map<String, Object> threadPoolConfig = new HashMap<>();
     private String proxyUrl = "";
+    private Executor asyncExecutor;
+    private DecisionCacheConfig decisionCacheConfig;
+    private ImpressionDedupConfig impressionDedupConfig;
+    private AttributeListCacheConfig attributeListCacheConfig;
+    private UserDataCacheConfig userDataCacheConfig;
+    private Integer userUuidCacheMaxSize;
 
     public Map<String, Object> getWingifyMetaData() {
         return _wingify_meta;
@@ -209,4 +216,101 @@ public class WingifyInitOptions {
     public void setProxyUrl(String proxyUrl) {
         this.proxyUrl = proxyUrl;
     }
+
+    /**
+     * Gets the executor used by the asynchronous APIs.
+     * @return The executor, or null if the SDK default is used.
+     */
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * Sets the executor used by getFlagAsync and trackEventAsync.
+     * Any Executor works, e.g. a virtual-thread-per-task executor on JDKs that provide one.
+     * @param asyncExecutor The executor to set.
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * Gets the decision cache configuration.
+     * @return The decision cache configuration, or null if the cache is disabled.
+     */
+    public DecisionCacheConfig getDecisionCacheConfig() {
+        return decisionCacheConfig;
+    }
+
+    /**
+     * Sets the decision cache configuration, enabling memoization of getFlag decisions per user.
+     * @param decisionCacheConfig The decision cache configuration to set.
+     */
+    public void setDecisionCacheConfig(DecisionCacheConfig decisionCacheConfig) {
+        this.decisionCacheConfig = decisionCacheConfig;
+    }
+
+    /**
+     * Gets the impression deduplication configuration.
+     * @return The impression deduplication configuration, or null if deduplication is disabled.
+     */
+    public ImpressionDedupConfig getImpressionDedupConfig() {
+        return impressionDedupConfig;
+    }
+
+    /**
+     * Sets the impression deduplication configuration, enabling suppression of repeated variation shown events.
+     * @param impressionDedupConfig The impression deduplication configuration to set.
+     */
+    public void setImpressionDedupConfig(ImpressionDedupConfig impressionDedupConfig) {
+        this.impressionDedupConfig = impressionDedupConfig;
+    }
+
+    /**
+     * Gets the attribute list cache configuration.
+     * @return The attribute list cache configuration, or null if inlist checks are not cached.
+     */
+    public AttributeListCacheConfig getAttributeListCacheConfig() {
+        return attributeListCacheConfig;
+    }
+
+    /**
+     * Sets the attribute list cache configuration, enabling caching of the inlist checks made with the gateway service.
+     * @param attributeListCacheConfig The attribute list cache configuration to set.
+     */
+    public void setAttributeListCacheConfig(AttributeListCacheConfig attributeListCacheConfig) {
+        this.attributeListCacheConfig = attributeListCacheConfig;
+    }
+
+    /**
+     * Gets the gateway user data cache configuration.
+     * @return The user data cache configuration, or null if user data is fetched on every call.
+     */
+    public UserDataCacheConfig getUserDataCacheConfig() {
+        return userDataCacheConfig;
+    }
+
+    /**
+     * Sets the gateway user data cache configuration, enabling caching of the device and location data of users.
+     * @param userDataCacheConfig The user data cache configuration to set.
+     */
+    public void setUserDataCacheConfig(UserDataCacheConfig userDataCacheConfig) {
+        this.userDataCacheConfig = userDataCacheConfig;
+    }
+
+    /**
+     * Gets the maximum number of user UUIDs cached by this client.
+     * @return The maximum size of the user UUID cache, or null if user UUIDs are generated on every call.
+     */
+    public Integer getUserUuidCacheMaxSize() {
+        return userUuidCacheMaxSize;
+    }
+
+    /**
+     * Sets the maximum number of user UUIDs cached by this client, enabling caching of the UUIDs of hot users.
+     * @param userUuidCacheMaxSize The maximum size of the user UUID cache to set.
+     */
+    public void setUserUuidCacheMaxSize(Integer userUuidCacheMaxSize) {
+        this.userUuidCacheMaxSize = userUuidCacheMaxSize;
+    }
 }
@@ -15,13 +15,13 @@
  */
 package com.wingify.packages.decision_maker;
 
-import com.github.eprst.murmur3.MurmurHash3;
-
 public class DecisionMaker {
 
   private static final int SEED_VALUE = 1; // Seed value for the hash function
   public static final int MAX_TRAFFIC_VALUE = 10000; // Maximum traffic value used as a default scale
   public static final int MAX_CAMPAIGN_VALUE = 100;
+  // up to this scale the double arithmetic of the bucket value is exact, so the integer arithmetic gives the same value
+  private static final long MAX_EXACT_SCALE = 1L << 20;
 
   /**
    * Generates a bucket value for a user by hashing the user ID with murmurHash
@@ -33,16 +33,18 @@ public class DecisionMaker {
    * @return The bucket value of the user
    */
   public int generateBucketValue(long hashValue, int maxValue, int multiplier) {
+    long scale = (long) maxValue * multiplier;
+    if (hashValue >= 0 && hashValue <= 0xFFFFFFFFL && maxValue >= 0 && multiplier >= 0 && scale <= MAX_EXACT_SCALE) {
+      // floor((maxValue * hashValue / 2^32 + 1) * multiplier), without floating point
+      return (int) ((scale * hashValue) >>> 32) + multiplier;
+    }
     double ratio = (double) hashValue / Math.pow(2, 32); // Calculate the ratio of the hash value to the maximum hash value
     double multipliedValue = (maxValue * ratio + 1) * multiplier; // Apply the multiplier after scaling the hash value
     return (int) Math.floor(multipliedValue); // Floor the value to get an integer bucket value
   }
 
   public int generateBucketValue(long hashValue, int maxValue) {
-    int multiplier = 1;
-    double ratio = (double) hashValue / Math.pow(2, 32); // Calculate the ratio of the hash value to the maximum hash value
-    double multipliedValue = (maxValue * ratio + 1) * multiplier; // Apply the multiplier after scaling the hash value
-    return (int) Math.floor(multipliedValue); // Floor the value to get an integer bucket value
+    return generateBucketValue(hashValue, maxValue, 1);
   }
 
   /**
@@ -93,21 +95,45 @@ public class DecisionMaker {
   }
 
   /**
-   * Generates a hash value for a given key using murmurHash.
+   * Generates a hash value for a given key using murmurHash over the UTF-8 encoding of the key.
    *
    * @param hashKey The key to hash
    * @return The generated hash value
    */
   public long generateHashValue(String hashKey) {
+    return toUnsigned(Utf8MurmurHash3.hash(SEED_VALUE, hashKey));
+  }
+
+  /**
+   * Generates the hash value of the key prefix + "_" + bucketingId, without building the key.
+   *
+   * @param prefix The prefix of the key, e.g. the salt or the campaign ID
+   * @param bucketingId The bucketing ID of the user
+   * @return The generated hash value
+   */
+  public long generateHashValue(Object prefix, Object bucketingId) {
+    return toUnsigned(Utf8MurmurHash3.hash(SEED_VALUE, prefix, bucketingId));
+  }
+
+  /**
+   * Generates the hash value of the key prefix + "_" + scope + "_" + bucketingId, without building the key.
+   *
+   * @param prefix The prefix of the key, e.g. the salt or the campaign ID
+   * @param scope The scope of the key, e.g. the account ID
+   * @param bucketingId The bucketing ID of the user
+   * @return The generated hash value
+   */
+  public long generateHashValue(Object prefix, Object scope, Object bucketingId) {
+    return toUnsigned(Utf8MurmurHash3.hash(SEED_VALUE, prefix, scope, bucketingId));
+  }
+
+  private static long toUnsigned(int murmurHash) {
     /**
      * Took reference from StackOverflow (https://stackoverflow.com/) to:
      * Convert the int to unsigned long value
      * Author - Mysticial (https://stackoverflow.com/users/922184/mysticial)
      * Source - https://stackoverflow.com/questions/9578639/best-way-to-convert-a-signed-integer-to-an-unsigned-long
    */
-    int murmurHash = MurmurHash3.murmurhash3_x86_32(hashKey.getBytes(), 0, hashKey.length(), SEED_VALUE);
-    long signedMurmurHash = (murmurHash & 0xFFFFFFFFL);
-    
-    return signedMurmurHash;
+    return murmurHash & 0xFFFFFFFFL;
   }
 }
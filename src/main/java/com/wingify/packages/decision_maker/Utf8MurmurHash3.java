@@ -0,0 +1,178 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.decision_maker;
+
+/**
+ * MurmurHash3 x86_32 over the UTF-8 encoding of a key, fed straight from the chars of the key parts.
+ * Keys made of several parts are hashed as if the parts were joined with "_", so a bucketing key
+ * is hashed without building the joined String or its byte[]. Unpaired surrogates are encoded as
+ * '?', like String.getBytes(StandardCharsets.UTF_8) does.
+ */
+final class Utf8MurmurHash3 {
+    private static final int C1 = 0xcc9e2d51;
+    private static final int C2 = 0x1b873593;
+    private static final char SEPARATOR = '_';
+    // the state is reset on each hash, so each thread reuses a single instance
+    private static final ThreadLocal<Utf8MurmurHash3> HASHERS = ThreadLocal.withInitial(Utf8MurmurHash3::new);
+
+    private int h1;
+    private int k1;
+    private int shift;
+    private int length;
+
+    private Utf8MurmurHash3() {
+    }
+
+    /**
+     * Hashes a key.
+     * @param seed The seed of the hash.
+     * @param key The key to hash.
+     * @return The 32 bit hash.
+     */
+    static int hash(int seed, String key) {
+        Utf8MurmurHash3 hasher = HASHERS.get().reset(seed);
+        hasher.appendChars(key);
+        return hasher.finish();
+    }
+
+    /**
+     * Hashes the key first + "_" + second.
+     * @param seed The seed of the hash.
+     * @param first The first part of the key.
+     * @param second The second part of the key.
+     * @return The 32 bit hash.
+     */
+    static int hash(int seed, Object first, Object second) {
+        Utf8MurmurHash3 hasher = HASHERS.get().reset(seed);
+        hasher.append(first);
+        hasher.appendByte(SEPARATOR);
+        hasher.append(second);
+        return hasher.finish();
+    }
+
+    /**
+     * Hashes the key first + "_" + second + "_" + third.
+     * @param seed The seed of the hash.
+     * @param first The first part of the key.
+     * @param second The second part of the key.
+     * @param third The third part of the key.
+     * @return The 32 bit hash.
+     */
+    static int hash(int seed, Object first, Object second, Object third) {
+        Utf8MurmurHash3 hasher = HASHERS.get().reset(seed);
+        hasher.append(first);
+        hasher.appendByte(SEPARATOR);
+        hasher.append(second);
+        hasher.appendByte(SEPARATOR);
+        hasher.append(third);
+        return hasher.finish();
+    }
+
+    private Utf8MurmurHash3 reset(int seed) {
+        h1 = seed;
+        k1 = 0;
+        shift = 0;
+        length = 0;
+        return this;
+    }
+
+    private void append(Object part) {
+        if (part instanceof Integer || part instanceof Long) {
+            appendNumber(((Number) part).longValue());
+        } else {
+            // same text as string concatenation, null is written as "null"
+            appendChars(String.valueOf(part));
+        }
+    }
+
+    private void appendNumber(long value) {
+        if (value == Long.MIN_VALUE) {
+            appendChars(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            appendByte('-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            appendByte('0' + (int) (value / divisor % 10));
+        }
+    }
+
+    private void appendChars(String chars) {
+        int count = chars.length();
+        for (int i = 0; i < count; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                appendByte(c);
+            } else if (c < 0x800) {
+                appendByte(0xC0 | (c >> 6));
+                appendByte(0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < count && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                    appendByte(0xF0 | (codePoint >> 18));
+                    appendByte(0x80 | ((codePoint >> 12) & 0x3F));
+                    appendByte(0x80 | ((codePoint >> 6) & 0x3F));
+                    appendByte(0x80 | (codePoint & 0x3F));
+                } else {
+                    appendByte('?');
+                }
+            } else {
+                appendByte(0xE0 | (c >> 12));
+                appendByte(0x80 | ((c >> 6) & 0x3F));
+                appendByte(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void appendByte(int b) {
+        // blocks are read little endian
+        k1 |= (b & 0xFF) << shift;
+        shift += 8;
+        length++;
+        if (shift == 32) {
+            h1 ^= mixK1(k1);
+            h1 = Integer.rotateLeft(h1, 13);
+            h1 = h1 * 5 + 0xe6546b64;
+            k1 = 0;
+            shift = 0;
+        }
+    }
+
+    private int finish() {
+        if (shift > 0) {
+            h1 ^= mixK1(k1);
+        }
+        int h = h1 ^ length;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int mixK1(int k) {
+        k *= C1;
+        k = Integer.rotateLeft(k, 15);
+        return k * C2;
+    }
+}
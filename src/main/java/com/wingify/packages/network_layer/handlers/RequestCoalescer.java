@@ -0,0 +1,93 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.network_layer.handlers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical requests, so that they share a single call and its result.
+ * The first caller of a key runs the call on its own thread, the callers arriving while it is in
+ * flight wait for its result. A call is forgotten as soon as it completes, so its result or failure
+ * is never handed to later callers.
+ * @param <V> Type of the result of the call
+ */
+public class RequestCoalescer<V> {
+    private final ConcurrentMap<String, CompletableFuture<V>> inFlightCalls = new ConcurrentHashMap<>();
+    private final long maxWaitMillis;
+
+    /**
+     * @param maxWaitMillis Longest wait for a call in flight, after which a waiting caller retries the call
+     */
+    public RequestCoalescer(long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Runs the call, or waits for the identical call already in flight.
+     * If the call in flight fails or takes longer than the maximum wait, the waiting callers retry it once,
+     * coalesced again so that only one of them makes the call. The failure of the retry is thrown to all of them.
+     * @param key Identity of the call, e.g. the URL and query parameters of a request
+     * @param call The call to run
+     * @return The result of the call, or null if the thread was interrupted while waiting, with its interrupted flag set
+     * @throws IllegalStateException if the call and its retry both failed or timed out, other failures of a call
+     * made by this caller are thrown as they are
+     */
+    public V execute(String key, Supplier<V> call) {
+        return execute(key, call, 1);
+    }
+
+    private V execute(String key, Supplier<V> call, int retries) {
+        CompletableFuture<V> ownCall = new CompletableFuture<>();
+        CompletableFuture<V> inFlightCall = inFlightCalls.putIfAbsent(key, ownCall);
+        if (inFlightCall == null) {
+            return runCall(key, ownCall, call);
+        }
+        try {
+            return inFlightCall.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            if (retries > 0) {
+                // one of the waiting callers retries the call, the others wait for it
+                return execute(key, call, retries - 1);
+            }
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            throw new IllegalStateException(cause.getMessage(), cause);
+        }
+    }
+
+    private V runCall(String key, CompletableFuture<V> ownCall, Supplier<V> call) {
+        V result;
+        try {
+            result = call.get();
+        } catch (RuntimeException | Error e) {
+            // forgotten before it completes, so a waiting caller retrying it cannot find the failed call
+            inFlightCalls.remove(key, ownCall);
+            ownCall.completeExceptionally(e);
+            throw e;
+        }
+        inFlightCalls.remove(key, ownCall);
+        ownCall.complete(result);
+        return result;
+    }
+}
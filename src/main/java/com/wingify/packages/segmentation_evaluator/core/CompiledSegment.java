@@ -0,0 +1,52 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.core;
+
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+import com.wingify.packages.segmentation_evaluator.nodes.SegmentNode;
+
+import java.util.Map;
+
+/**
+ * A segmentation DSL compiled into a tree of {@link SegmentNode}.
+ * Compiled segments are immutable and can be shared by all the requests using the same settings.
+ */
+public final class CompiledSegment {
+    private final SegmentNode root;
+    private final boolean usesCampaignVariation;
+
+    public CompiledSegment(SegmentNode root, boolean usesCampaignVariation) {
+        this.root = root;
+        this.usesCampaignVariation = usesCampaignVariation;
+    }
+
+    /**
+     * Evaluates the compiled segment for a user.
+     * @param evaluator The segment evaluator bound to the user context.
+     * @param properties The properties against which the segment is evaluated.
+     * @return A boolean indicating if the segmentation is valid.
+     */
+    public boolean evaluate(SegmentEvaluator evaluator, Map<String, Object> properties) {
+        return root.evaluate(evaluator, properties);
+    }
+
+    /**
+     * @return true if any node of the DSL is a campaignVariation operand.
+     */
+    public boolean usesCampaignVariation() {
+        return usesCampaignVariation;
+    }
+}
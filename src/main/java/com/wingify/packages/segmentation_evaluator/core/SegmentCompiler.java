@@ -0,0 +1,376 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.wingify.WingifyClient;
+import com.wingify.packages.segmentation_evaluator.enums.SegmentOperatorValueEnum;
+import com.wingify.packages.segmentation_evaluator.nodes.AndNode;
+import com.wingify.packages.segmentation_evaluator.nodes.AttributeListNode;
+import com.wingify.packages.segmentation_evaluator.nodes.CampaignVariationNode;
+import com.wingify.packages.segmentation_evaluator.nodes.CompiledOperand;
+import com.wingify.packages.segmentation_evaluator.nodes.ConstantNode;
+import com.wingify.packages.segmentation_evaluator.nodes.CustomVariableNode;
+import com.wingify.packages.segmentation_evaluator.nodes.FeatureToggleNode;
+import com.wingify.packages.segmentation_evaluator.nodes.InvalidNode;
+import com.wingify.packages.segmentation_evaluator.nodes.LocationNode;
+import com.wingify.packages.segmentation_evaluator.nodes.NotNode;
+import com.wingify.packages.segmentation_evaluator.nodes.OrNode;
+import com.wingify.packages.segmentation_evaluator.nodes.SegmentNode;
+import com.wingify.packages.segmentation_evaluator.nodes.UserAgentNode;
+import com.wingify.packages.segmentation_evaluator.nodes.UserAgentParserNode;
+import com.wingify.packages.segmentation_evaluator.nodes.UserListNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.wingify.packages.segmentation_evaluator.utils.SegmentUtil.getKeyValue;
+import static com.wingify.packages.segmentation_evaluator.utils.SegmentUtil.getWildcardPattern;
+
+/**
+ * Compiles the segmentation DSL into a tree of {@link SegmentNode}, once per settings.
+ * The compiled tree gives the same results as interpreting the DSL. Parts of the DSL that cannot be
+ * compiled become {@link InvalidNode} so that the error is raised only if the evaluation reaches them.
+ * The children of and/or operators are ordered by their static cost, so that cheap checks can decide
+ * the result before gateway calls or storage lookups are made.
+ */
+public final class SegmentCompiler {
+    private static final Pattern LIST_ID_PATTERN = Pattern.compile("inlist\\(([^)]+)\\)");
+
+    private SegmentCompiler() {
+    }
+
+    /**
+     * Compiles the segmentation DSL. This method never throws.
+     * @param dsl The DSL as a JSON string, a map or a JsonNode.
+     * @return The compiled segment.
+     */
+    public static CompiledSegment compile(Object dsl) {
+        try {
+            JsonNode dslNodes = dsl instanceof JsonNode ? (JsonNode) dsl
+                    : dsl instanceof String ? WingifyClient.objectMapper.readValue(dsl.toString(), JsonNode.class)
+                    : WingifyClient.objectMapper.valueToTree(dsl);
+            return new CompiledSegment(compileNode(dslNodes), containsCampaignVariationOperand(dslNodes));
+        } catch (Exception exception) {
+            RuntimeException error = exception instanceof RuntimeException ? (RuntimeException) exception : new IllegalArgumentException(exception.getMessage(), exception);
+            return new CompiledSegment(new InvalidNode(error), false);
+        }
+    }
+
+    /**
+     * Compiles a single node of the DSL. This method never throws.
+     * @param dsl The DSL node, an object with a single operator.
+     * @return The compiled node.
+     */
+    public static SegmentNode compileNode(JsonNode dsl) {
+        try {
+            Map.Entry<String, JsonNode> entry = getKeyValue(dsl);
+            String operator = entry.getKey();
+            JsonNode subDsl = entry.getValue();
+
+            switch (SegmentOperatorValueEnum.fromValue(operator)) {
+                case NOT:
+                    return new NotNode(compileNode(subDsl));
+                case AND:
+                    return compileAnd(subDsl);
+                case OR:
+                    return compileOr(subDsl);
+                case CUSTOM_VARIABLE:
+                    return compileCustomVariable(subDsl);
+                case USER:
+                    return compileUserList(subDsl.toString());
+                case UA:
+                    return new UserAgentNode(CompiledOperand.compile(subDsl.toString()));
+                case WEB_CAMPAIGN_VARIATION:
+                    return compileCampaignVariation(subDsl);
+                default:
+                    return ConstantNode.FALSE;
+            }
+        } catch (RuntimeException exception) {
+            return new InvalidNode(exception);
+        }
+    }
+
+    /**
+     * Compiles the children of an "or" operator.
+     * User agent operands are collected across the children, once they cover all the children the
+     * user agent check decides the result. A feature toggle operand decides the result as soon as it is reached.
+     * @param dslNodes Array of DSL nodes.
+     * @return The compiled node.
+     */
+    private static SegmentNode compileOr(JsonNode dslNodes) {
+        List<SegmentNode> children = new ArrayList<>();
+        List<SegmentNode> userAgentChecks = new ArrayList<>();
+        SegmentNode terminalNode = null;
+        Map<String, List<String>> uaParserMap = new HashMap<>();
+        int keyCount = 0; // Initialize count of keys encountered
+        boolean isUaParser = false;
+
+        for (JsonNode dsl : dslNodes) {
+            try {
+                Iterator<String> fieldNames = dsl.fieldNames();
+                while (terminalNode == null && fieldNames.hasNext()) {
+                    String key = fieldNames.next();
+                    SegmentOperatorValueEnum keyEnum = SegmentOperatorValueEnum.fromValue(key);
+                    // Check for user agent related keys
+                    if (keyEnum == SegmentOperatorValueEnum.OPERATING_SYSTEM ||
+                            keyEnum == SegmentOperatorValueEnum.BROWSER_AGENT ||
+                            keyEnum == SegmentOperatorValueEnum.DEVICE_TYPE ||
+                            keyEnum == SegmentOperatorValueEnum.DEVICE) {
+                        isUaParser = true;
+                        addUserAgentValuesToMap(key, dsl.get(key), uaParserMap);
+                        keyCount++; // Increment count of keys encountered
+                    }
+
+                    // Check for feature toggle based on feature ID
+                    if (keyEnum == SegmentOperatorValueEnum.FEATURE_ID) {
+                        JsonNode featureIdObject = dsl.get(key);
+                        Iterator<String> featureIdKeys = featureIdObject.fieldNames();
+                        if (featureIdKeys.hasNext()) {
+                            String featureIdKey = featureIdKeys.next();
+                            String featureIdValue = featureIdObject.get(featureIdKey).asText();
+                            if (featureIdValue.equals("on") || featureIdValue.equals("off")) {
+                                terminalNode = new FeatureToggleNode(featureIdKey, featureIdValue.equals("off"));
+                            }
+                        }
+                    }
+                }
+            } catch (RuntimeException exception) {
+                terminalNode = new InvalidNode(exception);
+            }
+            if (terminalNode != null) {
+                break;
+            }
+
+            // Check if the count of keys encountered is equal to dslNodes.size()
+            userAgentChecks.add(isUaParser && keyCount == dslNodes.size() ? new UserAgentParserNode(copyUserAgentMap(uaParserMap)) : null);
+            children.add(compileNode(dsl));
+        }
+        orderByCost(children, userAgentChecks);
+        return new OrNode(children, userAgentChecks, terminalNode);
+    }
+
+    /**
+     * Compiles the children of an "and" operator.
+     * Location operands are collected across the children, once they cover all the children the
+     * location check decides the result.
+     * @param dslNodes Array of DSL nodes.
+     * @return The compiled node.
+     */
+    private static SegmentNode compileAnd(JsonNode dslNodes) {
+        List<SegmentNode> children = new ArrayList<>();
+        SegmentNode locationNode = null;
+        Map<String, Object> locationMap = new HashMap<>();
+
+        for (JsonNode dsl : dslNodes) {
+            boolean compiled = false;
+            try {
+                Iterator<String> fieldNames = dsl.fieldNames();
+                while (locationNode == null && fieldNames.hasNext()) {
+                    String key = fieldNames.next();
+                    // Check if the DSL node contains location-related keys
+                    SegmentOperatorValueEnum keyEnum = SegmentOperatorValueEnum.fromValue(key);
+                    if (keyEnum == SegmentOperatorValueEnum.COUNTRY ||
+                            keyEnum == SegmentOperatorValueEnum.REGION ||
+                            keyEnum == SegmentOperatorValueEnum.CITY) {
+                        addLocationValuesToMap(dsl, locationMap);
+                        // Check if the number of location keys matches the number of DSL nodes
+                        if (locationMap.size() == dslNodes.size()) {
+                            locationNode = new LocationNode(Collections.unmodifiableMap(new HashMap<>(locationMap)));
+                        }
+                        continue;
+                    }
+                    if (!compiled) {
+                        children.add(compileNode(dsl));
+                        compiled = true;
+                    }
+                }
+            } catch (RuntimeException exception) {
+                children.add(new InvalidNode(exception));
+                break;
+            }
+            if (locationNode != null) {
+                break;
+            }
+        }
+        orderByCost(children, null);
+        return new AndNode(children, locationNode);
+    }
+
+    /**
+     * Orders the children of an and/or operator by cost, cheapest first, keeping the DSL order for equal costs.
+     * Children that can fail, or that follow a user agent check, keep their position and split the children
+     * into groups ordered separately, so the result is the same as evaluating the children in DSL order.
+     * @param children The compiled children, ordered in place.
+     * @param userAgentChecks The user agent check before each child, or null.
+     */
+    private static void orderByCost(List<SegmentNode> children, List<SegmentNode> userAgentChecks) {
+        int groupStart = 0;
+        for (int i = 0; i <= children.size(); i++) {
+            boolean pinned = i == children.size() || children.get(i).canFail()
+                    || (userAgentChecks != null && userAgentChecks.get(i) != null);
+            if (pinned) {
+                if (i - groupStart > 1) {
+                    children.subList(groupStart, i).sort(Comparator.comparingInt(SegmentNode::getCost));
+                }
+                groupStart = i + 1;
+            }
+        }
+    }
+
+    private static SegmentNode compileCustomVariable(JsonNode subDsl) {
+        Map.Entry<String, JsonNode> entry = getKeyValue(subDsl);
+        String operandKey = entry.getKey();
+        String operandValue = entry.getValue().asText();
+
+        // Handle 'inlist' operand
+        if (operandValue.contains("inlist")) {
+            Matcher matcher = LIST_ID_PATTERN.matcher(operandValue);
+            return new AttributeListNode(operandKey, matcher.find() ? matcher.group(1) : null);
+        }
+        return new CustomVariableNode(operandKey, CompiledOperand.compile(operandValue));
+    }
+
+    private static SegmentNode compileUserList(String dslOperandValue) {
+        String[] users = dslOperandValue.split(",");
+        Set<String> userIds = new HashSet<>(users.length * 2);
+        for (String user : users) {
+            userIds.add(user.trim().replace("\"", ""));
+        }
+        return new UserListNode(Collections.unmodifiableSet(userIds));
+    }
+
+    private static SegmentNode compileCampaignVariation(JsonNode operandNode) {
+        // DSL should be a string or number — numeric campaign ids without quotes are valid and coerced to string.
+        // Anything else (object, array, boolean) is a wiring bug and is considered invalid.
+        if (operandNode == null || operandNode.isNull()) {
+            return new CampaignVariationNode("null", null);
+        }
+        if (!operandNode.isTextual() && !operandNode.isNumber()) {
+            return new CampaignVariationNode(operandNode.getNodeType().name().toLowerCase(), null);
+        }
+        return new CampaignVariationNode(null, operandNode.asText().trim());
+    }
+
+    /**
+     * Adds user agent values from a DSL node to a map.
+     * @param key The user agent key.
+     * @param value The expected value or array of values.
+     * @param uaParserMap Map to store user agent data.
+     */
+    private static void addUserAgentValuesToMap(String key, JsonNode value, Map<String, List<String>> uaParserMap) {
+        List<String> values = uaParserMap.computeIfAbsent(key, k -> new ArrayList<>());
+        // Ensure value is treated as an array of strings
+        if (value.isArray()) {
+            for (JsonNode val : value) {
+                if (val.isTextual()) {
+                    values.add(val.asText());
+                }
+            }
+        } else if (value.isTextual()) {
+            values.add(value.asText());
+        }
+    }
+
+    private static Map<String, List<String>> copyUserAgentMap(Map<String, List<String>> uaParserMap) {
+        Map<String, List<String>> copy = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : uaParserMap.entrySet()) {
+            copy.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+            for (String expectedValue : entry.getValue()) {
+                precompileWildcard(expectedValue);
+            }
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Compiles the pattern of a wildcard user agent value into the pattern cache, so the first
+     * evaluation does not pay for it. Invalid patterns fail when the value is evaluated.
+     * @param expectedValue The expected user agent value.
+     */
+    private static void precompileWildcard(String expectedValue) {
+        try {
+            getWildcardPattern(expectedValue);
+        } catch (RuntimeException exception) {
+            // reported by the evaluation, like any other user agent validation error
+        }
+    }
+
+    /**
+     * Adds location values from a DSL node to a map.
+     * @param dsl DSL node containing location data.
+     * @param locationMap Map to store location data.
+     */
+    private static void addLocationValuesToMap(JsonNode dsl, Map<String, Object> locationMap) {
+        // Add country, region, and city information to the location map if present
+        SegmentOperatorValueEnum keyEnum = SegmentOperatorValueEnum.fromValue(dsl.fieldNames().next());
+        if (keyEnum == SegmentOperatorValueEnum.COUNTRY ||
+                keyEnum == SegmentOperatorValueEnum.REGION ||
+                keyEnum == SegmentOperatorValueEnum.CITY) {
+            locationMap.put(keyEnum.getValue(), dsl.get(keyEnum.getValue()).asText());
+        }
+    }
+
+    /**
+     * Recursively walks the DSL tree and returns true if any node is a campaignVariation operand.
+     *
+     * @param dsl The JSON node representing the segmentation DSL.
+     * @return Boolean indicating whether a campaignVariation operand is present in the DSL.
+     */
+    private static boolean containsCampaignVariationOperand(JsonNode dsl) {
+        // If the DSL node is null or represents a JSON null value, return false
+        if (dsl == null || dsl.isNull()) {
+            return false;
+        }
+
+        if (dsl.isObject()) {
+            // If it's a JSON object, iterate through all its fields
+            Iterator<String> fieldNames = dsl.fieldNames();
+            while (fieldNames.hasNext()) {
+                String fieldName = fieldNames.next();
+
+                // Check if the current field is the web campaign variation operator
+                if (SegmentOperatorValueEnum.WEB_CAMPAIGN_VARIATION.getValue().equals(fieldName)) {
+                    return true;
+                }
+
+                // Recursively check the child node
+                if (containsCampaignVariationOperand(dsl.get(fieldName))) {
+                    return true;
+                }
+            }
+        } else if (dsl.isArray()) {
+            // If it's a JSON array, recursively check all elements
+            for (JsonNode element : dsl) {
+                if (containsCampaignVariationOperand(element)) {
+                    return true;
+                }
+            }
+        }
+
+        // Return false if no campaignVariation operand was found in this branch
+        return false;
+    }
+}
@@ -15,7 +15,7 @@
  */
 package com.wingify.packages.segmentation_evaluator.core;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.wingify.WingifyClient;
 import com.wingify.constants.Constants;
 import com.wingify.enums.UrlEnum;
@@ -24,14 +24,13 @@ import com.wingify.models.Holdout;
 import com.wingify.models.user.GatewayService;
 import com.wingify.models.user.WingifyUserContext;
 import com.wingify.packages.logger.enums.LogLevelEnum;
-import com.wingify.packages.segmentation_evaluator.enums.SegmentOperatorValueEnum;
 import com.wingify.packages.segmentation_evaluator.evaluators.SegmentOperandEvaluator;
 import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
 import com.wingify.ServiceContainer;
 import com.wingify.services.LoggerService;
+import com.wingify.services.UserDataCache;
 
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -39,36 +38,31 @@ import static com.wingify.utils.GatewayServiceUtil.getFromGatewayService;
 import static com.wingify.utils.GatewayServiceUtil.getQueryParams;
 
 public class SegmentationManager {
-  private SegmentEvaluator evaluator;
   private LoggerService loggerService;
 
   public SegmentationManager(LoggerService loggerService) {
     this.loggerService = loggerService;
   }
 
-  public SegmentationManager(LoggerService loggerService, boolean shouldInitializeEvaluator) {
-    this.loggerService = loggerService;
-    if (shouldInitializeEvaluator) {
-      this.evaluator = new SegmentEvaluator();
-    }
-  }
-
   /**
-   * This method sets the contextual data required for segmentation.
+   * This method creates a segment evaluator bound to the given user and fetches the contextual data
+   * required for segmentation. It keeps no state on the manager, so the manager can be shared
+   * between concurrent API calls.
    * @param serviceContainer  ServiceContainer object containing the settings manager.
    * @param feature   FeatureModel object containing the feature settings.
    * @param context   WingifyUserContext object containing the user context.
+   * @return  SegmentEvaluator object bound to the user context.
    */
-  public void setContextualData(ServiceContainer serviceContainer, Feature feature, WingifyUserContext context) {
-    this.evaluator = new SegmentEvaluator();
-    this.evaluator.segmentOperandEvaluator = new SegmentOperandEvaluator(serviceContainer);
-    this.evaluator.context = context;
-    this.evaluator.serviceContainer = serviceContainer;
-    this.evaluator.feature = feature;
+  public SegmentEvaluator createEvaluator(ServiceContainer serviceContainer, Feature feature, WingifyUserContext context) {
+    SegmentEvaluator evaluator = new SegmentEvaluator();
+    evaluator.segmentOperandEvaluator = new SegmentOperandEvaluator(serviceContainer);
+    evaluator.context = context;
+    evaluator.serviceContainer = serviceContainer;
+    evaluator.feature = feature;
 
     // if user agent and ipAddress both are null or empty, return
     if ((context.getUserAgent() == null || context.getUserAgent().isEmpty()) && (context.getIpAddress() == null || context.getIpAddress().isEmpty())) {
-      return;
+      return evaluator;
     }
 
     // Check if any holdout requires gateway service
@@ -80,10 +74,11 @@ public class SegmentationManager {
     }
 
     // If gateway service is required (by feature OR holdouts) and the base URL is not the default one, fetch the data from the gateway service
-    if ((feature.getIsGatewayServiceRequired() || isGatewayServiceRequiredForHoldouts) && serviceContainer.getSettingsManager().isGatewayServiceProvided && (context.getWingify() == null)) {
+    if ((feature.getIsGatewayServiceRequired() || isGatewayServiceRequiredForHoldouts) && serviceContainer.getSettingsManager().isGatewayServiceProvided
+            && context.getWingify() == null && serviceContainer.getDecisionContext().getGatewayData() == null) {
       Map<String, String> queryParams = new HashMap<>();
       if ( (context.getUserAgent() == null || context.getUserAgent().isEmpty() ) && (context.getIpAddress() == null || context.getIpAddress().isEmpty())) {
-        return;
+        return evaluator;
       }
       if (context.getUserAgent() != null) {
         queryParams.put("userAgent", context.getUserAgent());
@@ -94,10 +89,12 @@ public class SegmentationManager {
       }
 
       try {
-        Map<String, String> params = getQueryParams(queryParams);
-        String wingifyGatewayResponse = getFromGatewayService(serviceContainer, params, UrlEnum.GET_USER_DATA.getUrl());
-        GatewayService gatewayServiceModel = WingifyClient.objectMapper.readValue(wingifyGatewayResponse, GatewayService.class);
-        context.setWingify(gatewayServiceModel);
+        UserDataCache userDataCache = serviceContainer.getUserDataCache();
+        GatewayService gatewayServiceModel = userDataCache != null
+                ? userDataCache.get(context.getUserAgent(), context.getIpAddress(), params -> fetchUserData(serviceContainer, params))
+                : fetchUserData(serviceContainer, queryParams);
+        // kept on the request, the caller's context is left as it was passed
+        serviceContainer.getDecisionContext().setGatewayData(gatewayServiceModel);
       } catch (Exception err) {
         loggerService.log(LogLevelEnum.ERROR, "ERROR_SETTING_SEGMENTATION_CONTEXT", new HashMap<String, Object>() {{
           put("err", err.getMessage());
@@ -105,25 +102,43 @@ public class SegmentationManager {
         }});
       }
     }
+    return evaluator;
+  }
+
+  /**
+   * Fetches the user agent and location data of a user from the gateway service.
+   * @param serviceContainer  ServiceContainer object containing the settings manager.
+   * @param queryParams  Map containing the userAgent and/or ipAddress to look up.
+   * @return  GatewayService object containing the user data.
+   */
+  private GatewayService fetchUserData(ServiceContainer serviceContainer, Map<String, String> queryParams) {
+    try {
+      Map<String, String> params = getQueryParams(queryParams);
+      String wingifyGatewayResponse = getFromGatewayService(serviceContainer, params, UrlEnum.GET_USER_DATA.getUrl());
+      return WingifyClient.objectMapper.readValue(wingifyGatewayResponse, GatewayService.class);
+    } catch (JsonProcessingException err) {
+      throw new IllegalStateException(err.getMessage(), err);
+    }
   }
 
   /**
-   * This method validates the segmentation for the given DSL and properties.
-   * @param dsl     Object containing the segmentation DSL.
+   * This method validates the segmentation for the given DSL and properties using the given evaluator.
+   * The DSL is compiled once per settings, see the getCompiledSegments getters of the models.
+   * @param evaluator SegmentEvaluator object bound to the user context.
+   * @param segment     CompiledSegment of the segmentation DSL.
    * @param properties  Map containing the properties required for segmentation.
    * @return  Boolean value indicating whether the segmentation is valid or not.
    */
-  public boolean validateSegmentation(Object dsl, Map<String, Object> properties) {
+  public boolean validateSegmentation(SegmentEvaluator evaluator, CompiledSegment segment, Map<String, Object> properties) {
     try {
-      JsonNode dslNodes = dsl instanceof String ? WingifyClient.objectMapper.readValue(dsl.toString(), JsonNode.class) : WingifyClient.objectMapper.valueToTree(dsl);
       // If the segment uses campaignVariation but the caller provided no webTestingCampaigns, fail the
       // whole rule immediately. Without this guard, NOT(campaignVariation) would flip to true when the
       // inner operand evaluates false due to a missing map — giving a wrong "user passes" result.
-      if (containsCampaignVariationOperand(dslNodes) && !isWebTestingCampaignsProvided()) {
+      if (segment.usesCampaignVariation() && !isWebTestingCampaignsProvided(evaluator)) {
         return false;
       }
 
-      return evaluator.isSegmentationValid(dslNodes, properties);
+      return segment.evaluate(evaluator, properties);
     } catch (Exception exception) {
       loggerService.log(LogLevelEnum.ERROR, "ERROR_VALIDATING_SEGMENTATION", new HashMap<String, Object>() {{
         put("err", exception.getMessage());
@@ -135,9 +150,10 @@ public class SegmentationManager {
   /**
    * Returns true if the caller passed webTestingCampaigns in context.platformVariables.
    * 
+   * @param evaluator SegmentEvaluator object bound to the user context.
    * @return Boolean indicating whether webTestingCampaigns is present in platform variables.
    */
-  private boolean isWebTestingCampaignsProvided() {
+  private boolean isWebTestingCampaignsProvided(SegmentEvaluator evaluator) {
     WingifyUserContext context = evaluator.context;
     
     // Return false if context or platform variables are not provided
@@ -148,45 +164,4 @@ public class SegmentationManager {
     // Check if the webTestingCampaigns key exists in the platform variables map
     return context.getPlatformVariables().get("webTestingCampaigns") != null;
   }
-
-  /**
-   * Recursively walks the DSL tree and returns true if any node is a campaignVariation operand.
-   * 
-   * @param dsl The JSON node representing the segmentation DSL.
-   * @return Boolean indicating whether a campaignVariation operand is present in the DSL.
-   */
-  private boolean containsCampaignVariationOperand(JsonNode dsl) {
-    // If the DSL node is null or represents a JSON null value, return false
-    if (dsl == null || dsl.isNull()) {
-      return false;
-    }
-    
-    if (dsl.isObject()) {
-      // If it's a JSON object, iterate through all its fields
-      Iterator<String> fieldNames = dsl.fieldNames();
-      while (fieldNames.hasNext()) {
-        String fieldName = fieldNames.next();
-        
-        // Check if the current field is the web campaign variation operator
-        if (SegmentOperatorValueEnum.WEB_CAMPAIGN_VARIATION.getValue().equals(fieldName)) {
-          return true;
-        }
-        
-        // Recursively check the child node
-        if (containsCampaignVariationOperand(dsl.get(fieldName))) {
-          return true;
-        }
-      }
-    } else if (dsl.isArray()) {
-      // If it's a JSON array, recursively check all elements
-      for (JsonNode element : dsl) {
-        if (containsCampaignVariationOperand(element)) {
-          return true;
-        }
-      }
-    }
-    
-    // Return false if no campaignVariation operand was found in this branch
-    return false;
-  }
 }
@@ -15,6 +15,8 @@
  */
 package com.wingify.packages.segmentation_evaluator.enums;
 
+import java.util.regex.Pattern;
+
 public enum SegmentOperandRegexEnum {
   LOWER("^lower"),
   LOWER_MATCH("^lower\\((.*)\\)"),
@@ -30,12 +32,18 @@ public enum SegmentOperandRegexEnum {
   LESS_THAN_EQUAL_TO_MATCH("^lte\\((\\d+\\.?\\d*|\\.\\d+)\\)");
 
   private final String regex;
+  private final Pattern pattern;
 
   SegmentOperandRegexEnum(String regex) {
     this.regex = regex;
+    this.pattern = Pattern.compile(regex);
   }
 
   public String getRegex() {
     return regex;
   }
+
+  public Pattern getPattern() {
+    return pattern;
+  }
 }
@@ -0,0 +1,84 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.evaluators;
+
+import static com.wingify.packages.segmentation_evaluator.utils.SegmentUtil.foldCase;
+
+/**
+ * The value of a custom variable as read by the operands of a segment. The raw value is normalized
+ * once into its string, case-folded and numeric forms, so operands compare it without any parsing.
+ * Booleans are held in their canonical "true" / "false" string form, which is how operands compare them.
+ */
+public final class AttributeValue {
+    private final Object rawValue;
+    private final String value;
+    private final String lowerCaseValue;
+    private final float number;
+    private final NumberFormatException numberError;
+
+    AttributeValue(Object rawValue) {
+        this.rawValue = rawValue;
+        String tagValue = SegmentOperandEvaluator.preProcessTagValue(rawValue == null ? "" : rawValue.toString());
+
+        // same as SegmentOperandEvaluator.convertValue, keeping the parsed number
+        String normalizedValue = tagValue;
+        float parsedNumber = 0;
+        NumberFormatException parseError = null;
+        try {
+            normalizedValue = SegmentOperandEvaluator.formatNumber(Double.parseDouble(tagValue));
+            parsedNumber = Float.parseFloat(normalizedValue);
+        } catch (NumberFormatException e) {
+            parseError = e;
+        }
+        this.value = normalizedValue;
+        this.lowerCaseValue = foldCase(normalizedValue);
+        this.number = parsedNumber;
+        this.numberError = parseError;
+    }
+
+    /**
+     * @return The raw value of the custom variable, used to detect a changed value.
+     */
+    Object getRawValue() {
+        return rawValue;
+    }
+
+    /**
+     * @return The pre-processed and converted value, compared by the string operands.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * @return The case-folded value, compared by the lower operand.
+     */
+    public String getLowerCaseValue() {
+        return lowerCaseValue;
+    }
+
+    /**
+     * Returns the value as a number, compared by the numeric operands.
+     * @return The parsed value.
+     * @throws NumberFormatException if the value is not numeric.
+     */
+    public float getNumber() {
+        if (numberError != null) {
+            throw numberError;
+        }
+        return number;
+    }
+}
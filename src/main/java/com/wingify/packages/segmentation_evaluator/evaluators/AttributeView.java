@@ -0,0 +1,72 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.evaluators;
+
+import com.wingify.models.user.WingifyUserContext;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The custom variables and variation targeting variables of a user, normalized once per request.
+ * Values are looked up by identity, so the copies of the context maps made while deciding, e.g. with
+ * the _vwoUserId added, still read the normalized values.
+ */
+public final class AttributeView {
+    private static final AttributeView EMPTY = new AttributeView(Collections.emptyMap());
+
+    private final Map<Object, AttributeValue> values;
+
+    private AttributeView(Map<Object, AttributeValue> values) {
+        this.values = values;
+    }
+
+    /**
+     * Normalizes the custom variables and variation targeting variables of the given user.
+     * @param context The user context, may be null.
+     * @return The attribute view of the user.
+     */
+    public static AttributeView of(WingifyUserContext context) {
+        if (context == null) {
+            return EMPTY;
+        }
+        Map<Object, AttributeValue> values = new IdentityHashMap<>();
+        addValues(values, context.getCustomVariables());
+        addValues(values, context.getVariationTargetingVariables());
+        return values.isEmpty() ? EMPTY : new AttributeView(Collections.unmodifiableMap(values));
+    }
+
+    /**
+     * Returns the normalized form of a raw value of the user context.
+     * @param rawValue The raw value of a custom variable.
+     * @return The normalized value, or null if the value is not one of the user context.
+     */
+    public AttributeValue get(Object rawValue) {
+        return values.get(rawValue);
+    }
+
+    private static void addValues(Map<Object, AttributeValue> values, Map<String, ?> variables) {
+        if (variables == null) {
+            return;
+        }
+        for (Object rawValue : variables.values()) {
+            if (!values.containsKey(rawValue)) {
+                values.put(rawValue, new AttributeValue(rawValue));
+            }
+        }
+    }
+}
@@ -15,14 +15,12 @@
  */
 package com.wingify.packages.segmentation_evaluator.evaluators;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.wingify.WingifyClient;
 import com.wingify.decorators.StorageDecorator;
 import com.wingify.models.Feature;
 import com.wingify.models.Storage;
+import com.wingify.models.user.GatewayService;
 import com.wingify.models.user.WingifyUserContext;
 import com.wingify.packages.logger.enums.LogLevelEnum;
-import com.wingify.packages.segmentation_evaluator.enums.SegmentOperatorValueEnum;
 import com.wingify.ServiceContainer;
 import com.wingify.services.StorageService;
 
@@ -34,188 +32,37 @@ public class SegmentEvaluator {
     public ServiceContainer serviceContainer;
     public Feature feature;
     public SegmentOperandEvaluator segmentOperandEvaluator;
+    // the custom variables of the user context, normalized on the first read
+    private AttributeView attributeView;
+    // values of other properties read during this request, keyed by the variable name
+    private final Map<String, AttributeValue> attributeValues = new HashMap<>();
 
     /**
-     * Validates if the segmentation defined in the DSL is applicable based on the provided properties.
-     * @param dsl The domain-specific language defining the segmentation rules.
-     * @param properties The properties against which the DSL rules are evaluated.
-     * @return A boolean indicating if the segmentation is valid.
+     * Returns the value of a custom variable, normalized once per request and shared by every operand reading it.
+     * Values of the user context are read from its attribute view, other values are normalized again if the
+     * variable holds a different value than when it was first read.
+     * @param properties The properties holding the custom variable.
+     * @param key The name of the custom variable.
+     * @return The value of the custom variable, or null if the properties do not contain it.
      */
-    public boolean isSegmentationValid(JsonNode dsl, Map<String, Object> properties) {
-        Map.Entry<String, JsonNode> entry = getKeyValue(dsl);
-        String operator = entry.getKey();
-        JsonNode subDsl = entry.getValue();
-
-        // Evaluate based on the type of segmentation operator
-        SegmentOperatorValueEnum operatorEnum = SegmentOperatorValueEnum.fromValue(operator);
-
-        switch (operatorEnum) {
-            case NOT:
-                boolean result = isSegmentationValid(subDsl, properties);
-                return !result;
-            case AND:
-                return every(subDsl, properties);
-            case OR:
-                return some(subDsl, properties);
-            case CUSTOM_VARIABLE:
-                return segmentOperandEvaluator.evaluateCustomVariableDSL(subDsl, properties);
-            case USER:
-                return segmentOperandEvaluator.evaluateUserDSL(subDsl.toString(), properties);
-            case UA:
-                return segmentOperandEvaluator.evaluateUserAgentDSL(subDsl.toString(), context);
-            case WEB_CAMPAIGN_VARIATION:
-                return segmentOperandEvaluator.evaluateCampaignVariationDSL(subDsl, context);
-            default:
-                return false;
+    public AttributeValue getAttributeValue(Map<String, Object> properties, String key) {
+        Object rawValue = properties.get(key);
+        if (rawValue == null && !properties.containsKey(key)) {
+            return null;
         }
-    }
-
-    /**
-     * Evaluates if any of the DSL nodes are valid using the OR logic.
-     * @param dslNodes Array of DSL nodes to evaluate.
-     * @param customVariables Custom variables provided for evaluation.
-     * @return A boolean indicating if any of the nodes are valid.
-     */
-    public boolean some(JsonNode dslNodes, Map<String, Object> customVariables) {
-        Map<String, List<String>> uaParserMap = new HashMap<>();
-        int keyCount = 0; // Initialize count of keys encountered
-        boolean isUaParser = false;
-
-        for (JsonNode dsl : dslNodes) {
-            Iterator<String> fieldNames = dsl.fieldNames();
-            while (fieldNames.hasNext()) {
-                String key = fieldNames.next();
-                // Check for user agent related keys
-                SegmentOperatorValueEnum keyEnum = SegmentOperatorValueEnum.fromValue(key);
-                if (keyEnum == SegmentOperatorValueEnum.OPERATING_SYSTEM ||
-                        keyEnum == SegmentOperatorValueEnum.BROWSER_AGENT ||
-                        keyEnum == SegmentOperatorValueEnum.DEVICE_TYPE ||
-                        keyEnum == SegmentOperatorValueEnum.DEVICE ) {
-                    isUaParser = true;
-                    JsonNode value = dsl.get(key);
-
-                    if (!uaParserMap.containsKey(key)) {
-                        uaParserMap.put(key, new ArrayList<>());
-                    }
-
-                    // Ensure value is treated as an array of strings
-                    if (value.isArray()) {
-                        for (JsonNode val : value) {
-                            if (val.isTextual()) {
-                                uaParserMap.get(key).add(val.asText());
-                            }
-                        }
-                    } else if (value.isTextual()) {
-                        uaParserMap.get(key).add(value.asText());
-                    }
-
-                    keyCount++; // Increment count of keys encountered
-                }
-
-                // Check for feature toggle based on feature ID
-                if (keyEnum == SegmentOperatorValueEnum.FEATURE_ID) {
-                    JsonNode featureIdObject = dsl.get(key);
-                    Iterator<String> featureIdKeys = featureIdObject.fieldNames();
-                    if (featureIdKeys.hasNext()) {
-                        String featureIdKey = featureIdKeys.next();
-                        String featureIdValue = featureIdObject.get(featureIdKey).asText();
-
-                        if (featureIdValue.equals("on") || featureIdValue.equals("off")) {
-                            List<Feature> features = serviceContainer.getSettings().getFeatures();
-                            Feature feature = features.stream()
-                                    .filter(f -> f.getId() == Integer.parseInt(featureIdKey))
-                                    .findFirst()
-                                    .orElse(null);
-
-                            if (feature != null) {
-                                String featureKey = feature.getKey();
-                                boolean result = checkInUserStorage(featureKey, context);
-                                if (featureIdValue.equals("off")) {
-                                    return !result;
-                                }
-                                return result;
-                            } else {
-                                serviceContainer.getLoggerService().log(LogLevelEnum.DEBUG, "Feature not found with featureIdKey: " + featureIdKey);
-                                return false; // Handle the case when feature is not found
-                            }
-                        }
-                    }
-                }
-            }
-
-            // Check if the count of keys encountered is equal to dslNodes.size()
-            if (isUaParser && keyCount == dslNodes.size()) {
-                try {
-                    boolean uaParserResult = checkUserAgentParser(uaParserMap);
-                    return uaParserResult;
-                } catch (Exception err) {
-                    serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "USER_AGENT_VALIDATION_ERROR", new HashMap<String, Object>() {
-                        {
-                            put("err", err.getMessage());
-                            putAll(serviceContainer.getDebuggerService().getStandardDebugProps());
-                        }
-                    });
-                }
-            }
-
-            // Recursively check each DSL node
-            if (isSegmentationValid(dsl, customVariables)) {
-                return true;
-            }
+        if (attributeView == null) {
+            attributeView = AttributeView.of(context);
         }
-        return false;
-    }
-
-    /**
-     * Evaluates all DSL nodes using the AND logic.
-     * @param dslNodes Array of DSL nodes to evaluate.
-     * @param customVariables Custom variables provided for evaluation.
-     * @return A boolean indicating if all nodes are valid.
-     */
-    public boolean every(JsonNode dslNodes, Map<String, Object> customVariables) {
-        Map<String, Object> locationMap = new HashMap<>();
-        for (JsonNode dsl : dslNodes) {
-            Iterator<String> fieldNames = dsl.fieldNames();
-            while (fieldNames.hasNext()) {
-                String key = fieldNames.next();
-                // Check if the DSL node contains location-related keys
-                SegmentOperatorValueEnum keyEnum = SegmentOperatorValueEnum.fromValue(key);
-                if (keyEnum == SegmentOperatorValueEnum.COUNTRY ||
-                        keyEnum == SegmentOperatorValueEnum.REGION ||
-                        keyEnum == SegmentOperatorValueEnum.CITY) {
-                    addLocationValuesToMap(dsl, locationMap);
-                    // Check if the number of location keys matches the number of DSL nodes
-                    if (locationMap.size() == dslNodes.size()) {
-                        return checkLocationPreSegmentation(locationMap);
-                    }
-                    continue;
-                }
-                boolean res = isSegmentationValid(dsl, customVariables);
-                if (!res) {
-                    return false;
-                }
-            }
+        AttributeValue attributeValue = attributeView.get(rawValue);
+        if (attributeValue != null) {
+            return attributeValue;
         }
-        return true;
-    }
-
-    /**
-     * Adds location values from a DSL node to a map.
-     * @param dsl DSL node containing location data.
-     * @param locationMap Map to store location data.
-     */
-    public void addLocationValuesToMap(JsonNode dsl, Map<String, Object> locationMap) {
-        // Add country, region, and city information to the location map if present
-        SegmentOperatorValueEnum keyEnum = SegmentOperatorValueEnum.fromValue(dsl.fieldNames().next());
-        if (keyEnum == SegmentOperatorValueEnum.COUNTRY) {
-            locationMap.put(keyEnum.getValue(), dsl.get(keyEnum.getValue()).asText());
-        }
-        if (keyEnum == SegmentOperatorValueEnum.REGION) {
-            locationMap.put(keyEnum.getValue(), dsl.get(keyEnum.getValue()).asText());
-        }
-        if (keyEnum == SegmentOperatorValueEnum.CITY) {
-            locationMap.put(keyEnum.getValue(), dsl.get(keyEnum.getValue()).asText());
+        attributeValue = attributeValues.get(key);
+        if (attributeValue == null || attributeValue.getRawValue() != rawValue) {
+            attributeValue = new AttributeValue(rawValue);
+            attributeValues.put(key, attributeValue);
         }
+        return attributeValue;
     }
 
     /**
@@ -234,10 +81,11 @@ public class SegmentEvaluator {
             return false;
         }
         // Check if location data is available and matches the expected values
-        if (context.getWingify() == null || context.getWingify().getLocation() == null || context.getWingify().getLocation().isEmpty()) {
+        GatewayService gatewayData = getGatewayData();
+        if (gatewayData == null || gatewayData.getLocation() == null || gatewayData.getLocation().isEmpty()) {
             return false;
         }
-        return valuesMatch(locationMap, context.getWingify().getLocation());
+        return valuesMatch(locationMap, gatewayData.getLocation());
     }
 
     /**
@@ -256,11 +104,23 @@ public class SegmentEvaluator {
             return false;
         }
         // Check if user agent data is available and matches the expected values
-        if (context.getWingify() == null || context.getWingify().getUserAgent() == null || context.getWingify().getUserAgent().isEmpty()) {
+        GatewayService gatewayData = getGatewayData();
+        if (gatewayData == null || gatewayData.getUserAgent() == null || gatewayData.getUserAgent().isEmpty()) {
             return false;
         }
 
-        return checkValuePresent(uaParserMap, context.getWingify().getUserAgent());
+        return checkValuePresent(uaParserMap, gatewayData.getUserAgent());
+    }
+
+    /**
+     * Returns the gateway data of the user: the data passed in the context, or else the data fetched during the request.
+     * @return The gateway data, or null if there is none.
+     */
+    private GatewayService getGatewayData() {
+        if (context.getWingify() != null) {
+            return context.getWingify();
+        }
+        return serviceContainer.getDecisionContext() != null ? serviceContainer.getDecisionContext().getGatewayData() : null;
     }
 
     /**
@@ -271,10 +131,10 @@ public class SegmentEvaluator {
      */
     public boolean checkInUserStorage(String featureKey, WingifyUserContext context) {
         StorageService storageService = new StorageService();
-        Map<String, Object> storedDataMap = new StorageDecorator().getFeatureFromStorage(featureKey, context, storageService, serviceContainer);
+        StorageDecorator storageDecorator = new StorageDecorator();
+        Map<String, Object> storedDataMap = storageDecorator.getFeatureFromStorage(featureKey, context, storageService, serviceContainer);
         try {
-            String storageMapAsString = WingifyClient.objectMapper.writeValueAsString(storedDataMap);
-            Storage storedData = WingifyClient.objectMapper.readValue(storageMapAsString, Storage.class);
+            Storage storedData = storageDecorator.getStoredData(featureKey, context, storageService, serviceContainer);
 
             return storedData != null && storedDataMap.size() > 1;
         } catch (Exception exception) {
@@ -16,104 +16,159 @@
 package com.wingify.packages.segmentation_evaluator.evaluators;
 
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.wingify.enums.UrlEnum;
 import com.wingify.models.user.WingifyUserContext;
 import com.wingify.packages.logger.enums.LogLevelEnum;
 import com.wingify.packages.segmentation_evaluator.enums.SegmentOperandRegexEnum;
 import com.wingify.packages.segmentation_evaluator.enums.SegmentOperandValueEnum;
+import com.wingify.packages.segmentation_evaluator.nodes.AttributeListNode;
+import com.wingify.packages.segmentation_evaluator.nodes.CompiledOperand;
 import com.wingify.ServiceContainer;
+import com.wingify.services.AttributeListCache;
 import com.wingify.utils.GatewayServiceUtil;
+import com.wingify.packages.segmentation_evaluator.utils.PatternCache;
 import com.wingify.packages.segmentation_evaluator.utils.WebTestingSegmentUtil;
 
-import static com.wingify.packages.segmentation_evaluator.utils.SegmentUtil.getKeyValue;
 import static com.wingify.packages.segmentation_evaluator.utils.SegmentUtil.matchWithRegex;
 import static com.wingify.utils.DataTypeUtil.isBoolean;
 
 public class SegmentOperandEvaluator {
+    // DecimalFormat is not thread safe, each thread reuses its own instance
+    private static final ThreadLocal<DecimalFormat> DECIMAL_FORMAT = ThreadLocal.withInitial(() -> new DecimalFormat("#.##############"));
+
     private ServiceContainer serviceContainer;
+    // webTestingCampaigns parsed during this request, reused while the platform variable is unchanged
+    private WingifyUserContext webTestingCampaignsContext;
+    private Object webTestingCampaignsInput;
+    private Map<String, String> webTestingCampaigns;
 
     public SegmentOperandEvaluator(ServiceContainer serviceContainer) {
         this.serviceContainer = serviceContainer;
     }
 
-    public Boolean evaluateCustomVariableDSL(JsonNode dslOperandValue, Map<String, Object> properties) {
-        Map.Entry<String, JsonNode> entry = getKeyValue(dslOperandValue);
-        String operandKey = entry.getKey();
-        JsonNode operandValueNode = entry.getValue();
-        String operandValue = operandValueNode.asText();
-
-        // Check if the property exists
-        if (!properties.containsKey(operandKey)) {
-            return false;
+    /**
+     * Checks an attribute value against an attribute list using the gateway service.
+     * @param listId The ID of the attribute list.
+     * @param tagValue The value of the attribute.
+     * @return A boolean indicating if the value is present in the list.
+     */
+    public boolean evaluateAttributeList(String listId, String tagValue) {
+        // Process the tag value and prepare query parameters
+        String attributeValue = preProcessTagValue(tagValue);
+        AttributeListCache attributeListCache = serviceContainer.getAttributeListCache();
+        if (attributeListCache != null) {
+            Boolean isMember = attributeListCache.get(listId, attributeValue);
+            if (isMember != null) {
+                return isMember;
+            }
         }
+        return checkAttributeList(listId, attributeValue);
+    }
 
-        // Handle 'inlist' operand
-        if (operandValue.contains("inlist")) {
-            Pattern listIdPattern = Pattern.compile("inlist\\(([^)]+)\\)");
-            Matcher matcher = listIdPattern.matcher(operandValue);
-            if (!matcher.find()) {
-                serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "INVALID_ATTRIBUTE_LIST_FORMAT", new HashMap<String, Object>() {
-                    {
-                        putAll(serviceContainer.getDebuggerService().getStandardDebugProps());
-                    }
-                });
-                return false;
+    /**
+     * Checks the sibling attribute lists of an and/or node concurrently, so their evaluation finds them cached.
+     * Nothing is done unless the attribute list cache is enabled with prefetch and at least two checks are missing.
+     * The checks run on the bounded prefetch pool of the cache, never on the executor of the asynchronous APIs,
+     * and the calling thread runs the checks the pool rejected or has not started, so a busy pool cannot block it.
+     * @param attributeListNodes The inlist children of the node.
+     * @param properties The custom variables of the user.
+     */
+    public void prefetchAttributeLists(List<AttributeListNode> attributeListNodes, Map<String, Object> properties) {
+        AttributeListCache attributeListCache = serviceContainer.getAttributeListCache();
+        if (attributeListCache == null || !attributeListCache.isPrefetchEnabled() || attributeListNodes.size() < 2) {
+            return;
+        }
+        // distinct list ID and attribute pairs that are not cached yet
+        Set<List<String>> missingChecks = new LinkedHashSet<>();
+        for (AttributeListNode attributeListNode : attributeListNodes) {
+            Object tagValue = properties.get(attributeListNode.getOperandKey());
+            if (tagValue == null) {
+                continue;
             }
-            String listId = matcher.group(1);
-            // Process the tag value and prepare query parameters
-            Object tagValue = properties.get(operandKey);
             String attributeValue = preProcessTagValue(tagValue.toString());
-            Map<String, String> queryParamsObj = new HashMap<>();
-            queryParamsObj.put("attribute", attributeValue);
-            queryParamsObj.put("listId", listId);
-
-            // Make a web service call to check the attribute against the list
-            String gatewayServiceResponse = GatewayServiceUtil.getFromGatewayService(serviceContainer, queryParamsObj, UrlEnum.ATTRIBUTE_CHECK.getUrl());
-            if (gatewayServiceResponse == null) {
-                return false;
-            }
-            return Boolean.parseBoolean(gatewayServiceResponse);
-        } else {
-            // Process other types of operands
-            Object tagValue = properties.get(operandKey);
-            if (tagValue == null) {
-                tagValue = "";
+            if (attributeListCache.get(attributeListNode.getListId(), attributeValue) == null) {
+                missingChecks.add(Arrays.asList(attributeListNode.getListId(), attributeValue));
             }
-            tagValue = preProcessTagValue(tagValue.toString());
-            Map<String, Object> preProcessOperandValue = preProcessOperandValue(operandValue);
-            Map<String, Object> processedValues = processValues(preProcessOperandValue.get("operandValue"), tagValue);
+        }
+        if (missingChecks.size() < 2) {
+            return;
+        }
 
-            // Convert numeric values to strings if processing wildcard pattern
-            SegmentOperandValueEnum operandType = (SegmentOperandValueEnum) preProcessOperandValue.get("operandType");
-            if (operandType == SegmentOperandValueEnum.STARTING_ENDING_STAR_VALUE ||
-                    operandType == SegmentOperandValueEnum.STARTING_STAR_VALUE ||
-                    operandType == SegmentOperandValueEnum.ENDING_STAR_VALUE ||
-                    operandType == SegmentOperandValueEnum.REGEX_VALUE) {
-                processedValues.put("tagValue", processedValues.get("tagValue").toString());
+        List<FutureTask<Boolean>> tasks = new ArrayList<>();
+        for (List<String> missingCheck : missingChecks) {
+            tasks.add(new FutureTask<>(() -> checkAttributeList(missingCheck.get(0), missingCheck.get(1))));
+        }
+        Executor executor = attributeListCache.getPrefetchExecutor();
+        for (FutureTask<Boolean> task : tasks.subList(1, tasks.size())) {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // run below by the calling thread
+            }
+        }
+        for (FutureTask<Boolean> task : tasks) {
+            // runs the task unless it was already started, then waits for it
+            task.run();
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // the check is made again when the segment is evaluated
             }
+        }
+    }
 
-            tagValue = processedValues.get("tagValue");
-            return extractResult(operandType, processedValues.get("operandValue").toString().trim().replace("\"", ""), tagValue.toString());
+    /**
+     * Checks an attribute value against an attribute list with the gateway service and caches the answer.
+     * @param listId The ID of the attribute list.
+     * @param attributeValue The pre-processed value of the attribute.
+     * @return A boolean indicating if the value is present in the list, false if the check failed.
+     */
+    private boolean checkAttributeList(String listId, String attributeValue) {
+        Map<String, String> queryParamsObj = new HashMap<>();
+        queryParamsObj.put("attribute", attributeValue);
+        queryParamsObj.put("listId", listId);
+
+        // Make a web service call to check the attribute against the list
+        String gatewayServiceResponse = GatewayServiceUtil.getFromGatewayService(serviceContainer, queryParamsObj, UrlEnum.ATTRIBUTE_CHECK.getUrl());
+        if (gatewayServiceResponse == null) {
+            return false;
         }
+        boolean isMember = Boolean.parseBoolean(gatewayServiceResponse);
+        AttributeListCache attributeListCache = serviceContainer.getAttributeListCache();
+        if (attributeListCache != null) {
+            attributeListCache.put(listId, attributeValue, isMember);
+        }
+        return isMember;
     }
 
-    public Map<String, Object> preProcessOperandValue(String operand) {
+    public static Map<String, Object> preProcessOperandValue(String operand) {
         SegmentOperandValueEnum operandType;
         String operandValue = null;
 
-        if (matchWithRegex(operand, SegmentOperandRegexEnum.LOWER_MATCH.getRegex())) {
+        if (matchWithRegex(operand, SegmentOperandRegexEnum.LOWER_MATCH.getPattern())) {
             operandType = SegmentOperandValueEnum.LOWER_VALUE;
-            operandValue = extractOperandValue(operand, SegmentOperandRegexEnum.LOWER_MATCH.getRegex());
-        } else if (matchWithRegex(operand, SegmentOperandRegexEnum.WILDCARD_MATCH.getRegex())) {
-            operandValue = extractOperandValue(operand, SegmentOperandRegexEnum.WILDCARD_MATCH.getRegex());
-            boolean startingStar = matchWithRegex(operandValue, SegmentOperandRegexEnum.STARTING_STAR.getRegex());
-            boolean endingStar = matchWithRegex(operandValue, SegmentOperandRegexEnum.ENDING_STAR.getRegex());
+            operandValue = extractOperandValue(operand, SegmentOperandRegexEnum.LOWER_MATCH.getPattern());
+        } else if (matchWithRegex(operand, SegmentOperandRegexEnum.WILDCARD_MATCH.getPattern())) {
+            operandValue = extractOperandValue(operand, SegmentOperandRegexEnum.WILDCARD_MATCH.getPattern());
+            boolean startingStar = matchWithRegex(operandValue, SegmentOperandRegexEnum.STARTING_STAR.getPattern());
+            boolean endingStar = matchWithRegex(operandValue, SegmentOperandRegexEnum.ENDING_STAR.getPattern());
             if (startingStar && endingStar) {
                 operandType = SegmentOperandValueEnum.STARTING_ENDING_STAR_VALUE;
             } else if (startingStar) {
@@ -123,23 +178,23 @@ public class SegmentOperandEvaluator {
             } else {
                 operandType = SegmentOperandValueEnum.REGEX_VALUE;
             }
-            operandValue = operandValue.replaceAll(SegmentOperandRegexEnum.STARTING_STAR.getRegex(), "")
-                    .replaceAll(SegmentOperandRegexEnum.ENDING_STAR.getRegex(), "");
-        } else if (matchWithRegex(operand, SegmentOperandRegexEnum.REGEX_MATCH.getRegex())) {
+            operandValue = SegmentOperandRegexEnum.STARTING_STAR.getPattern().matcher(operandValue).replaceAll("");
+            operandValue = SegmentOperandRegexEnum.ENDING_STAR.getPattern().matcher(operandValue).replaceAll("");
+        } else if (matchWithRegex(operand, SegmentOperandRegexEnum.REGEX_MATCH.getPattern())) {
             operandType = SegmentOperandValueEnum.REGEX_VALUE;
-            operandValue = extractOperandValue(operand, SegmentOperandRegexEnum.REGEX_MATCH.getRegex());
-        } else if (matchWithRegex(operand, SegmentOperandRegexEnum.GREATER_THAN_MATCH.getRegex())) {
+            operandValue = extractOperandValue(operand, SegmentOperandRegexEnum.REGEX_MATCH.getPattern());
+        } else if (matchWithRegex(operand, SegmentOperandRegexEnum.GREATER_THAN_MATCH.getPattern())) {
             operandType = SegmentOperandValueEnum.GREATER_THAN_VALUE;
-            operandValue = extractOperandValue(operand, SegmentOperandRegexEnum.GREATER_THAN_MATCH.getRegex());
-        } else if (matchWithRegex(operand, SegmentOperandRegexEnum.GREATER_THAN_EQUAL_TO_MATCH.getRegex())) {
+            operandValue = extractOperandValue(operand, SegmentOperandRegexEnum.GREATER_THAN_MATCH.getPattern());
+        } else if (matchWithRegex(operand, SegmentOperandRegexEnum.GREATER_THAN_EQUAL_TO_MATCH.getPattern())) {
             operandType = SegmentOperandValueEnum.GREATER_THAN_EQUAL_TO_VALUE;
-            operandValue = extractOperandValue(operand, SegmentOperandRegexEnum.GREATER_THAN_EQUAL_TO_MATCH.getRegex());
-        } else if (matchWithRegex(operand, SegmentOperandRegexEnum.LESS_THAN_MATCH.getRegex())) {
+            operandValue = extractOperandValue(operand, SegmentOperandRegexEnum.GREATER_THAN_EQUAL_TO_MATCH.getPattern());
+        } else if (matchWithRegex(operand, SegmentOperandRegexEnum.LESS_THAN_MATCH.getPattern())) {
             operandType = SegmentOperandValueEnum.LESS_THAN_VALUE;
-            operandValue = extractOperandValue(operand, SegmentOperandRegexEnum.LESS_THAN_MATCH.getRegex());
-        } else if (matchWithRegex(operand, SegmentOperandRegexEnum.LESS_THAN_EQUAL_TO_MATCH.getRegex())) {
+            operandValue = extractOperandValue(operand, SegmentOperandRegexEnum.LESS_THAN_MATCH.getPattern());
+        } else if (matchWithRegex(operand, SegmentOperandRegexEnum.LESS_THAN_EQUAL_TO_MATCH.getPattern())) {
             operandType = SegmentOperandValueEnum.LESS_THAN_EQUAL_TO_VALUE;
-            operandValue = extractOperandValue(operand, SegmentOperandRegexEnum.LESS_THAN_EQUAL_TO_MATCH.getRegex());
+            operandValue = extractOperandValue(operand, SegmentOperandRegexEnum.LESS_THAN_EQUAL_TO_MATCH.getPattern());
         } else {
             operandType = SegmentOperandValueEnum.EQUAL_VALUE;
             operandValue = operand;
@@ -151,17 +206,13 @@ public class SegmentOperandEvaluator {
         return result;
     }
 
-    public boolean evaluateUserDSL(String dslOperandValue, Map<String, Object> properties) {
-        String[] users = dslOperandValue.split(",");
-        for (String user : users) {
-            if (user.trim().replace("\"", "").equals(properties.get("_vwoUserId"))) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    public boolean evaluateUserAgentDSL(String dslOperandValue, WingifyUserContext context) {
+    /**
+     * Matches the user agent of the user against a compiled operand.
+     * @param operand The compiled operand of the "ua" operator.
+     * @param context The user context carrying the user agent.
+     * @return A boolean indicating if the user agent matches.
+     */
+    public boolean evaluateUserAgent(CompiledOperand operand, WingifyUserContext context) {
         if (context == null || context.getUserAgent() == null) {
             serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "INVALID_USER_AGENT_IN_CONTEXT_FOR_PRE_SEGMENTATION", new HashMap<String, Object>() {
                 {
@@ -171,63 +222,21 @@ public class SegmentOperandEvaluator {
             return false;
         }
         String tagValue = java.net.URLDecoder.decode(context.getUserAgent());
-        Map<String, Object> preProcessOperandValue = preProcessOperandValue(dslOperandValue);
-        Map<String, Object> processedValues = processValues(preProcessOperandValue.get("operandValue"), tagValue);
-        tagValue = (String) processedValues.get("tagValue");
-        SegmentOperandValueEnum operandType = (SegmentOperandValueEnum) preProcessOperandValue.get("operandType");
-        return extractResult(operandType, processedValues.get("operandValue").toString().trim().replace("\"", ""), tagValue);
+        return operand.matches(convertValue(tagValue));
     }
     
     /**
      * Evaluates Web Testing pre-segmentation against {@code context.platformVariables.webTestingCampaigns}.
      * Operand: {@code "C"} (in campaign, any variation), {@code "C_V"}, {@code "C_!V"}, {@code "!C"} (not in campaign C).
+     * The operand type and emptiness are validated when the DSL is compiled.
      *
-     * @param campaignVariationOperandNode JSON text node from the segment DSL (e.g. {@code "122_4"})
+     * @param trimmedCampaignVariationOperand trimmed, non-empty operand from the segment DSL (e.g. {@code "122_4"})
      * @param context user context carrying platform variables
      * @return Boolean indicating whether the campaign variation operand evaluates to true
      */
-    public boolean evaluateCampaignVariationDSL(JsonNode campaignVariationOperandNode, WingifyUserContext context) {
-        // Return false if the operand node is null or represents a JSON null value
-        if (campaignVariationOperandNode == null || campaignVariationOperandNode.isNull()) {
-            serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "INVALID_WEB_TESTING_CAMPAIGN_VARIATION_OPERAND_TYPE", new HashMap<String, Object>() {{
-                put("type", "null");
-                putAll(serviceContainer.getDebuggerService().getStandardDebugProps());
-            }});
-            return false;
-        }
-
-        // DSL should be a string or number — numeric campaign ids without quotes are valid and coerced to string.
-        // Anything else (object, array, boolean) is a wiring bug and is considered invalid.
-        if (!campaignVariationOperandNode.isTextual() && !campaignVariationOperandNode.isNumber()) {
-            String invalidOperandNodeType = campaignVariationOperandNode.getNodeType().name().toLowerCase();
-            serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "INVALID_WEB_TESTING_CAMPAIGN_VARIATION_OPERAND_TYPE", new HashMap<String, Object>() {{
-                put("type", invalidOperandNodeType);
-                putAll(serviceContainer.getDebuggerService().getStandardDebugProps());
-            }});
-            return false;
-        }
-
-        String campaignVariationOperandText = campaignVariationOperandNode.asText();
-        // Empty operand is invalid, return false
-        if (campaignVariationOperandText.isEmpty()) {
-            serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "INVALID_WEB_TESTING_CAMPAIGN_VARIATION_OPERAND_EMPTY", new HashMap<String, Object>() {{
-                putAll(serviceContainer.getDebuggerService().getStandardDebugProps());
-            }});
-            return false;
-        }
-        
-        // Trim the campaign variation operand to remove leading/trailing whitespaces
-        String trimmedCampaignVariationOperand = campaignVariationOperandText.trim();
-        // All spaces is invalid, return false
-        if (trimmedCampaignVariationOperand.isEmpty()) {
-            serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "INVALID_WEB_TESTING_CAMPAIGN_VARIATION_OPERAND_EMPTY", new HashMap<String, Object>() {{
-                putAll(serviceContainer.getDebuggerService().getStandardDebugProps());
-            }});
-            return false;
-        }
-
+    public boolean evaluateCampaignVariation(String trimmedCampaignVariationOperand, WingifyUserContext context) {
         // Parse web testing campaigns map from user context
-        Map<String, String> assignedVariationsByCampaignId = WebTestingSegmentUtil.parseWebTestingCampaignsFromContext(context, serviceContainer);
+        Map<String, String> assignedVariationsByCampaignId = getWebTestingCampaigns(context);
         
         // Evaluate the campaign variation operand against the assigned variations map
         WebTestingSegmentUtil.WebTestingCampaignVariationEval variationEval =
@@ -246,7 +255,22 @@ public class SegmentOperandEvaluator {
         return variationEval.isResult();
     }
 
-    public String preProcessTagValue(String tagValue) {
+    /**
+     * Returns the webTestingCampaigns platform variable of the user, parsed once per request.
+     * @param context user context carrying platform variables
+     * @return Normalized map of campaign id to variation id, or null if parsing fails or variables are absent
+     */
+    private Map<String, String> getWebTestingCampaigns(WingifyUserContext context) {
+        Object input = context == null || context.getPlatformVariables() == null ? null : context.getPlatformVariables().get("webTestingCampaigns");
+        if (webTestingCampaignsContext != context || webTestingCampaignsInput != input) {
+            webTestingCampaigns = WebTestingSegmentUtil.parseWebTestingCampaignsFromContext(context, serviceContainer);
+            webTestingCampaignsContext = context;
+            webTestingCampaignsInput = input;
+        }
+        return webTestingCampaigns;
+    }
+
+    public static String preProcessTagValue(String tagValue) {
         if (tagValue == null) {
             return "";
         }
@@ -256,19 +280,12 @@ public class SegmentOperandEvaluator {
         return tagValue.trim();
     }
 
-    private Map<String, Object> processValues(Object operandValue, Object tagValue) {
-        Map<String, Object> result = new HashMap<>();
-
-        // Process operandValue
-        result.put("operandValue", convertValue(operandValue));
-
-        // Process tagValue
-        result.put("tagValue", convertValue(tagValue));
-
-        return result;
-    }
-
-    private String convertValue(Object value) {
+    /**
+     * Normalizes a value for comparison, numbers are written without a trailing ".0" or scientific notation.
+     * @param value The value to convert.
+     * @return The converted value.
+     */
+    public static String convertValue(Object value) {
         // Check if the value is a boolean
         if (value instanceof Boolean) {
             return value.toString(); // Convert boolean to "true" or "false"
@@ -276,15 +293,7 @@ public class SegmentOperandEvaluator {
 
         try {
             // Attempt to convert to a numeric value
-            double numericValue = Double.parseDouble(value.toString());
-            // Check if the numeric value is actually an integer
-            if (numericValue == (int) numericValue) {
-                return String.valueOf((int) numericValue); // Remove '.0' by converting to int
-            } else {
-                // Format float to avoid scientific notation for large numbers
-                DecimalFormat df = new DecimalFormat("#.##############"); // Adjust the pattern as needed
-                return df.format(numericValue);
-            }
+            return formatNumber(Double.parseDouble(value.toString()));
         } catch (NumberFormatException e) {
             // Return the value as-is if it's not a number
             return value.toString();
@@ -292,54 +301,17 @@ public class SegmentOperandEvaluator {
     }
 
     /**
-     * Extracts the result of the evaluation based on the operand type and values.
-     * @param operandType The type of the operand.
-     * @param operandValue The value of the operand.
-     * @param tagValue The value of the tag to compare against.
-     * @return A boolean indicating the result of the evaluation.
+     * Writes a number without a trailing ".0" or scientific notation.
+     * @param numericValue The number to format.
+     * @return The formatted number.
      */
-    public boolean extractResult(SegmentOperandValueEnum operandType, Object operandValue, String tagValue) {
-        boolean result = false;
-
-        switch (operandType) {
-            case LOWER_VALUE:
-                result = operandValue.toString().equalsIgnoreCase(tagValue);
-                break;
-            case STARTING_ENDING_STAR_VALUE:
-                result = tagValue.contains(operandValue.toString());
-                break;
-            case STARTING_STAR_VALUE:
-                result = tagValue.endsWith(operandValue.toString());
-                break;
-            case ENDING_STAR_VALUE:
-                result = tagValue.startsWith(operandValue.toString());
-                break;
-            case REGEX_VALUE:
-                try {
-                    Pattern pattern = Pattern.compile(operandValue.toString());
-                    Matcher matcher = pattern.matcher(tagValue);
-                    result = matcher.matches();
-                } catch (Exception e) {
-                    result = false;
-                }
-                break;
-            case GREATER_THAN_VALUE:
-                result = Float.parseFloat(tagValue) > Float.parseFloat(operandValue.toString());
-                break;
-            case GREATER_THAN_EQUAL_TO_VALUE:
-                result = Float.parseFloat(tagValue) >= Float.parseFloat(operandValue.toString());
-                break;
-            case LESS_THAN_VALUE:
-                result = Float.parseFloat(tagValue) < Float.parseFloat(operandValue.toString());
-                break;
-            case LESS_THAN_EQUAL_TO_VALUE:
-                result = Float.parseFloat(tagValue) <= Float.parseFloat(operandValue.toString());
-                break;
-            default:
-                result = tagValue.equals(operandValue.toString());
+    static String formatNumber(double numericValue) {
+        // Check if the numeric value is actually an integer
+        if (numericValue == (int) numericValue) {
+            return String.valueOf((int) numericValue); // Remove '.0' by converting to int
         }
-
-        return result;
+        // Format float to avoid scientific notation for large numbers
+        return DECIMAL_FORMAT.get().format(numericValue);
     }
 
     /**
@@ -349,8 +321,18 @@ public class SegmentOperandEvaluator {
      * @param regex The regex pattern to match the operand against.
      * @return The extracted operand value or the original operand if no match is found.
      */
-    public String extractOperandValue(String operand, String regex) {
-        Pattern pattern = Pattern.compile(regex);
+    public static String extractOperandValue(String operand, String regex) {
+        return extractOperandValue(operand, PatternCache.compile(regex));
+    }
+
+    /**
+     * Extracts the operand value based on the provided compiled pattern.
+     *
+     * @param operand The operand to be matched.
+     * @param pattern The compiled pattern to match the operand against.
+     * @return The extracted operand value or the original operand if no match is found.
+     */
+    public static String extractOperandValue(String operand, Pattern pattern) {
         Matcher matcher = pattern.matcher(operand);
         if (matcher.find()) {
             return matcher.group(1);
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.nodes;
+
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches when all of its children match, compiled from an "and" operator.
+ * When the location operands of the children cover all of them, the location check
+ * decides the result once the children before it have passed, and the inlist children are
+ * checked together once the evaluation reaches the first of them.
+ */
+public final class AndNode implements SegmentNode {
+    private final List<SegmentNode> children;
+    private final SegmentNode locationNode;
+    private final List<AttributeListNode> attributeListChildren;
+    private final int firstAttributeListChild;
+    private final int cost;
+    private final boolean canFail;
+
+    /**
+     * @param children The children, in evaluation order.
+     * @param locationNode The location check run after the children, or null.
+     */
+    public AndNode(List<SegmentNode> children, SegmentNode locationNode) {
+        this.children = Collections.unmodifiableList(children);
+        this.locationNode = locationNode;
+        this.attributeListChildren = AttributeListNode.collectSiblings(children);
+        this.firstAttributeListChild = attributeListChildren.isEmpty() ? -1 : children.indexOf(attributeListChildren.get(0));
+        int totalCost = locationNode == null ? 0 : locationNode.getCost();
+        boolean anyCanFail = locationNode != null && locationNode.canFail();
+        for (SegmentNode child : children) {
+            totalCost += child.getCost();
+            anyCanFail |= child.canFail();
+        }
+        this.cost = totalCost;
+        this.canFail = anyCanFail;
+    }
+
+    @Override
+    public boolean evaluate(SegmentEvaluator evaluator, Map<String, Object> properties) {
+        for (int i = 0; i < children.size(); i++) {
+            if (i == firstAttributeListChild) {
+                AttributeListNode.prefetch(attributeListChildren, evaluator, properties);
+            }
+            if (!children.get(i).evaluate(evaluator, properties)) {
+                return false;
+            }
+        }
+        return locationNode == null || locationNode.evaluate(evaluator, properties);
+    }
+
+    @Override
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public boolean canFail() {
+        return canFail;
+    }
+}
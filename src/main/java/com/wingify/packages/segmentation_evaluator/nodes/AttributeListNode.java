@@ -0,0 +1,110 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.nodes;
+
+import com.wingify.packages.logger.enums.LogLevelEnum;
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks a custom variable against an attribute list, compiled from an "inlist(listId)" operand.
+ */
+public final class AttributeListNode implements SegmentNode {
+    private final String operandKey;
+    private final String listId;
+
+    /**
+     * @param operandKey The custom variable to check.
+     * @param listId The ID of the attribute list, or null if the operand is malformed.
+     */
+    public AttributeListNode(String operandKey, String listId) {
+        this.operandKey = operandKey;
+        this.listId = listId;
+    }
+
+    @Override
+    public boolean evaluate(SegmentEvaluator evaluator, Map<String, Object> properties) {
+        // Check if the property exists
+        if (!properties.containsKey(operandKey)) {
+            return false;
+        }
+        if (listId == null) {
+            evaluator.serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "INVALID_ATTRIBUTE_LIST_FORMAT", new HashMap<String, Object>() {
+                {
+                    putAll(evaluator.serviceContainer.getDebuggerService().getStandardDebugProps());
+                }
+            });
+            return false;
+        }
+        Object tagValue = properties.get(operandKey);
+        if (tagValue == null) {
+            return false;
+        }
+        return evaluator.segmentOperandEvaluator.evaluateAttributeList(listId, tagValue.toString());
+    }
+
+    /**
+     * Collects the well formed inlist operands among the children of an and/or node.
+     * The cost ordering puts them after the cheaper children, so they are only checked
+     * together once the evaluation reaches the first of them.
+     * @param children The children of the node, in evaluation order.
+     * @return The inlist children, in evaluation order.
+     */
+    static List<AttributeListNode> collectSiblings(List<SegmentNode> children) {
+        List<AttributeListNode> siblings = new ArrayList<>();
+        for (SegmentNode child : children) {
+            if (child instanceof AttributeListNode && ((AttributeListNode) child).listId != null) {
+                siblings.add((AttributeListNode) child);
+            }
+        }
+        return Collections.unmodifiableList(siblings);
+    }
+
+    /**
+     * Checks a group of sibling inlist operands concurrently, so their evaluation finds them cached.
+     * @param siblings The inlist children of an and/or node.
+     * @param evaluator The segment evaluator bound to the user context.
+     * @param properties The properties against which the node is evaluated.
+     */
+    static void prefetch(List<AttributeListNode> siblings, SegmentEvaluator evaluator, Map<String, Object> properties) {
+        if (siblings.size() > 1 && properties != null) {
+            evaluator.segmentOperandEvaluator.prefetchAttributeLists(siblings, properties);
+        }
+    }
+
+    public String getOperandKey() {
+        return operandKey;
+    }
+
+    public String getListId() {
+        return listId;
+    }
+
+    @Override
+    public int getCost() {
+        return listId == null ? SegmentNodeCost.LOCAL : SegmentNodeCost.REMOTE;
+    }
+
+    @Override
+    public boolean canFail() {
+        return false;
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.nodes;
+
+import com.wingify.packages.logger.enums.LogLevelEnum;
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Matches the Web Testing campaign variations of the user, compiled from a "campaignVariation" operator.
+ * The operand is validated at compile time and the validation errors are logged when the node is evaluated.
+ */
+public final class CampaignVariationNode implements SegmentNode {
+    private final String invalidOperandType;
+    private final String operand;
+
+    /**
+     * @param invalidOperandType The JSON type of the operand if it is not a string or number, otherwise null.
+     * @param operand The trimmed operand, empty if the operand is blank.
+     */
+    public CampaignVariationNode(String invalidOperandType, String operand) {
+        this.invalidOperandType = invalidOperandType;
+        this.operand = operand;
+    }
+
+    @Override
+    public boolean evaluate(SegmentEvaluator evaluator, Map<String, Object> properties) {
+        if (invalidOperandType != null) {
+            evaluator.serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "INVALID_WEB_TESTING_CAMPAIGN_VARIATION_OPERAND_TYPE", new HashMap<String, Object>() {{
+                put("type", invalidOperandType);
+                putAll(evaluator.serviceContainer.getDebuggerService().getStandardDebugProps());
+            }});
+            return false;
+        }
+        if (operand.isEmpty()) {
+            evaluator.serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "INVALID_WEB_TESTING_CAMPAIGN_VARIATION_OPERAND_EMPTY", new HashMap<String, Object>() {{
+                putAll(evaluator.serviceContainer.getDebuggerService().getStandardDebugProps());
+            }});
+            return false;
+        }
+        return evaluator.segmentOperandEvaluator.evaluateCampaignVariation(operand, evaluator.context);
+    }
+
+    @Override
+    public int getCost() {
+        return SegmentNodeCost.CONTEXT;
+    }
+
+    @Override
+    public boolean canFail() {
+        return false;
+    }
+}
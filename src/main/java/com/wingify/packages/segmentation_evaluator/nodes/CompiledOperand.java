@@ -0,0 +1,176 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.nodes;
+
+import com.wingify.packages.segmentation_evaluator.enums.SegmentOperandValueEnum;
+import com.wingify.packages.segmentation_evaluator.evaluators.AttributeValue;
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentOperandEvaluator;
+import com.wingify.packages.segmentation_evaluator.utils.PatternCache;
+
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static com.wingify.packages.segmentation_evaluator.utils.SegmentUtil.foldCase;
+
+/**
+ * An operand of the segmentation DSL with its type resolved and its value normalized once,
+ * so that matching a tag value does no parsing of the operand.
+ */
+public final class CompiledOperand {
+    private final SegmentOperandValueEnum operandType;
+    private final String operandValue;
+    private final String lowerCaseValue;
+    private final Pattern pattern;
+    private final float numericValue;
+    private final NumberFormatException numericError;
+
+    private CompiledOperand(SegmentOperandValueEnum operandType, String operandValue, Pattern pattern, float numericValue, NumberFormatException numericError) {
+        this.operandType = operandType;
+        this.operandValue = operandValue;
+        this.lowerCaseValue = operandType == SegmentOperandValueEnum.LOWER_VALUE ? foldCase(operandValue) : null;
+        this.pattern = pattern;
+        this.numericValue = numericValue;
+        this.numericError = numericError;
+    }
+
+    /**
+     * Compiles an operand as written in the DSL, e.g. "lower(abc)", "wildcard(*abc)" or "gte(10)".
+     * @param operand The raw operand.
+     * @return The compiled operand.
+     */
+    public static CompiledOperand compile(String operand) {
+        Map<String, Object> preProcessOperandValue = SegmentOperandEvaluator.preProcessOperandValue(operand);
+        SegmentOperandValueEnum operandType = (SegmentOperandValueEnum) preProcessOperandValue.get("operandType");
+        String operandValue = SegmentOperandEvaluator.convertValue(preProcessOperandValue.get("operandValue")).trim().replace("\"", "");
+
+        Pattern pattern = null;
+        float numericValue = 0;
+        NumberFormatException numericError = null;
+        switch (operandType) {
+            case REGEX_VALUE:
+                try {
+                    pattern = PatternCache.compile(operandValue);
+                } catch (Exception e) {
+                    // an invalid pattern never matches
+                    pattern = null;
+                }
+                break;
+            case GREATER_THAN_VALUE:
+            case GREATER_THAN_EQUAL_TO_VALUE:
+            case LESS_THAN_VALUE:
+            case LESS_THAN_EQUAL_TO_VALUE:
+                try {
+                    numericValue = Float.parseFloat(operandValue);
+                } catch (NumberFormatException e) {
+                    numericError = e;
+                }
+                break;
+            default:
+                break;
+        }
+        return new CompiledOperand(operandType, operandValue, pattern, numericValue, numericError);
+    }
+
+    /**
+     * Matches the value of a custom variable against the operand, using the forms normalized once per request.
+     * @param tagValue The value of the custom variable.
+     * @return A boolean indicating if the tag value matches.
+     */
+    public boolean matches(AttributeValue tagValue) {
+        switch (operandType) {
+            case LOWER_VALUE:
+                return lowerCaseValue.equals(tagValue.getLowerCaseValue());
+            case GREATER_THAN_VALUE:
+                return tagValue.getNumber() > numericOperand();
+            case GREATER_THAN_EQUAL_TO_VALUE:
+                return tagValue.getNumber() >= numericOperand();
+            case LESS_THAN_VALUE:
+                return tagValue.getNumber() < numericOperand();
+            case LESS_THAN_EQUAL_TO_VALUE:
+                return tagValue.getNumber() <= numericOperand();
+            default:
+                return matches(tagValue.getValue());
+        }
+    }
+
+    /**
+     * Matches a processed tag value against the operand.
+     * @param tagValue The tag value, already pre-processed and converted.
+     * @return A boolean indicating if the tag value matches.
+     */
+    public boolean matches(String tagValue) {
+        switch (operandType) {
+            case LOWER_VALUE:
+                return operandValue.equalsIgnoreCase(tagValue);
+            case STARTING_ENDING_STAR_VALUE:
+                return tagValue.contains(operandValue);
+            case STARTING_STAR_VALUE:
+                return tagValue.endsWith(operandValue);
+            case ENDING_STAR_VALUE:
+                return tagValue.startsWith(operandValue);
+            case REGEX_VALUE:
+                return pattern != null && pattern.matcher(tagValue).matches();
+            case GREATER_THAN_VALUE:
+                return Float.parseFloat(tagValue) > numericOperand();
+            case GREATER_THAN_EQUAL_TO_VALUE:
+                return Float.parseFloat(tagValue) >= numericOperand();
+            case LESS_THAN_VALUE:
+                return Float.parseFloat(tagValue) < numericOperand();
+            case LESS_THAN_EQUAL_TO_VALUE:
+                return Float.parseFloat(tagValue) <= numericOperand();
+            default:
+                return tagValue.equals(operandValue);
+        }
+    }
+
+    /**
+     * @return The static cost estimate of matching a tag value, see {@link SegmentNodeCost}.
+     */
+    public int getCost() {
+        return operandType == SegmentOperandValueEnum.REGEX_VALUE ? SegmentNodeCost.PATTERN : SegmentNodeCost.LOCAL;
+    }
+
+    /**
+     * @return true for numeric comparisons, which raise an error for a non numeric tag value.
+     */
+    public boolean canFail() {
+        switch (operandType) {
+            case GREATER_THAN_VALUE:
+            case GREATER_THAN_EQUAL_TO_VALUE:
+            case LESS_THAN_VALUE:
+            case LESS_THAN_EQUAL_TO_VALUE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public SegmentOperandValueEnum getOperandType() {
+        return operandType;
+    }
+
+    public String getOperandValue() {
+        return operandValue;
+    }
+
+    private float numericOperand() {
+        // a non numeric operand fails the segmentation, like a non numeric tag value
+        if (numericError != null) {
+            throw numericError;
+        }
+        return numericValue;
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.nodes;
+
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+
+import java.util.Map;
+
+/**
+ * Always gives the same result, used for operators that cannot be evaluated on their own.
+ */
+public final class ConstantNode implements SegmentNode {
+    public static final ConstantNode FALSE = new ConstantNode(false);
+
+    private final boolean result;
+
+    private ConstantNode(boolean result) {
+        this.result = result;
+    }
+
+    @Override
+    public boolean evaluate(SegmentEvaluator evaluator, Map<String, Object> properties) {
+        return result;
+    }
+
+    @Override
+    public int getCost() {
+        return SegmentNodeCost.CONSTANT;
+    }
+
+    @Override
+    public boolean canFail() {
+        return false;
+    }
+}
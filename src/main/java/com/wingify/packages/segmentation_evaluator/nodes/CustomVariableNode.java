@@ -0,0 +1,54 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.nodes;
+
+import com.wingify.packages.segmentation_evaluator.evaluators.AttributeValue;
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+
+import java.util.Map;
+
+/**
+ * Matches a custom variable against a compiled operand.
+ */
+public final class CustomVariableNode implements SegmentNode {
+    private final String operandKey;
+    private final CompiledOperand operand;
+
+    public CustomVariableNode(String operandKey, CompiledOperand operand) {
+        this.operandKey = operandKey;
+        this.operand = operand;
+    }
+
+    @Override
+    public boolean evaluate(SegmentEvaluator evaluator, Map<String, Object> properties) {
+        AttributeValue tagValue = evaluator.getAttributeValue(properties, operandKey);
+        // Check if the property exists
+        if (tagValue == null) {
+            return false;
+        }
+        return operand.matches(tagValue);
+    }
+
+    @Override
+    public int getCost() {
+        return operand.getCost();
+    }
+
+    @Override
+    public boolean canFail() {
+        return operand.canFail();
+    }
+}
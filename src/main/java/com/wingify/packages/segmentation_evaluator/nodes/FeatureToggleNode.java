@@ -0,0 +1,62 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.nodes;
+
+import com.wingify.models.Feature;
+import com.wingify.packages.logger.enums.LogLevelEnum;
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+import com.wingify.utils.FunctionUtil;
+
+import java.util.Map;
+
+/**
+ * Checks if a feature was already decided for the user, compiled from a "featureId" operand set to "on" or "off".
+ */
+public final class FeatureToggleNode implements SegmentNode {
+    private final String featureIdKey;
+    private final boolean expectOff;
+
+    /**
+     * @param featureIdKey The ID of the feature, as written in the DSL.
+     * @param expectOff true for an "off" operand, false for an "on" operand.
+     */
+    public FeatureToggleNode(String featureIdKey, boolean expectOff) {
+        this.featureIdKey = featureIdKey;
+        this.expectOff = expectOff;
+    }
+
+    @Override
+    public boolean evaluate(SegmentEvaluator evaluator, Map<String, Object> properties) {
+        Feature feature = FunctionUtil.getFeatureFromId(evaluator.serviceContainer.getSettings(), Integer.parseInt(featureIdKey));
+        if (feature == null) {
+            evaluator.serviceContainer.getLoggerService().log(LogLevelEnum.DEBUG, "Feature not found with featureIdKey: " + featureIdKey);
+            return false; // Handle the case when feature is not found
+        }
+        boolean result = evaluator.checkInUserStorage(feature.getKey(), evaluator.context);
+        return expectOff ? !result : result;
+    }
+
+    @Override
+    public int getCost() {
+        return SegmentNodeCost.STORAGE;
+    }
+
+    @Override
+    public boolean canFail() {
+        // a non numeric feature ID raises an error
+        return true;
+    }
+}
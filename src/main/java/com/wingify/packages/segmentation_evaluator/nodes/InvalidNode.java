@@ -0,0 +1,48 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.nodes;
+
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+
+import java.util.Map;
+
+/**
+ * Stands for a part of the DSL that could not be compiled.
+ * The error is raised when the node is reached, so the segmentation fails exactly
+ * where interpreting the DSL would have failed.
+ */
+public final class InvalidNode implements SegmentNode {
+    private final RuntimeException error;
+
+    public InvalidNode(RuntimeException error) {
+        this.error = error;
+    }
+
+    @Override
+    public boolean evaluate(SegmentEvaluator evaluator, Map<String, Object> properties) {
+        throw error;
+    }
+
+    @Override
+    public int getCost() {
+        return SegmentNodeCost.CONSTANT;
+    }
+
+    @Override
+    public boolean canFail() {
+        return true;
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.nodes;
+
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+
+import java.util.Map;
+
+/**
+ * Negates the result of its child, compiled from a "not" operator.
+ */
+public final class NotNode implements SegmentNode {
+    private final SegmentNode child;
+
+    public NotNode(SegmentNode child) {
+        this.child = child;
+    }
+
+    @Override
+    public boolean evaluate(SegmentEvaluator evaluator, Map<String, Object> properties) {
+        return !child.evaluate(evaluator, properties);
+    }
+
+    @Override
+    public int getCost() {
+        return child.getCost();
+    }
+
+    @Override
+    public boolean canFail() {
+        return child.canFail();
+    }
+}
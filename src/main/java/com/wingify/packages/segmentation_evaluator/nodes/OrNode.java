@@ -0,0 +1,99 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.nodes;
+
+import com.wingify.packages.logger.enums.LogLevelEnum;
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches when any of its children matches, compiled from an "or" operator.
+ * A user agent check may precede a child when the user agent operands cover all the children,
+ * and a feature toggle operand ends the evaluation with its own result. The inlist children
+ * are checked together once the evaluation reaches the first of them.
+ */
+public final class OrNode implements SegmentNode {
+    private final List<SegmentNode> children;
+    private final List<SegmentNode> userAgentChecks;
+    private final SegmentNode terminalNode;
+    private final List<AttributeListNode> attributeListChildren;
+    private final int firstAttributeListChild;
+    private final int cost;
+    private final boolean canFail;
+
+    /**
+     * @param children The children, in evaluation order.
+     * @param userAgentChecks The user agent check to run before each child, entries may be null.
+     * @param terminalNode The node deciding the result after the children, or null.
+     */
+    public OrNode(List<SegmentNode> children, List<SegmentNode> userAgentChecks, SegmentNode terminalNode) {
+        this.children = Collections.unmodifiableList(children);
+        this.userAgentChecks = Collections.unmodifiableList(userAgentChecks);
+        this.terminalNode = terminalNode;
+        this.attributeListChildren = AttributeListNode.collectSiblings(children);
+        this.firstAttributeListChild = attributeListChildren.isEmpty() ? -1 : children.indexOf(attributeListChildren.get(0));
+        int totalCost = terminalNode == null ? 0 : terminalNode.getCost();
+        // errors of the user agent checks are logged and do not fail the segmentation
+        boolean anyCanFail = terminalNode != null && terminalNode.canFail();
+        for (int i = 0; i < children.size(); i++) {
+            SegmentNode userAgentCheck = userAgentChecks.get(i);
+            totalCost += children.get(i).getCost() + (userAgentCheck == null ? 0 : userAgentCheck.getCost());
+            anyCanFail |= children.get(i).canFail();
+        }
+        this.cost = totalCost;
+        this.canFail = anyCanFail;
+    }
+
+    @Override
+    public boolean evaluate(SegmentEvaluator evaluator, Map<String, Object> properties) {
+        for (int i = 0; i < children.size(); i++) {
+            SegmentNode userAgentCheck = userAgentChecks.get(i);
+            if (userAgentCheck != null) {
+                try {
+                    return userAgentCheck.evaluate(evaluator, properties);
+                } catch (Exception err) {
+                    evaluator.serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "USER_AGENT_VALIDATION_ERROR", new HashMap<String, Object>() {
+                        {
+                            put("err", err.getMessage());
+                            putAll(evaluator.serviceContainer.getDebuggerService().getStandardDebugProps());
+                        }
+                    });
+                }
+            }
+            if (i == firstAttributeListChild) {
+                AttributeListNode.prefetch(attributeListChildren, evaluator, properties);
+            }
+            if (children.get(i).evaluate(evaluator, properties)) {
+                return true;
+            }
+        }
+        return terminalNode != null && terminalNode.evaluate(evaluator, properties);
+    }
+
+    @Override
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public boolean canFail() {
+        return canFail;
+    }
+}
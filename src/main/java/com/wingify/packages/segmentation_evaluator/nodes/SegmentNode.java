@@ -0,0 +1,47 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.nodes;
+
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+
+import java.util.Map;
+
+/**
+ * A node of a compiled segmentation DSL.
+ * Nodes are immutable and built once per settings, the user specific data is read from
+ * the evaluator and the properties passed to evaluate.
+ */
+public interface SegmentNode {
+
+    /**
+     * Evaluates the node for a user.
+     * @param evaluator The segment evaluator bound to the user context.
+     * @param properties The properties against which the node is evaluated.
+     * @return A boolean indicating if the node matches.
+     */
+    boolean evaluate(SegmentEvaluator evaluator, Map<String, Object> properties);
+
+    /**
+     * @return The static cost estimate of evaluating the node, see {@link SegmentNodeCost}.
+     */
+    int getCost();
+
+    /**
+     * Nodes that can fail keep their position in and/or operators, since an error fails the whole segmentation.
+     * @return true if evaluating the node can raise an error.
+     */
+    boolean canFail();
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.nodes;
+
+/**
+ * Static cost estimates of the segment nodes, used to evaluate the cheap children of
+ * and/or operators before the expensive ones.
+ */
+public final class SegmentNodeCost {
+    // result known at compile time
+    public static final int CONSTANT = 0;
+    // comparison of a custom variable or the user ID
+    public static final int LOCAL = 1;
+    // regex match of a custom variable
+    public static final int PATTERN = 4;
+    // check of the user agent, location or platform variables of the context
+    public static final int CONTEXT = 8;
+    // lookup of the stored decisions of the user
+    public static final int STORAGE = 50;
+    // call to the gateway service
+    public static final int REMOTE = 100;
+
+    private SegmentNodeCost() {
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.nodes;
+
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+
+import java.util.Map;
+
+/**
+ * Matches the raw user agent of the user against a compiled operand, compiled from a "ua" operator.
+ */
+public final class UserAgentNode implements SegmentNode {
+    private final CompiledOperand operand;
+
+    public UserAgentNode(CompiledOperand operand) {
+        this.operand = operand;
+    }
+
+    @Override
+    public boolean evaluate(SegmentEvaluator evaluator, Map<String, Object> properties) {
+        return evaluator.segmentOperandEvaluator.evaluateUserAgent(operand, evaluator.context);
+    }
+
+    @Override
+    public int getCost() {
+        return SegmentNodeCost.CONTEXT;
+    }
+
+    @Override
+    public boolean canFail() {
+        // decoding a malformed user agent raises an error
+        return true;
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.nodes;
+
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches the parsed user agent data of the user (os, device, browser) against the expected values.
+ */
+public final class UserAgentParserNode implements SegmentNode {
+    private final Map<String, List<String>> expectedValues;
+
+    /**
+     * @param expectedValues Immutable map of user agent key to the expected values.
+     */
+    public UserAgentParserNode(Map<String, List<String>> expectedValues) {
+        this.expectedValues = expectedValues;
+    }
+
+    @Override
+    public boolean evaluate(SegmentEvaluator evaluator, Map<String, Object> properties) {
+        return evaluator.checkUserAgentParser(expectedValues);
+    }
+
+    @Override
+    public int getCost() {
+        return SegmentNodeCost.CONTEXT;
+    }
+
+    @Override
+    public boolean canFail() {
+        // an invalid wildcard value raises an error
+        return true;
+    }
+}
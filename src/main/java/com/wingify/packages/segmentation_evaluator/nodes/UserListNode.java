@@ -0,0 +1,51 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.nodes;
+
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Matches the user against a list of user IDs, compiled from a "user" operator.
+ * The list is held as a hash set, so large whitelists cost a single lookup per evaluation.
+ */
+public final class UserListNode implements SegmentNode {
+    private final Set<String> users;
+
+    /**
+     * @param users Immutable set of the user IDs, already trimmed and unquoted.
+     */
+    public UserListNode(Set<String> users) {
+        this.users = users;
+    }
+
+    @Override
+    public boolean evaluate(SegmentEvaluator evaluator, Map<String, Object> properties) {
+        return users.contains(properties.get("_vwoUserId"));
+    }
+
+    @Override
+    public int getCost() {
+        return SegmentNodeCost.LOCAL;
+    }
+
+    @Override
+    public boolean canFail() {
+        return false;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.packages.segmentation_evaluator.utils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.wingify.constants.Constants;
+
+import java.util.regex.Pattern;
+
+/**
+ * Bounded, thread-safe cache of compiled regex patterns used by segmentation.
+ * Patterns found in the settings are compiled when the settings are processed, the least recently
+ * used patterns are evicted once the cache is full and compiled again on their next use.
+ */
+public final class PatternCache {
+    private static final Cache<String, Pattern> PATTERNS = CacheBuilder.newBuilder()
+            .maximumSize(Constants.MAX_SEGMENT_PATTERN_CACHE_SIZE)
+            .build();
+
+    private static final Cache<String, Pattern> CASE_INSENSITIVE_PATTERNS = CacheBuilder.newBuilder()
+            .maximumSize(Constants.MAX_SEGMENT_PATTERN_CACHE_SIZE)
+            .build();
+
+    private PatternCache() {
+    }
+
+    /**
+     * Returns the compiled pattern for a regex, compiling it on first use.
+     * @param regex The regex to compile.
+     * @return The compiled pattern.
+     * @throws java.util.regex.PatternSyntaxException if the regex is invalid, invalid regexes are not cached.
+     */
+    public static Pattern compile(String regex) {
+        return compile(PATTERNS, regex, 0);
+    }
+
+    /**
+     * Returns the compiled case insensitive pattern for a regex, compiling it on first use.
+     * @param regex The regex to compile.
+     * @return The compiled pattern.
+     * @throws java.util.regex.PatternSyntaxException if the regex is invalid, invalid regexes are not cached.
+     */
+    public static Pattern compileCaseInsensitive(String regex) {
+        return compile(CASE_INSENSITIVE_PATTERNS, regex, Pattern.CASE_INSENSITIVE);
+    }
+
+    private static Pattern compile(Cache<String, Pattern> cache, String regex, int flags) {
+        Pattern pattern = cache.getIfPresent(regex);
+        if (pattern == null) {
+            // compiled outside the cache loader so that a PatternSyntaxException is not wrapped
+            pattern = Pattern.compile(regex, flags);
+            cache.put(regex, pattern);
+        }
+        return pattern;
+    }
+}
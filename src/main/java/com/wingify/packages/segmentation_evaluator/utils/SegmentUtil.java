@@ -20,13 +20,13 @@ import com.fasterxml.jackson.databind.JsonNode;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class SegmentUtil {
 
     /**
      * Checks if the actual values match the expected values specified in the map.
+     * The expected values are not modified, so the map can be shared by compiled segments.
      * @param expectedMap A map of expected values for different keys.
      * @param actualMap A map of actual values to compare against.
      * @return A boolean indicating if all actual values match the expected values.
@@ -35,31 +35,42 @@ public class SegmentUtil {
         for (String key : actualMap.keySet()) {
             if (expectedMap.containsKey(key)) {
                 List<String> expectedValues = expectedMap.get(key);
-                // convert expectedValues to lowercase
-                expectedValues.replaceAll(String::toLowerCase);
                 String actualValue = actualMap.get(key);
 
-                // Handle wildcard patterns for all keys
-                for (String val : expectedValues) {
-                    if (val.startsWith("wildcard(") && val.endsWith(")")) {
-                        String wildcardPattern = val.substring(9, val.length() - 1); // Extract pattern from wildcard string
-                        Pattern regex = Pattern.compile(wildcardPattern.replace("*", ".*"), Pattern.CASE_INSENSITIVE); // Convert wildcard pattern to regex
-                        Matcher matcher = regex.matcher(actualValue);
-                        if (matcher.matches()) {
-                            return true; // Match found, return true
-                        }
+                // Handle wildcard patterns for all keys, expected values are compared in lowercase
+                for (String expectedValue : expectedValues) {
+                    Pattern regex = getWildcardPattern(expectedValue);
+                    if (regex != null && regex.matcher(actualValue).matches()) {
+                        return true; // Match found, return true
                     }
                 }
 
                 // Direct value check for all keys
-                if (expectedValues.contains(actualValue.trim().toLowerCase())) {
-                    return true; // Direct value match found, return true
+                String normalizedActualValue = actualValue.trim().toLowerCase();
+                for (String expectedValue : expectedValues) {
+                    if (expectedValue.toLowerCase().equals(normalizedActualValue)) {
+                        return true; // Direct value match found, return true
+                    }
                 }
             }
         }
         return false; // No matches found
     }
 
+    /**
+     * Returns the compiled pattern of a "wildcard(...)" expected value, from the shared pattern cache.
+     * @param expectedValue The expected value, matched case insensitively.
+     * @return The compiled pattern, or null if the value is not a wildcard value.
+     */
+    public static Pattern getWildcardPattern(String expectedValue) {
+        String val = expectedValue.toLowerCase();
+        if (!val.startsWith("wildcard(") || !val.endsWith(")")) {
+            return null;
+        }
+        String wildcardPattern = val.substring(9, val.length() - 1); // Extract pattern from wildcard string
+        return PatternCache.compileCaseInsensitive(wildcardPattern.replace("*", ".*")); // Convert wildcard pattern to regex
+    }
+
     /**
      * Compares expected location values with user's location to determine a match.
      * @param expectedLocationMap A map of expected location values.
@@ -83,6 +94,20 @@ public class SegmentUtil {
         return true; // If all values match, return true
     }
 
+    /**
+     * Folds the case of a value, two values are equal once folded exactly when String.equalsIgnoreCase
+     * considers them equal.
+     * @param value The value to fold.
+     * @return The case-folded value.
+     */
+    public static String foldCase(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
     /**
      * Normalizes a value to a consistent format for comparison.
      * @param value The value to normalize.
@@ -110,12 +135,20 @@ public class SegmentUtil {
      */
     public static Boolean matchWithRegex(String string, String regex) {
         try {
-            Pattern pattern = Pattern.compile(regex);
-            Matcher matcher = pattern.matcher(string);
-            return matcher.find();
+            return matchWithRegex(string, PatternCache.compile(regex));
         } catch (Exception e) {
             // Return null if an error occurs during regex matching
             return false;
         }
     }
+
+    /**
+     * Matches a string against a compiled pattern.
+     * @param string - The string to match against the pattern.
+     * @param pattern - The compiled pattern.
+     * @return true if the pattern is found in the string.
+     */
+    public static boolean matchWithRegex(String string, Pattern pattern) {
+        return pattern.matcher(string).find();
+    }
 }
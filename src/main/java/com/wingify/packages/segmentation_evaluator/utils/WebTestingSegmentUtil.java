@@ -35,6 +35,14 @@ import static com.wingify.utils.DataTypeUtil.isArray;
 import static com.wingify.utils.DataTypeUtil.getType;
 
 public final class WebTestingSegmentUtil {
+    // operand formats of campaignVariation, see evaluateWebTestingCampaignVariation
+    private static final Pattern NOT_IN_CAMPAIGN_PATTERN = Pattern.compile("^!(\\d+)$");
+    private static final Pattern NOT_IN_VARIATION_PATTERN = Pattern.compile("^(\\d+)_!(\\d+)$");
+    private static final Pattern IN_VARIATION_PATTERN = Pattern.compile("^(\\d+)_(\\d+)$");
+    private static final Pattern IN_CAMPAIGN_PATTERN = Pattern.compile("^(\\d+)$");
+    // a quoted JSON key followed by a colon
+    private static final Pattern JSON_KEY_PATTERN = Pattern.compile("\"([^\"]+)\"\\s*:");
+
     private WebTestingSegmentUtil() {
     }
   
@@ -178,14 +186,14 @@ public final class WebTestingSegmentUtil {
         Matcher match;
 
         //regex to match -> !123 — user should not be in campaign 123.
-        match = Pattern.compile("^!(\\d+)$").matcher(campaignVariationOperand);
+        match = NOT_IN_CAMPAIGN_PATTERN.matcher(campaignVariationOperand);
         if (match.matches()) {
             String campaignId = match.group(1);
             return new WebTestingCampaignVariationEval(!assignments.containsKey(campaignId), false);
         }
 
         //regex to match -> 123_!4 — in campaign 123 but not the variation 4.
-        match = Pattern.compile("^(\\d+)_!(\\d+)$").matcher(campaignVariationOperand);
+        match = NOT_IN_VARIATION_PATTERN.matcher(campaignVariationOperand);
         if (match.matches()) {
             String campaignId = match.group(1);
             String variationId = match.group(2);
@@ -196,7 +204,7 @@ public final class WebTestingSegmentUtil {
         }
 
         //regex to match -> 123_4 — must be exactly that campaign and variation.
-        match = Pattern.compile("^(\\d+)_(\\d+)$").matcher(campaignVariationOperand);
+        match = IN_VARIATION_PATTERN.matcher(campaignVariationOperand);
         if (match.matches()) {
             String campaignId = match.group(1);
             String variationId = match.group(2);
@@ -207,7 +215,7 @@ public final class WebTestingSegmentUtil {
         }
 
         //regex to match -> 123 — in the campaign, any variation counts.
-        match = Pattern.compile("^(\\d+)$").matcher(campaignVariationOperand);
+        match = IN_CAMPAIGN_PATTERN.matcher(campaignVariationOperand);
         if (match.matches()) {
             String campaignId = match.group(1);
             return new WebTestingCampaignVariationEval(assignments.containsKey(campaignId), false);
@@ -225,8 +233,7 @@ public final class WebTestingSegmentUtil {
      * @return boolean true if duplicate keys are found, false otherwise
      */
     private static boolean hasDuplicateJsonKeys(String jsonString) {
-        Pattern keyPattern = Pattern.compile("\"([^\"]+)\"\\s*:");
-        Matcher keyMatcher = keyPattern.matcher(jsonString);
+        Matcher keyMatcher = JSON_KEY_PATTERN.matcher(jsonString);
         Set<String> seenKeys = new HashSet<>();
         while (keyMatcher.find()) {
             if (!seenKeys.add(keyMatcher.group(1))) {
@@ -16,10 +16,29 @@
 package com.wingify.packages.storage;
 
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 
 public abstract class Connector {
     // Abstract methods to be implemented by subclasses
     public abstract void set(Map<String, Object> data) throws Exception;
     public abstract Object get(String featureKey, String userId) throws Exception;
+
+    /**
+     * Reads the stored records of several features of a user.
+     * Falls back to one get call per feature; connectors backed by a remote store
+     * should override it to fetch all the records in a single round trip.
+     * @param featureKeys The keys of the features to read.
+     * @param userId The ID of the user.
+     * @return Map of feature key to stored record, keys without a record may be absent.
+     * @throws Exception if the records could not be read
+     */
+    public Map<String, Object> getAll(Collection<String> featureKeys, String userId) throws Exception {
+        Map<String, Object> records = new HashMap<>();
+        for (String featureKey : featureKeys) {
+            records.put(featureKey, get(featureKey, userId));
+        }
+        return records;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.services;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.wingify.models.user.AttributeListCacheConfig;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded, opt-in cache of attribute list memberships checked with the gateway service.
+ * Both members and non members are cached until the time to live since the check has elapsed,
+ * failed checks are not cached. The least recently checked entries are evicted once the size limit is reached.
+ */
+public class AttributeListCache {
+    private static final AtomicInteger PREFETCH_THREAD_COUNT = new AtomicInteger();
+
+    private final Cache<Key, Boolean> memberships;
+    private final boolean prefetch;
+    // runs the prefetched checks, kept apart from the executor of the asynchronous APIs; null if prefetch is disabled
+    private final ThreadPoolExecutor prefetchExecutor;
+
+    /**
+     * Creates the cache with the given size and time limits
+     * @param config Attribute list cache configuration, missing values fall back to the defaults
+     */
+    public AttributeListCache(AttributeListCacheConfig config) {
+        AttributeListCacheConfig defaults = new AttributeListCacheConfig();
+        int maxSize = config.getMaxSize() != null && config.getMaxSize() > 0 ? config.getMaxSize() : defaults.getMaxSize();
+        int ttlSeconds = config.getTtlSeconds() != null && config.getTtlSeconds() > 0 ? config.getTtlSeconds() : defaults.getTtlSeconds();
+        int prefetchThreads = config.getPrefetchThreads() != null && config.getPrefetchThreads() > 0 ? config.getPrefetchThreads() : defaults.getPrefetchThreads();
+        this.prefetch = config.getPrefetch() == null ? defaults.getPrefetch() : config.getPrefetch();
+        this.memberships = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+        this.prefetchExecutor = this.prefetch ? createPrefetchExecutor(prefetchThreads) : null;
+    }
+
+    /**
+     * Creates the pool running the prefetched checks.
+     * It has no queue: a check submitted while all the threads are busy is rejected and run by the calling thread.
+     * Idle threads are terminated, so a client that stops prefetching holds no threads.
+     * @param prefetchThreads Maximum number of threads
+     * @return The configured executor
+     */
+    private static ThreadPoolExecutor createPrefetchExecutor(int prefetchThreads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(prefetchThreads, prefetchThreads, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "wingify-inlist-prefetch-" + PREFETCH_THREAD_COUNT.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Returns the cached membership of an attribute value
+     * @param listId ID of the attribute list
+     * @param attribute Attribute value checked against the list
+     * @return true or false if the membership is cached, null otherwise
+     */
+    public Boolean get(String listId, String attribute) {
+        return memberships.getIfPresent(new Key(listId, attribute));
+    }
+
+    /**
+     * Caches the membership of an attribute value
+     * @param listId ID of the attribute list
+     * @param attribute Attribute value checked against the list
+     * @param isMember Whether the value is in the list
+     */
+    public void put(String listId, String attribute, boolean isMember) {
+        memberships.put(new Key(listId, attribute), isMember);
+    }
+
+    /**
+     * @return true if the sibling inlist operands of an and/or operator should be checked together
+     */
+    public boolean isPrefetchEnabled() {
+        return prefetch;
+    }
+
+    /**
+     * Returns the bounded executor of the prefetched checks, it rejects checks once all its threads are busy
+     * @return The prefetch executor, or null if prefetch is disabled
+     */
+    public Executor getPrefetchExecutor() {
+        return prefetchExecutor;
+    }
+
+    /**
+     * Identity of a membership check
+     */
+    private static final class Key {
+        private final String listId;
+        private final String attribute;
+
+        private Key(String listId, String attribute) {
+            this.listId = listId;
+            this.attribute = attribute;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return listId.equals(key.listId) && attribute.equals(key.attribute);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(listId, attribute);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.services;
+
+import com.wingify.constants.Constants;
+import com.wingify.enums.CampaignTypeEnum;
+import com.wingify.models.BucketingResult;
+import com.wingify.models.Campaign;
+import com.wingify.models.Feature;
+import com.wingify.models.Settings;
+import com.wingify.models.Variation;
+import com.wingify.models.VariationRangeTable;
+import com.wingify.packages.decision_maker.DecisionMaker;
+import com.wingify.packages.logger.enums.LogLevelEnum;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.wingify.utils.CampaignUtil.getBucketingSeedPrefix;
+import static com.wingify.utils.FunctionUtil.getFeatureFromKey;
+
+/**
+ * Buckets users in bulk into the rules of a feature, e.g. for backfills, exports and cache warming.
+ * Only the traffic allocation and the variation bucketing of each rule are applied, exactly as getFlag
+ * hashes them. Segmentation, whitelisting, holdouts and mutually exclusive groups need the full user
+ * context and are not applied. Nothing is read from or written to the storage and no impression is sent.
+ */
+public class BucketingService {
+    private final Settings settings;
+    private final String accountId;
+    private final LoggerService loggerService;
+    private final CampaignDecisionService campaignDecisionService = new CampaignDecisionService();
+
+    /**
+     * Creates a bucketing service bound to the given settings.
+     * @param settings  Processed settings, may be null.
+     * @param accountId  Account ID for which the bucketing is to be performed.
+     * @param loggerService  LoggerService object used to log errors.
+     */
+    public BucketingService(Settings settings, String accountId, LoggerService loggerService) {
+        this.settings = settings;
+        this.accountId = accountId;
+        this.loggerService = loggerService;
+    }
+
+    /**
+     * Buckets the given users into every rule of a feature.
+     * @param featureKey  Feature key of the feature.
+     * @param userIds  User IDs to bucket, read once.
+     * @return  Parallel ordered stream of the results, one per chunk of DEFAULT_BUCKETING_CHUNK_SIZE users.
+     */
+    public Stream<BucketingResult> assign(String featureKey, Iterable<String> userIds) {
+        return assign(featureKey, userIds, Constants.DEFAULT_BUCKETING_CHUNK_SIZE);
+    }
+
+    /**
+     * Buckets the given users into every rule of a feature. The users are read in chunks and the chunks
+     * are bucketed in parallel on the common fork-join pool, call sequential() on the stream to bucket
+     * them on the calling thread.
+     * @param featureKey  Feature key of the feature.
+     * @param userIds  User IDs to bucket, read once.
+     * @param chunkSize  Number of users per chunk.
+     * @return  Parallel ordered stream of the results, one per chunk, or an empty stream if the feature is not found.
+     */
+    public Stream<BucketingResult> assign(String featureKey, Iterable<String> userIds, int chunkSize) {
+        if (userIds == null) {
+            throw new IllegalArgumentException("User IDs are required");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        Feature feature = getFeatureFromKey(settings, featureKey);
+        if (feature == null) {
+            loggerService.log(LogLevelEnum.ERROR, "FEATURE_NOT_FOUND", new HashMap<String, Object>() {{
+                put("featureKey", featureKey);
+            }});
+            return Stream.empty();
+        }
+
+        List<Campaign> campaigns = feature.getRulesLinkedCampaign() != null ? feature.getRulesLinkedCampaign() : Collections.emptyList();
+        BucketingRule[] rules = new BucketingRule[campaigns.size()];
+        int[] campaignIds = new int[rules.length];
+        String[] ruleKeys = new String[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            Campaign campaign = campaigns.get(i);
+            rules[i] = new BucketingRule(campaign);
+            campaignIds[i] = campaign.getId();
+            ruleKeys[i] = campaign.getRuleKey();
+        }
+
+        return StreamSupport.stream(new ChunkSpliterator(userIds.iterator(), chunkSize), true)
+                .map(chunk -> bucketChunk(chunk, rules, campaignIds, ruleKeys));
+    }
+
+    /**
+     * Buckets a chunk of users, one rule at a time.
+     * @param chunk  Chunk of users.
+     * @param rules  Rules of the feature.
+     * @param campaignIds  Campaign IDs of the rules.
+     * @param ruleKeys  Rule keys of the rules.
+     * @return  Result of the chunk.
+     */
+    private BucketingResult bucketChunk(Chunk chunk, BucketingRule[] rules, int[] campaignIds, String[] ruleKeys) {
+        int[][] variationIds = new int[rules.length][];
+        for (int i = 0; i < rules.length; i++) {
+            variationIds[i] = new int[chunk.userIds.length];
+            rules[i].bucket(chunk.userIds, variationIds[i]);
+        }
+        return new BucketingResult(chunk.offset, chunk.userIds, campaignIds, ruleKeys, variationIds);
+    }
+
+    /**
+     * The bucketing keys and ranges of a rule, resolved once per call.
+     * Mirrors CampaignDecisionService.getVariationAllotted without the per user logging.
+     */
+    private final class BucketingRule {
+        private final boolean isRolloutOrPersonalize;
+        private final Object trafficKeyPrefix;
+        private final double trafficAllocation;
+        private final Object variationKeyPrefix;
+        private final int multiplier;
+        private final VariationRangeTable variationRangeTable;
+        private final int rolloutVariationId;
+        private final DecisionMaker decisionMaker = new DecisionMaker();
+
+        private BucketingRule(Campaign campaign) {
+            List<Variation> variations = campaign.getVariations();
+            this.isRolloutOrPersonalize = Objects.equals(campaign.getType(), CampaignTypeEnum.ROLLOUT.getValue())
+                    || Objects.equals(campaign.getType(), CampaignTypeEnum.PERSONALIZE.getValue());
+            this.trafficKeyPrefix = getBucketingSeedPrefix(campaign, null);
+            this.trafficAllocation = campaignDecisionService.getTrafficAllocation(campaign);
+            this.variationKeyPrefix = campaignDecisionService.getVariationBucketKeyPrefix(campaign);
+            // rollout and personalize rules carry no percent traffic, their users are not bucketed to a variation
+            Integer percentTraffic = campaign.getPercentTraffic();
+            this.multiplier = percentTraffic != null && percentTraffic != 0 ? 1 : 0;
+            this.variationRangeTable = campaign.getVariationRangeTable();
+            this.rolloutVariationId = isRolloutOrPersonalize ? variations.get(0).getId() : BucketingResult.NOT_BUCKETED;
+        }
+
+        /**
+         * Buckets the given users into the rule.
+         * @param userIds  User IDs of the chunk.
+         * @param variationIds  Array receiving the variation ID of each user.
+         */
+        private void bucket(String[] userIds, int[] variationIds) {
+            for (int i = 0; i < userIds.length; i++) {
+                String userId = userIds[i];
+                if (userId == null || userId.isEmpty()) {
+                    continue;
+                }
+                long hashValue = decisionMaker.generateHashValue(trafficKeyPrefix, userId);
+                int valueAssignedToUser = decisionMaker.generateBucketValue(hashValue, DecisionMaker.MAX_CAMPAIGN_VALUE);
+                if (valueAssignedToUser == 0 || valueAssignedToUser > trafficAllocation) {
+                    continue;
+                }
+                if (isRolloutOrPersonalize) {
+                    variationIds[i] = rolloutVariationId;
+                    continue;
+                }
+                hashValue = decisionMaker.generateHashValue(variationKeyPrefix, accountId, userId);
+                int bucketValue = decisionMaker.generateBucketValue(hashValue, Constants.MAX_TRAFFIC_VALUE, multiplier);
+                Variation variation = variationRangeTable.find(bucketValue);
+                if (variation != null) {
+                    variationIds[i] = variation.getId();
+                }
+            }
+        }
+    }
+
+    /**
+     * A chunk of the user IDs and the position of its first user in the input.
+     */
+    private static final class Chunk {
+        private final long offset;
+        private final String[] userIds;
+
+        private Chunk(long offset, String[] userIds) {
+            this.offset = offset;
+            this.userIds = userIds;
+        }
+    }
+
+    /**
+     * Reads the user IDs in chunks. Every split hands one chunk to a fork-join task, so the chunks
+     * are bucketed in parallel while the input is still being read.
+     */
+    private static final class ChunkSpliterator implements Spliterator<Chunk> {
+        private static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.NONNULL;
+
+        private final Iterator<String> userIds;
+        private final int chunkSize;
+        private long offset;
+
+        private ChunkSpliterator(Iterator<String> userIds, int chunkSize) {
+            this.userIds = userIds;
+            this.chunkSize = chunkSize;
+        }
+
+        /**
+         * Reads the next chunk of user IDs.
+         * @return  Next chunk, or null if the input is exhausted.
+         */
+        private Chunk nextChunk() {
+            if (!userIds.hasNext()) {
+                return null;
+            }
+            String[] buffer = new String[chunkSize];
+            int size = 0;
+            while (size < chunkSize && userIds.hasNext()) {
+                buffer[size++] = userIds.next();
+            }
+            Chunk chunk = new Chunk(offset, size == chunkSize ? buffer : Arrays.copyOf(buffer, size));
+            offset += size;
+            return chunk;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Chunk> action) {
+            Chunk chunk = nextChunk();
+            if (chunk == null) {
+                return false;
+            }
+            action.accept(chunk);
+            return true;
+        }
+
+        @Override
+        public Spliterator<Chunk> trySplit() {
+            // the chunk read here precedes the rest of the input, so it is the prefix of the split
+            Chunk chunk = nextChunk();
+            return chunk == null ? null : Spliterators.spliterator(new Object[] {chunk}, CHARACTERISTICS);
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+}
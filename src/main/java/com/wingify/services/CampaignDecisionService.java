@@ -22,12 +22,15 @@ import com.wingify.models.Variation;
 import com.wingify.models.user.WingifyUserContext;
 import com.wingify.packages.decision_maker.DecisionMaker;
 import com.wingify.packages.logger.enums.LogLevelEnum;
+import com.wingify.packages.segmentation_evaluator.core.CompiledSegment;
 import com.wingify.packages.segmentation_evaluator.core.SegmentationManager;
+import com.wingify.DecisionContext;
 import com.wingify.ServiceContainer;
 
 import java.util.*;
 
 import static com.wingify.utils.CampaignUtil.getBucketingId;
+import static com.wingify.utils.CampaignUtil.getBucketingSeedPrefix;
 import static com.wingify.utils.CampaignUtil.getUserIdForLogging;
 
 public class CampaignDecisionService {
@@ -43,23 +46,12 @@ public class CampaignDecisionService {
             return false;
         }
         String bucketingId = getBucketingId(context);
-        double trafficAllocation;
-        // Check if the campaign is of type ROLLOUT or PERSONALIZE
-        // If yes, set the traffic allocation to the weight of the first variation
-        String campaignType = campaign.getType();
-        boolean isRolloutOrPersonalize = Objects.equals(campaignType, CampaignTypeEnum.ROLLOUT.getValue()) || 
-                                       Objects.equals(campaignType, CampaignTypeEnum.PERSONALIZE.getValue());
-
-        // Get salt and traffic allocation based on campaign type
-        String salt = isRolloutOrPersonalize ? campaign.getVariations().get(0).getSalt() : campaign.getSalt();
-        trafficAllocation = isRolloutOrPersonalize ? campaign.getVariations().get(0).getWeight() : campaign.getPercentTraffic();
+        double trafficAllocation = getTrafficAllocation(campaign);
 
-        // Generate bucket key using salt if available, otherwise use campaign ID
-        String bucketKey = (salt != null && !salt.isEmpty()) ? 
-                          salt + "_" + bucketingId : 
-                          campaign.getId() + "_" + bucketingId;
-
-        int valueAssignedToUser = new DecisionMaker().getBucketValueForUser(bucketKey);
+        // Hash the bucket key using salt if available, otherwise use campaign ID
+        DecisionContext decisionContext = serviceContainer.getDecisionContext();
+        long hashValue = decisionContext.getHashValue(getBucketingSeedPrefix(campaign, null), bucketingId);
+        int valueAssignedToUser = decisionContext.getDecisionMaker().generateBucketValue(hashValue, DecisionMaker.MAX_CAMPAIGN_VALUE);
         boolean isUserPart = valueAssignedToUser != 0 && valueAssignedToUser <= trafficAllocation;
 
         serviceContainer.getLoggerService().log(LogLevelEnum.INFO, "USER_PART_OF_CAMPAIGN", new HashMap<String, Object>() {{
@@ -70,6 +62,33 @@ public class CampaignDecisionService {
         return isUserPart;
     }
 
+    /**
+     * This method is used to get the share of users, out of 100, that are part of the campaign.
+     * @param campaign CampaignModel object containing the campaign settings.
+     * @return  Weight of the first variation for ROLLOUT and PERSONALIZE campaigns, otherwise the percent traffic of the campaign.
+     */
+    public double getTrafficAllocation(Campaign campaign) {
+        // Check if the campaign is of type ROLLOUT or PERSONALIZE
+        // If yes, set the traffic allocation to the weight of the first variation
+        String campaignType = campaign.getType();
+        boolean isRolloutOrPersonalize = Objects.equals(campaignType, CampaignTypeEnum.ROLLOUT.getValue()) || 
+                                       Objects.equals(campaignType, CampaignTypeEnum.PERSONALIZE.getValue());
+
+        return isRolloutOrPersonalize ? campaign.getVariations().get(0).getWeight() : campaign.getPercentTraffic();
+    }
+
+    /**
+     * This method is used to get the prefix of the key hashed to bucket the user to a variation.
+     * @param campaign CampaignModel object containing the campaign settings.
+     * @return  Salt of the campaign if set, otherwise the campaign ID.
+     */
+    public Object getVariationBucketKeyPrefix(Campaign campaign) {
+        // get salt from campaign
+        String salt = campaign.getSalt();
+        // if salt is not null and not empty, use salt else use campaign id
+        return (salt != null && !salt.isEmpty()) ? salt : campaign.getId();
+    }
+
     /**
      * This method is used to get the variation for the user based on the bucket value.
      * @param variations  List of VariationModel objects containing the variations.
@@ -113,17 +132,10 @@ public class CampaignDecisionService {
 
         int multiplier = campaign.getPercentTraffic() != 0 ? 1 : 0;
         int percentTraffic = campaign.getPercentTraffic();
-        // get salt from campaign
-        String salt = campaign.getSalt();
-        String bucketKey;
-        // if salt is not null and not empty, use salt else use campaign id
-        if (salt != null && !salt.isEmpty()) {
-            bucketKey = salt + "_" + accountId + "_" + bucketingId;
-        } else {
-            bucketKey = campaign.getId() + "_" + accountId + "_" + bucketingId;
-        }
-        long hashValue = new DecisionMaker().generateHashValue(bucketKey);
-        int bucketValue = new DecisionMaker().generateBucketValue(hashValue, Constants.MAX_TRAFFIC_VALUE, multiplier);
+        Object bucketKeyPrefix = getVariationBucketKeyPrefix(campaign);
+        DecisionContext decisionContext = serviceContainer.getDecisionContext();
+        long hashValue = decisionContext.getHashValue(bucketKeyPrefix, accountId, bucketingId);
+        int bucketValue = decisionContext.getDecisionMaker().generateBucketValue(hashValue, Constants.MAX_TRAFFIC_VALUE, multiplier);
 
         serviceContainer.getLoggerService().log(LogLevelEnum.DEBUG, "USER_BUCKET_TO_VARIATION", new HashMap<String, Object>() {{
             put("userId", getUserIdForLogging(context));
@@ -133,7 +145,7 @@ public class CampaignDecisionService {
             put("hashValue", String.valueOf(hashValue));
         }});
 
-        return getVariation(campaign.getVariations(), bucketValue);
+        return campaign.getVariationRangeTable().find(bucketValue);
     }
 
     /**
@@ -145,11 +157,14 @@ public class CampaignDecisionService {
     public boolean getPreSegmentationDecision(Campaign campaign, WingifyUserContext context, ServiceContainer serviceContainer) {
         String campaignType = campaign.getType();
         Map<String, Object> segments;
+        CompiledSegment compiledSegments = null;
 
         if (Objects.equals(campaignType, CampaignTypeEnum.ROLLOUT.getValue()) || Objects.equals(campaignType, CampaignTypeEnum.PERSONALIZE.getValue())) {
             segments = campaign.getVariations().get(0).getSegments();
+            compiledSegments = campaign.getVariations().get(0).getCompiledSegments();
         } else if (Objects.equals(campaignType, CampaignTypeEnum.AB.getValue())) {
             segments = campaign.getSegments();
+            compiledSegments = campaign.getCompiledSegments();
         } else {
             segments = Collections.emptyMap();
         }
@@ -161,7 +176,7 @@ public class CampaignDecisionService {
             }});
             return true;
         } else {
-            boolean preSegmentationResult = serviceContainer.getSegmentationManager().validateSegmentation(segments, (Map<String, Object>) context.getCustomVariables());
+            boolean preSegmentationResult = serviceContainer.getSegmentationManager().validateSegmentation(serviceContainer.getDecisionContext().getSegmentEvaluator(), compiledSegments, (Map<String, Object>) context.getCustomVariables());
             serviceContainer.getLoggerService().log(LogLevelEnum.INFO, "SEGMENTATION_STATUS", new HashMap<String, Object>() {{
                 put("userId", context.getId());
                 put("campaignKey",campaign.getType().equals(CampaignTypeEnum.AB.getValue()) ? campaign.getKey() : campaign.getName() + "_" + campaign.getRuleKey());
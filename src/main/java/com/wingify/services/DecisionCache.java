@@ -0,0 +1,252 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.services;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.wingify.DecisionContext;
+import com.wingify.models.FlagDecision;
+import com.wingify.models.Variable;
+import com.wingify.models.request.EventArchPayload;
+import com.wingify.models.request.Props;
+import com.wingify.models.user.DecisionCacheConfig;
+import com.wingify.models.user.GatewayService;
+import com.wingify.models.user.GetFlag;
+import com.wingify.models.user.WingifyUserContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, opt-in memo of getFlag decisions.
+ * For a fixed settings version, user and set of attributes a decision is deterministic, so it is
+ * evaluated once and its result and side effects (impressions, usage tracking, integrations
+ * callback) are replayed on later calls. Entries expire after the configured TTL and are all
+ * dropped when the settings are updated.
+ */
+public class DecisionCache {
+    private final Cache<Key, Entry> cache;
+
+    /**
+     * Creates the cache with the given size and TTL limits
+     * @param config Decision cache configuration, missing values fall back to the defaults
+     */
+    public DecisionCache(DecisionCacheConfig config) {
+        DecisionCacheConfig defaults = new DecisionCacheConfig();
+        int maxSize = config.getMaxSize() != null && config.getMaxSize() > 0 ? config.getMaxSize() : defaults.getMaxSize();
+        int ttlSeconds = config.getTtlSeconds() != null && config.getTtlSeconds() > 0 ? config.getTtlSeconds() : defaults.getTtlSeconds();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Returns the memoized decision for the given key
+     * @param key Key built with createKey
+     * @return Memoized decision, or null if none is cached
+     */
+    public Entry get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Memoizes a decision evaluated during the given call
+     * @param key Key built with createKey before the evaluation
+     * @param flag Result of the evaluation
+     * @param decisionContext DecisionContext of the call holding its side effects
+     */
+    public void put(Key key, GetFlag flag, DecisionContext decisionContext) {
+        cache.put(key, new Entry(flag, decisionContext));
+    }
+
+    /**
+     * Drops all the memoized decisions, called when the settings change
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Builds the cache key of a decision
+     * @param settingsVersionId ID of the settings version the decision is evaluated against
+     * @param featureKey Feature key of the flag
+     * @param context User context, with the user ID already resolved
+     * @return Key identifying the decision
+     */
+    public static Key createKey(long settingsVersionId, String featureKey, WingifyUserContext context) {
+        return new Key(settingsVersionId, featureKey, context);
+    }
+
+    /**
+     * Identifies a decision by the settings version, the feature and everything about the user
+     * that feeds segmentation and bucketing, including the gateway data passed in the context.
+     * Attribute maps are copied, so later changes to the context do not alter the key.
+     */
+    public static final class Key {
+        private final long settingsVersionId;
+        private final String featureKey;
+        private final String userId;
+        private final String bucketingSeed;
+        private final String userAgent;
+        private final String ipAddress;
+        private final Map<String, ?> customVariables;
+        private final Map<String, ?> variationTargetingVariables;
+        private final Map<String, ?> platformVariables;
+        // gateway data passed by the caller, used for location and user agent segmentation
+        private final Map<String, String> gatewayUserAgent;
+        private final Map<String, String> gatewayLocation;
+        private final int hash;
+
+        private Key(long settingsVersionId, String featureKey, WingifyUserContext context) {
+            this.settingsVersionId = settingsVersionId;
+            this.featureKey = featureKey;
+            this.userId = context.getId();
+            this.bucketingSeed = context.getBucketingSeed();
+            this.userAgent = context.getUserAgent();
+            this.ipAddress = context.getIpAddress();
+            this.customVariables = copy(context.getCustomVariables());
+            this.variationTargetingVariables = copy(context.getVariationTargetingVariables());
+            this.platformVariables = copy(context.getPlatformVariables());
+            GatewayService gatewayData = context.getWingify();
+            this.gatewayUserAgent = gatewayData != null && gatewayData.getUserAgent() != null ? new HashMap<>(gatewayData.getUserAgent()) : null;
+            this.gatewayLocation = gatewayData != null && gatewayData.getLocation() != null ? new HashMap<>(gatewayData.getLocation()) : null;
+            this.hash = Objects.hash(settingsVersionId, featureKey, userId, bucketingSeed, userAgent, ipAddress,
+                    customVariables, variationTargetingVariables, platformVariables, gatewayUserAgent, gatewayLocation);
+        }
+
+        private static Map<String, ?> copy(Map<String, ?> attributes) {
+            if (attributes == null) {
+                return null;
+            }
+            Map<String, Object> copy = new HashMap<>(attributes);
+            // injected into the context during evaluation and derived from the user ID, already part of the key
+            copy.remove("_vwoUserId");
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash
+                    && settingsVersionId == key.settingsVersionId
+                    && Objects.equals(featureKey, key.featureKey)
+                    && Objects.equals(userId, key.userId)
+                    && Objects.equals(bucketingSeed, key.bucketingSeed)
+                    && Objects.equals(userAgent, key.userAgent)
+                    && Objects.equals(ipAddress, key.ipAddress)
+                    && Objects.equals(customVariables, key.customVariables)
+                    && Objects.equals(variationTargetingVariables, key.variationTargetingVariables)
+                    && Objects.equals(platformVariables, key.platformVariables)
+                    && Objects.equals(gatewayUserAgent, key.gatewayUserAgent)
+                    && Objects.equals(gatewayLocation, key.gatewayLocation);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A memoized decision: the flag result and the side effects to replay with it
+     */
+    public static final class Entry {
+        private final boolean isEnabled;
+        private final List<Variable> variables;
+        private final Map<String, Variable> variablesByKey;
+        private final List<Impression> impressions;
+        private final boolean usageTracked;
+        private final FlagDecision hookDecision;
+
+        private Entry(GetFlag flag, DecisionContext decisionContext) {
+            this.isEnabled = Boolean.TRUE.equals(flag.isEnabled());
+            this.variables = flag.getVariablesValue() != null ? Collections.unmodifiableList(new ArrayList<>(flag.getVariablesValue())) : Collections.emptyList();
+            this.variablesByKey = Variable.indexByKey(this.variables);
+            List<Impression> impressions = new ArrayList<>();
+            for (EventArchPayload payload : decisionContext.getImpressions()) {
+                Props props = payload.getD().getEvent().getProps();
+                impressions.add(new Impression(props.getId(), Integer.parseInt(props.getVariation()), props.getfId()));
+            }
+            this.impressions = Collections.unmodifiableList(impressions);
+            this.usageTracked = decisionContext.isUsageTracked();
+            this.hookDecision = decisionContext.getHookDecision();
+        }
+
+        public boolean isEnabled() {
+            return isEnabled;
+        }
+
+        public List<Variable> getVariables() {
+            return variables;
+        }
+
+        public Map<String, Variable> getVariablesByKey() {
+            return variablesByKey;
+        }
+
+        public List<Impression> getImpressions() {
+            return impressions;
+        }
+
+        public boolean isUsageTracked() {
+            return usageTracked;
+        }
+
+        public FlagDecision getHookDecision() {
+            return hookDecision;
+        }
+    }
+
+    /**
+     * An impression dispatched with a memoized decision
+     */
+    public static final class Impression {
+        private final int campaignId;
+        private final int variationId;
+        // set for holdout impressions, which carry the feature ID
+        private final Integer featureId;
+
+        private Impression(int campaignId, int variationId, Integer featureId) {
+            this.campaignId = campaignId;
+            this.variationId = variationId;
+            this.featureId = featureId;
+        }
+
+        public int getCampaignId() {
+            return campaignId;
+        }
+
+        public int getVariationId() {
+            return variationId;
+        }
+
+        public Integer getFeatureId() {
+            return featureId;
+        }
+    }
+}
@@ -18,42 +18,33 @@ import com.wingify.interfaces.integration.IntegrationCallback;
 
 import java.util.Map;
 
+/**
+ * Forwards decisions to the integration callback configured on the client.
+ * It holds no per-request state, so a single instance is shared by all API calls.
+ */
 public class HooksManager {
-    private IntegrationCallback callback;
-    private Map<String, Object> decision;
+    private final IntegrationCallback callback;
 
     public HooksManager(IntegrationCallback callback) {
         this.callback = callback;
     }
 
     /**
-     * Executes the callback
-     *
-     * @param properties Properties from the callback
+     * Checks if an integration callback is configured, so that callers can skip building its properties
+     * @return Boolean value indicating if a callback is configured
      */
-    public void execute(Map<String, Object> properties) {
-        if (this.callback != null) {
-            this.callback.execute(properties);
-        }
+    public boolean hasCallback() {
+        return this.callback != null;
     }
 
     /**
-     * Sets properties to the decision object
+     * Executes the callback
      *
-     * @param properties Properties to set
+     * @param properties Properties from the callback
      */
-    public void set(Map<String, Object> properties) {
+    public void execute(Map<String, Object> properties) {
         if (this.callback != null) {
-            this.decision = properties;
+            this.callback.execute(properties);
         }
     }
-
-    /**
-     * Retrieves the decision object
-     *
-     * @return The decision object
-     */
-    public Map<String, Object> get() {
-        return this.decision;
-    }
 }
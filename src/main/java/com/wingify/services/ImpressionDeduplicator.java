@@ -0,0 +1,103 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.services;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.wingify.models.user.ImpressionDedupConfig;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, opt-in filter of repeated variation shown events.
+ * An impression is identified by the user UUID, campaign ID and variation ID. The first one is
+ * sent and the same impression is suppressed until the window since it was sent has elapsed.
+ * An impression whose send fails is released, so that a retry is not suppressed.
+ * The backing cache is segmented, so concurrent calls for different users rarely contend,
+ * and the least recently sent impressions are evicted once the size limit is reached.
+ */
+public class ImpressionDeduplicator {
+    private final Cache<Key, Boolean> sentImpressions;
+
+    /**
+     * Creates the filter with the given size and window limits
+     * @param config Impression deduplication configuration, missing values fall back to the defaults
+     */
+    public ImpressionDeduplicator(ImpressionDedupConfig config) {
+        ImpressionDedupConfig defaults = new ImpressionDedupConfig();
+        int maxSize = config.getMaxSize() != null && config.getMaxSize() > 0 ? config.getMaxSize() : defaults.getMaxSize();
+        int windowSeconds = config.getWindowSeconds() != null && config.getWindowSeconds() > 0 ? config.getWindowSeconds() : defaults.getWindowSeconds();
+        this.sentImpressions = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(windowSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Reserves an impression and checks if it should be sent.
+     * The caller must release the impression if it could not be queued or sent.
+     * @param uuid UUID of the user
+     * @param campaignId ID of the campaign
+     * @param variationId ID of the variation
+     * @return true the first time the impression is seen within the window, false for a duplicate
+     */
+    public boolean shouldSend(String uuid, int campaignId, int variationId) {
+        return sentImpressions.asMap().putIfAbsent(new Key(uuid, campaignId, variationId), Boolean.TRUE) == null;
+    }
+
+    /**
+     * Forgets an impression that failed to be queued or sent, so the next one is sent again
+     * @param uuid UUID of the user
+     * @param campaignId ID of the campaign
+     * @param variationId ID of the variation
+     */
+    public void release(String uuid, int campaignId, int variationId) {
+        sentImpressions.invalidate(new Key(uuid, campaignId, variationId));
+    }
+
+    /**
+     * Identity of an impression
+     */
+    private static final class Key {
+        private final String uuid;
+        private final int campaignId;
+        private final int variationId;
+
+        private Key(String uuid, int campaignId, int variationId) {
+            this.uuid = uuid;
+            this.campaignId = campaignId;
+            this.variationId = variationId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return campaignId == other.campaignId && variationId == other.variationId && Objects.equals(uuid, other.uuid);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Objects.hashCode(uuid) + campaignId) + variationId;
+        }
+    }
+}
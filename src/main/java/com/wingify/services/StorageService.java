@@ -19,6 +19,7 @@ import com.wingify.models.user.WingifyUserContext;
 import com.wingify.packages.storage.Connector;
 import com.wingify.packages.storage.Storage;
 
+import java.util.Collection;
 import java.util.Map;
 
 public class StorageService {
@@ -37,6 +38,20 @@ public class StorageService {
         return  (Map<String, Object>) ((Connector) storageInstance).get(featureKey, context.getId());
     }
 
+    /**
+     * Retrieves the data of several features of a user in one connector call.
+     * @param featureKeys The keys to identify the feature data.
+     * @param context The context model containing at least an ID.
+     * @return Map of feature key to stored data, or null if no connector is configured.
+     */
+    public Map<String, Object> getAllDataInStorage(Collection<String> featureKeys, WingifyUserContext context) throws Exception {
+        Object storageInstance = Storage.getInstance().getConnector();
+        if (storageInstance == null) {
+            return null;
+        }
+        return ((Connector) storageInstance).getAll(featureKeys, context.getId());
+    }
+
     /**
      * Stores data in the storage.
      * @param data The data to be stored as a map.
@@ -0,0 +1,101 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.services;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.wingify.models.user.GatewayService;
+import com.wingify.models.user.UserDataCacheConfig;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded, opt-in cache of the user data returned by the gateway service.
+ * The device data of a user agent and the location of an IP address are cached separately with their
+ * own time to live, so a known user agent on a new IP address only looks up the location.
+ * Concurrent lookups of the same data are not coalesced here, the gateway requests they send are
+ * shared with a bounded wait by GatewayServiceUtil.
+ */
+public class UserDataCache {
+    private final Cache<String, Map<String, String>> userAgentData;
+    private final Cache<String, Map<String, String>> locationData;
+
+    /**
+     * Creates the cache with the given size and time limits
+     * @param config User data cache configuration, missing values fall back to the defaults
+     */
+    public UserDataCache(UserDataCacheConfig config) {
+        UserDataCacheConfig defaults = new UserDataCacheConfig();
+        int maxSize = config.getMaxSize() != null && config.getMaxSize() > 0 ? config.getMaxSize() : defaults.getMaxSize();
+        int userAgentTtlSeconds = config.getUserAgentTtlSeconds() != null && config.getUserAgentTtlSeconds() > 0 ? config.getUserAgentTtlSeconds() : defaults.getUserAgentTtlSeconds();
+        int locationTtlSeconds = config.getLocationTtlSeconds() != null && config.getLocationTtlSeconds() > 0 ? config.getLocationTtlSeconds() : defaults.getLocationTtlSeconds();
+        this.userAgentData = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(userAgentTtlSeconds, TimeUnit.SECONDS)
+                .build();
+        this.locationData = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(locationTtlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Returns the user data of a user agent and IP address, looking up only the parts that are not cached
+     * @param userAgent User agent of the user, may be null
+     * @param ipAddress IP address of the user, may be null
+     * @param fetcher Fetches the user data from the gateway service for the given query parameters
+     * @return The user data, with a null user agent or location when it was not requested
+     */
+    public GatewayService get(String userAgent, String ipAddress, Function<Map<String, String>, GatewayService> fetcher) {
+        String userAgentKey = userAgent == null ? null : userAgent.trim();
+        Map<String, String> cachedUserAgent = userAgentKey == null ? null : userAgentData.getIfPresent(userAgentKey);
+        Map<String, String> cachedLocation = ipAddress == null ? null : locationData.getIfPresent(ipAddress);
+
+        Map<String, String> queryParams = new HashMap<>();
+        if (userAgent != null && cachedUserAgent == null) {
+            queryParams.put("userAgent", userAgent);
+        }
+        if (ipAddress != null && cachedLocation == null) {
+            queryParams.put("ipAddress", ipAddress);
+        }
+
+        GatewayService userData = new GatewayService();
+        if (!queryParams.isEmpty()) {
+            // failed lookups throw and are not cached, the next lookup fetches again
+            GatewayService fetchedData = fetcher.apply(queryParams);
+            if (queryParams.containsKey("userAgent")) {
+                cachedUserAgent = immutableCopy(fetchedData.getUserAgent());
+                userAgentData.put(userAgentKey, cachedUserAgent);
+            }
+            if (queryParams.containsKey("ipAddress")) {
+                cachedLocation = immutableCopy(fetchedData.getLocation());
+                locationData.put(ipAddress, cachedLocation);
+            }
+        }
+        // no data is cached as an empty map, and handed out as no data
+        userData.setUserAgent(cachedUserAgent == null || cachedUserAgent.isEmpty() ? null : cachedUserAgent);
+        userData.setLocation(cachedLocation == null || cachedLocation.isEmpty() ? null : cachedLocation);
+        return userData;
+    }
+
+    private static Map<String, String> immutableCopy(Map<String, String> data) {
+        return data == null ? Collections.emptyMap() : Collections.unmodifiableMap(new HashMap<>(data));
+    }
+}
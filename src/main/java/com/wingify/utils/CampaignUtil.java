@@ -78,6 +78,39 @@ public class CampaignUtil {
         return stepFactor;
     }
 
+    /**
+     * Allocates bucket ranges to variations as if their weights were scaled to sum up to 100%, like
+     * scaleVariationWeights followed by assignRangeValues, but without modifying the variations.
+     * @param variations The variations to allocate.
+     * @return The range table of the variations.
+     */
+    public static VariationRangeTable getScaledVariationRangeTable(List<Variation> variations) {
+        int count = variations.size();
+        double[] weights = new double[count];
+        for (int i = 0; i < count; i++) {
+            weights[i] = variations.get(i).getWeight();
+        }
+        double totalWeight = Arrays.stream(weights).sum();
+
+        int[] startRanges = new int[count];
+        int[] endRanges = new int[count];
+        int currentAllocation = 0;
+        for (int i = 0; i < count; i++) {
+            // If total weight is zero, assign equal weight to each variation
+            double weight = totalWeight == 0 ? 100.0 / count : (weights[i] / totalWeight) * 100;
+            int stepFactor = getVariationBucketRange(weight);
+            if (stepFactor > 0) {
+                startRanges[i] = currentAllocation + 1;
+                endRanges[i] = currentAllocation + stepFactor;
+            } else {
+                startRanges[i] = -1;
+                endRanges[i] = -1;
+            }
+            currentAllocation += stepFactor;
+        }
+        return VariationRangeTable.of(variations.toArray(new Variation[count]), startRanges, endRanges);
+    }
+
     /**
      * Scales the weights of variations to sum up to 100%.
      * @param variations The list of variations to scale.
@@ -108,9 +141,19 @@ public class CampaignUtil {
      * @return The bucketing seed.
      */
     public static String getBucketingSeed(String userId, Campaign campaign, Integer groupId) {
-        // Return a seed combining group ID and user ID if group ID is provided
+        return getBucketingSeedPrefix(campaign, groupId) + "_" + userId;
+    }
+
+    /**
+     * Returns the part of the bucketing seed before the user ID, so the seed can be hashed without building it.
+     * @param campaign The campaign object.
+     * @param groupId The optional group ID.
+     * @return The group ID if provided, else the salt of the campaign if set, else the campaign ID.
+     */
+    public static Object getBucketingSeedPrefix(Campaign campaign, Integer groupId) {
+        // Return the group ID if provided
         if (groupId != null) {
-            return groupId + "_" + userId;
+            return groupId;
         }
 
         // get campaign type
@@ -122,11 +165,7 @@ public class CampaignUtil {
         // Get salt based on campaign type
         String salt = isRolloutOrPersonalize ? campaign.getVariations().get(0).getSalt() : campaign.getSalt();
         // if salt is not null and not empty, use salt else use campaign id
-        String bucketKey = (salt != null && !salt.isEmpty()) ? 
-                          salt + "_" + userId : 
-                          campaign.getId() + "_" + userId;
-        // Return a seed combining campaign ID and user ID otherwise
-        return bucketKey;
+        return (salt != null && !salt.isEmpty()) ? salt : campaign.getId();
     }
 
     /**
@@ -137,6 +176,10 @@ public class CampaignUtil {
      * @return The found variation model or null if not found.
      */
     public static Variation getVariationFromCampaignKey(Settings settings, String campaignKey, int variationId) {
+        if (settings.getDecisionSnapshot() != null) {
+            Campaign campaign = settings.getDecisionSnapshot().getCampaignByKey(campaignKey);
+            return campaign != null ? settings.getDecisionSnapshot().getVariation(campaign.getId(), variationId) : null;
+        }
         // Find the campaign by its key
         Campaign campaign = settings.getCampaigns().stream()
                 .filter(c -> c.getKey().equals(campaignKey))
@@ -283,6 +326,10 @@ public class CampaignUtil {
      * @return An array of campaign IDs associated with the specified feature key.
      */
     public static List<Integer> getCampaignIdsFromFeatureKey(Settings settings, String featureKey) {
+        if (settings.getDecisionSnapshot() != null) {
+            List<Integer> campaignIds = settings.getDecisionSnapshot().getCampaignIds(featureKey);
+            return campaignIds != null ? new ArrayList<>(campaignIds) : new ArrayList<>();
+        }
         List<Integer> campaignIds = new ArrayList<>();
         for (Feature feature : settings.getFeatures()) {
             if (feature.getKey().equals(featureKey)) {
@@ -367,6 +414,10 @@ public class CampaignUtil {
      * @return The campaign key if found, otherwise an empty string.
      */
     public static String getCampaignKeyFromCampaignId(Settings settings, int campaignId) {
+        if (settings.getDecisionSnapshot() != null) {
+            Campaign campaign = settings.getDecisionSnapshot().getCampaignById(campaignId);
+            return campaign != null && campaign.getKey() != null ? campaign.getKey() : "";
+        }
         return settings.getCampaigns().stream()
                 .filter(campaign -> campaign.getId() == campaignId)
                 .map(Campaign::getKey)
@@ -382,6 +433,10 @@ public class CampaignUtil {
      * @return The variation name if found, otherwise an empty string.
      */
     public static String getVariationNameFromCampaignIdAndVariationId(Settings settings, int campaignId, int variationId) {
+        if (settings.getDecisionSnapshot() != null) {
+            Variation variation = settings.getDecisionSnapshot().getVariation(campaignId, variationId);
+            return variation != null && variation.getName() != null ? variation.getName() : "";
+        }
         return settings.getCampaigns().stream()
                 .filter(campaign -> campaign.getId() == campaignId)
                 .flatMap(campaign -> campaign.getVariations().stream())
@@ -398,6 +453,10 @@ public class CampaignUtil {
      * @return The campaign type if found, otherwise an empty string.
      */
     public static String getCampaignTypeFromCampaignId(Settings settings, int campaignId) {
+        if (settings.getDecisionSnapshot() != null) {
+            Campaign campaign = settings.getDecisionSnapshot().getCampaignById(campaignId);
+            return campaign != null && campaign.getType() != null ? campaign.getType() : "";
+        }
         return settings.getCampaigns().stream()
                 .filter(campaign -> campaign.getId() == campaignId)
                 .map(Campaign::getType)
@@ -17,7 +17,7 @@ package com.wingify.utils;
 
 import java.util.*;
 
-import com.wingify.WingifyClient;
+import com.wingify.DecisionContext;
 import com.wingify.ServiceContainer;
 import com.wingify.constants.Constants;
 import com.wingify.decorators.StorageDecorator;
@@ -25,7 +25,6 @@ import com.wingify.enums.CampaignTypeEnum;
 import com.wingify.enums.StatusEnum;
 import com.wingify.models.*;
 import com.wingify.models.user.WingifyUserContext;
-import com.wingify.packages.decision_maker.DecisionMaker;
 import com.wingify.packages.logger.enums.LogLevelEnum;
 import com.wingify.packages.segmentation_evaluator.core.SegmentationManager;
 import com.wingify.services.CampaignDecisionService;
@@ -44,10 +43,10 @@ public class DecisionUtil {
      * @param evaluatedFeatureMap  Map containing the evaluated feature map.
      * @param megGroupWinnerCampaigns  Map containing the MEG group winner campaigns.
      * @param storageService  Storage service for data persistence.
-     * @param decision  Map containing the decision object.
-     * @return   Map containing the result of the evaluation.
+     * @param decision  FlagDecision object to be sent for the integrations, may be null.
+     * @return   RuleEvaluationResult object containing the result of the evaluation.
      */
-    public static Map<String, Object> checkWhitelistingAndPreSeg(
+    public static RuleEvaluationResult checkWhitelistingAndPreSeg(
             ServiceContainer serviceContainer,
             Feature feature,
             Campaign campaign,
@@ -55,9 +54,9 @@ public class DecisionUtil {
             Map<String, Object> evaluatedFeatureMap,
             Map<Integer, String> megGroupWinnerCampaigns,
             StorageService storageService,
-            Map<String, Object> decision) {
+            FlagDecision decision) {
 
-        String wingifyUserId = UUIDUtils.getUUID(context.getId(), serviceContainer.getWingifyInitOptions().getAccountId().toString());
+        String wingifyUserId = serviceContainer.getUserUuidGenerator().getUUID(context.getId());
         int campaignId = campaign.getId();
 
         // If the campaign is of type AB, set the _vwoUserId for variation targeting variables
@@ -69,16 +68,15 @@ public class DecisionUtil {
                         put("_vwoUserId", campaign.getIsUserListEnabled() ? wingifyUserId : context.getId());
                     }});
 
-            decision.put("variationTargetingVariables", context.getVariationTargetingVariables()); // for integration
+            if (decision != null) {
+                decision.setVariationTargetingVariables(context.getVariationTargetingVariables()); // for integration
+            }
 
             // check if the campaign satisfies the whitelisting
             if (campaign.getIsForcedVariationEnabled()) {
-                Map<String, Object> whitelistedVariation = checkCampaignWhitelisting(campaign, context, serviceContainer);
+                Variation whitelistedVariation = checkCampaignWhitelisting(campaign, context, serviceContainer);
                 if (whitelistedVariation != null) {
-                    return new HashMap<String, Object>() {{
-                        put("preSegmentationResult", true);
-                        put("whitelistedObject", whitelistedVariation.get("variation"));
-                    }};
+                    return new RuleEvaluationResult(true, whitelistedVariation, null);
                 }
             } else {
                 serviceContainer.getLoggerService().log(LogLevelEnum.INFO, "WHITELISTING_SKIP", new HashMap<String, Object>() {{
@@ -96,7 +94,9 @@ public class DecisionUtil {
                 }});
 
 
-        decision.put("customVariables", context.getCustomVariables()); // for integration
+        if (decision != null) {
+            decision.setCustomVariables(context.getCustomVariables()); // for integration
+        }
 
         // Check if RUle being evaluated is part of Mutually Exclusive Group
         String groupId = CampaignUtil.getGroupDetailsIfCampaignPartOfIt(serviceContainer.getSettings(), campaign.getId(), campaign.getType().equals(CampaignTypeEnum.PERSONALIZE.getValue()) ? campaign.getVariations().get(0).getId() : -1).get("groupId");
@@ -107,32 +107,21 @@ public class DecisionUtil {
                 if (campaign.getType().equals(CampaignTypeEnum.AB.getValue())) {
                     if (groupWinnerCampaignId.equals(String.valueOf(campaignId))) {
                         // If the campaign is the winner of the MEG, return true
-                        return new HashMap<String, Object>() {{
-                            put("preSegmentationResult", true);
-                            put("whitelistedObject", null);
-                        }};
+                        return RuleEvaluationResult.PASSED;
                     }
                 } else if (campaign.getType().equals(CampaignTypeEnum.PERSONALIZE.getValue())) {
                     // if personalise then check if the reqeusted variation is the winner
                     if (groupWinnerCampaignId.equals(campaign.getId() + "_" + campaign.getVariations().get(0).getId())) {
                         // If the campaign is the winner of the MEG, return true
-                        return new HashMap<String, Object>() {{
-                            put("preSegmentationResult", true);
-                            put("whitelistedObject", null);
-                        }};
+                        return RuleEvaluationResult.PASSED;
                     }
                 }
                 // If the campaign is not the winner of the MEG, return false
-                return new HashMap<String, Object>() {{
-                    put("preSegmentationResult", false);
-                    put("whitelistedObject", null);
-                }};
+                return RuleEvaluationResult.FAILED;
             } else {
                 // check in storage if the group is already evaluated for the user
-                Map<String, Object> storedDataMap = new StorageDecorator().getFeatureFromStorage(Constants.WINGIFY_META_MEG_KEY + groupId, context, storageService, serviceContainer);
                 try {
-                    String storageMapAsString = WingifyClient.objectMapper.writeValueAsString(storedDataMap);
-                    Storage storedData = WingifyClient.objectMapper.readValue(storageMapAsString, Storage.class);
+                    Storage storedData = new StorageDecorator().getStoredData(Constants.WINGIFY_META_MEG_KEY + groupId, context, storageService, serviceContainer);
                     if (storedData != null && storedData.getExperimentId() != null && storedData.getExperimentKey() != null) {
                         serviceContainer.getLoggerService().log(LogLevelEnum.INFO, "MEG_CAMPAIGN_FOUND_IN_STORAGE", new HashMap<String, Object>(){
                             {
@@ -144,24 +133,15 @@ public class DecisionUtil {
                             if (campaign.getType().equals(CampaignTypeEnum.PERSONALIZE.getValue())) {
                                 // if personalise then check if the reqeusted variation is the winner
                                 if (storedData.getExperimentVariationId().equals(campaign.getVariations().get(0).getId())) {
-                                    return new HashMap<String, Object>() {{
-                                        put("preSegmentationResult", true);
-                                        put("whitelistedObject", null);
-                                    }};
+                                    return RuleEvaluationResult.PASSED;
                                 } else {
                                     // store the campaign in local cache, so that it can be used later without looking into user storage again
                                     megGroupWinnerCampaigns.put(Integer.parseInt(groupId), storedData.getExperimentId() + "_" + storedData.getExperimentVariationId());
-                                    return new HashMap<String, Object>() {{
-                                        put("preSegmentationResult", false);
-                                        put("whitelistedObject", null);
-                                    }};
+                                    return RuleEvaluationResult.FAILED;
                                 }
                             } else {
                                 // return the campaign if the called campaignId matches
-                                return new HashMap<String, Object>() {{
-                                    put("preSegmentationResult", true);
-                                    put("whitelistedObject", null);
-                                }};
+                                return RuleEvaluationResult.PASSED;
                             }
                         }
                         // if experimentId is not -1 then campaign is personalise campaign, store the details and return
@@ -171,10 +151,7 @@ public class DecisionUtil {
                             // else store the campaignId only and return
                             megGroupWinnerCampaigns.put(Integer.parseInt(groupId), String.valueOf(storedData.getExperimentId()));
                         }
-                        return new HashMap<String, Object>() {{
-                            put("preSegmentationResult", false);
-                            put("whitelistedObject", null);
-                        }};
+                        return RuleEvaluationResult.FAILED;
                     }
                 } catch (Exception e) {
                     serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "ERROR_READING_DATA_FROM_STORAGE", new HashMap<String, Object>() {{
@@ -202,24 +179,15 @@ public class DecisionUtil {
             if (variationModel != null && variationModel.getId() != null && variationModel.getId().equals(campaignId)) {
                 // if campaign is AB then return true
                 if (Objects.equals(variationModel.getType(), CampaignTypeEnum.AB.getValue())) {
-                    return new HashMap<String, Object>() {{
-                        put("preSegmentationResult", true);
-                        put("whitelistedObject", null);
-                    }};
+                    return RuleEvaluationResult.PASSED;
                 } else {
                     // if personalise then check if the requested variation is the winner
                     if (variationModel.getVariations().get(0).getId().equals(campaign.getVariations().get(0).getId())) {
-                        return new HashMap<String, Object>() {{
-                            put("preSegmentationResult", true);
-                            put("whitelistedObject", null);
-                        }};
+                        return RuleEvaluationResult.PASSED;
                     } else {
                         // store the campaign in local cache, so that it can be used later
                         megGroupWinnerCampaigns.put(Integer.parseInt(groupId), variationModel.getId() + "_" + variationModel.getVariations().get(0).getId());
-                        return new HashMap<String, Object>() {{
-                            put("preSegmentationResult", false);
-                            put("whitelistedObject", null);
-                        }};
+                        return RuleEvaluationResult.FAILED;
                     }
                 }
             } else if (variationModel != null && variationModel.getId() != null) { // when there is a winner but not the current campaign
@@ -230,22 +198,13 @@ public class DecisionUtil {
                     // if campaign is personalise then store the campaignId_variationId
                     megGroupWinnerCampaigns.put(Integer.parseInt(groupId), variationModel.getId() + "_" + variationModel.getVariations().get(0).getId());
                 }
-                return new HashMap<String, Object>() {{
-                    put("preSegmentationResult", false);
-                    put("whitelistedObject", null);
-                }};
+                return RuleEvaluationResult.FAILED;
             }
             // store -1 if no winner found, so that we don't evaluate the group again as the result would be the same for the current getFlag call
             megGroupWinnerCampaigns.put(Integer.parseInt(groupId), String.valueOf(-1));
-            return new HashMap<String, Object>() {{
-                put("preSegmentationResult", false);
-                put("whitelistedObject", null);
-            }};
+            return RuleEvaluationResult.FAILED;
         }
-        return new HashMap<String, Object>() {{
-            put("preSegmentationResult", isPreSegmentationPassed);
-            put("whitelistedObject", null);
-        }};
+        return RuleEvaluationResult.of(isPreSegmentationPassed);
     }
 
     /**
@@ -285,10 +244,10 @@ public class DecisionUtil {
      * @param context  Context object containing user information
      * @return   Whitelisted variation or null if not whitelisted
      */
-    private static Map<String, Object> checkCampaignWhitelisting(Campaign campaign, WingifyUserContext context, ServiceContainer serviceContainer) {
-        Map<String, Object> whitelistingResult = evaluateWhitelisting(campaign, context, serviceContainer);
+    private static Variation checkCampaignWhitelisting(Campaign campaign, WingifyUserContext context, ServiceContainer serviceContainer) {
+        Variation whitelistingResult = evaluateWhitelisting(campaign, context, serviceContainer);
         StatusEnum status = whitelistingResult != null ? StatusEnum.PASSED : StatusEnum.FAILED;
-        String variationString = whitelistingResult != null ? (String) whitelistingResult.get("variationName") : "";
+        String variationString = whitelistingResult != null ? whitelistingResult.getName() : "";
         serviceContainer.getLoggerService().log(LogLevelEnum.INFO, "WHITELISTING_STATUS", new HashMap<String, Object>() {{
             put("userId", getUserIdForLogging(context));
             put("campaignKey", campaign.getType().equals(CampaignTypeEnum.AB.getValue()) ? campaign.getKey() : campaign.getName() + "_" + campaign.getRuleKey());
@@ -304,7 +263,7 @@ public class DecisionUtil {
      * @param context  Context object containing user information
      * @return  Whitelisted variation or null if not whitelisted
      */
-    private static Map<String, Object> evaluateWhitelisting(Campaign campaign, WingifyUserContext context, ServiceContainer serviceContainer) {
+    private static Variation evaluateWhitelisting(Campaign campaign, WingifyUserContext context, ServiceContainer serviceContainer) {
         List<Variation> targetedVariations = new ArrayList<>();
 
         for (Variation variation : campaign.getVariations()) {
@@ -319,10 +278,10 @@ public class DecisionUtil {
 
             // Check for segmentation and evaluate
             if (variation.getSegments() != null) {
-                boolean segmentationResult = serviceContainer.getSegmentationManager().validateSegmentation(variation.getSegments(), (Map<String, Object>) context.getVariationTargetingVariables());
+                boolean segmentationResult = serviceContainer.getSegmentationManager().validateSegmentation(serviceContainer.getDecisionContext().getSegmentEvaluator(), variation.getCompiledSegments(), (Map<String, Object>) context.getVariationTargetingVariables());
 
                 if (segmentationResult) {
-                    targetedVariations.add((Variation) FunctionUtil.cloneObject(variation));
+                    targetedVariations.add(variation);
                 }
             }
         }
@@ -330,26 +289,15 @@ public class DecisionUtil {
         Variation whitelistedVariation = null;
 
         if (targetedVariations.size() > 1) {
-            scaleVariationWeights(targetedVariations);
-            int currentAllocation = 0;
-            int stepFactor = 0;
-            for (Variation variation : targetedVariations) {
-                stepFactor = assignRangeValues(variation, currentAllocation);
-                currentAllocation += stepFactor;
-            }
-            whitelistedVariation = new CampaignDecisionService().getVariation(targetedVariations, new DecisionMaker().calculateBucketValue(getBucketingSeed(getBucketingId(context), campaign, null)));
+            // ranges are allocated over the scaled weights of the targeted variations, which are shared and not modified
+            VariationRangeTable rangeTable = getScaledVariationRangeTable(targetedVariations);
+            DecisionContext decisionContext = serviceContainer.getDecisionContext();
+            long hashValue = decisionContext.getHashValue(getBucketingSeedPrefix(campaign, null), getBucketingId(context));
+            whitelistedVariation = rangeTable.find(decisionContext.getDecisionMaker().generateBucketValue(hashValue, Constants.MAX_TRAFFIC_VALUE));
         } else if (targetedVariations.size() == 1) {
             whitelistedVariation = targetedVariations.get(0);
         }
 
-        if (whitelistedVariation != null) {
-            Map<String, Object> map = new HashMap<>();
-            map.put("variation", whitelistedVariation);
-            map.put("variationName", whitelistedVariation.getName());
-            map.put("variationId", whitelistedVariation.getId());
-            return map;
-        }
-
-        return null;
+        return whitelistedVariation;
     }
 }
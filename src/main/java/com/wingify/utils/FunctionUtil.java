@@ -96,6 +96,44 @@ public class FunctionUtil {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves specific rules based on the type from a feature, using the compiled settings indexes when available.
+     * @param settings The settings model the feature belongs to.
+     * @param feature  The feature model.
+     * @param type     The type of the rules to retrieve.
+     * @return A list of rules that match the type.
+     */
+    public static List<Campaign> getSpecificRulesBasedOnType(Settings settings, Feature feature, CampaignTypeEnum type) {
+        if (type == CampaignTypeEnum.ROLLOUT && isIndexedFeature(settings, feature)) {
+            return settings.getDecisionSnapshot().getRolloutRules(feature.getKey());
+        }
+        return getSpecificRulesBasedOnType(feature, type);
+    }
+
+    /**
+     * Retrieves all AB and Personalize rules from a feature, using the compiled settings indexes when available.
+     * @param settings The settings model the feature belongs to.
+     * @param feature  The feature model.
+     * @return A list of AB and Personalize rules.
+     */
+    public static List<Campaign> getAllExperimentRules(Settings settings, Feature feature) {
+        if (isIndexedFeature(settings, feature)) {
+            return settings.getDecisionSnapshot().getExperimentRules(feature.getKey());
+        }
+        return getAllExperimentRules(feature);
+    }
+
+    /**
+     * Checks whether the feature is the one indexed in the compiled snapshot of the settings.
+     * @param settings The settings model.
+     * @param feature  The feature model.
+     * @return True if the snapshot can be used for the feature, otherwise false.
+     */
+    private static boolean isIndexedFeature(Settings settings, Feature feature) {
+        return settings != null && feature != null && settings.getDecisionSnapshot() != null
+                && settings.getDecisionSnapshot().getFeatureByKey(feature.getKey()) == feature;
+    }
+
     /**
      * Retrieves a feature by its key from the settings.
      * @param settings   The settings model.
@@ -106,12 +144,34 @@ public class FunctionUtil {
         if (settings == null || settings.getFeatures() == null) {
             return null;
         }
+        if (settings.getDecisionSnapshot() != null) {
+            return settings.getDecisionSnapshot().getFeatureByKey(featureKey);
+        }
         return settings.getFeatures().stream()
                 .filter(feature -> feature.getKey().equals(featureKey))
                 .findFirst()
                 .orElse(null);
     }
 
+    /**
+     * Retrieves a feature by its ID from the settings.
+     * @param settings  The settings model.
+     * @param featureId The ID of the feature to find.
+     * @return The feature if found, otherwise null.
+     */
+    public static Feature getFeatureFromId(Settings settings, int featureId) {
+        if (settings == null || settings.getFeatures() == null) {
+            return null;
+        }
+        if (settings.getDecisionSnapshot() != null) {
+            return settings.getDecisionSnapshot().getFeatureById(featureId);
+        }
+        return settings.getFeatures().stream()
+                .filter(feature -> feature.getId() == featureId)
+                .findFirst()
+                .orElse(null);
+    }
+
     /**
      * Checks if an event belongs to any feature.
      * @param eventName The event name to check.
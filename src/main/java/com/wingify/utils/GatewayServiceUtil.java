@@ -17,6 +17,7 @@ package com.wingify.utils;
 
 import com.wingify.constants.Constants;
 import com.wingify.packages.logger.enums.LogLevelEnum;
+import com.wingify.packages.network_layer.handlers.RequestCoalescer;
 import com.wingify.packages.network_layer.manager.NetworkManager;
 import com.wingify.packages.network_layer.models.RequestModel;
 import com.wingify.packages.network_layer.models.ResponseModel;
@@ -26,9 +27,12 @@ import com.wingify.services.SettingsManager;
 import java.net.URLEncoder;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 import com.wingify.ServiceContainer;
 
 public class GatewayServiceUtil {
+    // identical GET requests sent concurrently, e.g. for a popular user or user agent, share one call
+    private static final RequestCoalescer<String> GATEWAY_GET_REQUESTS = new RequestCoalescer<>(Constants.GATEWAY_COALESCED_REQUEST_WAIT_MS);
 
     /**
      * Fetches data from the gateway service
@@ -37,7 +41,6 @@ public class GatewayServiceUtil {
      * @return The response data from the gateway service
      */
     public static String getFromGatewayService(ServiceContainer serviceContainer, Map<String, String> queryParams, String endpoint) {
-        NetworkManager networkInstance = NetworkManager.getInstance();
         // if the base url contains the host name, this means the gateway service is not configured
         if (!serviceContainer.getSettingsManager().isGatewayServiceProvided) {
             serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "INVALID_GATEWAY_URL", new HashMap<String, Object>() {
@@ -48,6 +51,27 @@ public class GatewayServiceUtil {
             });
             return null;
         }
+        SettingsManager settingsManager = serviceContainer.getSettingsManager();
+        String requestKey = settingsManager.protocol + "://" + settingsManager.hostname + ":" + settingsManager.port
+                + serviceContainer.getEndpointWithCollectionPrefix(endpoint) + "?" + new TreeMap<>(queryParams);
+        try {
+            return GATEWAY_GET_REQUESTS.execute(requestKey, () -> sendGetRequest(serviceContainer, queryParams, endpoint));
+        } catch (IllegalStateException e) {
+            // the request and its shared retry failed
+            return null;
+        }
+    }
+
+    /**
+     * Sends a GET request to the gateway service
+     * @param queryParams The query parameters to send with the request
+     * @param endpoint The endpoint to send the request to
+     * @return The response data from the gateway service
+     * @throws IllegalStateException if the request failed or returned no data, so that it is not shared with waiting callers
+     */
+    private static String sendGetRequest(ServiceContainer serviceContainer, Map<String, String> queryParams, String endpoint) {
+        NetworkManager networkInstance = NetworkManager.getInstance();
+        ResponseModel response;
         try {
             RequestModel request = new RequestModel(
                     serviceContainer.getSettingsManager().hostname,
@@ -60,9 +84,7 @@ public class GatewayServiceUtil {
                     serviceContainer.getSettingsManager().port
             );
             request.setRetryConfig(networkInstance.getRetryConfig());
-            ResponseModel response = networkInstance.get(request);
-
-            return response.getData();
+            response = networkInstance.get(request);
         } catch (Exception e) {
             serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "ERROR_FETCHING_DATA_FROM_GATEWAY", new HashMap<String, Object>() {
                 {
@@ -70,8 +92,12 @@ public class GatewayServiceUtil {
                     putAll(serviceContainer.getDebuggerService().getStandardDebugProps());
                 }
             });
-            return null;
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        if (response == null || response.getData() == null) {
+            throw new IllegalStateException("No data received from the gateway service");
         }
+        return response.getData();
     }
 
      /**
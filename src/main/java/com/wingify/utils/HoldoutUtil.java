@@ -20,14 +20,15 @@ import static com.wingify.constants.Constants.HOLDOUT_VARIATION_NOT_IN;
 import com.wingify.decorators.StorageDecorator;
 import com.wingify.models.Feature;
 import com.wingify.models.Holdout;
+import com.wingify.models.HoldoutEvaluationResult;
 import com.wingify.models.Settings;
 import com.wingify.models.Storage;
 import com.wingify.models.request.EventArchPayload;
 import com.wingify.models.user.WingifyUserContext;
-import com.wingify.packages.decision_maker.DecisionMaker;
 import com.wingify.packages.logger.enums.LogLevelEnum;
 import com.wingify.services.LoggerService;
 import com.wingify.services.StorageService;
+import com.wingify.DecisionContext;
 import com.wingify.ServiceContainer;
 
 import java.util.ArrayList;
@@ -72,9 +73,9 @@ public class HoldoutUtil {
      * @param feature          - The feature object.
      * @param context          - The context object.
      * @param storedData       - The stored data from storage (may contain isInHoldoutId/notInHoldoutId).
-     * @return A map with "matchedHoldouts" and "notMatchedHoldouts" lists.
+     * @return A HoldoutEvaluationResult with the matched and not matched holdouts and their payloads.
      */
-    public static Map<String, Object> getMatchedHoldouts(
+    public static HoldoutEvaluationResult getMatchedHoldouts(
             ServiceContainer serviceContainer,
             Feature feature,
             WingifyUserContext context,
@@ -104,14 +105,9 @@ public class HoldoutUtil {
         // get the applicable holdouts for the given feature ID
         List<Holdout> applicableHoldouts = getApplicableHoldouts(settings, featureId);
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("matchedHoldouts", new ArrayList<Holdout>());
-        result.put("notMatchedHoldouts", new ArrayList<Holdout>());
-        result.put("holdoutPayloads", new ArrayList<EventArchPayload>());
-
         // if there are no applicable holdouts, return empty result
         if (applicableHoldouts == null || applicableHoldouts.isEmpty()) {
-            return result;
+            return new HoldoutEvaluationResult();
         }
 
         List<Holdout> matchedHoldouts = new ArrayList<>();
@@ -138,7 +134,7 @@ public class HoldoutUtil {
             Map<String, Object> segments = holdout.getSegments();
             boolean segmentPass = true;
             if (segments != null && !segments.isEmpty()) {
-                segmentPass = serviceContainer.getSegmentationManager().validateSegmentation(segments,
+                segmentPass = serviceContainer.getSegmentationManager().validateSegmentation(serviceContainer.getDecisionContext().getSegmentEvaluator(), holdout.getCompiledSegments(),
                         (Map<String, Object>) context.getCustomVariables());
                 
                 if (segmentPass) {
@@ -174,8 +170,9 @@ public class HoldoutUtil {
                 notMatchedHoldouts.add(holdout);
             } else {
                 // Check traffic allocation
-                String hashKey = settings.getAccountId() + "_" + holdout.getId() + "_" + context.getId();
-                long bucket = new DecisionMaker().getBucketValueForUser(hashKey, 100);
+                DecisionContext decisionContext = serviceContainer.getDecisionContext();
+                long hashValue = decisionContext.getHashValue(settings.getAccountId(), holdout.getId(), context.getId());
+                long bucket = decisionContext.getDecisionMaker().generateBucketValue(hashValue, 100);
 
                 // If bucket is within percentTraffic, user is IN holdout (variationId = HOLDOUT_VARIATION_IN)
                 // Otherwise, user is NOT IN holdout (variationId = HOLDOUT_VARIATION_NOT_IN)
@@ -210,10 +207,7 @@ public class HoldoutUtil {
             }
         }
 
-        result.put("matchedHoldouts", matchedHoldouts);
-        result.put("notMatchedHoldouts", notMatchedHoldouts);
-        result.put("holdoutPayloads", holdoutPayloads);
-        return result;
+        return new HoldoutEvaluationResult(matchedHoldouts, notMatchedHoldouts, holdoutPayloads);
     }
 
     /**
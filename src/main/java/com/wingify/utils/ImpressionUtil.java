@@ -20,9 +20,11 @@ import com.wingify.enums.EventEnum;
 import com.wingify.models.user.WingifyUserContext;
 import com.wingify.ServiceContainer;
 import com.wingify.models.request.EventArchPayload;
+import com.wingify.models.request.Props;
 import com.wingify.constants.Constants;
 import com.wingify.packages.logger.enums.LogLevelEnum;
 import com.wingify.packages.network_layer.manager.NetworkManager;
+import com.wingify.services.ImpressionDeduplicator;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -47,6 +49,14 @@ public class ImpressionUtil {
             int variationId,
             WingifyUserContext context,
             EventArchPayload payload) {
+        // remember the impression, a memoized decision replays it
+        serviceContainer.getDecisionContext().recordImpression(payload);
+
+        // skip the impression if it was already sent within the deduplication window
+        if (isDuplicateImpression(serviceContainer, campaignId, variationId)) {
+            return;
+        }
+
         // Get base properties for the event
         Map<String, String> properties = NetworkUtil.getEventsBaseProperties(
                 serviceContainer.getSettingsManager(),
@@ -74,13 +84,22 @@ public class ImpressionUtil {
         featureInfo.put("campaignType", campaignType);
         featureInfo.put("variationName", variationName);
 
+        // a failed impression is released so that a retry within the window is not dropped
+        String uuid = serviceContainer.getUuid();
+        Runnable releaseImpression = () -> releaseImpression(serviceContainer, uuid, campaignId, variationId);
+
         // Check if batch event queue is available
         if (serviceContainer.getBatchEventQueue() != null) {
             // Enqueue the event to the batch queue for future processing
-            serviceContainer.getBatchEventQueue().enqueue(payload);
+            try {
+                serviceContainer.getBatchEventQueue().enqueue(payload);
+            } catch (RuntimeException e) {
+                releaseImpression.run();
+                throw e;
+            }
         } else {
             // Send the event immediately if batch event queue is not available
-            NetworkUtil.sendPostApiRequest(serviceContainer, properties, payload, context, featureInfo);
+            NetworkUtil.sendPostApiRequest(serviceContainer, properties, payload, context, featureInfo, releaseImpression);
         }
     }
 
@@ -97,12 +116,38 @@ public class ImpressionUtil {
         if (payloads == null || payloads.isEmpty()) {
             return;
         }
+        for (EventArchPayload payload : payloads) {
+            serviceContainer.getDecisionContext().recordImpression(payload);
+        }
+
+        // drop the impressions already sent within the deduplication window
+        if (serviceContainer.getImpressionDeduplicator() != null) {
+            List<EventArchPayload> uniquePayloads = new ArrayList<>(payloads.size());
+            for (EventArchPayload payload : payloads) {
+                Props props = payload.getD().getEvent().getProps();
+                if (!isDuplicateImpression(serviceContainer, props.getId(), Integer.parseInt(props.getVariation()))) {
+                    uniquePayloads.add(payload);
+                }
+            }
+            if (uniquePayloads.isEmpty()) {
+                return;
+            }
+            payloads = uniquePayloads;
+        }
+
+        final List<EventArchPayload> sentPayloads = payloads;
+        final String uuid = serviceContainer.getUuid();
 
         // Check if batch event queue is available
         if (serviceContainer.getBatchEventQueue() != null) {
             // Enqueue each payload to the batch queue for future processing
-            for (EventArchPayload payload : payloads) {
-                serviceContainer.getBatchEventQueue().enqueue(payload);
+            for (int i = 0; i < sentPayloads.size(); i++) {
+                try {
+                    serviceContainer.getBatchEventQueue().enqueue(sentPayloads.get(i));
+                } catch (RuntimeException e) {
+                    releaseImpressions(serviceContainer, uuid, sentPayloads.subList(i, sentPayloads.size()));
+                    throw e;
+                }
             }
         } else {
             // Convert payloads to list of maps for batch request
@@ -115,32 +160,96 @@ public class ImpressionUtil {
             
             final int eventCount = payloadMaps.size();
             // Send all events in a single batch request asynchronously
-            NetworkManager.getInstance().getExecutorService().execute(() -> {
-                try {
-                    NetworkUtil.sendPostBatchRequest(
-                            serviceContainer.getSettingsManager(),
-                            payloadMaps,
-                            serviceContainer.getSettingsManager().accountId,
-                            serviceContainer.getSettingsManager().sdkKey,
-                            null
-                    );
-                    serviceContainer.getLoggerService().log(LogLevelEnum.DEBUG, "BATCH_IMPRESSION_SUCCESS", new HashMap<String, Object>() {
-                        {
-                            put("eventCount", String.valueOf(eventCount));
-                            put("accountId", serviceContainer.getSettingsManager().accountId.toString());
+            try {
+                NetworkManager.getInstance().getExecutorService().execute(() -> {
+                    try {
+                        Boolean sent = NetworkUtil.sendPostBatchRequest(
+                                serviceContainer.getSettingsManager(),
+                                payloadMaps,
+                                serviceContainer.getSettingsManager().accountId,
+                                serviceContainer.getSettingsManager().sdkKey,
+                                null
+                        );
+                        if (!Boolean.TRUE.equals(sent)) {
+                            throw new IllegalStateException("Batch request was not accepted");
                         }
-                    });
-                } catch (Exception e) {
-                    serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "BATCH_IMPRESSION_FAILED", new HashMap<String, Object>() {
-                        {
-                            put("err", e.getMessage());
-                        }
-                    });
-                }
-            });
+                        serviceContainer.getLoggerService().log(LogLevelEnum.DEBUG, "BATCH_IMPRESSION_SUCCESS", new HashMap<String, Object>() {
+                            {
+                                put("eventCount", String.valueOf(eventCount));
+                                put("accountId", serviceContainer.getSettingsManager().accountId.toString());
+                            }
+                        });
+                    } catch (Exception e) {
+                        releaseImpressions(serviceContainer, uuid, sentPayloads);
+                        serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "BATCH_IMPRESSION_FAILED", new HashMap<String, Object>() {
+                            {
+                                put("err", e.getMessage());
+                            }
+                        });
+                    }
+                });
+            } catch (RuntimeException e) {
+                releaseImpressions(serviceContainer, uuid, sentPayloads);
+                throw e;
+            }
         }
     }
 
+    /**
+     * Releases impressions that could not be queued or sent, so that a retry is not deduplicated.
+     *
+     * @param serviceContainer The service container holding the deduplicator.
+     * @param uuid             The UUID of the user the impressions were reserved for.
+     * @param payloads         The payloads of the failed impressions.
+     */
+    private static void releaseImpressions(ServiceContainer serviceContainer, String uuid, List<EventArchPayload> payloads) {
+        if (serviceContainer.getImpressionDeduplicator() == null) {
+            return;
+        }
+        for (EventArchPayload payload : payloads) {
+            Props props = payload.getD().getEvent().getProps();
+            releaseImpression(serviceContainer, uuid, props.getId(), Integer.parseInt(props.getVariation()));
+        }
+    }
+
+    /**
+     * Releases an impression that could not be queued or sent, so that a retry is not deduplicated.
+     *
+     * @param serviceContainer The service container holding the deduplicator.
+     * @param uuid             The UUID of the user the impression was reserved for.
+     * @param campaignId       The ID of the campaign.
+     * @param variationId      The ID of the variation shown to the user.
+     */
+    private static void releaseImpression(ServiceContainer serviceContainer, String uuid, int campaignId, int variationId) {
+        ImpressionDeduplicator impressionDeduplicator = serviceContainer.getImpressionDeduplicator();
+        if (impressionDeduplicator != null) {
+            impressionDeduplicator.release(uuid, campaignId, variationId);
+        }
+    }
+
+    /**
+     * Checks if a variation shown event was already sent for the user within the deduplication window.
+     *
+     * @param serviceContainer The service container holding the deduplicator.
+     * @param campaignId       The ID of the campaign.
+     * @param variationId      The ID of the variation shown to the user.
+     * @return true if the impression should be skipped, false if deduplication is disabled or it is the first one.
+     */
+    private static boolean isDuplicateImpression(ServiceContainer serviceContainer, int campaignId, int variationId) {
+        ImpressionDeduplicator impressionDeduplicator = serviceContainer.getImpressionDeduplicator();
+        if (impressionDeduplicator == null || impressionDeduplicator.shouldSend(serviceContainer.getUuid(), campaignId, variationId)) {
+            return false;
+        }
+        serviceContainer.getLoggerService().log(LogLevelEnum.DEBUG, "IMPRESSION_DEDUPLICATED", new HashMap<String, Object>() {
+            {
+                put("uuid", serviceContainer.getUuid());
+                put("campaignId", String.valueOf(campaignId));
+                put("variationId", String.valueOf(variationId));
+            }
+        });
+        return true;
+    }
+
     /**
      * Sends an impression for the usage tracking event.
      *
@@ -167,6 +276,8 @@ public class ImpressionUtil {
                 encodeURIComponent(context.getUserAgent()),
                 context.getIpAddress());
 
+        serviceContainer.getDecisionContext().markUsageTracked();
+
         // We use a dummy feature info or empty since it's usage tracking - To avoid NPE
         Map<String, Object> featureInfo = new HashMap<>();
         featureInfo.put("featureKey", featureKey);
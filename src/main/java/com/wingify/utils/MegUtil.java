@@ -22,11 +22,11 @@ import com.wingify.decorators.StorageDecorator;
 import com.wingify.enums.CampaignTypeEnum;
 import com.wingify.models.*;
 import com.wingify.models.user.WingifyUserContext;
-import com.wingify.packages.decision_maker.DecisionMaker;
 import com.wingify.packages.logger.enums.LogLevelEnum;
 import com.wingify.services.CampaignDecisionService;
 import com.wingify.services.LoggerService;
 import com.wingify.services.StorageService;
+import com.wingify.DecisionContext;
 import com.wingify.ServiceContainer;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -70,12 +70,10 @@ public class MegUtil {
             }
 
             // Check if user is already in holdout for this feature (from storage)
-            Map<String, Object> storedDataMap = new StorageDecorator().getFeatureFromStorage(featureKey, context, storageService, serviceContainer);
             Storage storedData = null;
             try {
-                String storageMapAsString = WingifyClient.objectMapper.writeValueAsString(storedDataMap);
-                storedData = WingifyClient.objectMapper.readValue(storageMapAsString, Storage.class);
-                
+                storedData = new StorageDecorator().getStoredData(featureKey, context, storageService, serviceContainer);
+
                 if (storedData != null && storedData.getNotInHoldoutId() != null) {
                     for (Integer id : storedData.getNotInHoldoutId()) {
                         if (!evaluatedMegHoldouts_NOT_IN.contains(id)) evaluatedMegHoldouts_NOT_IN.add(id);
@@ -129,9 +127,8 @@ public class MegUtil {
             }
 
             // NOT_IN optimization check - inject into storedData to skip re-evaluation in HoldoutUtil
-            if (storedData == null) {
-                storedData = new Storage();
-            }
+            // work on a copy, the parsed record is shared with the rest of the API call
+            storedData = storedData == null ? new Storage() : storedData.copy();
             if (storedData.getNotInHoldoutId() == null) {
                 storedData.setNotInHoldoutId(new ArrayList<>());
             }
@@ -144,9 +141,9 @@ public class MegUtil {
             }
 
             // Check if user is in holdout for this feature 
-            Map<String, Object> holdoutResult = HoldoutUtil.getMatchedHoldouts(serviceContainer, currentFeature, context, storedData);
-            List<Holdout> matchedHoldouts = (List<Holdout>) holdoutResult.get("matchedHoldouts");
-            List<Holdout> notMatchedHoldouts = (List<Holdout>) holdoutResult.get("notMatchedHoldouts");
+            HoldoutEvaluationResult holdoutResult = HoldoutUtil.getMatchedHoldouts(serviceContainer, currentFeature, context, storedData);
+            List<Holdout> matchedHoldouts = holdoutResult.getMatchedHoldouts();
+            List<Holdout> notMatchedHoldouts = holdoutResult.getNotMatchedHoldouts();
 
             if (matchedHoldouts != null) {
                 for (Holdout h : matchedHoldouts) {
@@ -185,17 +182,13 @@ public class MegUtil {
 
             // evaluate the feature rollout rules
             boolean isRolloutRulePassed = isRolloutRuleForFeaturePassed(serviceContainer, currentFeature, evaluatedFeatureMap, featureToSkip, context, storageService);
-            if (isRolloutRulePassed) {
-                for (Feature feature1 : serviceContainer.getSettings().getFeatures()) {
-                    if (feature1.getKey().equals(featureKey)) {
-                        for (Campaign campaign : feature1.getRulesLinkedCampaign()) {
-                            if(groupCampaignIds.contains(campaign.getId().toString()) || groupCampaignIds.contains(campaign.getId() + "_" + campaign.getVariations().get(0).getId())) {
-                                campaignMap.putIfAbsent(featureKey, new ArrayList<>());
-                                List<Campaign> campaigns = campaignMap.get(featureKey);
-                                if (campaigns.stream().noneMatch(c -> c.getRuleKey().equals(campaign.getRuleKey()))) {
-                                    campaigns.add(campaign);
-                                }
-                            }
+            if (isRolloutRulePassed && currentFeature != null) {
+                for (Campaign campaign : currentFeature.getRulesLinkedCampaign()) {
+                    if(groupCampaignIds.contains(campaign.getId().toString()) || groupCampaignIds.contains(campaign.getId() + "_" + campaign.getVariations().get(0).getId())) {
+                        campaignMap.putIfAbsent(featureKey, new ArrayList<>());
+                        List<Campaign> campaigns = campaignMap.get(featureKey);
+                        if (campaigns.stream().noneMatch(c -> c.getRuleKey().equals(campaign.getRuleKey()))) {
+                            campaigns.add(campaign);
                         }
                     }
                 }
@@ -218,7 +211,8 @@ public class MegUtil {
      */
     public static Map<String, List<?>> getFeatureKeysFromGroup(Settings settings, int groupId) {
         List<String> groupCampaignIds = getCampaignsByGroupId(settings, groupId);
-        List<String> featureKeys = getFeatureKeysFromCampaignIds(settings, groupCampaignIds);
+        List<String> featureKeys = settings.getDecisionSnapshot() != null ? settings.getDecisionSnapshot().getFeatureKeysForGroup(groupId) : null;
+        featureKeys = featureKeys != null ? new ArrayList<>(featureKeys) : getFeatureKeysFromCampaignIds(settings, groupCampaignIds);
 
         Map<String, List<?>> result = new HashMap<>();
         result.put("featureKeys", featureKeys);
@@ -245,13 +239,13 @@ public class MegUtil {
             return true;
         }
 
-        List<Campaign> rollOutRules = getSpecificRulesBasedOnType(feature, CampaignTypeEnum.ROLLOUT);
+        List<Campaign> rollOutRules = getSpecificRulesBasedOnType(serviceContainer.getSettings(), feature, CampaignTypeEnum.ROLLOUT);
         if (!rollOutRules.isEmpty()) {
             Campaign ruleToTestForTraffic = null;
 
             for (Campaign rule : rollOutRules) {
-                Map<String, Object> preSegmentationResult = evaluateRule(serviceContainer, feature, rule, context, evaluatedFeatureMap, null, storageService, new HashMap<>());
-                if ((Boolean) preSegmentationResult.get("preSegmentationResult")) {
+                RuleEvaluationResult preSegmentationResult = evaluateRule(serviceContainer, feature, rule, context, evaluatedFeatureMap, null, storageService, null);
+                if (preSegmentationResult.getPreSegmentationResult()) {
                     ruleToTestForTraffic = rule;
                     break;
                 }
@@ -302,10 +296,8 @@ public class MegUtil {
             List<Campaign> campaigns = entry.getValue();
 
             for (Campaign campaign : campaigns) {
-                 Map<String, Object> storedDataMap = new StorageDecorator().getFeatureFromStorage(featureKey, context, storageService, serviceContainer);
                  try {
-                     String storageMapAsString = WingifyClient.objectMapper.writeValueAsString(storedDataMap);
-                     Storage storedData = WingifyClient.objectMapper.readValue(storageMapAsString, Storage.class);
+                     Storage storedData = new StorageDecorator().getStoredData(featureKey, context, storageService, serviceContainer);
                      if (storedData != null && storedData.getExperimentVariationId() != null && !storedData.getExperimentVariationId().toString().isEmpty()) {
                          if (storedData.getExperimentKey() != null && !storedData.getExperimentKey().isEmpty() && storedData.getExperimentKey().equals(campaign.getKey())) {
                              Variation variation = getVariationFromCampaignKey(serviceContainer.getSettings(), storedData.getExperimentKey(), storedData.getExperimentVariationId());
@@ -460,7 +452,7 @@ public class MegUtil {
             //get bucketing id
             String bucketingId = getBucketingId(context);
             Variation winnerVariation = new CampaignDecisionService().getVariation(
-                    variations, new DecisionMaker().calculateBucketValue(getBucketingSeed(bucketingId, null, groupId))
+                    variations, getGroupBucketValue(serviceContainer, bucketingId, groupId)
             );
 
             if (winnerVariation != null) {
@@ -567,7 +559,7 @@ public class MegUtil {
                 setCampaignAllocation(variations);
                 String bucketingId = getBucketingId(context);
                 winnerCampaign = new CampaignDecisionService().getVariation(
-                        variations, new DecisionMaker().calculateBucketValue(getBucketingSeed(bucketingId, null, groupId))
+                        variations, getGroupBucketValue(serviceContainer, bucketingId, groupId)
                 );
             }
 
@@ -611,6 +603,19 @@ public class MegUtil {
         return null;
     }
 
+    /**
+     * Returns the bucket value of the user in a group, the group seed is hashed once per call.
+     * @param serviceContainer The service container of the call.
+     * @param bucketingId The bucketing ID of the user.
+     * @param groupId The ID of the group.
+     * @return The bucket value of the user, between 1 and the maximum traffic value.
+     */
+    private static int getGroupBucketValue(ServiceContainer serviceContainer, String bucketingId, Integer groupId) {
+        DecisionContext decisionContext = serviceContainer.getDecisionContext();
+        long hashValue = decisionContext.getHashValue(getBucketingSeedPrefix(null, groupId), bucketingId);
+        return decisionContext.getDecisionMaker().generateBucketValue(hashValue, Constants.MAX_TRAFFIC_VALUE);
+    }
+
     /**
      * Converts the weight map to a map of integers.
      * @param wt - The weight map.
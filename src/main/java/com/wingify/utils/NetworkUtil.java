@@ -352,6 +352,18 @@ public class NetworkUtil {
      * @param featureInfo The feature information.
      */
     public static void sendPostApiRequest(ServiceContainer serviceContainer, Map<String, String> properties, EventArchPayload payload, WingifyUserContext context, Map<String, Object> featureInfo) {
+        sendPostApiRequest(serviceContainer, properties, payload, context, featureInfo, null);
+    }
+
+    /**
+     * Sends a POST request to the VWO server.
+     * @param properties The properties required for the request.
+     * @param payload  The payload data for the request.
+     * @param context The user context model containing user-specific data.
+     * @param featureInfo The feature information.
+     * @param onFailure Callback run when the request could not be sent or was not accepted, may be null
+     */
+    public static void sendPostApiRequest(ServiceContainer serviceContainer, Map<String, String> properties, EventArchPayload payload, WingifyUserContext context, Map<String, Object> featureInfo, Runnable onFailure) {
         try {
             NetworkManager.getInstance().attachClient();
             String eventName = properties.get("en");
@@ -413,6 +425,7 @@ public class NetworkUtil {
                             }
                         });
                     } else {
+                        runOnFailure(onFailure);
                         // Failure - send debug event
                         Map<String, Object> debugEventProps = DebuggerServiceUtil.createNetWorkAndRetryDebugEvent(
                             response,
@@ -430,6 +443,7 @@ public class NetworkUtil {
                         }, false);
                     }
                 } catch (Exception exception) {
+                    runOnFailure(onFailure);
                     serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "NETWORK_CALL_EXCEPTION", new HashMap<String, Object>() {
                         {
                             put("extraData", "event: " + eventName);
@@ -440,6 +454,7 @@ public class NetworkUtil {
                 }
             });
         } catch (Exception exception) {
+            runOnFailure(onFailure);
             serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "NETWORK_CALL_EXCEPTION", new HashMap<String, Object>() {
                 {
                     put("extraData", "event: " + payload.getD().getEvent().getName());
@@ -451,6 +466,16 @@ public class NetworkUtil {
         }
     }
 
+    /**
+     * Runs the failure callback of a request, if one was given
+     * @param onFailure Callback to run, may be null
+     */
+    private static void runOnFailure(Runnable onFailure) {
+        if (onFailure != null) {
+            onFailure.run();
+        }
+    }
+
     /**
      * Sends a batch POST request to the VWO server with the specified payload and account details.
      *
@@ -18,6 +18,8 @@ package com.wingify.utils;
 import com.wingify.enums.EventEnum;
 import com.wingify.models.Campaign;
 import com.wingify.models.Feature;
+import com.wingify.models.FlagDecision;
+import com.wingify.models.RuleEvaluationResult;
 import com.wingify.models.Variation;
 import com.wingify.models.request.EventArchPayload;
 import com.wingify.models.user.WingifyUserContext;
@@ -40,10 +42,11 @@ public class RuleEvaluationUtil {
      * @param context   WingifyUserContext object containing the user context.
      * @param evaluatedFeatureMap   Map containing the evaluated feature map.
      * @param megGroupWinnerCampaigns  Map containing the MEG group winner campaigns.
-     * @param decision  Map containing the decision object.
-     * @return
+     * @param storageService  Storage service for data persistence.
+     * @param decision  FlagDecision object to be sent for the integrations, may be null.
+     * @return RuleEvaluationResult object containing the result of the evaluation.
      */
-    public static Map<String, Object> evaluateRule(
+    public static RuleEvaluationResult evaluateRule(
             ServiceContainer serviceContainer,
             Feature feature,
             Campaign campaign,
@@ -51,12 +54,12 @@ public class RuleEvaluationUtil {
             Map<String, Object> evaluatedFeatureMap,
             Map<Integer, String> megGroupWinnerCampaigns,
             StorageService storageService,
-            Map<String, Object> decision
+            FlagDecision decision
     ) {
         // Perform whitelisting and pre-segmentation checks
         try {
             // Check if the campaign satisfies the whitelisting and pre-segmentation
-            Map<String, Object> checkResult = checkWhitelistingAndPreSeg(
+            RuleEvaluationResult checkResult = checkWhitelistingAndPreSeg(
                     serviceContainer,
                     feature,
                     campaign,
@@ -67,35 +70,28 @@ public class RuleEvaluationUtil {
                     decision
             );
 
-            // Extract the results of the evaluation
-            boolean preSegmentationResult = (Boolean) checkResult.get("preSegmentationResult");
-            Variation whitelistedObject = (Variation) checkResult.get("whitelistedObject");
-            EventArchPayload payload = null;
+            Variation whitelistedObject = checkResult.getWhitelistedObject();
 
             // If pre-segmentation is successful and a whitelisted object exists, create payload for impression
-            if (preSegmentationResult && whitelistedObject != null && whitelistedObject.getId() != null) {
+            if (checkResult.getPreSegmentationResult() && whitelistedObject != null && whitelistedObject.getId() != null) {
                 // Update the decision object with campaign and variation details
-                decision.put("experimentId", campaign.getId());
-                decision.put("experimentKey", campaign.getKey());
-                decision.put("experimentVariationId", whitelistedObject.getId());
+                if (decision != null) {
+                    decision.getRuleInformation().setExperiment(campaign.getId(), campaign.getKey(), whitelistedObject.getId());
+                }
 
                 // Create payload for the variation shown (to be sent in batch by caller)
-                payload = NetworkUtil.getTrackUserPayloadData(
+                EventArchPayload payload = NetworkUtil.getTrackUserPayloadData(
                         serviceContainer,
                         EventEnum.WINGIFY_VARIATION_SHOWN.getValue(),
                         campaign.getId(),
                         whitelistedObject.getId(),
                         context
                 );
+                return new RuleEvaluationResult(true, whitelistedObject, payload);
             }
 
             // Return the results of the evaluation
-            Map<String, Object> result = new HashMap<>();
-            result.put("preSegmentationResult", preSegmentationResult);
-            result.put("whitelistedObject", whitelistedObject);
-            result.put("updatedDecision", decision);
-            result.put("payload", payload);
-            return result;
+            return checkResult;
         } catch (Exception exception) {
             serviceContainer.getLoggerService().log(LogLevelEnum.ERROR, "ERROR_EVALUATING_RULE", new HashMap<String, Object>() {
                 {
@@ -103,7 +99,7 @@ public class RuleEvaluationUtil {
                     putAll(serviceContainer.getDebuggerService().getStandardDebugProps());
                 }
             });
-            return new HashMap<>();
+            return RuleEvaluationResult.FAILED;
         }
     }
 }
@@ -26,15 +26,20 @@ import java.util.stream.Collectors;
 import com.google.gson.Gson;
 import com.wingify.enums.CampaignTypeEnum;
 import com.wingify.models.Campaign;
+import com.wingify.models.DecisionSnapshot;
 import com.wingify.models.Feature;
 import com.wingify.models.Holdout;
 import com.wingify.models.Settings;
+import com.wingify.models.Variation;
 import com.wingify.packages.logger.enums.LogLevelEnum;
 import com.wingify.services.LoggerService;
 
 import static com.wingify.utils.CampaignUtil.setVariationAllocation;
 
 public class SettingsUtil {
+    // Updated pattern without using lookbehind
+    private static final Pattern PRE_SEGMENTATION_PATTERN = Pattern.compile("\\b(country|region|city|os|device_type|browser_string|ua)\\b|\"custom_variable\"\\s*:\\s*\\{\\s*\"name\"\\s*:\\s*\"inlist\\([^)]*\\)\"");
+    private static final Pattern GATEWAY_SEGMENT_KEY_PATTERN = Pattern.compile("\\b(country|region|city|os|device_type|browser_string|ua)\\b");
 
     /**
      * Processes the settings file and modifies it as required.
@@ -42,6 +47,10 @@ public class SettingsUtil {
      * It sets the variation allocation for each campaign.
      * It adds linked campaigns to each feature in the settings based on rules.
      * It adds isGatewayServiceRequired flag to each feature in the settings based on pre segmentation.
+     * It compiles the lookup indexes and variation range tables used by the decision hot path.
+     * The compiled segments, variable indexes and range tables are transient fields of the models,
+     * never part of the settings payload. A model that was not processed here, e.g. a copy, builds
+     * them on first use and keeps them.
      * @param settings - The settings file to modify.
      * @param loggerService - The logger service.
      */
@@ -53,8 +62,84 @@ public class SettingsUtil {
             setVariationAllocation(campaign, loggerService);
             campaigns.set(i, campaign);
         }
+        // compiled before linking, so the linked campaigns share the compiled segments of their campaign
+        compileSegments(settings);
         addLinkedCampaignsToSettings(settings);
         addIsGatewayServiceRequiredFlag(settings);
+        addVariableIndexes(settings);
+        addVariationRangeTables(settings);
+        settings.setDecisionSnapshot(new DecisionSnapshot(settings));
+    }
+
+    /**
+     * Compiles the segments of every campaign, variation and holdout, so the segmentation DSL
+     * is not parsed again on each decision.
+     * @param settings  - The settings file to modify.
+     */
+    private static void compileSegments(Settings settings) {
+        for (Campaign campaign : settings.getCampaigns()) {
+            campaign.compileSegments();
+            if (campaign.getVariations() != null) {
+                for (Variation variation : campaign.getVariations()) {
+                    variation.compileSegments();
+                }
+            }
+        }
+        if (settings.getHoldouts() != null) {
+            for (Holdout holdout : settings.getHoldouts()) {
+                holdout.compileSegments();
+            }
+        }
+    }
+
+    /**
+     * Builds the key to variable index of every variation, so flag variables are read without scanning.
+     * @param settings  - The settings file to modify.
+     */
+    private static void addVariableIndexes(Settings settings) {
+        for (Campaign campaign : settings.getCampaigns()) {
+            indexVariations(campaign.getVariations());
+        }
+        for (Feature feature : settings.getFeatures()) {
+            if (feature.getRulesLinkedCampaign() == null) {
+                continue;
+            }
+            // linked campaigns may hold their own copies of the variations
+            for (Campaign campaign : feature.getRulesLinkedCampaign()) {
+                indexVariations(campaign.getVariations());
+            }
+        }
+    }
+
+    /**
+     * Builds the bucket range table of every campaign, so a bucket value is mapped to a variation without scanning.
+     * @param settings  - The settings file to modify.
+     */
+    private static void addVariationRangeTables(Settings settings) {
+        for (Campaign campaign : settings.getCampaigns()) {
+            campaign.buildVariationRangeTable();
+        }
+        for (Feature feature : settings.getFeatures()) {
+            if (feature.getRulesLinkedCampaign() == null) {
+                continue;
+            }
+            for (Campaign campaign : feature.getRulesLinkedCampaign()) {
+                campaign.buildVariationRangeTable();
+            }
+        }
+    }
+
+    /**
+     * Builds the key to variable index of the given variations.
+     * @param variations  - The variations to index, may be null.
+     */
+    private static void indexVariations(List<Variation> variations) {
+        if (variations == null) {
+            return;
+        }
+        for (Variation variation : variations) {
+            variation.indexVariables();
+        }
     }
 
     /**
@@ -98,10 +183,6 @@ public class SettingsUtil {
      * @param settings  - The settings file to modify.
      */
     private static void addIsGatewayServiceRequiredFlag(Settings settings) {
-        // Updated pattern without using lookbehind
-        String patternString = "\\b(country|region|city|os|device_type|browser_string|ua)\\b|\"custom_variable\"\\s*:\\s*\\{\\s*\"name\"\\s*:\\s*\"inlist\\([^)]*\\)\"";
-        Pattern pattern = Pattern.compile(patternString);
-
         for (Feature feature : settings.getFeatures()) {
             List<Campaign> rules = feature.getRulesLinkedCampaign();
             for (Campaign rule : rules) {
@@ -113,7 +194,7 @@ public class SettingsUtil {
                 }
                 if (segments != null) {
                     String jsonSegments = new Gson().toJson(segments);
-                    if (checkPreSegmentation(jsonSegments, pattern)) {
+                    if (checkPreSegmentation(jsonSegments, PRE_SEGMENTATION_PATTERN)) {
                         feature.setIsGatewayServiceRequired(true);
                         break;
                     }
@@ -126,7 +207,7 @@ public class SettingsUtil {
                 Map<String, Object> segments = holdout.getSegments();
                 if (segments != null) {
                     String jsonSegments = new Gson().toJson(segments);
-                    if (checkPreSegmentation(jsonSegments, pattern)) {
+                    if (checkPreSegmentation(jsonSegments, PRE_SEGMENTATION_PATTERN)) {
                         holdout.setIsGatewayServiceRequired(true);
                     }
                 }
@@ -146,7 +227,7 @@ public class SettingsUtil {
         Matcher matcher = pattern.matcher(jsonSegments);
         while (matcher.find()) {
             String match = matcher.group();
-            if (match.matches("\\b(country|region|city|os|device_type|browser_string|ua)\\b")) {
+            if (GATEWAY_SEGMENT_KEY_PATTERN.matcher(match).matches()) {
                 // Check if within "custom_variable" block
                 if (!isWithinCustomVariable(matcher.start(), jsonSegments)) {
                     return true;
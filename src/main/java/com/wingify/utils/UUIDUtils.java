@@ -16,10 +16,15 @@
 package com.wingify.utils;
 
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.UUID;
 import java.util.regex.Pattern;
 
-import com.google.common.hash.Hashing;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.wingify.constants.Constants;
 
 public class UUIDUtils {
 
@@ -32,6 +37,28 @@ public class UUIDUtils {
 
     private static final Pattern WEB_UUID_PATTERN = Pattern.compile("^[DJ][0-9A-Fa-f]{32}$");
 
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    // MessageDigest is not thread safe, each thread reuses its own instance
+    private static final ThreadLocal<MessageDigest> SHA1 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    });
+
+    // namespace of the account namespaces, a constant computed once, after SHA1 is set
+    private static final byte[] SEED_NAMESPACE_BYTES = toBytes(generateUUID(SEED_URL, URL_NAMESPACE));
+
+    // namespaces of the accounts and SDK keys used in this JVM, there are only a few of each
+    private static final Cache<String, byte[]> ACCOUNT_NAMESPACES = CacheBuilder.newBuilder()
+            .maximumSize(Constants.MAX_UUID_NAMESPACE_CACHE_SIZE)
+            .build();
+    private static final Cache<String, byte[]> SDK_KEY_NAMESPACES = CacheBuilder.newBuilder()
+            .maximumSize(Constants.MAX_UUID_NAMESPACE_CACHE_SIZE)
+            .build();
+
     /**
      * Generates a random UUID based on an API key.
      *
@@ -39,14 +66,16 @@ public class UUIDUtils {
      * @return A random UUID string.
      */
     public static String getRandomUUID(String sdkKey) {
-        // Generate a namespace based on the API key using DNS namespace
-        UUID namespace = generateUUID(sdkKey, DNS_NAMESPACE);
+        // Generate a namespace based on the API key using DNS namespace, once per key
+        byte[] namespace = SDK_KEY_NAMESPACES.getIfPresent(sdkKey);
+        if (namespace == null) {
+            namespace = toBytes(generateUUID(sdkKey, DNS_NAMESPACE));
+            SDK_KEY_NAMESPACES.put(sdkKey, namespace);
+        }
         // Generate a random UUID (UUIDv4)
         UUID randomUUID = UUID.randomUUID();
         // Generate a UUIDv5 using the random UUID and the namespace
-        UUID uuidv5 = generateUUID(randomUUID.toString(), namespace);
-
-        return uuidv5.toString();
+        return fromBytes(hash(namespace, randomUUID.toString())).toString();
     }
 
     /**
@@ -57,19 +86,37 @@ public class UUIDUtils {
      * @return A UUID string formatted without dashes and in uppercase.
      */
     public static String getUUID(String userId, String accountId) {
-        // Generate a namespace UUID based on SEED_URL using URL namespace
-        UUID wingifyNamespace = generateUUID(SEED_URL, URL_NAMESPACE);
         // Ensure userId and accountId are strings
         String userIdStr = (userId != null) ? userId : "";
         String accountIdStr = (accountId != null) ? accountId : "";
-        // Generate a namespace UUID based on the accountId
-        UUID userIdNamespace = generateUUID(accountIdStr, wingifyNamespace);
-        // Generate a UUID based on the userId and the previously generated namespace
-        UUID uuidForUserIdAccountId = generateUUID(userIdStr, userIdNamespace);
-
-        // Remove all dashes from the UUID and convert it to uppercase
-        String desiredUuid = uuidForUserIdAccountId.toString().replaceAll("-", "").toUpperCase();
-        return desiredUuid;
+        return getUUID(getAccountNamespace(accountIdStr), userIdStr);
+    }
+
+    /**
+     * Gets the namespace of an account, generated once per account.
+     *
+     * @param accountId The account ID.
+     * @return The bytes of the namespace UUID of the account.
+     */
+    static byte[] getAccountNamespace(String accountId) {
+        byte[] namespace = ACCOUNT_NAMESPACES.getIfPresent(accountId);
+        if (namespace == null) {
+            // the namespace is the UUID made of the first 16 bytes of the hash
+            namespace = Arrays.copyOf(hash(SEED_NAMESPACE_BYTES, accountId), 16);
+            ACCOUNT_NAMESPACES.put(accountId, namespace);
+        }
+        return namespace;
+    }
+
+    /**
+     * Generates the UUID of a user in the namespace of an account.
+     *
+     * @param accountNamespace The bytes of the namespace UUID of the account.
+     * @param userId           The user's ID.
+     * @return A UUID string formatted without dashes and in uppercase.
+     */
+    static String getUUID(byte[] accountNamespace, String userId) {
+        return toHex(hash(accountNamespace, userId));
     }
 
     /**
@@ -83,14 +130,21 @@ public class UUIDUtils {
         if (name == null || namespace == null) {
             return null;
         }
+        return fromBytes(hash(toBytes(namespace), name));
+    }
 
-        byte[] namespaceBytes = toBytes(namespace);
-        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
-        byte[] combined = new byte[namespaceBytes.length + nameBytes.length];
-        System.arraycopy(namespaceBytes, 0, combined, 0, namespaceBytes.length);
-        System.arraycopy(nameBytes, 0, combined, namespaceBytes.length, nameBytes.length);
-
-        byte[] hash = Hashing.sha1().hashBytes(combined).asBytes();
+    /**
+     * Helper function to hash a name in a namespace into the bytes of a UUID v5.
+     *
+     * @param namespaceBytes The bytes of the namespace.
+     * @param name           The name from which to generate the UUID.
+     * @return The SHA-1 hash, its first 16 bytes are the bytes of the UUID.
+     */
+    private static byte[] hash(byte[] namespaceBytes, String name) {
+        MessageDigest sha1 = SHA1.get();
+        sha1.update(namespaceBytes);
+        sha1.update(name.getBytes(StandardCharsets.UTF_8));
+        byte[] hash = sha1.digest();
 
         // Set version to 5 (name-based using SHA-1)
         hash[6] = (byte) (hash[6] & 0x0f); // Clear version
@@ -98,7 +152,22 @@ public class UUIDUtils {
         hash[8] = (byte) (hash[8] & 0x3f); // Clear variant
         hash[8] = (byte) (hash[8] | 0x80); // Set to IETF variant
 
-        return fromBytes(hash);
+        return hash;
+    }
+
+    /**
+     * Helper function to write the bytes of a UUID as uppercase hex without dashes.
+     *
+     * @param bytes The bytes of the UUID, only the first 16 are used.
+     * @return The 32 hex characters.
+     */
+    private static String toHex(byte[] bytes) {
+        char[] hex = new char[32];
+        for (int i = 0; i < 16; i++) {
+            hex[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0x0f];
+            hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0x0f];
+        }
+        return new String(hex);
     }
 
     /**
@@ -124,7 +193,7 @@ public class UUIDUtils {
     /**
      * Helper function to convert a byte array to a UUID.
      *
-     * @param bytes The byte array to convert.
+     * @param bytes The byte array to convert, only the first 16 bytes are used.
      * @return A UUID.
      */
     private static UUID fromBytes(byte[] bytes) {
@@ -156,5 +225,4 @@ public class UUIDUtils {
         }
         return WEB_UUID_PATTERN.matcher(id).matches();
     }
-
-}
\ No newline at end of file
+}
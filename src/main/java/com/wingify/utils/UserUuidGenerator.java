@@ -0,0 +1,73 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wingify.utils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Generates the UUIDs of the users of the account of a client.
+ * The namespace of the account is derived once, and the UUIDs of recent users are cached
+ * when the client configures a cache size. Each client owns its generator, so the cache
+ * of one client does not affect another.
+ */
+public class UserUuidGenerator {
+    private final String accountId;
+    private final byte[] accountNamespace;
+    private final Cache<String, String> uuids;
+
+    /**
+     * Creates the generator of an account
+     * @param accountId ID of the account
+     * @param uuidCacheMaxSize Maximum number of cached user UUIDs, null or not positive to generate the UUID on every call
+     */
+    public UserUuidGenerator(String accountId, Integer uuidCacheMaxSize) {
+        this.accountId = accountId != null ? accountId : "";
+        this.accountNamespace = UUIDUtils.getAccountNamespace(this.accountId);
+        this.uuids = uuidCacheMaxSize != null && uuidCacheMaxSize > 0 ? CacheBuilder.newBuilder().maximumSize(uuidCacheMaxSize).build() : null;
+    }
+
+    /**
+     * Generates the UUID of a user, it is the same as UUIDUtils.getUUID for the account
+     * @param userId ID of the user
+     * @return A UUID string formatted without dashes and in uppercase
+     */
+    public String getUUID(String userId) {
+        String userIdStr = (userId != null) ? userId : "";
+        if (uuids == null) {
+            return UUIDUtils.getUUID(accountNamespace, userIdStr);
+        }
+        String uuid = uuids.getIfPresent(userIdStr);
+        if (uuid == null) {
+            uuid = UUIDUtils.getUUID(accountNamespace, userIdStr);
+            uuids.put(userIdStr, uuid);
+        }
+        return uuid;
+    }
+
+    /**
+     * Generates the UUID of a user of the given account, other accounts fall back to UUIDUtils.getUUID
+     * @param userId ID of the user
+     * @param accountId ID of the account
+     * @return A UUID string formatted without dashes and in uppercase
+     */
+    public String getUUID(String userId, String accountId) {
+        if (this.accountId.equals(accountId)) {
+            return getUUID(userId);
+        }
+        return UUIDUtils.getUUID(userId, accountId);
+    }
+}
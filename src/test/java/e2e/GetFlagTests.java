@@ -19,6 +19,15 @@ import com.vwo.VWO;
 import com.wingify.WingifyBuilder;
 import com.wingify.WingifyClient;
 import com.wingify.models.Storage;
+import com.wingify.constants.Constants;
+import com.wingify.models.BatchEventData;
+import com.wingify.models.user.DecisionCacheConfig;
+import com.wingify.models.user.ImpressionDedupConfig;
+import com.wingify.interfaces.networking.NetworkClientInterface;
+import com.wingify.packages.network_layer.manager.NetworkManager;
+import com.wingify.packages.network_layer.models.RequestModel;
+import com.wingify.packages.network_layer.models.ResponseModel;
+import com.wingify.services.BatchEventQueue;
 import com.wingify.models.user.GetFlag;
 import com.vwo.models.user.VWOContext;
 import com.vwo.models.user.VWOInitOptions;
@@ -27,12 +36,19 @@ import data.DummySettingsReader;
 import data.testCases.TestCases;
 import data.testCases.TestData;
 import data.TestDataReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.jupiter.api.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -73,6 +89,227 @@ public class GetFlagTests {
         runTests(testCases.getGETFLAG_WITH_STORAGE(), true);
     }
 
+    @Test
+    @Order(6)
+    public void testGetFlagsMatchesGetFlag() {
+        for (TestData testData : testCases.getGETFLAG_WITHOUT_STORAGE()) {
+            VWOInitOptions vwoInitOptions = new VWOInitOptions();
+            vwoInitOptions.setSdkKey(SDK_KEY);
+            vwoInitOptions.setAccountId(ACCOUNT_ID);
+            // fresh storage, so the records prefetched for the keys start empty
+            vwoInitOptions.setStorage(new StorageTest());
+
+            WingifyBuilder wingifyBuilder = new WingifyBuilder(vwoInitOptions);
+            WingifyBuilder wingifyBuilderSpy = spy(wingifyBuilder);
+
+            when(wingifyBuilderSpy.getSettings(false)).thenReturn(settingsMap.get(testData.getSettings()));
+
+            vwoInitOptions.setVwoBuilder(wingifyBuilderSpy);
+            VWO vwoClient = VWO.init(vwoInitOptions);
+
+            Map<String, GetFlag> flags = vwoClient.getFlags(Arrays.asList(testData.getFeatureKey(), testData.getFeatureKey()), testData.getContext());
+            assertEquals(1, flags.size());
+            GetFlag featureFlag = flags.get(testData.getFeatureKey());
+            assertEquals(testData.getExpectation().getIsEnabled(), featureFlag.isEnabled());
+            assertEquals(testData.getExpectation().getStringVariable(), featureFlag.getVariable("string", "VWO"));
+
+            Map<String, GetFlag> allFlags = vwoClient.getAllFlags(testData.getContext());
+            // keys missing from the settings are not part of the all flags result
+            if (allFlags.containsKey(testData.getFeatureKey())) {
+                assertEquals(testData.getExpectation().getIsEnabled(), allFlags.get(testData.getFeatureKey()).isEnabled());
+            } else {
+                assertFalse(testData.getExpectation().getIsEnabled());
+            }
+        }
+    }
+
+    @Test
+    @Order(7)
+    public void testGetFlagAsyncUsesGivenExecutor() throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        AtomicInteger executions = new AtomicInteger();
+        // counts the calls run by the executor set in the init options
+        Executor executor = command -> {
+            executions.incrementAndGet();
+            executorService.execute(command);
+        };
+        try {
+            for (TestData testData : testCases.getGETFLAG_WITHOUT_STORAGE()) {
+                VWOInitOptions vwoInitOptions = new VWOInitOptions();
+                vwoInitOptions.setSdkKey(SDK_KEY);
+                vwoInitOptions.setAccountId(ACCOUNT_ID);
+                vwoInitOptions.setStorage(new StorageTest());
+                vwoInitOptions.setAsyncExecutor(executor);
+
+                WingifyBuilder wingifyBuilder = new WingifyBuilder(vwoInitOptions);
+                WingifyBuilder wingifyBuilderSpy = spy(wingifyBuilder);
+
+                when(wingifyBuilderSpy.getSettings(false)).thenReturn(settingsMap.get(testData.getSettings()));
+
+                vwoInitOptions.setVwoBuilder(wingifyBuilderSpy);
+                VWO vwoClient = VWO.init(vwoInitOptions);
+
+                int executionsBefore = executions.get();
+                GetFlag featureFlag = vwoClient.getFlagAsync(testData.getFeatureKey(), testData.getContext()).get(30, TimeUnit.SECONDS);
+                assertEquals(executionsBefore + 1, executions.get());
+                assertEquals(testData.getExpectation().getIsEnabled(), featureFlag.isEnabled());
+                assertEquals(testData.getExpectation().getStringVariable(), featureFlag.getVariable("string", "VWO"));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    @Order(8)
+    public void testGetFlagWithDecisionCache() {
+        int evaluatedStorageReads = 0;
+        for (TestData testData : testCases.getGETFLAG_WITHOUT_STORAGE()) {
+            List<Map<String, Object>> hookDecisions = new ArrayList<>();
+            AtomicInteger storageReads = new AtomicInteger();
+            StorageTest storage = new StorageTest() {
+                @Override
+                public Object get(String featureKey, String userId) {
+                    storageReads.incrementAndGet();
+                    return super.get(featureKey, userId);
+                }
+            };
+            VWOInitOptions vwoInitOptions = new VWOInitOptions();
+            vwoInitOptions.setSdkKey(SDK_KEY);
+            vwoInitOptions.setAccountId(ACCOUNT_ID);
+            vwoInitOptions.setStorage(storage);
+            vwoInitOptions.setDecisionCacheConfig(new DecisionCacheConfig(100, 60));
+            vwoInitOptions.setIntegrations(hookDecisions::add);
+
+            WingifyBuilder wingifyBuilder = new WingifyBuilder(vwoInitOptions);
+            WingifyBuilder wingifyBuilderSpy = spy(wingifyBuilder);
+
+            when(wingifyBuilderSpy.getSettings(false)).thenReturn(settingsMap.get(testData.getSettings()));
+
+            vwoInitOptions.setVwoBuilder(wingifyBuilderSpy);
+            VWO vwoClient = VWO.init(vwoInitOptions);
+
+            GetFlag evaluatedFlag = vwoClient.getFlag(testData.getFeatureKey(), testData.getContext());
+            int hooksAfterEvaluation = hookDecisions.size();
+            int storageReadsAfterEvaluation = storageReads.get();
+            GetFlag cachedFlag = vwoClient.getFlag(testData.getFeatureKey(), testData.getContext());
+
+            assertEquals(testData.getExpectation().getIsEnabled(), cachedFlag.isEnabled());
+            assertEquals(evaluatedFlag.getVariables(), cachedFlag.getVariables());
+            // the memoized decision is not evaluated again, so the storage is not read
+            assertEquals(storageReadsAfterEvaluation, storageReads.get());
+            evaluatedStorageReads += storageReadsAfterEvaluation;
+            // the integrations callback is replayed for the memoized decision
+            assertEquals(2 * hooksAfterEvaluation, hookDecisions.size());
+        }
+        // without the cache, the second calls would have read the storage again
+        assertTrue(evaluatedStorageReads > 0);
+    }
+
+    @Test
+    @Order(10)
+    public void testGetFlagWithDecisionCacheAndGatewayService() throws Exception {
+        AtomicInteger gatewayCalls = new AtomicInteger();
+        AtomicInteger storageReads = new AtomicInteger();
+        StorageTest storage = new StorageTest() {
+            @Override
+            public Object get(String featureKey, String userId) {
+                storageReads.incrementAndGet();
+                return super.get(featureKey, userId);
+            }
+        };
+        // the rollout targets a location, so the feature requires the gateway service
+        ObjectNode settings = (ObjectNode) WingifyClient.objectMapper.readTree(settingsMap.get("BASIC_ROLLOUT_SETTINGS"));
+        ((ObjectNode) settings.get("campaigns").get(0).get("variations").get(0)).set("segments",
+                WingifyClient.objectMapper.readTree("{\"and\":[{\"country\":\"US\"}]}"));
+
+        VWOInitOptions vwoInitOptions = new VWOInitOptions();
+        vwoInitOptions.setSdkKey(SDK_KEY);
+        vwoInitOptions.setAccountId(ACCOUNT_ID);
+        vwoInitOptions.setStorage(storage);
+        vwoInitOptions.setDecisionCacheConfig(new DecisionCacheConfig(100, 60));
+        vwoInitOptions.setGatewayService(new HashMap<String, Object>() {{
+            put("url", "http://localhost:8000");
+        }});
+        vwoInitOptions.setNetworkClientInterface(new NetworkClientInterface() {
+            @Override
+            public ResponseModel GET(RequestModel request) {
+                gatewayCalls.incrementAndGet();
+                ResponseModel response = new ResponseModel();
+                response.setData("{\"location\":{\"country\":\"US\"}}");
+                return response;
+            }
+
+            @Override
+            public ResponseModel POST(RequestModel request) {
+                return new ResponseModel();
+            }
+        });
+
+        try {
+            WingifyBuilder wingifyBuilder = new WingifyBuilder(vwoInitOptions);
+            WingifyBuilder wingifyBuilderSpy = spy(wingifyBuilder);
+
+            when(wingifyBuilderSpy.getSettings(false)).thenReturn(WingifyClient.objectMapper.writeValueAsString(settings));
+
+            vwoInitOptions.setVwoBuilder(wingifyBuilderSpy);
+            VWO vwoClient = VWO.init(vwoInitOptions);
+
+            VWOContext context = new VWOContext();
+            context.setId("gateway-user");
+            context.setIpAddress("1.2.3.4");
+
+            assertTrue(vwoClient.getFlag("feature1", context).isEnabled());
+            assertEquals(1, gatewayCalls.get());
+            int storageReadsAfterEvaluation = storageReads.get();
+            assertTrue(storageReadsAfterEvaluation > 0);
+            // the gateway data stays off the caller's context, so the same context builds the same key
+            assertNull(context.getWingify());
+
+            assertTrue(vwoClient.getFlag("feature1", context).isEnabled());
+            // the second call is a cache hit: neither the storage nor the gateway service is read again
+            assertEquals(storageReadsAfterEvaluation, storageReads.get());
+            assertEquals(1, gatewayCalls.get());
+        } finally {
+            NetworkManager.getInstance().attachClient();
+        }
+    }
+
+    @Test
+    @Order(9)
+    public void testGetFlagWithImpressionDeduplication() {
+        int queuedImpressions = 0;
+        for (TestData testData : testCases.getGETFLAG_WITHOUT_STORAGE()) {
+            BatchEventData batchEventData = new BatchEventData();
+            batchEventData.setEventsPerRequest(Constants.MAX_EVENTS_PER_REQUEST);
+            VWOInitOptions vwoInitOptions = new VWOInitOptions();
+            vwoInitOptions.setSdkKey(SDK_KEY);
+            vwoInitOptions.setAccountId(ACCOUNT_ID);
+            vwoInitOptions.setBatchEventData(batchEventData);
+            vwoInitOptions.setDecisionCacheConfig(new DecisionCacheConfig(100, 60));
+            vwoInitOptions.setImpressionDedupConfig(new ImpressionDedupConfig(100, 60));
+
+            WingifyBuilder wingifyBuilder = new WingifyBuilder(vwoInitOptions);
+            WingifyBuilder wingifyBuilderSpy = spy(wingifyBuilder);
+
+            when(wingifyBuilderSpy.getSettings(false)).thenReturn(settingsMap.get(testData.getSettings()));
+
+            vwoInitOptions.setVwoBuilder(wingifyBuilderSpy);
+            VWO vwoClient = VWO.init(vwoInitOptions);
+            BatchEventQueue batchEventQueue = wingifyBuilderSpy.getBatchEventQueue();
+
+            vwoClient.getFlag(testData.getFeatureKey(), testData.getContext());
+            int queuedAfterEvaluation = batchEventQueue.getBatchQueue().size();
+            GetFlag cachedFlag = vwoClient.getFlag(testData.getFeatureKey(), testData.getContext());
+
+            assertEquals(testData.getExpectation().getIsEnabled(), cachedFlag.isEnabled());
+            // the impressions replayed for the memoized decision are already queued
+            assertEquals(queuedAfterEvaluation, batchEventQueue.getBatchQueue().size());
+            queuedImpressions += queuedAfterEvaluation;
+        }
+        assertTrue(queuedImpressions > 0);
+    }
+
     private void runTests(List<TestData> tests, Boolean storageMap){
         for (TestData testData : tests) {
             StorageTest storage = new StorageTest();
@@ -103,6 +340,19 @@ public class GetFlagTests {
             assertEquals(testData.getExpectation().getFloatVariable(), featureFlag.getVariable("float", 1.1));
             assertEquals(testData.getExpectation().getBooleanVariable(), featureFlag.getVariable("boolean", false));
             assertEquals(testData.getExpectation().getJsonVariable(), featureFlag.getVariable("json", new HashMap<>()));
+            // typed accessors read the same values through the variable index
+            assertEquals((int) testData.getExpectation().getIntVariable(), featureFlag.getInt("int", 1));
+            assertEquals(testData.getExpectation().getStringVariable(), featureFlag.getString("string", "VWO"));
+            assertEquals((boolean) testData.getExpectation().getBooleanVariable(), featureFlag.getBoolean("boolean", false));
+            assertEquals(testData.getExpectation().getJsonVariable(), featureFlag.getJson("json", new HashMap<>()));
+            // getVariables returns a fresh list of maps, which callers may modify
+            List<Map<String, Object>> variables = featureFlag.getVariables();
+            if (!variables.isEmpty()) {
+                variables.get(0).put("value", "modified");
+            }
+            variables.clear();
+            assertEquals(featureFlag.getVariablesValue().size(), featureFlag.getVariables().size());
+            assertEquals(testData.getExpectation().getStringVariable(), featureFlag.getString("string", "VWO"));
 
             if (storageMap) {
                 try {
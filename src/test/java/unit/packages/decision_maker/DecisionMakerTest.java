@@ -15,9 +15,13 @@
  */
 package unit.packages.decision_maker;
 
+import com.github.eprst.murmur3.MurmurHash3;
 import com.wingify.packages.decision_maker.DecisionMaker;
 import org.junit.jupiter.api.*;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import static org.mockito.Mockito.*;
@@ -80,4 +84,35 @@ public class DecisionMakerTest {
         long hashValue = decisionMaker.generateHashValue(hashKey);
         assertEquals(expectedHashValue, hashValue);
     }
+
+    @Test
+    public void testGenerateHashValueOfNonAsciiKeys() {
+        // keys are hashed over their full UTF-8 encoding, whatever the platform charset
+        String[] hashKeys = {"key123", "", "josé", "用户_42", "user_\uD83D\uDE00", "broken_\uD800_surrogate", "ümlaut-ß-€"};
+        for (String hashKey : hashKeys) {
+            byte[] bytes = hashKey.getBytes(StandardCharsets.UTF_8);
+            long expectedHashValue = MurmurHash3.murmurhash3_x86_32(bytes, 0, bytes.length, 1) & 0xFFFFFFFFL;
+            assertEquals(expectedHashValue, decisionMaker.generateHashValue(hashKey), hashKey);
+        }
+    }
+
+    @Test
+    public void testGenerateHashValueOfKeyParts() {
+        assertEquals(decisionMaker.generateHashValue("salt_user_1"), decisionMaker.generateHashValue("salt", "user_1"));
+        assertEquals(decisionMaker.generateHashValue("12_1234_josé"), decisionMaker.generateHashValue(12, "1234", "josé"));
+        assertEquals(decisionMaker.generateHashValue("-5_null_用户"), decisionMaker.generateHashValue(-5L, null, "用户"));
+    }
+
+    @Test
+    public void testGenerateBucketValueMatchesFloatingPoint() {
+        Random random = new Random(42);
+        int[][] scales = {{100, 1}, {10000, 1}, {10000, 0}, {10000, 3}};
+        for (int i = 0; i < 10000; i++) {
+            long hashValue = i < 2 ? i * 0xFFFFFFFFL : random.nextInt() & 0xFFFFFFFFL;
+            for (int[] scale : scales) {
+                int expectedBucketValue = (int) Math.floor((scale[0] * ((double) hashValue / Math.pow(2, 32)) + 1) * scale[1]);
+                assertEquals(expectedBucketValue, decisionMaker.generateBucketValue(hashValue, scale[0], scale[1]));
+            }
+        }
+    }
 }
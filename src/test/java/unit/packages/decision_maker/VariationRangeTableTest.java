@@ -0,0 +1,159 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package unit.packages.decision_maker;
+
+import com.wingify.models.Campaign;
+import com.wingify.models.Variation;
+import com.wingify.models.VariationRangeTable;
+import com.wingify.services.CampaignDecisionService;
+import com.wingify.services.LoggerService;
+import com.wingify.utils.CampaignUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+public class VariationRangeTableTest {
+
+  private static final int MAX_TRAFFIC_VALUE = 10000;
+
+  @Test
+  public void binarySearchMatchesScanForDisjointRangesTest() {
+    Campaign campaign = new Campaign();
+    campaign.setType("FLAG_TESTING");
+    campaign.setVariations(createVariations(33.33, 0, 33.34, 20));
+    CampaignUtil.setVariationAllocation(campaign, new LoggerService(new HashMap<>()));
+
+    // the allocated ranges leave a gap at the end, where no variation matches
+    assertMatchesScan(campaign.getVariations(), campaign.getVariationRangeTable());
+    Assertions.assertNull(campaign.getVariationRangeTable().find(MAX_TRAFFIC_VALUE));
+  }
+
+  @Test
+  public void overlappingRolloutRangesAreScannedInOrderTest() {
+    Campaign campaign = new Campaign();
+    campaign.setType("FLAG_ROLLOUT");
+    campaign.setVariations(createVariations(50, 100, 25));
+    CampaignUtil.setVariationAllocation(campaign, new LoggerService(new HashMap<>()));
+
+    VariationRangeTable table = campaign.getVariationRangeTable();
+    assertMatchesScan(campaign.getVariations(), table);
+    // every range starts at 1, so the first variation wins wherever the ranges overlap
+    Assertions.assertEquals(Integer.valueOf(1), table.find(1).getId());
+    Assertions.assertEquals(Integer.valueOf(1), table.find(5000).getId());
+    Assertions.assertEquals(Integer.valueOf(2), table.find(5001).getId());
+  }
+
+  @Test
+  public void zeroWeightVariationsNeverMatchTest() {
+    Campaign campaign = new Campaign();
+    campaign.setType("FLAG_TESTING");
+    campaign.setVariations(createVariations(0, 100, 0));
+    CampaignUtil.setVariationAllocation(campaign, new LoggerService(new HashMap<>()));
+
+    Assertions.assertEquals(Integer.valueOf(-1), campaign.getVariations().get(0).getStartRangeVariation());
+    VariationRangeTable table = campaign.getVariationRangeTable();
+    assertMatchesScan(campaign.getVariations(), table);
+    // bucket values start at 0, which no range holds
+    Assertions.assertNull(table.find(0));
+    Assertions.assertEquals(Integer.valueOf(2), table.find(1).getId());
+  }
+
+  @Test
+  public void scaledTableMatchesScaledVariationsTest() {
+    List<List<Variation>> cases = Arrays.asList(
+            createVariations(50, 50),
+            createVariations(10, 20, 30),
+            createVariations(1, 1, 1),
+            createVariations(0, 40, 0, 60),
+            createVariations(0.5, 99.5),
+            createVariations(70));
+    for (List<Variation> variations : cases) {
+      List<Variation> scaledVariations = copyVariations(variations);
+      CampaignUtil.scaleVariationWeights(scaledVariations);
+      int currentAllocation = 0;
+      for (Variation variation : scaledVariations) {
+        currentAllocation += CampaignUtil.assignRangeValues(variation, currentAllocation);
+      }
+
+      double[] weights = variations.stream().mapToDouble(Variation::getWeight).toArray();
+      VariationRangeTable table = CampaignUtil.getScaledVariationRangeTable(variations);
+      assertMatchesScan(scaledVariations, table);
+      // the variations passed to the table keep their weights
+      Assertions.assertArrayEquals(weights, variations.stream().mapToDouble(Variation::getWeight).toArray());
+    }
+  }
+
+  @Test
+  public void equalSplitWhenTotalWeightIsZeroTest() {
+    List<Variation> variations = createVariations(0, 0, 0, 0);
+    VariationRangeTable table = CampaignUtil.getScaledVariationRangeTable(variations);
+
+    Assertions.assertEquals(Integer.valueOf(1), table.find(1).getId());
+    Assertions.assertEquals(Integer.valueOf(1), table.find(2500).getId());
+    Assertions.assertEquals(Integer.valueOf(2), table.find(2501).getId());
+    Assertions.assertEquals(Integer.valueOf(4), table.find(MAX_TRAFFIC_VALUE).getId());
+    for (Variation variation : variations) {
+      Assertions.assertEquals(0, variation.getWeight());
+    }
+  }
+
+  /**
+   * Checks that the table returns the same variation as a scan of the variations in list order, for every bucket value.
+   */
+  private static void assertMatchesScan(List<Variation> variations, VariationRangeTable table) {
+    CampaignDecisionService campaignDecisionService = new CampaignDecisionService();
+    List<Variation> rangedVariations = new ArrayList<>();
+    for (Variation variation : variations) {
+      if (variation.getStartRangeVariation() != null && variation.getEndRangeVariation() != null) {
+        rangedVariations.add(variation);
+      }
+    }
+    for (int bucketValue = -1; bucketValue <= MAX_TRAFFIC_VALUE + 1; bucketValue++) {
+      Variation expected = campaignDecisionService.getVariation(rangedVariations, bucketValue);
+      Variation actual = table.find(bucketValue);
+      Assertions.assertEquals(expected != null ? expected.getId() : null, actual != null ? actual.getId() : null, "bucket value " + bucketValue);
+    }
+  }
+
+  private static List<Variation> createVariations(double... weights) {
+    List<Variation> variations = new ArrayList<>();
+    for (int i = 0; i < weights.length; i++) {
+      Variation variation = new Variation();
+      variation.setId(i + 1);
+      variation.setName("Variation-" + (i + 1));
+      variation.setWeight(weights[i]);
+      variations.add(variation);
+    }
+    return variations;
+  }
+
+  private static List<Variation> copyVariations(List<Variation> variations) {
+    List<Variation> copies = new ArrayList<>();
+    for (Variation variation : variations) {
+      Variation copy = new Variation();
+      copy.setId(variation.getId());
+      copy.setName(variation.getName());
+      copy.setWeight(variation.getWeight());
+      copies.add(copy);
+    }
+    return copies;
+  }
+}
@@ -0,0 +1,202 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package unit.packages.network_layer;
+
+import com.wingify.packages.network_layer.handlers.RequestCoalescer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RequestCoalescerTest {
+
+  @Test
+  public void concurrentIdenticalCallsShareOneCallTest() throws Exception {
+    RequestCoalescer<String> coalescer = new RequestCoalescer<>(10000);
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<String> first = executor.submit(() -> coalescer.execute("key", () -> {
+        calls.incrementAndGet();
+        started.countDown();
+        awaitQuietly(release);
+        return "response";
+      }));
+      Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+      Future<String> second = executor.submit(() -> coalescer.execute("key", () -> {
+        calls.incrementAndGet();
+        return "other response";
+      }));
+      // give the second caller time to join the call in flight
+      Thread.sleep(100);
+      release.countDown();
+
+      Assertions.assertEquals("response", first.get(5, TimeUnit.SECONDS));
+      Assertions.assertEquals("response", second.get(5, TimeUnit.SECONDS));
+      Assertions.assertEquals(1, calls.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void failedCallIsNotReusedTest() {
+    RequestCoalescer<String> coalescer = new RequestCoalescer<>(10000);
+
+    Assertions.assertThrows(IllegalStateException.class, () -> coalescer.execute("key", () -> {
+      throw new IllegalStateException("unavailable");
+    }));
+    Assertions.assertEquals("response", coalescer.execute("key", () -> "response"));
+  }
+
+  @Test
+  public void waitingCallerRetriesAfterFailedCallTest() throws Exception {
+    RequestCoalescer<String> coalescer = new RequestCoalescer<>(10000);
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<String> first = executor.submit(() -> coalescer.execute("key", () -> {
+        calls.incrementAndGet();
+        started.countDown();
+        awaitQuietly(release);
+        throw new IllegalStateException("unavailable");
+      }));
+      Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+      Future<String> second = executor.submit(() -> coalescer.execute("key", () -> {
+        calls.incrementAndGet();
+        return "response";
+      }));
+      // give the second caller time to join the call in flight
+      Thread.sleep(100);
+      release.countDown();
+
+      ExecutionException failure = Assertions.assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+      Assertions.assertTrue(failure.getCause() instanceof IllegalStateException);
+      // the waiting caller sends its own request instead of sharing the failure
+      Assertions.assertEquals("response", second.get(5, TimeUnit.SECONDS));
+      Assertions.assertEquals(2, calls.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void waitingCallersShareOneRetryTest() throws Exception {
+    RequestCoalescer<String> coalescer = new RequestCoalescer<>(10000);
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    int waiters = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(waiters + 1);
+    try {
+      Future<String> first = executor.submit(() -> coalescer.execute("key", () -> {
+        calls.incrementAndGet();
+        started.countDown();
+        awaitQuietly(release);
+        throw new IllegalStateException("unavailable");
+      }));
+      Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+      List<Future<String>> waiting = new ArrayList<>();
+      for (int i = 0; i < waiters; i++) {
+        waiting.add(executor.submit(() -> coalescer.execute("key", () -> {
+          calls.incrementAndGet();
+          // keep the retry in flight while the other waiters join it
+          sleepQuietly(300);
+          return "response";
+        })));
+      }
+      // give the waiting callers time to join the call in flight
+      Thread.sleep(100);
+      release.countDown();
+
+      Assertions.assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+      for (Future<String> waiter : waiting) {
+        Assertions.assertEquals("response", waiter.get(5, TimeUnit.SECONDS));
+      }
+      // the failed call is followed by exactly one retry
+      Assertions.assertEquals(2, calls.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void failedRetryIsThrownToWaitingCallersTest() throws Exception {
+    RequestCoalescer<String> coalescer = new RequestCoalescer<>(10000);
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    int waiters = 3;
+    ExecutorService executor = Executors.newFixedThreadPool(waiters + 1);
+    try {
+      executor.submit(() -> coalescer.execute("key", () -> {
+        calls.incrementAndGet();
+        started.countDown();
+        awaitQuietly(release);
+        throw new IllegalStateException("unavailable");
+      }));
+      Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+      List<Future<String>> waiting = new ArrayList<>();
+      for (int i = 0; i < waiters; i++) {
+        waiting.add(executor.submit(() -> coalescer.execute("key", () -> {
+          calls.incrementAndGet();
+          sleepQuietly(300);
+          throw new IllegalStateException("still unavailable");
+        })));
+      }
+      Thread.sleep(100);
+      release.countDown();
+
+      for (Future<String> waiter : waiting) {
+        ExecutionException failure = Assertions.assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(failure.getCause() instanceof IllegalStateException);
+      }
+      // the waiting callers do not send their own requests after the retry failed
+      Assertions.assertEquals(2, calls.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void sleepQuietly(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
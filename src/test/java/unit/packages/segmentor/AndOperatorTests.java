@@ -18,7 +18,9 @@ package unit.packages.segmentor;
 
 import com.vwo.VWO;
 import com.vwo.models.user.VWOInitOptions;
+import com.wingify.packages.segmentation_evaluator.core.SegmentCompiler;
 import com.wingify.packages.segmentation_evaluator.core.SegmentationManager;
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
 import com.wingify.services.CampaignDecisionService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -43,6 +45,7 @@ public class AndOperatorTests {
   private static final int ACCOUNT_ID = 1234;
 
   private static SegmentationManager segmentationManager;
+  private static SegmentEvaluator evaluator;
 
   @BeforeAll
   public static void initialize(){
@@ -52,9 +55,9 @@ public class AndOperatorTests {
     VWO instance = VWO.init(vwoInitOptions);
 
     LoggerService loggerService = new LoggerService(new HashMap<>());
-    segmentationManager = new SegmentationManager(loggerService, true);
+    segmentationManager = new SegmentationManager(loggerService);
     
-    // Create mock objects for setContextualData parameters
+    // Create mock objects for createEvaluator parameters
     SettingsManager settingsManager = mock(SettingsManager.class);
     BatchEventQueue batchEventQueue = mock(BatchEventQueue.class);
     Settings settings = new Settings();
@@ -67,8 +70,8 @@ public class AndOperatorTests {
     VWOContext context = new VWOContext();
     context.setId("test-user");
     
-    // Initialize the evaluator by calling setContextualData
-    segmentationManager.setContextualData(serviceContainer, feature, context);
+    // Create the evaluator bound to the test user
+    evaluator = segmentationManager.createEvaluator(serviceContainer, feature, context);
   }
 
   @Test
@@ -176,6 +179,6 @@ public class AndOperatorTests {
   }
 
   public static void verifyExpectation(String dsl, Map<String, Object> customVariables) {
-    Assertions.assertEquals(segmentationManager.validateSegmentation(dsl, customVariables), customVariables.get("expectation"));
+    Assertions.assertEquals(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile(dsl), customVariables), customVariables.get("expectation"));
   }
 }
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package unit.packages.segmentor;
+
+import com.vwo.VWO;
+import com.vwo.models.user.VWOInitOptions;
+import com.wingify.packages.segmentation_evaluator.core.SegmentCompiler;
+import com.wingify.packages.segmentation_evaluator.core.SegmentationManager;
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import com.wingify.services.LoggerService;
+import com.wingify.ServiceContainer;
+import com.wingify.models.Feature;
+import com.vwo.models.user.VWOContext;
+import com.wingify.models.Settings;
+import com.wingify.services.SettingsManager;
+import com.wingify.services.BatchEventQueue;
+
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class AttributeViewTests {
+
+  private static final String SDK_KEY = "abcd";
+  private static final int ACCOUNT_ID = 1234;
+
+  private static SegmentationManager segmentationManager;
+  private static SegmentEvaluator evaluator;
+  private static Map<String, Object> contextVariables;
+
+  @BeforeAll
+  public static void initialize(){
+    VWOInitOptions vwoInitOptions = new VWOInitOptions();
+    vwoInitOptions.setSdkKey(SDK_KEY);
+    vwoInitOptions.setAccountId(ACCOUNT_ID);
+    VWO instance = VWO.init(vwoInitOptions);
+
+    LoggerService loggerService = new LoggerService(new HashMap<>());
+    segmentationManager = new SegmentationManager(loggerService);
+
+    SettingsManager settingsManager = mock(SettingsManager.class);
+    BatchEventQueue batchEventQueue = mock(BatchEventQueue.class);
+    Settings settings = new Settings();
+
+    ServiceContainer serviceContainer = new ServiceContainer("test-user", loggerService, settingsManager, vwoInitOptions, batchEventQueue, settings);
+
+    Feature feature = new Feature();
+    feature.setIsGatewayServiceRequired(false);
+
+    contextVariables = new HashMap<String, Object>() {{
+      put("name", "  Foo Bar ");
+      put("price", 10.50);
+      put("premium", true);
+    }};
+    VWOContext context = new VWOContext();
+    context.setId("test-user");
+    context.setCustomVariables(contextVariables);
+
+    evaluator = segmentationManager.createEvaluator(serviceContainer, feature, context);
+  }
+
+  @Test
+  public void contextVariablesReadThroughCopyTest() {
+    // the SDK reads copies of the context variables with the _vwoUserId added
+    Map<String, Object> properties = new HashMap<>(contextVariables);
+    properties.put("_vwoUserId", "test-user");
+
+    Assertions.assertTrue(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile("{\"and\":[{\"custom_variable\":{\"name\":\"lower(foo BAR)\"}},{\"custom_variable\":{\"price\":\"gte(10.5)\"}},{\"custom_variable\":{\"premium\":\"true\"}}]}"), properties));
+    Assertions.assertFalse(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile("{\"or\":[{\"custom_variable\":{\"name\":\"foo bar\"}},{\"custom_variable\":{\"price\":\"lt(10.5)\"}}]}"), properties));
+  }
+
+  @Test
+  public void changedValueIsNormalizedAgainTest() {
+    Map<String, Object> properties = new HashMap<>(contextVariables);
+    properties.put("price", "9");
+
+    Assertions.assertTrue(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile("{\"or\":[{\"custom_variable\":{\"price\":\"lt(10.5)\"}}]}"), properties));
+    properties.put("price", "11");
+    Assertions.assertFalse(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile("{\"or\":[{\"custom_variable\":{\"price\":\"lt(10.5)\"}}]}"), properties));
+  }
+
+  @Test
+  public void nonNumericValueFailsNumericOperandTest() {
+    Map<String, Object> properties = new HashMap<>(contextVariables);
+
+    Assertions.assertFalse(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile("{\"or\":[{\"custom_variable\":{\"name\":\"gt(1)\"}}]}"), properties));
+    Assertions.assertFalse(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile("{\"not\":{\"custom_variable\":{\"name\":\"gt(1)\"}}}"), properties));
+  }
+}
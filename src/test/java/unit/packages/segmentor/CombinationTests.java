@@ -18,7 +18,10 @@ package unit.packages.segmentor;
 
 import com.vwo.VWO;
 import com.vwo.models.user.VWOInitOptions;
+import com.wingify.packages.segmentation_evaluator.core.CompiledSegment;
+import com.wingify.packages.segmentation_evaluator.core.SegmentCompiler;
 import com.wingify.packages.segmentation_evaluator.core.SegmentationManager;
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import com.wingify.services.LoggerService;
@@ -40,6 +43,7 @@ public class CombinationTests {
   private static final int ACCOUNT_ID = 1234;
 
   private static SegmentationManager segmentationManager;
+  private static SegmentEvaluator evaluator;
 
   @BeforeAll
   public static void initialize(){
@@ -48,9 +52,9 @@ public class CombinationTests {
     vwoInitOptions.setAccountId(ACCOUNT_ID);
     VWO instance = VWO.init(vwoInitOptions);
     LoggerService loggerService = new LoggerService(new HashMap<>());
-    segmentationManager = new SegmentationManager(loggerService, true);
+    segmentationManager = new SegmentationManager(loggerService);
     
-    // Create mock objects for setContextualData parameters
+    // Create mock objects for createEvaluator parameters
     SettingsManager settingsManager = mock(SettingsManager.class);
     BatchEventQueue batchEventQueue = mock(BatchEventQueue.class);
     Settings settings = new Settings();
@@ -63,8 +67,8 @@ public class CombinationTests {
     VWOContext context = new VWOContext();
     context.setId("test-user");
     
-    // Initialize the evaluator by calling setContextualData
-    segmentationManager.setContextualData(serviceContainer, feature, context);
+    // Create the evaluator bound to the test user
+    evaluator = segmentationManager.createEvaluator(serviceContainer, feature, context);
   }
 
   @Test
@@ -587,8 +591,9 @@ public class CombinationTests {
 
 
   private static void _validateAllCases(String dsl, Map<String, Map<String, Object>> customVariables) {
+    CompiledSegment segment = SegmentCompiler.compile(dsl);
     for(Map.Entry<String, Map<String, Object>> entry: customVariables.entrySet()) {
-      boolean isPresegmentValid = segmentationManager.validateSegmentation(dsl, entry.getValue());
+      boolean isPresegmentValid = segmentationManager.validateSegmentation(evaluator, segment, entry.getValue());
       assertEquals(isPresegmentValid, entry.getValue().get("expectation"));
     }
   }
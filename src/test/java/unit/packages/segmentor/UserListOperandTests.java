@@ -0,0 +1,123 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package unit.packages.segmentor;
+
+import com.vwo.VWO;
+import com.vwo.models.user.VWOInitOptions;
+import com.wingify.packages.segmentation_evaluator.core.SegmentCompiler;
+import com.wingify.packages.segmentation_evaluator.core.SegmentationManager;
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+import com.wingify.services.CampaignDecisionService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import com.wingify.services.LoggerService;
+import com.wingify.ServiceContainer;
+import com.wingify.models.Feature;
+import com.vwo.models.user.VWOContext;
+import com.wingify.models.Settings;
+import com.wingify.services.SettingsManager;
+import com.wingify.services.BatchEventQueue;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class UserListOperandTests {
+
+  private static final String SDK_KEY = "abcd";
+  private static final int ACCOUNT_ID = 1234;
+
+  private static SegmentationManager segmentationManager;
+  private static SegmentEvaluator evaluator;
+
+  @BeforeAll
+  public static void initialize(){
+    VWOInitOptions vwoInitOptions = new VWOInitOptions();
+    vwoInitOptions.setSdkKey(SDK_KEY);
+    vwoInitOptions.setAccountId(ACCOUNT_ID);
+    VWO instance = VWO.init(vwoInitOptions);
+
+    LoggerService loggerService = new LoggerService(new HashMap<>());
+    segmentationManager = new SegmentationManager(loggerService);
+    
+    // Create mock objects for createEvaluator parameters
+    SettingsManager settingsManager = mock(SettingsManager.class);
+    BatchEventQueue batchEventQueue = mock(BatchEventQueue.class);
+    Settings settings = new Settings();
+    
+    ServiceContainer serviceContainer = new ServiceContainer("test-user", loggerService, settingsManager, vwoInitOptions, batchEventQueue, settings);
+    
+    Feature feature = new Feature();
+    feature.setIsGatewayServiceRequired(false);
+    
+    VWOContext context = new VWOContext();
+    context.setId("test-user");
+    
+    // Create the evaluator bound to the test user
+    evaluator = segmentationManager.createEvaluator(serviceContainer, feature, context);
+  }
+
+  @Test
+  public void userInListTest() {
+    String dsl = "{\"or\":[{\"user\":\"user_1, user_2 ,user_3\"}]}";
+    Map<String, Object> customVariables = new HashMap<String, Object>() {{
+      put("_vwoUserId", "user_2");
+      put("expectation", true);
+    }};
+
+    verifyExpectation(dsl, customVariables);
+  }
+
+  @Test
+  public void userNotInListTest() {
+    String dsl = "{\"or\":[{\"user\":\"user_1,user_2,user_3\"}]}";
+    Map<String, Object> customVariables = new HashMap<String, Object>() {{
+      put("_vwoUserId", "user_4");
+      put("expectation", false);
+    }};
+
+    verifyExpectation(dsl, customVariables);
+  }
+
+  @Test
+  public void userIdMissingTest() {
+    String dsl = "{\"or\":[{\"user\":\"user_1,user_2,user_3\"}]}";
+    Map<String, Object> customVariables = new HashMap<String, Object>() {{
+      put("expectation", false);
+    }};
+
+    verifyExpectation(dsl, customVariables);
+  }
+
+  @Test
+  public void notUserInListTest() {
+    String dsl = "{\"not\":{\"user\":\"user_1,user_2,user_3\"}}";
+    Map<String, Object> customVariables = new HashMap<String, Object>() {{
+      put("_vwoUserId", "user_3");
+      put("expectation", false);
+    }};
+
+    verifyExpectation(dsl, customVariables);
+  }
+
+  public static void verifyExpectation(String dsl, Map<String, Object> customVariables) {
+    Assertions.assertEquals(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile(dsl), customVariables), customVariables.get("expectation"));
+  }
+}
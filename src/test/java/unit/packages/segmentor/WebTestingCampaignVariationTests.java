@@ -22,7 +22,9 @@ import com.wingify.models.Feature;
 import com.wingify.models.Settings;
 import com.wingify.models.user.WingifyUserContext;
 import com.wingify.models.user.WingifyInitOptions;
+import com.wingify.packages.segmentation_evaluator.core.SegmentCompiler;
 import com.wingify.packages.segmentation_evaluator.core.SegmentationManager;
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
 import com.wingify.packages.segmentation_evaluator.utils.WebTestingSegmentUtil;
 import com.wingify.services.BatchEventQueue;
 import com.wingify.services.LoggerService;
@@ -41,6 +43,7 @@ public class WebTestingCampaignVariationTests {
     private static final String SDK_KEY = "abcd";
     private static final int ACCOUNT_ID = 1234;
     private static SegmentationManager segmentationManager;
+    private static SegmentEvaluator evaluator;
     private static WingifyUserContext context;
 
     @BeforeAll
@@ -51,7 +54,7 @@ public class WebTestingCampaignVariationTests {
         Wingify.init(wingifyInitOptions);
 
         LoggerService loggerService = new LoggerService(new HashMap<>());
-        segmentationManager = new SegmentationManager(loggerService, true);
+        segmentationManager = new SegmentationManager(loggerService);
 
         SettingsManager settingsManager = mock(SettingsManager.class);
         BatchEventQueue batchEventQueue = mock(BatchEventQueue.class);
@@ -65,7 +68,7 @@ public class WebTestingCampaignVariationTests {
         context = new WingifyUserContext();
         context.setId("test-user");
 
-        segmentationManager.setContextualData(serviceContainer, feature, context);
+        evaluator = segmentationManager.createEvaluator(serviceContainer, feature, context);
     }
 
 
@@ -116,48 +119,48 @@ public class WebTestingCampaignVariationTests {
     public void segmentEvaluatorCampaignVariationWithJsonStringWebTestingCampaigns() {
         context.setPlatformVariables(Collections.singletonMap("webTestingCampaigns", "{\"1\":\"1\"}"));
         String dsl = "{\"or\":[{\"campaignVariation\":\"1_1\"}]}";
-        Assertions.assertTrue(segmentationManager.validateSegmentation(dsl, new HashMap<>()));
+        Assertions.assertTrue(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile(dsl), new HashMap<>()));
     }
 
     @Test
     public void segmentEvaluatorCampaignVariationWithObjectWebTestingCampaigns() {
         context.setPlatformVariables(Collections.singletonMap("webTestingCampaigns", Collections.singletonMap("1", 1)));
         String dsl = "{\"or\":[{\"campaignVariation\":\"1_1\"}]}";
-        Assertions.assertTrue(segmentationManager.validateSegmentation(dsl, new HashMap<>()));
+        Assertions.assertTrue(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile(dsl), new HashMap<>()));
     }
 
     @Test
     public void segmentEvaluatorCampaignVariationNotInCampaign() {
         context.setPlatformVariables(Collections.singletonMap("webTestingCampaigns", "{}"));
         String dsl = "{\"or\":[{\"campaignVariation\":\"!1\"}]}";
-        Assertions.assertTrue(segmentationManager.validateSegmentation(dsl, new HashMap<>()));
+        Assertions.assertTrue(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile(dsl), new HashMap<>()));
     }
 
     @Test
     public void segmentEvaluatorCampaignVariationWithNestedNot() {
         context.setPlatformVariables(Collections.singletonMap("webTestingCampaigns", "{\"1\":\"1\"}"));
         String dsl = "{\"not\":{\"campaignVariation\":\"1_1\"}}";
-        Assertions.assertFalse(segmentationManager.validateSegmentation(dsl, new HashMap<>()));
+        Assertions.assertFalse(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile(dsl), new HashMap<>()));
     }
 
     @Test
     public void segmentEvaluatorCampaignVariationWithCampaignOnly() {
         context.setPlatformVariables(Collections.singletonMap("webTestingCampaigns", "{\"100\":\"2\"}"));
         String dsl = "{\"or\":[{\"campaignVariation\":\"100\"}]}";
-        Assertions.assertTrue(segmentationManager.validateSegmentation(dsl, new HashMap<>()));
+        Assertions.assertTrue(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile(dsl), new HashMap<>()));
     }
 
     @Test
     public void segmentEvaluatorCampaignVariationOperandTrimmed() {
         context.setPlatformVariables(Collections.singletonMap("webTestingCampaigns", "{\"1\":\"1\"}"));
         String dsl = "{\"or\":[{\"campaignVariation\":\"  1_1  \"}]}";
-        Assertions.assertTrue(segmentationManager.validateSegmentation(dsl, new HashMap<>()));
+        Assertions.assertTrue(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile(dsl), new HashMap<>()));
     }
 
     @Test
     public void segmentEvaluatorCampaignVariationJsonArrayRejected() {
         context.setPlatformVariables(Collections.singletonMap("webTestingCampaigns", "[]"));
         String dsl = "{\"or\":[{\"campaignVariation\":\"1_1\"}]}";
-        Assertions.assertFalse(segmentationManager.validateSegmentation(dsl, new HashMap<>()));
+        Assertions.assertFalse(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile(dsl), new HashMap<>()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,221 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package unit.services;
+
+import com.vwo.models.user.VWOContext;
+import com.vwo.models.user.VWOInitOptions;
+import com.wingify.ServiceContainer;
+import com.wingify.interfaces.networking.NetworkClientInterface;
+import com.wingify.models.Feature;
+import com.wingify.models.Settings;
+import com.wingify.models.user.AttributeListCacheConfig;
+import com.wingify.packages.network_layer.manager.NetworkManager;
+import com.wingify.packages.network_layer.models.RequestModel;
+import com.wingify.packages.network_layer.models.ResponseModel;
+import com.wingify.packages.segmentation_evaluator.core.SegmentCompiler;
+import com.wingify.packages.segmentation_evaluator.core.SegmentationManager;
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentEvaluator;
+import com.wingify.packages.segmentation_evaluator.evaluators.SegmentOperandEvaluator;
+import com.wingify.packages.segmentation_evaluator.nodes.AttributeListNode;
+import com.wingify.services.AttributeListCache;
+import com.wingify.services.BatchEventQueue;
+import com.wingify.services.LoggerService;
+import com.wingify.services.SettingsManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.*;
+
+public class AttributeListCacheTest {
+
+  // attribute values answered by the fake gateway, missing values fail the check
+  private final Map<String, String> answers = new ConcurrentHashMap<>();
+  private final AtomicInteger gatewayCalls = new AtomicInteger();
+  private final Set<Thread> gatewayThreads = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger asyncExecutorUses = new AtomicInteger();
+
+  @AfterEach
+  public void detachGateway() {
+    NetworkManager.getInstance().attachClient();
+  }
+
+  @Test
+  public void memberIsCachedTest() {
+    SegmentOperandEvaluator evaluator = new SegmentOperandEvaluator(createServiceContainer(null));
+    answers.put("member-user", "true");
+
+    Assertions.assertTrue(evaluator.evaluateAttributeList("list1", "member-user"));
+    Assertions.assertTrue(evaluator.evaluateAttributeList("list1", "member-user"));
+    Assertions.assertEquals(1, gatewayCalls.get());
+  }
+
+  @Test
+  public void nonMemberIsCachedTest() {
+    ServiceContainer serviceContainer = createServiceContainer(null);
+    SegmentOperandEvaluator evaluator = new SegmentOperandEvaluator(serviceContainer);
+    answers.put("other-user", "false");
+
+    Assertions.assertFalse(evaluator.evaluateAttributeList("list1", "other-user"));
+    Assertions.assertFalse(evaluator.evaluateAttributeList("list1", "other-user"));
+    Assertions.assertEquals(1, gatewayCalls.get());
+    Assertions.assertEquals(Boolean.FALSE, serviceContainer.getAttributeListCache().get("list1", "other-user"));
+  }
+
+  @Test
+  public void failedCheckIsNotCachedTest() {
+    ServiceContainer serviceContainer = createServiceContainer(null);
+    SegmentOperandEvaluator evaluator = new SegmentOperandEvaluator(serviceContainer);
+
+    Assertions.assertFalse(evaluator.evaluateAttributeList("list1", "failing-user"));
+    Assertions.assertNull(serviceContainer.getAttributeListCache().get("list1", "failing-user"));
+
+    answers.put("failing-user", "true");
+    Assertions.assertTrue(evaluator.evaluateAttributeList("list1", "failing-user"));
+    Assertions.assertEquals(2, gatewayCalls.get());
+  }
+
+  @Test
+  public void prefetchWithBusyPoolTest() throws InterruptedException {
+    ServiceContainer serviceContainer = createServiceContainer(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    try {
+      // the only thread of the prefetch pool is busy, so the pool rejects the prefetch tasks
+      serviceContainer.getAttributeListCache().getPrefetchExecutor().execute(() -> {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+      List<AttributeListNode> attributeListNodes = Arrays.asList(new AttributeListNode("a", "list1"), new AttributeListNode("b", "list2"), new AttributeListNode("c", "list3"));
+
+      new SegmentOperandEvaluator(serviceContainer).prefetchAttributeLists(attributeListNodes, createProperties("busy-user"));
+
+      // the calling thread made the checks the pool rejected
+      Assertions.assertEquals(3, gatewayCalls.get());
+      Assertions.assertEquals(1, gatewayThreads.size());
+      Assertions.assertTrue(gatewayThreads.contains(Thread.currentThread()));
+      assertAllCached(serviceContainer.getAttributeListCache(), "busy-user");
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  public void prefetchDoesNotUseAsyncExecutorTest() {
+    ServiceContainer serviceContainer = createServiceContainer(2);
+    List<AttributeListNode> attributeListNodes = Arrays.asList(new AttributeListNode("a", "list1"), new AttributeListNode("b", "list2"), new AttributeListNode("c", "list3"));
+
+    new SegmentOperandEvaluator(serviceContainer).prefetchAttributeLists(attributeListNodes, createProperties("pooled-user"));
+
+    Assertions.assertEquals(3, gatewayCalls.get());
+    assertAllCached(serviceContainer.getAttributeListCache(), "pooled-user");
+    // the checks ran on the calling thread or the prefetch pool, the executor of the asynchronous APIs is left alone
+    Assertions.assertEquals(0, asyncExecutorUses.get());
+    for (Thread thread : gatewayThreads) {
+      Assertions.assertTrue(thread == Thread.currentThread() || thread.getName().startsWith("wingify-inlist-prefetch-"));
+    }
+  }
+
+  @Test
+  public void prefetchDisabledCreatesNoPoolTest() {
+    Assertions.assertNull(new AttributeListCache(new AttributeListCacheConfig(100, 60, false)).getPrefetchExecutor());
+  }
+
+  @Test
+  public void prefetchWaitsForCheaperSiblingsTest() {
+    ServiceContainer serviceContainer = createServiceContainer(null);
+    SegmentationManager segmentationManager = new SegmentationManager(serviceContainer.getLoggerService());
+    VWOContext context = new VWOContext();
+    context.setId("test-user");
+    SegmentEvaluator evaluator = segmentationManager.createEvaluator(serviceContainer, new Feature(), context);
+    String dsl = "{\"and\":[{\"custom_variable\":{\"a\":\"inlist(list1)\"}},{\"custom_variable\":{\"b\":\"inlist(list2)\"}},{\"custom_variable\":{\"plan\":\"free\"}}]}";
+    Map<String, Object> properties = createProperties("segment-user");
+
+    // the cheaper operand fails first, so no list is checked
+    properties.put("plan", "pro");
+    Assertions.assertFalse(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile(dsl), properties));
+    Assertions.assertEquals(0, gatewayCalls.get());
+
+    // once it passes, the sibling lists are checked together
+    properties.put("plan", "free");
+    Assertions.assertTrue(segmentationManager.validateSegmentation(evaluator, SegmentCompiler.compile(dsl), properties));
+    Assertions.assertEquals(2, gatewayCalls.get());
+  }
+
+  private void assertAllCached(AttributeListCache attributeListCache, String attribute) {
+    for (String listId : Arrays.asList("list1", "list2", "list3")) {
+      Assertions.assertEquals(Boolean.TRUE, attributeListCache.get(listId, attribute));
+    }
+  }
+
+  private Map<String, Object> createProperties(String attribute) {
+    answers.put(attribute, "true");
+    Map<String, Object> properties = new HashMap<>();
+    properties.put("a", attribute);
+    properties.put("b", attribute);
+    properties.put("c", attribute);
+    return properties;
+  }
+
+  private ServiceContainer createServiceContainer(Integer prefetchThreads) {
+    NetworkManager.getInstance().attachClient(new NetworkClientInterface() {
+      @Override
+      public ResponseModel GET(RequestModel request) {
+        gatewayCalls.incrementAndGet();
+        gatewayThreads.add(Thread.currentThread());
+        ResponseModel response = new ResponseModel();
+        response.setData(answers.get(request.getQuery().get("attribute")));
+        return response;
+      }
+
+      @Override
+      public ResponseModel POST(RequestModel request) {
+        return null;
+      }
+    });
+
+    SettingsManager settingsManager = mock(SettingsManager.class);
+    settingsManager.isGatewayServiceProvided = true;
+    settingsManager.hostname = "localhost";
+    settingsManager.protocol = "http";
+    settingsManager.port = 80;
+    VWOInitOptions vwoInitOptions = new VWOInitOptions();
+    vwoInitOptions.setSdkKey("abcd");
+    vwoInitOptions.setAccountId(1234);
+    vwoInitOptions.setAsyncExecutor(task -> {
+      asyncExecutorUses.incrementAndGet();
+      task.run();
+    });
+    vwoInitOptions.setAttributeListCacheConfig(new AttributeListCacheConfig(100, 60, true, prefetchThreads));
+    return new ServiceContainer("test-user", new LoggerService(new HashMap<>()), settingsManager, vwoInitOptions, mock(BatchEventQueue.class), new Settings());
+  }
+}
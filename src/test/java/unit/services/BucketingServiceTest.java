@@ -0,0 +1,129 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package unit.services;
+
+import com.wingify.ServiceContainer;
+import com.wingify.WingifyClient;
+import com.wingify.models.BucketingResult;
+import com.wingify.models.Campaign;
+import com.wingify.models.Settings;
+import com.wingify.models.Variation;
+import com.wingify.models.user.WingifyInitOptions;
+import com.wingify.models.user.WingifyUserContext;
+import com.wingify.services.BatchEventQueue;
+import com.wingify.services.BucketingService;
+import com.wingify.services.CampaignDecisionService;
+import com.wingify.services.LoggerService;
+import com.wingify.services.SettingsManager;
+import com.wingify.utils.SettingsUtil;
+import data.DummySettingsReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.mock;
+
+public class BucketingServiceTest {
+
+  private static final int ACCOUNT_ID = 12345;
+
+  private Settings settings;
+  private LoggerService loggerService;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    String settingsJson = new DummySettingsReader().settingsMap.get("BASIC_ROLLOUT_TESTING_RULE_SETTINGS");
+    settings = WingifyClient.objectMapper.readValue(settingsJson, Settings.class);
+    // partial traffic, so that users fall both in and out of each rule
+    settings.getCampaigns().get(0).getVariations().get(0).setWeight(40);
+    settings.getCampaigns().get(1).setPercentTraffic(80);
+    loggerService = new LoggerService(new HashMap<>());
+    SettingsUtil.processSettings(settings, loggerService);
+  }
+
+  @Test
+  public void matchesVariationAllottedPerUserTest() {
+    List<String> userIds = createUserIds(1000);
+    BucketingService bucketingService = new BucketingService(settings, String.valueOf(ACCOUNT_ID), loggerService);
+    List<BucketingResult> results = bucketingService.assign("feature1", userIds, 64).collect(Collectors.toList());
+
+    WingifyInitOptions options = new WingifyInitOptions();
+    options.setSdkKey("abcdef");
+    options.setAccountId(ACCOUNT_ID);
+    List<Campaign> rules = settings.getFeatures().get(0).getRulesLinkedCampaign();
+    CampaignDecisionService campaignDecisionService = new CampaignDecisionService();
+    int bucketed = 0;
+    for (BucketingResult result : results) {
+      Assertions.assertEquals(rules.size(), result.getRuleCount());
+      for (int userIndex = 0; userIndex < result.size(); userIndex++) {
+        String userId = result.getUserId(userIndex);
+        Assertions.assertEquals(userIds.get((int) result.getOffset() + userIndex), userId);
+        WingifyUserContext context = new WingifyUserContext();
+        context.setId(userId);
+        ServiceContainer serviceContainer = new ServiceContainer(userId, loggerService, mock(SettingsManager.class), options, mock(BatchEventQueue.class), settings);
+        for (int ruleIndex = 0; ruleIndex < rules.size(); ruleIndex++) {
+          Campaign rule = rules.get(ruleIndex);
+          Assertions.assertEquals(rule.getId().intValue(), result.getCampaignId(ruleIndex));
+          Variation expected = campaignDecisionService.getVariationAllotted(context, String.valueOf(ACCOUNT_ID), rule, serviceContainer);
+          int expectedId = expected != null ? expected.getId() : BucketingResult.NOT_BUCKETED;
+          Assertions.assertEquals(expectedId, result.getVariationId(ruleIndex, userIndex));
+          if (expected != null) {
+            bucketed++;
+          }
+        }
+      }
+    }
+    Assertions.assertTrue(bucketed > 0 && bucketed < 2 * userIds.size());
+  }
+
+  @Test
+  public void readsUsersInOrderedChunksTest() {
+    List<String> userIds = createUserIds(23);
+    BucketingService bucketingService = new BucketingService(settings, String.valueOf(ACCOUNT_ID), loggerService);
+    List<BucketingResult> results = bucketingService.assign("feature1", userIds, 5).collect(Collectors.toList());
+
+    Assertions.assertEquals(5, results.size());
+    List<String> assigned = new ArrayList<>();
+    for (BucketingResult result : results) {
+      Assertions.assertEquals(assigned.size(), result.getOffset());
+      for (int userIndex = 0; userIndex < result.size(); userIndex++) {
+        assigned.add(result.getUserId(userIndex));
+      }
+    }
+    Assertions.assertEquals(userIds, assigned);
+    Assertions.assertEquals(3, results.get(4).size());
+  }
+
+  @Test
+  public void returnsEmptyStreamForUnknownFeatureTest() {
+    BucketingService bucketingService = new BucketingService(settings, String.valueOf(ACCOUNT_ID), loggerService);
+    Assertions.assertEquals(0, bucketingService.assign("unknownFeature", createUserIds(10)).count());
+  }
+
+  private static List<String> createUserIds(int count) {
+    List<String> userIds = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      userIds.add("user-" + i);
+    }
+    return userIds;
+  }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package unit.services;
+
+import com.wingify.models.user.GatewayService;
+import com.wingify.models.user.WingifyUserContext;
+import com.wingify.services.DecisionCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class DecisionCacheTest {
+
+  @Test
+  public void keyIncludesGatewayDataTest() {
+    WingifyUserContext inIndia = createContext(Collections.singletonMap("country", "IN"));
+    WingifyUserContext inUs = createContext(Collections.singletonMap("country", "US"));
+    WingifyUserContext withoutData = createContext(null);
+
+    Assertions.assertEquals(DecisionCache.createKey(1, "feature1", inIndia), DecisionCache.createKey(1, "feature1", createContext(Collections.singletonMap("country", "IN"))));
+    Assertions.assertNotEquals(DecisionCache.createKey(1, "feature1", inIndia), DecisionCache.createKey(1, "feature1", inUs));
+    Assertions.assertNotEquals(DecisionCache.createKey(1, "feature1", inIndia), DecisionCache.createKey(1, "feature1", withoutData));
+  }
+
+  @Test
+  public void keyIsNotChangedByLaterContextChangesTest() {
+    Map<String, String> location = new HashMap<>();
+    location.put("country", "IN");
+    WingifyUserContext context = createContext(location);
+    DecisionCache.Key key = DecisionCache.createKey(1, "feature1", context);
+
+    location.put("country", "US");
+    Map<String, Object> customVariables = new HashMap<>();
+    customVariables.put("plan", "free");
+    context.setCustomVariables(customVariables);
+
+    Assertions.assertEquals(key, DecisionCache.createKey(1, "feature1", createContext(Collections.singletonMap("country", "IN"))));
+  }
+
+  private static WingifyUserContext createContext(Map<String, String> location) {
+    WingifyUserContext context = new WingifyUserContext();
+    context.setId("user1");
+    Map<String, Object> customVariables = new HashMap<>();
+    customVariables.put("plan", "pro");
+    context.setCustomVariables(customVariables);
+    if (location != null) {
+      GatewayService gatewayData = new GatewayService();
+      gatewayData.setLocation(location);
+      context.setWingify(gatewayData);
+    }
+    return context;
+  }
+}
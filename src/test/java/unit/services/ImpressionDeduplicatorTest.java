@@ -0,0 +1,139 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package unit.services;
+
+import com.vwo.models.user.VWOInitOptions;
+import com.wingify.ServiceContainer;
+import com.wingify.models.Settings;
+import com.wingify.models.request.Event;
+import com.wingify.models.request.EventArchData;
+import com.wingify.models.request.EventArchPayload;
+import com.wingify.models.request.Props;
+import com.wingify.models.user.ImpressionDedupConfig;
+import com.wingify.services.BatchEventQueue;
+import com.wingify.services.ImpressionDeduplicator;
+import com.wingify.services.LoggerService;
+import com.wingify.services.SettingsManager;
+import com.wingify.utils.ImpressionUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class ImpressionDeduplicatorTest {
+
+  @Test
+  public void duplicateWithinWindowTest() {
+    ImpressionDeduplicator impressionDeduplicator = new ImpressionDeduplicator(new ImpressionDedupConfig(100, 60));
+
+    Assertions.assertTrue(impressionDeduplicator.shouldSend("uuid1", 1, 1));
+    Assertions.assertFalse(impressionDeduplicator.shouldSend("uuid1", 1, 1));
+    Assertions.assertTrue(impressionDeduplicator.shouldSend("uuid1", 1, 2));
+    Assertions.assertTrue(impressionDeduplicator.shouldSend("uuid1", 2, 1));
+    Assertions.assertTrue(impressionDeduplicator.shouldSend("uuid2", 1, 1));
+  }
+
+  @Test
+  public void sentAgainAfterWindowTest() throws InterruptedException {
+    ImpressionDeduplicator impressionDeduplicator = new ImpressionDeduplicator(new ImpressionDedupConfig(100, 1));
+
+    Assertions.assertTrue(impressionDeduplicator.shouldSend("uuid1", 1, 1));
+    Assertions.assertFalse(impressionDeduplicator.shouldSend("uuid1", 1, 1));
+    Thread.sleep(1100);
+    Assertions.assertTrue(impressionDeduplicator.shouldSend("uuid1", 1, 1));
+  }
+
+  @Test
+  public void sizeBoundEvictsOldestTest() {
+    ImpressionDeduplicator impressionDeduplicator = new ImpressionDeduplicator(new ImpressionDedupConfig(2, 60));
+
+    Assertions.assertTrue(impressionDeduplicator.shouldSend("uuid1", 1, 1));
+    Assertions.assertTrue(impressionDeduplicator.shouldSend("uuid2", 1, 1));
+    Assertions.assertTrue(impressionDeduplicator.shouldSend("uuid3", 1, 1));
+    // the oldest impression was evicted to stay within the size limit
+    Assertions.assertTrue(impressionDeduplicator.shouldSend("uuid1", 1, 1));
+    Assertions.assertFalse(impressionDeduplicator.shouldSend("uuid3", 1, 1));
+  }
+
+  @Test
+  public void releasedImpressionIsSentAgainTest() {
+    ImpressionDeduplicator impressionDeduplicator = new ImpressionDeduplicator(new ImpressionDedupConfig(100, 60));
+
+    Assertions.assertTrue(impressionDeduplicator.shouldSend("uuid1", 1, 1));
+    impressionDeduplicator.release("uuid1", 1, 1);
+    Assertions.assertTrue(impressionDeduplicator.shouldSend("uuid1", 1, 1));
+    Assertions.assertFalse(impressionDeduplicator.shouldSend("uuid1", 1, 1));
+  }
+
+  @Test
+  public void batchPathDropsDuplicatesTest() {
+    BatchEventQueue batchEventQueue = mock(BatchEventQueue.class);
+    ServiceContainer serviceContainer = createServiceContainer(batchEventQueue);
+    List<EventArchPayload> payloads = Arrays.asList(createPayload(1, 1), createPayload(2, 1));
+
+    ImpressionUtil.sendImpressionForVariationShownInBatch(payloads, serviceContainer);
+    verify(batchEventQueue, times(2)).enqueue(any(EventArchPayload.class));
+
+    ImpressionUtil.sendImpressionForVariationShownInBatch(payloads, serviceContainer);
+    verify(batchEventQueue, times(2)).enqueue(any(EventArchPayload.class));
+
+    ImpressionUtil.sendImpressionForVariationShownInBatch(Arrays.asList(createPayload(1, 1), createPayload(2, 2)), serviceContainer);
+    verify(batchEventQueue, times(3)).enqueue(any(EventArchPayload.class));
+  }
+
+  @Test
+  public void batchPathRetriesFailedEnqueueTest() {
+    BatchEventQueue batchEventQueue = mock(BatchEventQueue.class);
+    doThrow(new IllegalStateException("queue failure")).doNothing().when(batchEventQueue).enqueue(any(EventArchPayload.class));
+    ServiceContainer serviceContainer = createServiceContainer(batchEventQueue);
+    List<EventArchPayload> payloads = Collections.singletonList(createPayload(1, 1));
+
+    Assertions.assertThrows(IllegalStateException.class, () -> ImpressionUtil.sendImpressionForVariationShownInBatch(payloads, serviceContainer));
+    // the failed impression is not treated as sent, so the retry is queued
+    ImpressionUtil.sendImpressionForVariationShownInBatch(payloads, serviceContainer);
+    verify(batchEventQueue, times(2)).enqueue(any(EventArchPayload.class));
+
+    ImpressionUtil.sendImpressionForVariationShownInBatch(payloads, serviceContainer);
+    verify(batchEventQueue, times(2)).enqueue(any(EventArchPayload.class));
+  }
+
+  private static ServiceContainer createServiceContainer(BatchEventQueue batchEventQueue) {
+    VWOInitOptions vwoInitOptions = new VWOInitOptions();
+    vwoInitOptions.setSdkKey("abcd");
+    vwoInitOptions.setAccountId(1234);
+    vwoInitOptions.setImpressionDedupConfig(new ImpressionDedupConfig(100, 60));
+    return new ServiceContainer("test-user", new LoggerService(new HashMap<>()), mock(SettingsManager.class), vwoInitOptions, batchEventQueue, new Settings());
+  }
+
+  private static EventArchPayload createPayload(int campaignId, int variationId) {
+    Props props = new Props();
+    props.setId(campaignId);
+    props.setVariation(String.valueOf(variationId));
+    Event event = new Event();
+    event.setProps(props);
+    EventArchData eventArchData = new EventArchData();
+    eventArchData.setEvent(event);
+    EventArchPayload payload = new EventArchPayload();
+    payload.setD(eventArchData);
+    return payload;
+  }
+}
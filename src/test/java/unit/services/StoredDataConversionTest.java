@@ -0,0 +1,146 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package unit.services;
+
+import com.wingify.WingifyClient;
+import com.wingify.models.Storage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class StoredDataConversionTest {
+
+  @Test
+  public void convertsIntegerIdsTest() throws Exception {
+    Map<String, Object> data = createRecord();
+    data.put("rolloutId", 1);
+    data.put("rolloutVariationId", 2);
+    data.put("experimentId", 3);
+    data.put("experimentVariationId", 4);
+
+    Storage storage = assertSameAsRoundTrip(data);
+    Assertions.assertEquals(Integer.valueOf(1), storage.getRolloutId());
+    Assertions.assertEquals(Integer.valueOf(4), storage.getExperimentVariationId());
+  }
+
+  @Test
+  public void convertsLongAndDoubleIdsTest() throws Exception {
+    Map<String, Object> data = createRecord();
+    data.put("rolloutId", 10L);
+    data.put("rolloutVariationId", 2.0);
+    data.put("experimentId", 30L);
+    data.put("experimentVariationId", 4.7);
+
+    Storage storage = assertSameAsRoundTrip(data);
+    Assertions.assertEquals(Integer.valueOf(10), storage.getRolloutId());
+    Assertions.assertEquals(Integer.valueOf(2), storage.getRolloutVariationId());
+    Assertions.assertEquals(Integer.valueOf(4), storage.getExperimentVariationId());
+  }
+
+  @Test
+  public void convertsNumericStringIdsTest() throws Exception {
+    Map<String, Object> data = createRecord();
+    data.put("rolloutId", "10");
+    data.put("rolloutVariationId", "2");
+    data.put("experimentId", "");
+    data.put("experimentVariationId", "");
+
+    Storage storage = assertSameAsRoundTrip(data);
+    Assertions.assertEquals(Integer.valueOf(10), storage.getRolloutId());
+    Assertions.assertNull(storage.getExperimentId());
+  }
+
+  @Test
+  public void convertsScalarKeysToStringsTest() throws Exception {
+    Map<String, Object> data = createRecord();
+    data.put("user", 42);
+    data.put("rolloutKey", "");
+    data.put("experimentKey", true);
+
+    Storage storage = assertSameAsRoundTrip(data);
+    Assertions.assertEquals("42", storage.getUser());
+    Assertions.assertEquals("true", storage.getExperimentKey());
+  }
+
+  @Test
+  public void convertsHoldoutListsTest() throws Exception {
+    Map<String, Object> data = createRecord();
+    data.put("isInHoldoutId", Arrays.asList(1, 2L, "3", 4.0));
+    data.put("notInHoldoutId", Collections.emptyList());
+
+    Storage storage = assertSameAsRoundTrip(data);
+    Assertions.assertEquals(Arrays.asList(1, 2, 3, 4), storage.getIsInHoldoutId());
+    Assertions.assertEquals(Collections.emptyList(), storage.getNotInHoldoutId());
+  }
+
+  @Test
+  public void rejectsInvalidTypesTest() {
+    assertRejected("rolloutId", "abc");
+    assertRejected("rolloutId", new HashMap<>());
+    assertRejected("rolloutId", Long.MAX_VALUE);
+    assertRejected("experimentId", 1e20);
+    assertRejected("experimentId", "99999999999");
+    assertRejected("experimentVariationId", Arrays.asList(1, 2));
+    assertRejected("rolloutKey", new HashMap<>());
+    assertRejected("isInHoldoutId", 5);
+    assertRejected("notInHoldoutId", Arrays.asList("abc"));
+  }
+
+  @Test
+  public void ignoresUnknownKeysAndNullRecordTest() throws Exception {
+    Map<String, Object> data = createRecord();
+    data.put("unknownKey", Collections.singletonMap("a", 1));
+
+    assertSameAsRoundTrip(data);
+    Assertions.assertNull(Storage.fromMap(null));
+  }
+
+  private static Map<String, Object> createRecord() {
+    Map<String, Object> data = new HashMap<>();
+    data.put("featureKey", "feature1");
+    data.put("user", "user1");
+    data.put("rolloutKey", "rolloutRule1");
+    data.put("experimentKey", "testingRule1");
+    return data;
+  }
+
+  /**
+   * Converts the record with fromMap and with the JSON round trip previously used, and compares every field.
+   */
+  private static Storage assertSameAsRoundTrip(Map<String, Object> data) throws Exception {
+    Storage expected = roundTrip(data);
+    Storage actual = Storage.fromMap(data);
+    Assertions.assertEquals(WingifyClient.objectMapper.writeValueAsString(expected), WingifyClient.objectMapper.writeValueAsString(actual));
+    return actual;
+  }
+
+  private static void assertRejected(String key, Object value) {
+    Map<String, Object> data = createRecord();
+    data.put(key, value);
+    Assertions.assertThrows(Exception.class, () -> roundTrip(data));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> Storage.fromMap(data));
+  }
+
+  private static Storage roundTrip(Map<String, Object> data) throws Exception {
+    String json = WingifyClient.objectMapper.writeValueAsString(data);
+    return WingifyClient.objectMapper.readValue(json, Storage.class);
+  }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package unit.services;
+
+import com.wingify.models.user.GatewayService;
+import com.wingify.models.user.UserDataCacheConfig;
+import com.wingify.services.UserDataCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public class UserDataCacheTest {
+
+  private static final String USER_AGENT = "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7)";
+
+  @Test
+  public void cachesUserAgentAndLocationSeparatelyTest() {
+    UserDataCache userDataCache = new UserDataCache(new UserDataCacheConfig());
+    List<Map<String, String>> lookups = new ArrayList<>();
+    Function<Map<String, String>, GatewayService> fetcher = queryParams -> {
+      lookups.add(queryParams);
+      GatewayService userData = new GatewayService();
+      if (queryParams.containsKey("userAgent")) {
+        userData.setUserAgent(Collections.singletonMap("os", "Mac OS"));
+      }
+      if (queryParams.containsKey("ipAddress")) {
+        userData.setLocation(Collections.singletonMap("country", "IN"));
+      }
+      return userData;
+    };
+
+    GatewayService first = userDataCache.get(USER_AGENT, "1.1.1.1", fetcher);
+    GatewayService second = userDataCache.get(USER_AGENT, "1.1.1.1", fetcher);
+    GatewayService third = userDataCache.get(USER_AGENT, "2.2.2.2", fetcher);
+
+    Assertions.assertEquals(2, lookups.size());
+    Assertions.assertEquals(new HashMap<String, String>() {{
+      put("userAgent", USER_AGENT);
+      put("ipAddress", "1.1.1.1");
+    }}, lookups.get(0));
+    Assertions.assertEquals(Collections.singletonMap("ipAddress", "2.2.2.2"), lookups.get(1));
+    Assertions.assertEquals("Mac OS", first.getUserAgent().get("os"));
+    Assertions.assertEquals("IN", second.getLocation().get("country"));
+    Assertions.assertEquals("Mac OS", third.getUserAgent().get("os"));
+  }
+
+  @Test
+  public void failedLookupIsNotCachedTest() {
+    UserDataCache userDataCache = new UserDataCache(new UserDataCacheConfig());
+    List<Map<String, String>> lookups = new ArrayList<>();
+
+    Assertions.assertThrows(IllegalStateException.class, () -> userDataCache.get(USER_AGENT, null, queryParams -> {
+      lookups.add(queryParams);
+      throw new IllegalStateException("gateway unavailable");
+    }));
+    GatewayService userData = userDataCache.get(USER_AGENT, null, queryParams -> {
+      lookups.add(queryParams);
+      return new GatewayService();
+    });
+
+    Assertions.assertEquals(2, lookups.size());
+    Assertions.assertNull(userData.getUserAgent());
+    Assertions.assertNull(userData.getLocation());
+  }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2024-2026 Wingify Software Pvt. Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package unit.utils;
+
+import com.wingify.utils.UUIDUtils;
+import com.wingify.utils.UserUuidGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+public class UUIDUtilsTest {
+
+  private static final UUID DNS_NAMESPACE = UUID.fromString("6ba7b810-9dad-11d1-80b4-00c04fd430c8");
+
+  // expected UUIDs computed with the previous Guava based derivation
+  private static final String[][] USER_UUIDS = {
+      {"user1", "123456", "7F207F9BE55F5290B563601A50D6357F"},
+      {"", "123456", "3E8E67EE2BCA5770A6B908F274D7A31A"},
+      {"josé", "999", "F86408D1256E5CEC9BBFF1BB1E681341"},
+      {"用户", "999", "C93611CAFF8B5791B0EE80812B2B5394"},
+      {null, null, "57DC2175BB9A5455A75D02FADE4983D7"}
+  };
+
+  @Test
+  public void getUUIDFixedVectorsTest() {
+    for (String[] vector : USER_UUIDS) {
+      Assertions.assertEquals(vector[2], UUIDUtils.getUUID(vector[0], vector[1]));
+      // the namespace of the account is memoized, the second call gives the same UUID
+      Assertions.assertEquals(vector[2], UUIDUtils.getUUID(vector[0], vector[1]));
+    }
+  }
+
+  @Test
+  public void getRandomUUIDDerivationTest() {
+    UUID namespace = UUIDUtils.generateUUID("abcd", DNS_NAMESPACE);
+    Assertions.assertEquals("73ee125b-19ac-549c-9f5d-9dc9c198112b", namespace.toString());
+    Assertions.assertEquals("1a36925a-a6b1-5012-93ed-146a749ac7a2", UUIDUtils.generateUUID("0f8fad5b-d9cb-469f-a165-70867728950e", namespace).toString());
+
+    UUID randomUUID = UUID.fromString(UUIDUtils.getRandomUUID("abcd"));
+    Assertions.assertEquals(5, randomUUID.version());
+    Assertions.assertEquals(2, randomUUID.variant());
+    Assertions.assertNotEquals(randomUUID.toString(), UUIDUtils.getRandomUUID("abcd"));
+  }
+
+  @Test
+  public void userUuidGeneratorMatchesUUIDUtilsTest() {
+    UserUuidGenerator uncached = new UserUuidGenerator("123456", null);
+    UserUuidGenerator cached = new UserUuidGenerator("123456", 1);
+
+    for (int i = 0; i < 2; i++) {
+      Assertions.assertEquals(USER_UUIDS[0][2], uncached.getUUID("user1"));
+      Assertions.assertEquals(USER_UUIDS[0][2], cached.getUUID("user1"));
+      Assertions.assertEquals(USER_UUIDS[1][2], cached.getUUID(""));
+      Assertions.assertEquals(USER_UUIDS[1][2], cached.getUUID(null));
+    }
+  }
+
+  @Test
+  public void userUuidGeneratorOtherAccountTest() {
+    UserUuidGenerator generator = new UserUuidGenerator("123456", 10);
+
+    Assertions.assertEquals(USER_UUIDS[0][2], generator.getUUID("user1", "123456"));
+    Assertions.assertEquals(USER_UUIDS[2][2], generator.getUUID("josé", "999"));
+    Assertions.assertEquals(UUIDUtils.getUUID("user1", "999"), generator.getUUID("user1", "999"));
+  }
+}